@@ -0,0 +1,81 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.model.EntityStore;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Compares ID lookups and ordered iteration of the {@link EntityStore} with the
+ * {@code TreeMap<Integer, ...>} it replaced in the flight booking system.
+ * <pre>
+ *   java bcu.cmp5332.bookingsystem.benchmark.EntityStoreBenchmark [entities] [iterations]
+ * </pre>
+ * Defaults to 1,000,000 entities with sequential IDs and 5 measured iterations after
+ * 3 warm-up passes. Lookups are made in a random order, as they are by ID commands.
+ */
+public class EntityStoreBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 3;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int entities = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        Map<Integer, Object> treeMap = new TreeMap<>();
+        EntityStore<Object> store = new EntityStore<>();
+        for (int id = 1; id <= entities; id++) {
+            Object entity = new Object();
+            treeMap.put(id, entity);
+            store.put(id, entity);
+        }
+        int[] ids = new int[entities];
+        for (int i = 0; i < entities; i++) {
+            ids[i] = i + 1;
+        }
+        Random random = new Random(42);
+        for (int i = entities - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+
+        measure("TreeMap lookup", entities, iterations, () -> {
+            for (int id : ids) {
+                sink += treeMap.get(id).hashCode() & 1;
+            }
+        });
+        measure("EntityStore lookup", entities, iterations, () -> {
+            for (int id : ids) {
+                sink += store.get(id).hashCode() & 1;
+            }
+        });
+        measure("TreeMap iteration", entities, iterations, () -> {
+            for (Object entity : treeMap.values()) {
+                sink += entity.hashCode() & 1;
+            }
+        });
+        measure("EntityStore iteration", entities, iterations, () -> {
+            for (Object entity : store) {
+                sink += entity.hashCode() & 1;
+            }
+        });
+    }
+
+    private static void measure(String name, int entities, int iterations, Runnable pass) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            pass.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            pass.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-22s best %,8d us, %6.1f ns/entity%n", name, best / 1_000, (double) best / entities);
+    }
+}
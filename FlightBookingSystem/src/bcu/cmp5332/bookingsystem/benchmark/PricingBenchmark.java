@@ -0,0 +1,122 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightType;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the time and heap allocation of quoting every class of every flight, as
+ * {@code listflights} does, with {@link Flight#getDynamicPrice} against the
+ * {@link BigDecimal} calculation it replaced.
+ * <pre>
+ *   java bcu.cmp5332.bookingsystem.benchmark.PricingBenchmark [flights] [iterations]
+ * </pre>
+ * Defaults to 100,000 commercial flights, departing over the next 60 days with random
+ * occupancy, and 5 measured iterations after 3 warm-up passes.
+ */
+public class PricingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final CommercialClassType[] CLASS_TYPES = CommercialClassType.values();
+
+    private static long sink;
+
+    public static void main(String[] args) throws FlightBookingSystemException {
+        int flightCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        LocalDate today = LocalDate.now();
+        Random random = new Random(42);
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 1; i <= flightCount; i++) {
+            Flight flight = new Flight(i, "SY" + i, "LHR", "CDG", today.plusDays(i % 60),
+                    BigDecimal.valueOf(4999 + i % 10_000, 2), 200, FlightType.COMMERCIAL, null);
+            for (CommercialClassType classType : CLASS_TYPES) {
+                int taken = random.nextInt(flight.getCapacityForClass(classType) + 1);
+                for (int seat = 0; seat < taken; seat++) {
+                    flight.reserveSeat(classType);
+                }
+            }
+            flights.add(flight);
+        }
+
+        measure("BigDecimal", flights, today, iterations, PricingBenchmark::bigDecimalPrice);
+        measure("getDynamicPrice", flights, today, iterations, Flight::getDynamicPrice);
+    }
+
+    private static void measure(String name, List<Flight> flights, LocalDate today, int iterations, Quote quote)
+            throws FlightBookingSystemException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            quoteAll(flights, today, quote);
+        }
+        long quotes = (long) flights.size() * CLASS_TYPES.length;
+        long best = Long.MAX_VALUE;
+        long bytes = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            quoteAll(flights, today, quote);
+            best = Math.min(best, System.nanoTime() - start);
+            bytes = Math.min(bytes, allocatedBytes() - allocatedBefore);
+        }
+        System.out.printf("%-15s best %,6d ns/quote, %,5d bytes/quote%n", name,
+                best / quotes, (bytes < 0) ? -1 : bytes / quotes);
+    }
+
+    private static void quoteAll(List<Flight> flights, LocalDate today, Quote quote) throws FlightBookingSystemException {
+        for (Flight flight : flights) {
+            for (CommercialClassType classType : CLASS_TYPES) {
+                sink += quote.price(flight, classType, today).unscaledValue().intValue() & 1;
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /**
+     * The pricing of {@link Flight#getDynamicPrice} before the fixed-point tables.
+     */
+    private static BigDecimal bigDecimalPrice(Flight flight, CommercialClassType classType, LocalDate systemDate)
+            throws FlightBookingSystemException {
+        BigDecimal dynamicPrice = flight.getPriceForClass(classType);
+        long daysLeft = ChronoUnit.DAYS.between(systemDate, flight.getDepartureDate());
+        if (daysLeft <= 7) {
+            dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.5"));
+        } else if (daysLeft <= 30) {
+            dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.2"));
+        }
+
+        int remainingSeats = flight.getRemainingSeatsForClass(classType);
+        int classTotalCapacity = flight.getCapacityForClass(classType);
+        if (classTotalCapacity > 0) {
+            double occupancyRate = (double) (classTotalCapacity - remainingSeats) / classTotalCapacity;
+            if (occupancyRate > 0.8) {
+                dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.3"));
+            } else if (occupancyRate > 0.6) {
+                dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.1"));
+            }
+        }
+        return dynamicPrice.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private interface Quote {
+        BigDecimal price(Flight flight, CommercialClassType classType, LocalDate systemDate)
+                throws FlightBookingSystemException;
+    }
+}
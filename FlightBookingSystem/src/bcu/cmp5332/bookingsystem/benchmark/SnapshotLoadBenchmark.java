@@ -0,0 +1,115 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.BinaryBookingDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryCustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryFlightDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryMealDataManager;
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.MealDataManager;
+import bcu.cmp5332.bookingsystem.data.ParallelLoader;
+import bcu.cmp5332.bookingsystem.data.TextDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Compares the cold-start load time of the text snapshot, loaded sequentially and with
+ * the {@link ParallelLoader}, with the binary snapshot.
+ * <pre>
+ *   java bcu.cmp5332.bookingsystem.benchmark.SnapshotLoadBenchmark [bookings] [iterations]
+ * </pre>
+ * Defaults to 1,000,000 bookings and 5 measured iterations after 2 warm-up loads.
+ */
+public class SnapshotLoadBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2;
+
+    public static void main(String[] args) throws IOException, FlightBookingSystemException {
+        int bookings = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        Path directory = Files.createTempDirectory("fbs-benchmark");
+        try {
+            String dir = directory.toString();
+            List<TextDataManager<?>> text = Arrays.asList(new MealDataManager(dir), new CustomerDataManager(dir),
+                    new FlightDataManager(dir), new BookingDataManager(dir));
+            List<DataManager> binary = Arrays.asList(new BinaryMealDataManager(dir), new BinaryCustomerDataManager(dir),
+                    new BinaryFlightDataManager(dir), new BinaryBookingDataManager(dir));
+
+            System.out.println("Generating " + bookings + " bookings...");
+            FlightBookingSystem fbs = SyntheticData.generate(bookings);
+            for (DataManager dm : text) {
+                dm.storeData(fbs);
+            }
+            for (DataManager dm : binary) {
+                dm.storeData(fbs);
+            }
+            fbs = null;
+
+            System.out.printf("Text snapshot:   %,d bytes%n", Files.size(directory.resolve("bookings.txt")));
+            System.out.printf("Binary snapshot: %,d bytes%n", Files.size(directory.resolve("bookings.bin")));
+
+            long textNanos = measure("text", () -> load(text), iterations);
+            long parallelNanos = measure("parallel text", () -> loadParallel(text), iterations);
+            long binaryNanos = measure("binary", () -> load(binary), iterations);
+            System.out.printf("Parallel text load is %.2fx faster%n", (double) textNanos / parallelNanos);
+            System.out.printf("Binary load is %.2fx faster%n", (double) textNanos / binaryNanos);
+        } finally {
+            SyntheticData.deleteDirectory(directory);
+        }
+    }
+
+    private static long measure(String name, Loader loader, int iterations)
+            throws IOException, FlightBookingSystemException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            loader.load();
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            loader.load();
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        System.out.printf("%-13s load: best %,d ms, mean %,d ms%n", name, best / 1_000_000, total / iterations / 1_000_000);
+        return best;
+    }
+
+    private static FlightBookingSystem load(List<? extends DataManager> managers) throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (DataManager dm : managers) {
+            dm.loadData(fbs);
+        }
+        fbs.drainMutations();
+        return fbs;
+    }
+
+    private static FlightBookingSystem loadParallel(List<TextDataManager<?>> managers)
+            throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        List<Callable<List<String>>> sources = new ArrayList<>();
+        for (TextDataManager<?> dm : managers) {
+            sources.add(() -> Files.readAllLines(Paths.get(dm.getResource())));
+        }
+        new ParallelLoader().load(fbs, managers, sources);
+        fbs.drainMutations();
+        return fbs;
+    }
+
+    private interface Loader {
+        FlightBookingSystem load() throws IOException, FlightBookingSystemException;
+    }
+}
@@ -0,0 +1,77 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Builds a synthetic flight booking system of a given size for the benchmarks.
+ * Booking {@code i} is for flight {@code i % FLIGHTS} and customer {@code i / FLIGHTS},
+ * so no customer is booked twice on the same flight.
+ */
+public final class SyntheticData {
+
+    public static final int FLIGHTS = 2000;
+    public static final int MEALS = 20;
+
+    private static final String[] AIRPORTS = {"LHR", "BHX", "MAN", "EDI", "CDG", "AMS", "JFK", "DXB", "FRA", "MAD"};
+
+    private SyntheticData() {
+    }
+
+    public static FlightBookingSystem generate(int bookingCount) throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate start = fbs.getSystemDate().plusDays(1);
+        MealType[] mealTypes = MealType.values();
+
+        for (int i = 1; i <= MEALS; i++) {
+            fbs.addMeal(new Meal(i, "Meal " + i, "Synthetic meal " + i,
+                    BigDecimal.valueOf(500 + i * 25L, 2), mealTypes[i % mealTypes.length]));
+        }
+
+        int seatsPerFlight = bookingCount / FLIGHTS + 1;
+        for (int i = 1; i <= FLIGHTS; i++) {
+            String origin = AIRPORTS[i % AIRPORTS.length];
+            String destination = AIRPORTS[(i / AIRPORTS.length + i + 1) % AIRPORTS.length];
+            fbs.addFlight(new Flight(i, "SY" + i, origin, destination, start.plusDays(i % 365),
+                    BigDecimal.valueOf(4999 + i, 2), seatsPerFlight * 2));
+        }
+
+        int customerCount = (bookingCount + FLIGHTS - 1) / FLIGHTS;
+        for (int i = 1; i <= customerCount; i++) {
+            fbs.addCustomer(new Customer(i, "Customer " + i, "07" + (100000000 + i), "customer" + i + "@example.com",
+                    18 + i % 60, (i % 2 == 0) ? "Female" : "Male", mealTypes[i % mealTypes.length]));
+        }
+
+        for (int i = 0; i < bookingCount; i++) {
+            Customer customer = fbs.getCustomerByIDIncludingDeleted(i / FLIGHTS + 1);
+            Flight flight = fbs.getFlightByIDIncludingDeleted(i % FLIGHTS + 1);
+            Meal meal = (i % 3 == 0) ? fbs.getMealByIDIncludingDeleted(i % MEALS + 1) : null;
+            Booking booking = new Booking(i + 1, customer, flight, null, fbs.getSystemDate(),
+                    CommercialClassType.ECONOMY, flight.getEconomyPrice(), BigDecimal.ZERO, meal);
+            customer.addBooking(booking);
+            fbs.addBookingWithoutFlightUpdate(booking);
+        }
+        fbs.drainMutations();
+        return fbs;
+    }
+
+    public static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
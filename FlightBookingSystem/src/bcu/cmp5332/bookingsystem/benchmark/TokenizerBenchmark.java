@@ -0,0 +1,161 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.TextDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the time and heap allocation of parsing booking and flight records with the
+ * {@link bcu.cmp5332.bookingsystem.data.RecordTokenizer} against the
+ * {@code String.split} parsing it replaced.
+ * <pre>
+ *   java bcu.cmp5332.bookingsystem.benchmark.TokenizerBenchmark [bookings] [iterations]
+ * </pre>
+ * Defaults to 200,000 bookings and 5 measured iterations after 3 warm-up passes.
+ * Allocation is read from the HotSpot thread allocation counter, so it is only reported
+ * on JVMs that support it.
+ */
+public class TokenizerBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 3;
+
+    private static long sink;
+
+    public static void main(String[] args) throws FlightBookingSystemException {
+        int bookings = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("Generating " + bookings + " bookings...");
+        FlightBookingSystem fbs = SyntheticData.generate(bookings);
+        BookingDataManager bookingManager = new BookingDataManager();
+        FlightDataManager flightManager = new FlightDataManager();
+        List<String> bookingLines = new ArrayList<>();
+        for (Booking booking : fbs.getBookings()) {
+            bookingLines.add(bookingManager.formatRecord(fbs, booking.getId()));
+        }
+        List<String> flightLines = new ArrayList<>();
+        for (Flight flight : fbs.getAllFlights()) {
+            flightLines.add(flightManager.formatRecord(fbs, flight.getId()));
+        }
+        fbs = null;
+
+        measure("split bookings", bookingLines, iterations, TokenizerBenchmark::splitBooking);
+        measure("tokenizer bookings", bookingLines, iterations, parser(bookingManager));
+        measure("split flights", flightLines, iterations, TokenizerBenchmark::splitFlight);
+        measure("tokenizer flights", flightLines, iterations, parser(flightManager));
+    }
+
+    private static void measure(String name, List<String> lines, int iterations, Parser parser)
+            throws FlightBookingSystemException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parseAll(lines, parser);
+        }
+        long best = Long.MAX_VALUE;
+        long bytes = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            parseAll(lines, parser);
+            best = Math.min(best, System.nanoTime() - start);
+            bytes = Math.min(bytes, allocatedBytes() - allocatedBefore);
+        }
+        System.out.printf("%-19s best %,6d ns/line, %,5d bytes/line%n", name,
+                best / lines.size(), (bytes < 0) ? -1 : bytes / lines.size());
+    }
+
+    private static void parseAll(List<String> lines, Parser parser) throws FlightBookingSystemException {
+        for (int i = 0; i < lines.size(); i++) {
+            Object record = parser.parse(lines.get(i), i + 1);
+            sink += (record != null) ? 1 : 0;
+        }
+    }
+
+    private static Parser parser(TextDataManager<?> dm) {
+        return dm::parseRecord;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /**
+     * The booking parsing of {@link BookingDataManager} before the tokenizer.
+     */
+    private static Object splitBooking(String record, int lineIdx) {
+        String[] props = record.trim().split(DataManager.SEPARATOR, -1);
+        Object[] parsed = new Object[12];
+        parsed[0] = Integer.parseInt(props[0]);
+        parsed[1] = Integer.parseInt(props[1]);
+        parsed[2] = Integer.parseInt(props[2]);
+        if (!props[3].isBlank() && !props[3].equals("null")) {
+            parsed[3] = Integer.parseInt(props[3]);
+        }
+        parsed[4] = LocalDate.parse(props[4]);
+        parsed[5] = CommercialClassType.valueOf(props[5].toUpperCase());
+        parsed[6] = new BigDecimal(props[6]);
+        parsed[7] = new BigDecimal(props[7]);
+        parsed[8] = new BigDecimal(props[8]);
+        parsed[9] = new BigDecimal(props[9]);
+        if (!props[10].isBlank() && !props[10].equals("null")) {
+            parsed[10] = Integer.parseInt(props[10]);
+        }
+        parsed[11] = Boolean.parseBoolean(props[11]);
+        return parsed;
+    }
+
+    /**
+     * The field parsing of {@link FlightDataManager} before the tokenizer, without
+     * building the flight.
+     */
+    private static Object splitFlight(String line, int lineIdx) {
+        String[] properties = line.split(DataManager.SEPARATOR, -1);
+        Object[] parsed = new Object[11];
+        parsed[0] = Integer.parseInt(properties[0].trim());
+        parsed[1] = properties[1].trim();
+        parsed[2] = properties[2].trim();
+        parsed[3] = properties[3].trim();
+        parsed[4] = LocalDate.parse(properties[4].trim());
+        parsed[5] = new BigDecimal(properties[5].trim());
+        parsed[6] = Integer.parseInt(properties[6].trim());
+        parsed[7] = properties[7].trim();
+        parsed[8] = splitCounts(properties[8].trim());
+        parsed[9] = Boolean.parseBoolean(properties[9].trim());
+        parsed[10] = splitCounts(properties[10].trim());
+        return parsed;
+    }
+
+    private static Object splitCounts(String field) {
+        List<Object> counts = new ArrayList<>();
+        if (field.isEmpty()) {
+            return counts;
+        }
+        for (String entry : field.split(",")) {
+            String[] keyValue = entry.split(":");
+            if (keyValue.length == 2) {
+                counts.add(CommercialClassType.valueOf(keyValue[0].trim()));
+                counts.add(Integer.parseInt(keyValue[1].trim()));
+            }
+        }
+        return counts;
+    }
+
+    private interface Parser {
+        Object parse(String line, int lineIdx) throws FlightBookingSystemException;
+    }
+}
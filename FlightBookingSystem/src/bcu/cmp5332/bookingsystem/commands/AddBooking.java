@@ -7,11 +7,13 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.model.CommercialClassType;
 import bcu.cmp5332.bookingsystem.model.Meal;
 import bcu.cmp5332.bookingsystem.model.MealType;
+import bcu.cmp5332.bookingsystem.model.SeatHold;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -56,11 +58,12 @@ public class AddBooking implements Command {
      * This method performs several steps:
      * 1. Retrieves customer and flight details.
      * 2. Performs pre-booking checks (class availability, seat capacity).
-     * 3. Calculates and displays dynamic flight prices.
-     * 4. Guides the user through meal selection, filtering by customer preference.
-     * 5. Displays a summary of booking details, including total estimated price.
-     * 6. Prompts for user confirmation before finalizing the booking.
-     * 7. Adds the new booking to the system if confirmed.
+     * 3. Holds a seat on each flight while the remaining prompts are answered.
+     * 4. Calculates and displays dynamic flight prices.
+     * 5. Guides the user through meal selection, filtering by customer preference.
+     * 6. Displays a summary of booking details, including total estimated price.
+     * 7. Prompts for user confirmation before finalizing the booking.
+     * 8. Adds the new booking into the held seats if confirmed, or gives them back.
      *
      * @param flightBookingSystem The FlightBookingSystem instance.
      * @param reader The BufferedReader for user input.
@@ -69,6 +72,8 @@ public class AddBooking implements Command {
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem, BufferedReader reader) throws FlightBookingSystemException {
+        SeatHold outboundHold = null;
+        SeatHold returnHold = null;
         try {
             Customer customer = flightBookingSystem.getCustomerByID(customerId);
             Flight outbound = flightBookingSystem.getFlightByID(outboundFlightId);
@@ -84,7 +89,7 @@ public class AddBooking implements Command {
                 throw new FlightBookingSystemException("Outbound flight " + outbound.getFlightNumber() + " (ID: " + outbound.getId() + ") is at full capacity.");
             }
 
-            BigDecimal outboundPrice = outbound.getDynamicPrice(selectedClass, flightBookingSystem.getSystemDate());
+            BigDecimal outboundPrice = flightBookingSystem.quotePrice(outbound, selectedClass);
             BigDecimal returnPrice = BigDecimal.ZERO;
             if (returnFlight != null) {
                 if (!returnFlight.isClassAvailable(selectedClass)) {
@@ -93,9 +98,17 @@ public class AddBooking implements Command {
                 if (!returnFlight.hasAnySeatsLeft()) {
                     throw new FlightBookingSystemException("Return flight " + returnFlight.getFlightNumber() + " (ID: " + returnFlight.getId() + ") is at full capacity.");
                 }
-                returnPrice = returnFlight.getDynamicPrice(selectedClass, flightBookingSystem.getSystemDate());
+                returnPrice = flightBookingSystem.quotePrice(returnFlight, selectedClass);
             }
 
+            // Hold the seats while the meal and confirmation prompts are answered.
+            outboundHold = flightBookingSystem.holdSeat(outbound, selectedClass);
+            if (returnFlight != null) {
+                returnHold = flightBookingSystem.holdSeat(returnFlight, selectedClass);
+            }
+            Duration ttl = flightBookingSystem.getSeatHoldTtl();
+            System.out.println("Seats held for " + (ttl.toMinutes() > 0 ? ttl.toMinutes() + " minute(s)" : ttl.getSeconds() + " second(s)") + ".");
+
             Meal selectedMeal = null;
             MealType preferredMealType = customer.getPreferredMealType();
             List<Meal> availableMeals = flightBookingSystem.getMealsFilteredByPreference(preferredMealType);
@@ -155,7 +168,7 @@ public class AddBooking implements Command {
                 return;
             }
 
-            flightBookingSystem.addBooking(customer, outbound, returnFlight, selectedClass, selectedMeal);
+            flightBookingSystem.addBooking(customer, outboundHold, returnHold, selectedMeal);
 
             System.out.println("Booking completed for Customer #" + customerId + " in " + selectedClass.getClassName() +
                                " on Flight " + outbound.getFlightNumber() +
@@ -164,6 +177,10 @@ public class AddBooking implements Command {
 
         } catch (IOException e) {
             throw new FlightBookingSystemException("Error reading input during booking confirmation: " + e.getMessage());
+        } finally {
+            // Gives back any seat that was not booked; booked holds are left as they are.
+            flightBookingSystem.releaseHold(outboundHold);
+            flightBookingSystem.releaseHold(returnHold);
         }
     }
 }
\ No newline at end of file
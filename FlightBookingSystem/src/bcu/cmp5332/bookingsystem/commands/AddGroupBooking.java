@@ -0,0 +1,95 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingRequest;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command to book a group of customers on the same flights and class at once.
+ * Either every customer of the group is booked or none is.
+ */
+public class AddGroupBooking implements Command {
+    private final List<Integer> customerIds;
+    private final int outboundFlightId;
+    private final Integer returnFlightId;
+    private final CommercialClassType selectedClass;
+
+    /**
+     * @param customerIds The IDs of the customers to book.
+     * @param outboundFlightId The ID of the outbound flight.
+     * @param returnFlightId The ID of the return flight (can be null for one-way).
+     * @param selectedClass The commercial class type for every booking.
+     */
+    public AddGroupBooking(List<Integer> customerIds, int outboundFlightId, Integer returnFlightId, CommercialClassType selectedClass) {
+        this.customerIds = customerIds;
+        this.outboundFlightId = outboundFlightId;
+        this.returnFlightId = returnFlightId;
+        this.selectedClass = selectedClass;
+    }
+
+    /**
+     * Shows the group and its estimated price, asks for confirmation and books the
+     * whole group. No meals are selected for a group booking.
+     *
+     * @param flightBookingSystem The FlightBookingSystem instance.
+     * @param reader The BufferedReader for user input.
+     * @throws FlightBookingSystemException If a customer or flight is not found, or the
+     * group cannot be booked.
+     */
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, BufferedReader reader) throws FlightBookingSystemException {
+        try {
+            Flight outbound = flightBookingSystem.getFlightByID(outboundFlightId);
+            Flight returnFlight = null;
+            if (returnFlightId != null) {
+                returnFlight = flightBookingSystem.getFlightByID(returnFlightId);
+            }
+
+            List<BookingRequest> requests = new ArrayList<>();
+            for (int customerId : customerIds) {
+                Customer customer = flightBookingSystem.getCustomerByID(customerId);
+                requests.add(new BookingRequest(customer, outbound, returnFlight, selectedClass, null));
+            }
+
+            BigDecimal seatPrice = flightBookingSystem.quotePrice(outbound, selectedClass);
+            if (returnFlight != null) {
+                seatPrice = seatPrice.add(flightBookingSystem.quotePrice(returnFlight, selectedClass));
+            }
+
+            System.out.println("\n--- Group Booking Details ---");
+            System.out.println("Outbound Flight: " + outbound.getFlightNumber() + " (ID: " + outbound.getId() + ") - " + outbound.getOrigin() + " to " + outbound.getDestination());
+            if (returnFlight != null) {
+                System.out.println("Return Flight: " + returnFlight.getFlightNumber() + " (ID: " + returnFlight.getId() + ") - " + returnFlight.getOrigin() + " to " + returnFlight.getDestination());
+            }
+            System.out.println("Class: " + selectedClass.getClassName());
+            System.out.println("Customers:");
+            for (BookingRequest request : requests) {
+                System.out.println("  " + request.getCustomer().getName() + " (ID: " + request.getCustomer().getId() + ")");
+            }
+            System.out.println("Total Estimated Price: £" + seatPrice.multiply(BigDecimal.valueOf(requests.size())));
+
+            System.out.print("Confirm group booking? (yes/no): ");
+            String confirmation = reader.readLine().trim().toLowerCase();
+            if (!"yes".equals(confirmation)) {
+                System.out.println("Group booking cancelled by user.");
+                return;
+            }
+
+            List<Booking> bookings = flightBookingSystem.addBookings(requests);
+            System.out.println("Group booking completed for " + bookings.size() + " customers on Flight " + outbound.getFlightNumber()
+                    + (returnFlight != null ? " and Return Flight " + returnFlight.getFlightNumber() : "") + ".");
+        } catch (IOException e) {
+            throw new FlightBookingSystemException("Error reading input during group booking confirmation: " + e.getMessage());
+        }
+    }
+}
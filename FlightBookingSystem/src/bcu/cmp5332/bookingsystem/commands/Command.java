@@ -10,6 +10,7 @@ public interface Command {
     public static final String HELP_MESSAGE = "Commands:\n"
         + "\tlistflights                               print all active flights\n"
         + "\tlistallflights                            print all flights (including deleted)\n"
+        + "\tsearchflights                             find active flights by route and dates\n"
         + "\tlistcustomers                             print all active customers\n"
         + "\tlistallcustomers                          print all customers (including deleted)\n"
         + "\tlistmeals                                 print all active meals\n" // NEW
@@ -23,9 +24,14 @@ public interface Command {
         + "\tshowcustomer [customer id]                show customer details\n"
         + "\tshowmeal [meal id]                        show meal details\n" // NEW
         + "\taddbooking [customer id] [flight id]      add a new booking\n"
+        + "\taddgroupbooking [flight id] [return id]   book several customers at once\n"
         + "\tcancelbooking [customer id] [flight id]   cancel a booking\n"
         + "\teditbooking [booking id] [flight id]      update a booking\n"
         + "\trebookflight [customer id] [oldflight id] [new flight id] [class]     update a booking\n"
+        + "\tjoinwaitlist [customer id] [flight id]     wait for a seat on a full flight\n"
+        + "\tshowwaitlist [flight id]                  show who is waiting for a flight\n"
+        + "\tleavewaitlist [entry id]                  take a customer off a waitlist\n"
+        + "\tpricecache                                show price cache hit rates\n"
         + "\tloadgui                                   loads the GUI version of the app\n"
         + "\thelp                                      prints this help message\n"
         + "\texit                                      exits the program";
@@ -67,7 +67,6 @@ public class EditBooking implements Command {
             if (newBookingDate == null) {
                 throw new FlightBookingSystemException("Failed to parse a valid date after multiple attempts.");
             }
-            bookingToEdit.setBookingDate(newBookingDate);
 
             // --- Edit Booking Class ---
             CommercialClassType newClass = null;
@@ -109,7 +108,7 @@ public class EditBooking implements Command {
                 throw new FlightBookingSystemException("Failed to select a valid class after multiple attempts.");
             }
 
-            bookingToEdit.setBookedClass(newClass);
+            fbs.editBooking(customer, flight, newBookingDate, newClass);
 
             System.out.println("\nBooking updated successfully.");
             System.out.println(bookingToEdit.getDetailsLong());
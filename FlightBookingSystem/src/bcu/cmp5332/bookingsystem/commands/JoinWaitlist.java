@@ -0,0 +1,43 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import java.io.BufferedReader;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.WaitlistEntry;
+
+/**
+ * Command to put a customer on the waitlist of a full class of a flight. The customer
+ * is booked automatically when a seat in that class is cancelled.
+ */
+public class JoinWaitlist implements Command {
+
+    private final int customerId;
+    private final int flightId;
+    private final CommercialClassType classType;
+
+    /**
+     * @param customerId The ID of the customer.
+     * @param flightId The ID of the flight.
+     * @param classType The class to wait for.
+     */
+    public JoinWaitlist(int customerId, int flightId, CommercialClassType classType) {
+        this.customerId = customerId;
+        this.flightId = flightId;
+        this.classType = classType;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, BufferedReader reader) throws FlightBookingSystemException {
+        Customer customer = flightBookingSystem.getCustomerByID(customerId);
+        Flight flight = flightBookingSystem.getFlightByID(flightId);
+
+        WaitlistEntry entry = flightBookingSystem.joinWaitlist(customer, flight, classType);
+        int position = flightBookingSystem.getWaitlist(flight, classType).indexOf(entry) + 1;
+        System.out.println("Customer " + customer.getName() + " joined the waitlist of flight " + flight.getFlightNumber()
+                + " in " + classType.getClassName() + " class as entry #" + entry.getId() + " (position " + position + ").");
+    }
+}
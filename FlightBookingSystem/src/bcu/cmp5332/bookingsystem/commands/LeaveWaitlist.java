@@ -0,0 +1,26 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import java.io.BufferedReader;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.WaitlistEntry;
+
+public class LeaveWaitlist implements Command {
+    private final int entryId;
+
+    public LeaveWaitlist(int entryId) {
+        this.entryId = entryId;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, BufferedReader reader) throws FlightBookingSystemException {
+        WaitlistEntry entry = flightBookingSystem.getWaitlistEntryByID(entryId);
+        if (entry == null) {
+            throw new FlightBookingSystemException("Waitlist entry ID not found: " + entryId);
+        }
+        flightBookingSystem.leaveWaitlist(entry);
+        System.out.println("Customer " + entry.getCustomer().getName() + " left the waitlist of flight "
+                + entry.getFlight().getFlightNumber() + ".");
+    }
+}
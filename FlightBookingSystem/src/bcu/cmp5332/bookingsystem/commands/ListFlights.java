@@ -3,9 +3,11 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightQuote;
 import bcu.cmp5332.bookingsystem.model.CommercialClassType; // Import CommercialClassType
 
 import java.io.BufferedReader;
+import java.math.BigDecimal;
 import java.util.List;
 
 public class ListFlights implements Command {
@@ -19,19 +21,28 @@ public class ListFlights implements Command {
         }
         
         System.out.println("Active Future Flights:");
-        for (Flight flight : flights) {
-            StringBuilder flightInfo = new StringBuilder();
-            flightInfo.append(flight.getDetailsShort());
-            for (CommercialClassType classType : flight.getAvailableClasses()) {
-                try {
-                    flightInfo.append(" | ").append(classType.getClassName()).append(": £").append(flight.getDynamicPrice(classType, flightBookingSystem.getSystemDate()));
-                    flightInfo.append(" (Seats: ").append(flight.getRemainingSeatsForClass(classType)).append(")");
-                } catch (FlightBookingSystemException e) {
-                    flightInfo.append(" | ").append(classType.getClassName()).append(": Price N/A");
-                }
-            }
-            System.out.println(flightInfo.toString());
+        for (FlightQuote quote : flightBookingSystem.quoteAll(flights)) {
+            System.out.println(describe(quote));
         }
         System.out.println(flights.size() + " active future flight(s)");
     }
+
+    /**
+     * Describes a flight with the quoted price and remaining seats of each class.
+     */
+    static String describe(FlightQuote quote) {
+        Flight flight = quote.getFlight();
+        StringBuilder flightInfo = new StringBuilder();
+        flightInfo.append(flight.getDetailsShort());
+        for (CommercialClassType classType : flight.getAvailableClasses()) {
+            BigDecimal price = quote.getPrice(classType);
+            if (price != null) {
+                flightInfo.append(" | ").append(classType.getClassName()).append(": £").append(price);
+                flightInfo.append(" (Seats: ").append(flight.getRemainingSeatsForClass(classType)).append(")");
+            } else {
+                flightInfo.append(" | ").append(classType.getClassName()).append(": Price N/A");
+            }
+        }
+        return flightInfo.toString();
+    }
 }
@@ -63,14 +63,7 @@ public class RebookFlight implements Command {
         Flight oldFlight = flightBookingSystem.getFlightByID(oldFlightId);
         Flight newFlight = flightBookingSystem.getFlightByID(newFlightId);
 
-        Booking bookingToRebook = null;
-        for (Booking booking : customer.getBookings()) {
-            if ((booking.getOutboundFlight() != null && booking.getOutboundFlight().equals(oldFlight)) ||
-                (booking.getReturnFlight() != null && booking.getReturnFlight().equals(oldFlight))) {
-                bookingToRebook = booking;
-                break;
-            }
-        }
+        Booking bookingToRebook = flightBookingSystem.findActiveBooking(customer, oldFlight);
 
         if (bookingToRebook == null) {
             throw new FlightBookingSystemException("Customer does not have an active booking for old Flight ID: " + oldFlightId);
@@ -20,7 +20,7 @@ public class RemoveFlight implements Command {
             throw new FlightBookingSystemException("Flight with ID " + flightId + " does not exist or is already removed.");
         }
 
-        flight.setDeleted(true);
+        fbs.removeFlightById(flightId);
 
         System.out.println("Flight " + flight.getFlightNumber() + " (ID: " + flightId + ") has been removed.");
     }
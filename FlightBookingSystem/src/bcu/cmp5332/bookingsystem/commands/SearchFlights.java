@@ -0,0 +1,47 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightQuote;
+
+import java.io.BufferedReader;
+import java.time.LocalDate;
+import java.util.List;
+
+public class SearchFlights implements Command {
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+
+    /**
+     * @param fromDate The earliest departure date, or null for no limit.
+     * @param toDate The latest departure date, or null for no limit.
+     */
+    public SearchFlights(String origin, String destination, LocalDate fromDate, LocalDate toDate) {
+        this.origin = origin;
+        this.destination = destination;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, BufferedReader reader) throws FlightBookingSystemException {
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            throw new FlightBookingSystemException("The latest departure date cannot be before the earliest one.");
+        }
+        List<Flight> flights = flightBookingSystem.searchFlights(origin, destination, fromDate, toDate);
+        if (flights.isEmpty()) {
+            System.out.println("No active future flights from " + origin.trim() + " to " + destination.trim() + " found.");
+            return;
+        }
+
+        System.out.println("Flights from " + origin.trim() + " to " + destination.trim() + ":");
+        for (FlightQuote quote : flightBookingSystem.quoteAll(flights)) {
+            System.out.println(ListFlights.describe(quote));
+        }
+        System.out.println(flights.size() + " flight(s) found");
+    }
+}
@@ -19,6 +19,6 @@ public class ShowCustomer implements Command {
         if (customer == null) {
             throw new FlightBookingSystemException("Customer ID not found: " + customerId);
         }
-        System.out.println(customer.getDetailsLong());
+        System.out.println(customer.getDetailsLong(flightBookingSystem.getBookingHistory(customer)));
     }
 }
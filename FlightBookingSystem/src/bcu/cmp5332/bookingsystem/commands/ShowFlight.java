@@ -1,6 +1,7 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import java.io.BufferedReader;
+import java.util.Collections;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
@@ -19,6 +20,6 @@ public class ShowFlight implements Command {
         if (flight == null) {
             throw new FlightBookingSystemException("Flight ID not found: " + flightId);
         }
-        System.out.println(flight.getDetailsLong(flightBookingSystem.getSystemDate()));
+        System.out.println(flight.getDetailsLong(flightBookingSystem.quoteAll(Collections.singletonList(flight)).get(0)));
     }
 }
@@ -0,0 +1,24 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.PriceCacheMetrics;
+
+import java.io.BufferedReader;
+
+/**
+ * Command to print how often flight prices were served from the price cache since the
+ * program started.
+ */
+public class ShowPriceCache implements Command {
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, BufferedReader reader) throws FlightBookingSystemException {
+        System.out.println("--- Price Cache ---");
+        System.out.println("Hits: " + PriceCacheMetrics.getHits());
+        System.out.println("Misses: " + PriceCacheMetrics.getMisses());
+        System.out.printf("Hit rate: %.1f%%%n", PriceCacheMetrics.getHitRate() * 100);
+        System.out.println("Occupancy invalidations: " + PriceCacheMetrics.getInvalidations());
+        System.out.println("Day band rollovers: " + PriceCacheMetrics.getRollovers());
+    }
+}
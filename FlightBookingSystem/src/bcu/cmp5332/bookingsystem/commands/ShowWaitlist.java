@@ -0,0 +1,41 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import java.io.BufferedReader;
+import java.util.List;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.WaitlistEntry;
+
+public class ShowWaitlist implements Command {
+    private final int flightId;
+
+    public ShowWaitlist(int flightId) {
+        this.flightId = flightId;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, BufferedReader reader) throws FlightBookingSystemException {
+        Flight flight = flightBookingSystem.getFlightByIDIncludingDeleted(flightId);
+        if (flight == null) {
+            throw new FlightBookingSystemException("Flight ID not found: " + flightId);
+        }
+
+        int waiting = 0;
+        for (CommercialClassType classType : flight.getAvailableClasses()) {
+            List<WaitlistEntry> waitlist = flightBookingSystem.getWaitlist(flight, classType);
+            if (waitlist.isEmpty()) {
+                continue;
+            }
+            System.out.println(classType.getClassName() + " class:");
+            int position = 1;
+            for (WaitlistEntry entry : waitlist) {
+                System.out.println("  " + position++ + ". " + entry.getDetailsShort());
+            }
+            waiting += waitlist.size();
+        }
+        System.out.println(waiting + " customer(s) waiting for flight " + flight.getFlightNumber() + ".");
+    }
+}
@@ -0,0 +1,167 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Replaces files without ever leaving a partially written file in their place. The new
+ * content is written to a temporary file next to the target through a large buffer,
+ * synced to disk, and only then atomically renamed over the target. A crash at any point
+ * leaves either the old or the new file, plus at most a stray temporary file.
+ */
+public final class AtomicFile {
+
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    private AtomicFile() {
+    }
+
+    /**
+     * Writes the content of a file to an output stream. Implementations must not close
+     * the stream.
+     */
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * A temporary file that has been written and synced but not yet renamed over its target.
+     */
+    public static final class Prepared {
+
+        private final Path temp;
+        private final Path target;
+        private final long size;
+        private final long checksum;
+
+        private Prepared(Path temp, Path target, long size, long checksum) {
+            this.temp = temp;
+            this.target = target;
+            this.size = size;
+            this.checksum = checksum;
+        }
+
+        public Path getTarget() {
+            return target;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        /**
+         * Atomically renames the temporary file over the target.
+         *
+         * @throws IOException If the file cannot be renamed.
+         */
+        public void commit() throws IOException {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(target);
+        }
+
+        /**
+         * Deletes the temporary file, leaving the target untouched.
+         */
+        public void discard() {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                System.err.println("Warning: Unable to delete " + temp + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Atomically replaces the target with the given content.
+     *
+     * @param target The file to replace.
+     * @param writer Writes the new content.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path target, ContentWriter writer) throws IOException {
+        prepare(target, writer).commit();
+    }
+
+    /**
+     * Writes and syncs the temporary file for the target without renaming it.
+     *
+     * @param target The file to replace.
+     * @param writer Writes the new content.
+     * @return The prepared file, to be committed or discarded.
+     * @throws IOException If the file cannot be written; the temporary file is removed.
+     */
+    public static Prepared prepare(Path target, ContentWriter writer) throws IOException {
+        Path temp = tempFor(target);
+        CRC32 crc = new CRC32();
+        long size;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), BUFFER_SIZE);
+            writer.writeTo(out);
+            out.flush();
+            channel.force(true);
+            size = channel.size();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new Prepared(temp, target, size, crc.getValue());
+    }
+
+    public static Path tempFor(Path target) {
+        return Paths.get(target.toString() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Computes the CRC-32 checksum of a file.
+     *
+     * @param path The file to read.
+     * @return The checksum of its content.
+     * @throws IOException If the file cannot be read.
+     */
+    public static long checksum(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Syncs the directory holding a renamed file, so the rename itself is durable. Not
+     * every platform can open a directory, in which case this is skipped.
+     */
+    private static void syncDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened for syncing on every platform.
+        }
+    }
+}
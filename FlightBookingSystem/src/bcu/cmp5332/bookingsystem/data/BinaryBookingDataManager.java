@@ -0,0 +1,190 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingArchive;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Binary snapshot of the bookings. Record layout: int id, int customer ID,
+ * int outbound flight ID, int return flight ID, int booking epoch day, byte booked class,
+ * outbound price, return price, cancellation fee and rebook fee amounts, int meal ID,
+ * byte cancelled. Absent return flights and meals are stored as -1.
+ */
+public class BinaryBookingDataManager extends BinaryDataManager<Booking> {
+
+    public static final String FILE_NAME = "bookings.bin";
+
+    static final int CUSTOMER_OFFSET = 4;
+    static final int[] AMOUNT_OFFSETS = {21, 21 + AMOUNT_SIZE, 21 + 2 * AMOUNT_SIZE, 21 + 3 * AMOUNT_SIZE};
+    static final int CANCELLED_OFFSET = 25 + 4 * AMOUNT_SIZE;
+    static final int RECORD_SIZE = CANCELLED_OFFSET + 1;
+    private static final int NO_ID = -1;
+
+    private final boolean loadCancelled;
+
+    public BinaryBookingDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public BinaryBookingDataManager(String directory) {
+        this(directory, true);
+    }
+
+    /**
+     * @param directory The directory of the data files.
+     * @param loadCancelled Whether cancelled bookings are loaded, or left on disk to be read
+     * on demand through a {@link MappedBookingStore}.
+     */
+    public BinaryBookingDataManager(String directory, boolean loadCancelled) {
+        super(directory, FILE_NAME);
+        this.loadCancelled = loadCancelled;
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.BOOKING;
+    }
+
+    @Override
+    protected int getRecordSize() {
+        return RECORD_SIZE;
+    }
+
+    @Override
+    protected Collection<Booking> getEntities(FlightBookingSystem fbs) {
+        return fbs.getBookings();
+    }
+
+    @Override
+    protected void writeRecord(Booking booking, ByteBuffer out, StringDictionary dictionary) throws IOException {
+        out.putInt(booking.getId());
+        out.putInt(booking.getCustomer().getId());
+        out.putInt(booking.getOutboundFlight().getId());
+        out.putInt(booking.getReturnFlight() != null ? booking.getReturnFlight().getId() : NO_ID);
+        out.putInt((int) booking.getBookingDate().toEpochDay());
+        out.put((byte) booking.getBookedClass().ordinal());
+        putAmount(out, booking.getBookedPriceOutbound(), dictionary);
+        putAmount(out, booking.getBookedPriceReturn(), dictionary);
+        putAmount(out, booking.getCancellationFee(), dictionary);
+        putAmount(out, booking.getRebookFee(), dictionary);
+        out.putInt(booking.getMeal() != null ? booking.getMeal().getId() : NO_ID);
+        out.put((byte) (booking.isCancelled() ? 1 : 0));
+    }
+
+    @Override
+    protected void readRecord(FlightBookingSystem fbs, ByteBuffer in, String[] dictionary, int recordIdx)
+            throws FlightBookingSystemException {
+        if (!loadCancelled && in.get(in.position() + CANCELLED_OFFSET) != 0) {
+            return;
+        }
+        Booking booking = readBooking(fbs, in, dictionary, "record " + recordIdx);
+        if (booking == null) {
+            return;
+        }
+        try {
+            BookingDataManager.register(fbs, booking);
+        } catch (FlightBookingSystemException ex) {
+            throw new FlightBookingSystemException("Error loading booking record " + recordIdx + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Reads the booking record at the position of the buffer and resolves its customer,
+     * flights and meal, without adding it to the system.
+     *
+     * @param fbs The flight booking system holding the referenced entities.
+     * @param in The buffer, positioned at the start of a record.
+     * @param dictionary The string dictionary of the file.
+     * @param location Where the record is, for warnings and errors.
+     * @return The booking, or null if its customer or outbound flight no longer exists.
+     * @throws FlightBookingSystemException If the record is invalid.
+     */
+    static Booking readBooking(FlightBookingSystem fbs, ByteBuffer in, String[] dictionary, String location)
+            throws FlightBookingSystemException {
+        try {
+            int id = in.getInt();
+            int customerId = in.getInt();
+            int outboundFlightId = in.getInt();
+            int returnFlightId = in.getInt();
+            LocalDate bookingDate = LocalDate.ofEpochDay(in.getInt());
+            CommercialClassType bookedClass = CommercialClassType.values()[in.get()];
+            BigDecimal bookedPriceOutbound = getAmount(in, dictionary);
+            BigDecimal bookedPriceReturn = getAmount(in, dictionary);
+            BigDecimal cancellationFee = getAmount(in, dictionary);
+            BigDecimal rebookFee = getAmount(in, dictionary);
+            int mealId = in.getInt();
+            boolean isCancelled = in.get() != 0;
+
+            Customer customer = fbs.getCustomerByIDIncludingDeleted(customerId);
+            if (customer == null) {
+                System.err.println("Warning: Customer ID " + customerId + " not found for booking ID " + id + " in " + location + ". Skipping booking.");
+                return null;
+            }
+            Flight outboundFlight = fbs.getFlightByIDIncludingDeleted(outboundFlightId);
+            if (outboundFlight == null) {
+                System.err.println("Warning: Outbound flight ID " + outboundFlightId + " not found for booking ID " + id + " in " + location + ". Skipping booking.");
+                return null;
+            }
+            Flight returnFlight = null;
+            if (returnFlightId != NO_ID) {
+                returnFlight = fbs.getFlightByIDIncludingDeleted(returnFlightId);
+                if (returnFlight == null) {
+                    System.err.println("Warning: Return flight ID " + returnFlightId + " not found for booking ID " + id + " in " + location + ". Proceeding with one-way booking.");
+                }
+            }
+            Meal meal = null;
+            if (mealId != NO_ID) {
+                meal = fbs.getMealByIDIncludingDeleted(mealId);
+                if (meal == null) {
+                    System.err.println("Warning: Meal ID " + mealId + " not found for booking ID " + id + " in " + location + ". Booking loaded without meal.");
+                }
+            }
+
+            Booking booking = new Booking(id, customer, outboundFlight, returnFlight, bookingDate, bookedClass,
+                    bookedPriceOutbound, bookedPriceReturn, meal);
+            booking.setCancellationFee(cancellationFee);
+            booking.setRebookFee(rebookFee);
+            booking.setCancelled(isCancelled);
+            return booking;
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new FlightBookingSystemException("Invalid booked class or amount reference in booking " + location + ".", ex);
+        } catch (ArithmeticException | NumberFormatException ex) {
+            throw new FlightBookingSystemException("Invalid amount in booking " + location + ".", ex);
+        }
+    }
+
+    /**
+     * Bookings left on disk by a {@link MappedBookingStore} are not held by the system, so
+     * their records are copied from the store to keep them in the file.
+     */
+    @Override
+    protected int countRetainedRecords(FlightBookingSystem fbs) {
+        MappedBookingStore store = mappedStore(fbs);
+        return (store != null) ? store.countRecordsNotIn(fbs) : 0;
+    }
+
+    @Override
+    protected void writeRetainedRecords(FlightBookingSystem fbs, ByteBuffer records, StringDictionary dictionary) {
+        MappedBookingStore store = mappedStore(fbs);
+        if (store != null) {
+            store.copyRecordsNotIn(fbs, records, dictionary);
+        }
+    }
+
+    private static MappedBookingStore mappedStore(FlightBookingSystem fbs) {
+        BookingArchive archive = fbs.getBookingArchive();
+        return (archive instanceof MappedBookingStore) ? (MappedBookingStore) archive : null;
+    }
+}
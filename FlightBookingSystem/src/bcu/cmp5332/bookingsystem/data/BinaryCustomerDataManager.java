@@ -0,0 +1,75 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.MealType;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * Binary snapshot of the customers. Record layout: int id, int name, int phone,
+ * int email, int age, int gender, byte preferred meal type, byte deleted.
+ */
+public class BinaryCustomerDataManager extends BinaryDataManager<Customer> {
+
+    private static final int RECORD_SIZE = 26;
+
+    public BinaryCustomerDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public BinaryCustomerDataManager(String directory) {
+        super(directory, "customers.bin");
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.CUSTOMER;
+    }
+
+    @Override
+    protected int getRecordSize() {
+        return RECORD_SIZE;
+    }
+
+    @Override
+    protected Collection<Customer> getEntities(FlightBookingSystem fbs) {
+        return fbs.getAllCustomers();
+    }
+
+    @Override
+    protected void writeRecord(Customer customer, ByteBuffer out, StringDictionary dictionary) {
+        out.putInt(customer.getId());
+        out.putInt(dictionary.ref(customer.getName()));
+        out.putInt(dictionary.ref(customer.getPhone()));
+        out.putInt(dictionary.ref(customer.getEmail()));
+        out.putInt(customer.getAge());
+        out.putInt(dictionary.ref(customer.getGender()));
+        out.put((byte) customer.getPreferredMealType().ordinal());
+        out.put((byte) (customer.isDeleted() ? 1 : 0));
+    }
+
+    @Override
+    protected void readRecord(FlightBookingSystem fbs, ByteBuffer in, String[] dictionary, int recordIdx)
+            throws FlightBookingSystemException {
+        try {
+            int id = in.getInt();
+            String name = lookup(dictionary, in.getInt());
+            String phone = lookup(dictionary, in.getInt());
+            String email = lookup(dictionary, in.getInt());
+            int age = in.getInt();
+            String gender = lookup(dictionary, in.getInt());
+            MealType preferredMealType = MealType.values()[in.get()];
+            boolean isDeleted = in.get() != 0;
+
+            Customer customer = new Customer(id, name, phone, email, age, gender, preferredMealType);
+            customer.setDeleted(isDeleted);
+            fbs.addCustomer(customer);
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new FlightBookingSystemException("Invalid string or meal type reference in customer record " + recordIdx + ".", ex);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class of the binary snapshot format, an alternative to the {@code ::} text files
+ * that avoids per-field string parsing on start-up. Every file has the layout:
+ * <pre>
+ *   int    magic ("FBSB")
+ *   short  format version
+ *   byte   entity type ordinal
+ *   int    dictionary size, then each string as an int byte length and UTF-8 bytes
+ *   int    record count
+ *   short  record size in bytes
+ *   record count fixed-width records
+ * </pre>
+ * Strings are stored as indexes into the dictionary ({@link #NULL_REF} for null), amounts
+ * as a long unscaled value and a byte scale (so they are read back exactly as they were,
+ * see {@link #putAmount}) and dates as an int epoch day. The entity ID is always the
+ * first int of a record.
+ *
+ * @param <T> The type of entity stored in the file.
+ */
+public abstract class BinaryDataManager<T> implements FileDataManager {
+
+    public static final int MAGIC = 0x46425342;
+    public static final short VERSION = 2;
+    protected static final int NULL_REF = -1;
+    /** The bytes taken by an amount written with {@link #putAmount}. */
+    protected static final int AMOUNT_SIZE = 9;
+    /** The scale byte of an amount held in the dictionary rather than in the record. */
+    static final byte DICTIONARY_AMOUNT = Byte.MIN_VALUE;
+
+    private final String RESOURCE;
+
+    protected BinaryDataManager(String directory, String fileName) {
+        this.RESOURCE = directory + "/" + fileName;
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public abstract EntityType getEntityType();
+
+    protected abstract int getRecordSize();
+    protected abstract Collection<T> getEntities(FlightBookingSystem fbs);
+    protected abstract void writeRecord(T entity, ByteBuffer out, StringDictionary dictionary) throws IOException;
+    protected abstract void readRecord(FlightBookingSystem fbs, ByteBuffer in, String[] dictionary, int recordIdx)
+            throws FlightBookingSystemException;
+
+    /**
+     * Called once every record has been read.
+     */
+    protected void afterLoad(FlightBookingSystem fbs) {
+    }
+
+    /**
+     * Returns how many records of entities the system does not hold in memory, but which
+     * must be kept in the file, will be written by {@link #writeRetainedRecords}.
+     */
+    protected int countRetainedRecords(FlightBookingSystem fbs) {
+        return 0;
+    }
+
+    /**
+     * Appends the records counted by {@link #countRetainedRecords} after the records of
+     * the entities held in memory. Strings they reference must be added to the dictionary.
+     */
+    protected void writeRetainedRecords(FlightBookingSystem fbs, ByteBuffer records, StringDictionary dictionary)
+            throws IOException {
+    }
+
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        loadData(fbs, Collections.emptySet());
+    }
+
+    /**
+     * Loads every record except those whose ID is excluded, typically because a newer
+     * version of the entity is waiting in the journal.
+     *
+     * @param fbs The flight booking system to load into.
+     * @param excludedIds IDs of records to skip.
+     * @throws IOException If the file cannot be read or has an unsupported header.
+     * @throws FlightBookingSystemException If a record cannot be loaded.
+     */
+    public void loadData(FlightBookingSystem fbs, Set<Integer> excludedIds) throws IOException, FlightBookingSystemException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(Paths.get(RESOURCE)));
+        try {
+            Header header = Header.read(in, RESOURCE, getEntityType(), getRecordSize());
+            for (int i = 0; i < header.recordCount; i++) {
+                int offset = header.recordOffset(i);
+                if (!excludedIds.isEmpty() && excludedIds.contains(in.getInt(offset))) {
+                    continue;
+                }
+                in.position(offset);
+                readRecord(fbs, in, header.dictionary, i + 1);
+            }
+        } finally {
+            afterLoad(fbs);
+        }
+    }
+
+    @Override
+    public void writeData(FlightBookingSystem fbs, OutputStream stream) throws IOException {
+        Collection<T> entities = getEntities(fbs);
+        StringDictionary dictionary = new StringDictionary();
+        int retained = countRetainedRecords(fbs);
+        ByteBuffer records = ByteBuffer.allocate((entities.size() + retained) * getRecordSize());
+        for (T entity : entities) {
+            int start = records.position();
+            writeRecord(entity, records, dictionary);
+            if (records.position() - start != getRecordSize()) {
+                throw new IllegalStateException("Record of " + getEntityType() + " is not " + getRecordSize() + " bytes.");
+            }
+        }
+        writeRetainedRecords(fbs, records, dictionary);
+        int recordCount = records.position() / getRecordSize();
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(getEntityType().ordinal());
+        out.writeInt(dictionary.strings.size());
+        for (String s : dictionary.strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(recordCount);
+        out.writeShort(getRecordSize());
+        out.write(records.array(), 0, records.position());
+        out.flush();
+    }
+
+    /**
+     * Writes an amount as its unscaled value and scale, e.g. 99999 and 3 for 99.999. The
+     * rare amount with more digits than a long holds, or a scale beyond a byte, is added to
+     * the dictionary instead, and written as its dictionary index and {@link #DICTIONARY_AMOUNT}.
+     */
+    protected static void putAmount(ByteBuffer out, BigDecimal amount, StringDictionary dictionary) {
+        int scale = amount.scale();
+        if (amount.unscaledValue().bitLength() < Long.SIZE && scale > DICTIONARY_AMOUNT && scale <= Byte.MAX_VALUE) {
+            out.putLong(amount.unscaledValue().longValue());
+            out.put((byte) scale);
+        } else {
+            out.putLong(dictionary.ref(amount.toString()));
+            out.put(DICTIONARY_AMOUNT);
+        }
+    }
+
+    /**
+     * Reads an amount written by {@link #putAmount}.
+     */
+    protected static BigDecimal getAmount(ByteBuffer in, String[] dictionary) {
+        long value = in.getLong();
+        byte scale = in.get();
+        if (scale == DICTIONARY_AMOUNT) {
+            return new BigDecimal(dictionary[Math.toIntExact(value)]);
+        }
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    protected static String lookup(String[] dictionary, int ref) {
+        return (ref == NULL_REF) ? null : dictionary[ref];
+    }
+
+    /**
+     * The header of a binary snapshot file, read and validated.
+     */
+    static class Header {
+
+        final String[] dictionary;
+        final int recordCount;
+        final int recordSize;
+        final int start;
+
+        private Header(String[] dictionary, int recordCount, int recordSize, int start) {
+            this.dictionary = dictionary;
+            this.recordCount = recordCount;
+            this.recordSize = recordSize;
+            this.start = start;
+        }
+
+        int recordOffset(int recordIdx) {
+            return start + recordIdx * recordSize;
+        }
+
+        /**
+         * Reads the header at the start of the buffer and checks that every record fits.
+         *
+         * @throws IOException If the header is not one of the expected entity type and record
+         * size, or the buffer is truncated.
+         */
+        static Header read(ByteBuffer in, String resource, EntityType type, int expectedRecordSize) throws IOException {
+            try {
+                if (in.getInt() != MAGIC) {
+                    throw new IOException(resource + " is not a binary snapshot file.");
+                }
+                short version = in.getShort();
+                if (version != VERSION) {
+                    throw new IOException(resource + " has unsupported snapshot version " + version + ".");
+                }
+                if (in.get() != type.ordinal()) {
+                    throw new IOException(resource + " does not hold " + type + " records.");
+                }
+
+                String[] dictionary = new String[in.getInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    byte[] bytes = new byte[in.getInt()];
+                    in.get(bytes);
+                    dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+
+                int recordCount = in.getInt();
+                int recordSize = in.getShort();
+                if (recordSize != expectedRecordSize) {
+                    throw new IOException(resource + " has records of " + recordSize + " bytes, expected " + expectedRecordSize + ".");
+                }
+                if (in.remaining() < (long) recordCount * recordSize) {
+                    throw new IOException(resource + " is truncated.");
+                }
+                return new Header(dictionary, recordCount, recordSize, in.position());
+            } catch (BufferUnderflowException | NegativeArraySizeException e) {
+                throw new IOException(resource + " is truncated.", e);
+            }
+        }
+    }
+
+    /**
+     * Assigns each distinct string written to a file a single dictionary index.
+     */
+    protected static class StringDictionary {
+
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        public int ref(String s) {
+            if (s == null) {
+                return NULL_REF;
+            }
+            Integer ref = refs.get(s);
+            if (ref == null) {
+                ref = strings.size();
+                refs.put(s, ref);
+                strings.add(s);
+            }
+            return ref;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the flights. Record layout: int id, int flight number, int origin,
+ * int destination, int departure epoch day, economy price amount, int capacity,
+ * byte flight type, byte deleted, then one int class capacity and one int occupied seat
+ * count per {@link CommercialClassType} in ordinal order, -1 where the class is absent.
+ */
+public class BinaryFlightDataManager extends BinaryDataManager<Flight> {
+
+    private static final int CLASS_COUNT = CommercialClassType.values().length;
+    private static final int RECORD_SIZE = 26 + AMOUNT_SIZE + 8 * CLASS_COUNT;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int ABSENT = -1;
+
+    public BinaryFlightDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public BinaryFlightDataManager(String directory) {
+        super(directory, "flights.bin");
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.FLIGHT;
+    }
+
+    @Override
+    protected int getRecordSize() {
+        return RECORD_SIZE;
+    }
+
+    @Override
+    protected Collection<Flight> getEntities(FlightBookingSystem fbs) {
+        return fbs.getAllFlights();
+    }
+
+    @Override
+    protected void writeRecord(Flight flight, ByteBuffer out, StringDictionary dictionary) throws IOException {
+        out.putInt(flight.getId());
+        out.putInt(dictionary.ref(flight.getFlightNumber()));
+        out.putInt(dictionary.ref(flight.getOrigin()));
+        out.putInt(dictionary.ref(flight.getDestination()));
+        out.putInt(flight.getDepartureDate() != null ? (int) flight.getDepartureDate().toEpochDay() : NO_DATE);
+        putAmount(out, flight.getEconomyPrice(), dictionary);
+        out.putInt(flight.getCapacity());
+        out.put((byte) flight.getFlightType().ordinal());
+        out.put((byte) (flight.isDeleted() ? 1 : 0));
+
+        // Budget capacities are implied by the total capacity, as in flights.txt.
+        Map<CommercialClassType, Integer> capacities = flight.getFlightType() == FlightType.COMMERCIAL
+                ? flight.getClassCapacities() : new HashMap<>();
+        for (CommercialClassType classType : CommercialClassType.values()) {
+            out.putInt(capacities.getOrDefault(classType, ABSENT));
+        }
+        Map<CommercialClassType, Integer> occupiedSeats = flight.getOccupiedSeatsMap();
+        for (CommercialClassType classType : CommercialClassType.values()) {
+            out.putInt(occupiedSeats.getOrDefault(classType, ABSENT));
+        }
+    }
+
+    @Override
+    protected void readRecord(FlightBookingSystem fbs, ByteBuffer in, String[] dictionary, int recordIdx)
+            throws FlightBookingSystemException {
+        try {
+            int id = in.getInt();
+            String flightNumber = lookup(dictionary, in.getInt());
+            String origin = lookup(dictionary, in.getInt());
+            String destination = lookup(dictionary, in.getInt());
+            int epochDay = in.getInt();
+            if (epochDay == NO_DATE) {
+                throw new FlightBookingSystemException("Missing departure date for flight ID " + id + " in flight record " + recordIdx + ".");
+            }
+            LocalDate departureDate = LocalDate.ofEpochDay(epochDay);
+            BigDecimal economyPrice = getAmount(in, dictionary);
+            int totalCapacity = in.getInt();
+            FlightType flightType = FlightType.values()[in.get()];
+            boolean deleted = in.get() != 0;
+
+            Map<CommercialClassType, Integer> classCapacities = readClassCounts(in);
+            Map<CommercialClassType, Integer> occupiedSeatsByClass = readClassCounts(in);
+
+            Flight flight;
+            if (flightType == FlightType.BUDGET) {
+                flight = new Flight(id, flightNumber, origin, destination,
+                                    departureDate, economyPrice, totalCapacity);
+            } else {
+                flight = new Flight(id, flightNumber, origin, destination,
+                                    departureDate, economyPrice, totalCapacity,
+                                    flightType, classCapacities.isEmpty() ? null : classCapacities);
+            }
+
+            flight.setDeleted(deleted);
+            if (!occupiedSeatsByClass.isEmpty()) {
+                flight.setOccupiedSeatsByClass(occupiedSeatsByClass);
+            }
+
+            fbs.addFlight(flight);
+        } catch (ArrayIndexOutOfBoundsException | ArithmeticException | NumberFormatException ex) {
+            throw new FlightBookingSystemException("Invalid string or flight type reference in flight record " + recordIdx + ".", ex);
+        }
+    }
+
+    private static Map<CommercialClassType, Integer> readClassCounts(ByteBuffer in) {
+        Map<CommercialClassType, Integer> counts = new HashMap<>();
+        for (CommercialClassType classType : CommercialClassType.values()) {
+            int count = in.getInt();
+            if (count != ABSENT) {
+                counts.put(classType, count);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,73 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * Binary snapshot of the meals. Record layout: int id, int name, int description,
+ * price amount, byte meal type, byte deleted.
+ */
+public class BinaryMealDataManager extends BinaryDataManager<Meal> {
+
+    private static final int RECORD_SIZE = 14 + AMOUNT_SIZE;
+
+    public BinaryMealDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public BinaryMealDataManager(String directory) {
+        super(directory, "meals.bin");
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.MEAL;
+    }
+
+    @Override
+    protected int getRecordSize() {
+        return RECORD_SIZE;
+    }
+
+    @Override
+    protected Collection<Meal> getEntities(FlightBookingSystem fbs) {
+        return fbs.getAllMeals();
+    }
+
+    @Override
+    protected void writeRecord(Meal meal, ByteBuffer out, StringDictionary dictionary) throws IOException {
+        out.putInt(meal.getId());
+        out.putInt(dictionary.ref(meal.getName()));
+        out.putInt(dictionary.ref(meal.getDescription()));
+        putAmount(out, meal.getPrice(), dictionary);
+        out.put((byte) meal.getType().ordinal());
+        out.put((byte) (meal.isDeleted() ? 1 : 0));
+    }
+
+    @Override
+    protected void readRecord(FlightBookingSystem fbs, ByteBuffer in, String[] dictionary, int recordIdx)
+            throws FlightBookingSystemException {
+        try {
+            int id = in.getInt();
+            String name = lookup(dictionary, in.getInt());
+            String description = lookup(dictionary, in.getInt());
+            BigDecimal price = getAmount(in, dictionary);
+            MealType type = MealType.values()[in.get()];
+            boolean isDeleted = in.get() != 0;
+
+            Meal meal = new Meal(id, name, description, price, type);
+            meal.setDeleted(isDeleted);
+            fbs.addMeal(meal);
+        } catch (ArrayIndexOutOfBoundsException | ArithmeticException | NumberFormatException ex) {
+            throw new FlightBookingSystemException("Invalid string or meal type reference in meal record " + recordIdx + ".", ex);
+        }
+    }
+}
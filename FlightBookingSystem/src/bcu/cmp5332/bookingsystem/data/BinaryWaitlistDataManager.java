@@ -0,0 +1,79 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.WaitlistEntry;
+import bcu.cmp5332.bookingsystem.model.WaitlistStatus;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Binary snapshot of the waitlists. Record layout: int id, int customer ID, int flight ID,
+ * byte class, int joined epoch day, byte status, int booking ID. Only waiting entries
+ * are written.
+ */
+public class BinaryWaitlistDataManager extends BinaryDataManager<WaitlistEntry> {
+
+    private static final int RECORD_SIZE = 22;
+
+    public BinaryWaitlistDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public BinaryWaitlistDataManager(String directory) {
+        super(directory, "waitlists.bin");
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.WAITLIST;
+    }
+
+    @Override
+    protected int getRecordSize() {
+        return RECORD_SIZE;
+    }
+
+    @Override
+    protected Collection<WaitlistEntry> getEntities(FlightBookingSystem fbs) {
+        return fbs.getWaitlistEntries().stream().filter(WaitlistEntry::isWaiting).collect(Collectors.toList());
+    }
+
+    @Override
+    protected void writeRecord(WaitlistEntry entry, ByteBuffer out, StringDictionary dictionary) {
+        out.putInt(entry.getId());
+        out.putInt(entry.getCustomer().getId());
+        out.putInt(entry.getFlight().getId());
+        out.put((byte) entry.getClassType().ordinal());
+        out.putInt((int) entry.getJoinedDate().toEpochDay());
+        out.put((byte) entry.getStatus().ordinal());
+        out.putInt(entry.getBookingId());
+    }
+
+    @Override
+    protected void readRecord(FlightBookingSystem fbs, ByteBuffer in, String[] dictionary, int recordIdx)
+            throws FlightBookingSystemException {
+        try {
+            int id = in.getInt();
+            int customerId = in.getInt();
+            int flightId = in.getInt();
+            CommercialClassType classType = CommercialClassType.values()[in.get()];
+            LocalDate joinedDate = LocalDate.ofEpochDay(in.getInt());
+            WaitlistStatus status = WaitlistStatus.values()[in.get()];
+            int bookingId = in.getInt();
+
+            WaitlistEntry entry = WaitlistDataManager.resolve(fbs, id, customerId, flightId, classType, joinedDate,
+                    status, bookingId, "record " + recordIdx);
+            if (entry != null) {
+                fbs.addWaitlistEntry(entry);
+            }
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new FlightBookingSystemException("Invalid class or status in waitlist record " + recordIdx + ".", ex);
+        }
+    }
+}
@@ -4,153 +4,227 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.*;
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Scanner;
 
-public class BookingDataManager implements DataManager {
+public class BookingDataManager implements TextDataManager<BookingDataManager.BookingRecord> {
 
-    public final String RESOURCE = "./resources/data/bookings.txt";
+    public final String RESOURCE;
     private final String SEPARATOR = "::";
+    private static final CommercialClassType[] CLASS_TYPES = CommercialClassType.values();
+
+    public BookingDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public BookingDataManager(String directory) {
+        this.RESOURCE = directory + "/bookings.txt";
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.BOOKING;
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
 
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
-            int lineIdx = 1;
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine().trim();
-                if (line.isEmpty()) {
-                    lineIdx++;
-                    continue;
-                }
+        loadRecords(fbs, Files.readAllLines(Paths.get(RESOURCE)));
+    }
 
-                String[] props = line.split(SEPARATOR, -1);
-                if (props.length < 12) { 
-                    throw new FlightBookingSystemException("Malformed booking line at " + lineIdx + ": " + line + " (Too few fields)");
-                }
+    @Override
+    public BookingRecord parseRecord(String record, int lineIdx) throws FlightBookingSystemException {
+        String line = record.trim();
+        if (line.isEmpty()) {
+            return null;
+        }
 
-                try {
-                    int id = Integer.parseInt(props[0]); 
-                    int customerId = Integer.parseInt(props[1]);
-                    int outboundFlightId = Integer.parseInt(props[2]);
-
-                    Flight returnFlight = null;
-                    if (!props[3].isBlank() && !props[3].equals("null")) {
-                        int returnFlightId = Integer.parseInt(props[3]);
-                        returnFlight = fbs.getFlightByIDIncludingDeleted(returnFlightId);
-                        if (returnFlight == null) {
-                            System.err.println("Warning: Return flight ID " + returnFlightId + " not found for booking on line " + lineIdx + ". Booking partially loaded.");
-                        }
-                    }
-
-                    LocalDate bookingDate = LocalDate.parse(props[4]);
-                    CommercialClassType bookedClass = CommercialClassType.valueOf(props[5].toUpperCase());
-
-                    BigDecimal bookedPriceOutbound = new BigDecimal(props[6]);
-                    BigDecimal bookedPriceReturn = new BigDecimal(props[7]);
-
-                    BigDecimal cancellationFee = new BigDecimal(props[8]);
-                    BigDecimal rebookFee = new BigDecimal(props[9]);
-
-                    Meal meal = null;
-                    if (props.length > 10 && !props[10].isBlank() && !props[10].equals("null")) {
-                        try {
-                            int mealId = Integer.parseInt(props[10]);
-                            meal = fbs.getMealByIDIncludingDeleted(mealId);
-                            if (meal == null) {
-                                System.err.println("Warning: Meal ID " + mealId + " not found for booking on line " + lineIdx + ". Booking loaded without meal.");
-                            }
-                        } catch (NumberFormatException e) {
-                            System.err.println("Warning: Invalid meal ID format on line " + lineIdx + ". Booking loaded without meal.");
-                        }
-                    }
-
-                    boolean isCancelled = Boolean.parseBoolean(props[11]);
-
-                    Customer customer = fbs.getCustomerByIDIncludingDeleted(customerId);
-                    Flight outboundFlight = fbs.getFlightByIDIncludingDeleted(outboundFlightId);
-
-                    if (customer == null) {
-                        System.err.println("Warning: Customer ID " + customerId + " not found for booking ID " + id + " on line " + lineIdx + ". Skipping booking.");
-                        lineIdx++;
-                        continue;
-                    }
-                    if (outboundFlight == null) {
-                        System.err.println("Warning: Outbound flight ID " + outboundFlightId + " not found for booking ID " + id + " on line " + lineIdx + ". Skipping booking.");
-                        lineIdx++;
-                        continue;
-                    }
-                    if (!props[3].isBlank() && !props[3].equals("null") && returnFlight == null) {
-                         System.err.println("Warning: Return flight ID " + props[3] + " not found for booking ID " + id + " on line " + lineIdx + ". Proceeding with one-way booking.");
-                    }
-
-                    Booking booking = new Booking(id, customer, outboundFlight, returnFlight, bookingDate, bookedClass, bookedPriceOutbound, bookedPriceReturn, meal);
-                    booking.setCancellationFee(cancellationFee);
-                    booking.setRebookFee(rebookFee);
-                    booking.setCancelled(isCancelled);
-
-                    if (!isCancelled) {
-                        outboundFlight.addPassenger(customer, bookedClass);
-                        if (returnFlight != null) {
-                            returnFlight.addPassenger(customer, bookedClass);
-                        }
-                    }
-                    
-                    customer.addBooking(booking); 
-                    fbs.addBookingWithoutFlightUpdate(booking); 
+        RecordTokenizer fields = new RecordTokenizer(line);
+        if (fields.fieldCount() < 12) { 
+            throw new FlightBookingSystemException("Malformed booking line at " + lineIdx + ": " + line + " (Too few fields)");
+        }
+
+        try {
+            BookingRecord parsed = new BookingRecord();
+            parsed.id = fields.nextInt(); 
+            parsed.customerId = fields.nextInt();
+            parsed.outboundFlightId = fields.nextInt();
+
+            if (fields.isNextNull()) {
+                fields.skip();
+            } else {
+                parsed.returnFlightId = fields.nextInt();
+            }
+
+            parsed.bookingDate = fields.nextDate();
+            parsed.bookedClass = fields.nextEnum(CLASS_TYPES, true);
 
+            parsed.bookedPriceOutbound = fields.nextDecimal();
+            parsed.bookedPriceReturn = fields.nextDecimal();
+
+            parsed.cancellationFee = fields.nextDecimal();
+            parsed.rebookFee = fields.nextDecimal();
+
+            if (fields.isNextNull()) {
+                fields.skip();
+            } else {
+                try {
+                    parsed.mealId = fields.nextInt();
                 } catch (NumberFormatException e) {
-                    throw new FlightBookingSystemException("Error parsing number in booking data on line " + lineIdx + ": " + e.getMessage(), e);
-                } catch (IllegalArgumentException e) {
-                    throw new FlightBookingSystemException("Error parsing enum/date in booking data on line " + lineIdx + ": " + e.getMessage(), e);
-                } catch (Exception ex) {
-                    throw new FlightBookingSystemException("Error loading booking on line " + lineIdx + ": " + ex.getMessage(), ex);
+                    parsed.invalidMealId = true;
                 }
-                lineIdx++;
             }
-        } finally {
-            int maxId = fbs.getBookings().stream()
-                             .mapToInt(Booking::getId)
-                             .max()
-                             .orElse(0);
-            fbs.setNextBookingId(maxId + 1);
+
+            parsed.cancelled = fields.nextBoolean();
+            return parsed;
+
+        } catch (NumberFormatException e) {
+            throw new FlightBookingSystemException("Error parsing number in booking data on line " + lineIdx + ": " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new FlightBookingSystemException("Error parsing enum/date in booking data on line " + lineIdx + ": " + e.getMessage(), e);
+        } catch (Exception ex) {
+            throw new FlightBookingSystemException("Error loading booking on line " + lineIdx + ": " + ex.getMessage(), ex);
         }
     }
 
+    /**
+     * Resolves the customer, flights and meal of a parsed booking and registers it.
+     * Bookings whose customer or outbound flight no longer exists are skipped.
+     */
     @Override
-    public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
-            for (Booking booking : fbs.getBookings()) {
-                out.print(booking.getId() + SEPARATOR);
-                out.print(booking.getCustomer().getId() + SEPARATOR);
-                out.print(booking.getOutboundFlight().getId() + SEPARATOR);
-
-                if (booking.getReturnFlight() != null) {
-                    out.print(booking.getReturnFlight().getId());
-                } else {
-                    out.print("null");
-                }
-                out.print(SEPARATOR);
+    public void addRecord(FlightBookingSystem fbs, BookingRecord parsed, int lineIdx) throws FlightBookingSystemException {
+        Customer customer = fbs.getCustomerByIDIncludingDeleted(parsed.customerId);
+        if (customer == null) {
+            System.err.println("Warning: Customer ID " + parsed.customerId + " not found for booking ID " + parsed.id + " on line " + lineIdx + ". Skipping booking.");
+            return;
+        }
+        Flight outboundFlight = fbs.getFlightByIDIncludingDeleted(parsed.outboundFlightId);
+        if (outboundFlight == null) {
+            System.err.println("Warning: Outbound flight ID " + parsed.outboundFlightId + " not found for booking ID " + parsed.id + " on line " + lineIdx + ". Skipping booking.");
+            return;
+        }
 
-                out.print(booking.getBookingDate().format(DateTimeFormatter.ISO_LOCAL_DATE) + SEPARATOR);
-                out.print(booking.getBookedClass().name() + SEPARATOR);
+        Flight returnFlight = null;
+        if (parsed.returnFlightId != null) {
+            returnFlight = fbs.getFlightByIDIncludingDeleted(parsed.returnFlightId);
+            if (returnFlight == null) {
+                System.err.println("Warning: Return flight ID " + parsed.returnFlightId + " not found for booking ID " + parsed.id + " on line " + lineIdx + ". Proceeding with one-way booking.");
+            }
+        }
 
-                out.print(booking.getBookedPriceOutbound().toPlainString() + SEPARATOR);
-                out.print(booking.getBookedPriceReturn().toPlainString() + SEPARATOR);
+        Meal meal = null;
+        if (parsed.invalidMealId) {
+            System.err.println("Warning: Invalid meal ID format on line " + lineIdx + ". Booking loaded without meal.");
+        } else if (parsed.mealId != null) {
+            meal = fbs.getMealByIDIncludingDeleted(parsed.mealId);
+            if (meal == null) {
+                System.err.println("Warning: Meal ID " + parsed.mealId + " not found for booking on line " + lineIdx + ". Booking loaded without meal.");
+            }
+        }
 
-                out.print(booking.getCancellationFee().toPlainString() + SEPARATOR);
-                out.print(booking.getRebookFee().toPlainString() + SEPARATOR);
+        try {
+            Booking booking = new Booking(parsed.id, customer, outboundFlight, returnFlight, parsed.bookingDate, parsed.bookedClass,
+                    parsed.bookedPriceOutbound, parsed.bookedPriceReturn, meal);
+            booking.setCancellationFee(parsed.cancellationFee);
+            booking.setRebookFee(parsed.rebookFee);
+            booking.setCancelled(parsed.cancelled);
 
-                if (booking.getMeal() != null) {
-                    out.print(booking.getMeal().getId());
-                } else {
-                    out.print("null");
-                }
-                out.print(SEPARATOR);
+            register(fbs, booking);
+        } catch (Exception ex) {
+            throw new FlightBookingSystemException("Error loading booking on line " + lineIdx + ": " + ex.getMessage(), ex);
+        }
+    }
 
-                out.print(booking.isCancelled());
-                out.println();
+    /**
+     * Links a loaded booking into the system: its customer is restored as a passenger on
+     * its flights unless it is cancelled, and it is added to its customer and to the
+     * system's bookings. Seats are not counted again on flights whose occupied seats
+     * were stored with them. Shared by every booking loader so that all storage formats
+     * load identically.
+     */
+    static void register(FlightBookingSystem fbs, Booking booking) throws FlightBookingSystemException {
+        if (!booking.isCancelled()) {
+            booking.getOutboundFlight().restorePassenger(booking.getCustomer(), booking.getBookedClass());
+            if (booking.getReturnFlight() != null) {
+                booking.getReturnFlight().restorePassenger(booking.getCustomer(), booking.getBookedClass());
             }
         }
+
+        booking.getCustomer().addBooking(booking);
+        fbs.addBookingWithoutFlightUpdate(booking);
+    }
+
+    @Override
+    public String formatRecord(FlightBookingSystem fbs, int id) {
+        Booking booking = fbs.getBookingByID(id);
+        return (booking != null) ? format(booking) : null;
+    }
+
+    private String format(Booking booking) {
+        StringBuilder out = new StringBuilder();
+        out.append(booking.getId() + SEPARATOR);
+        out.append(booking.getCustomer().getId() + SEPARATOR);
+        out.append(booking.getOutboundFlight().getId() + SEPARATOR);
+
+        if (booking.getReturnFlight() != null) {
+            out.append(booking.getReturnFlight().getId());
+        } else {
+            out.append("null");
+        }
+        out.append(SEPARATOR);
+
+        out.append(booking.getBookingDate().format(DateTimeFormatter.ISO_LOCAL_DATE) + SEPARATOR);
+        out.append(booking.getBookedClass().name() + SEPARATOR);
+
+        out.append(booking.getBookedPriceOutbound().toPlainString() + SEPARATOR);
+        out.append(booking.getBookedPriceReturn().toPlainString() + SEPARATOR);
+
+        out.append(booking.getCancellationFee().toPlainString() + SEPARATOR);
+        out.append(booking.getRebookFee().toPlainString() + SEPARATOR);
+
+        if (booking.getMeal() != null) {
+            out.append(booking.getMeal().getId());
+        } else {
+            out.append("null");
+        }
+        out.append(SEPARATOR);
+
+        out.append(booking.isCancelled());
+        return out.toString();
+    }
+
+    @Override
+    public void writeData(FlightBookingSystem fbs, OutputStream stream) throws IOException {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        for (Booking booking : fbs.getBookings()) {
+            out.println(format(booking));
+        }
+        out.flush();
+    }
+
+    /**
+     * The fields of a booking line, with its references still unresolved.
+     */
+    static class BookingRecord {
+        int id;
+        int customerId;
+        int outboundFlightId;
+        Integer returnFlightId;
+        LocalDate bookingDate;
+        CommercialClassType bookedClass;
+        BigDecimal bookedPriceOutbound;
+        BigDecimal bookedPriceReturn;
+        BigDecimal cancellationFee;
+        BigDecimal rebookFee;
+        Integer mealId;
+        boolean invalidMealId;
+        boolean cancelled;
     }
-}
\ No newline at end of file
+}
@@ -2,73 +2,108 @@ package bcu.cmp5332.bookingsystem.data;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityType;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.model.MealType;
 
 import java.io.*;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
-public class CustomerDataManager implements DataManager {
+public class CustomerDataManager implements TextDataManager<Customer> {
 
-    private final String RESOURCE = "./resources/data/customers.txt";
+    private final String RESOURCE;
     private final String SEPARATOR = "::";
+    private static final MealType[] MEAL_TYPES = MealType.values();
+
+    public CustomerDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public CustomerDataManager(String directory) {
+        this.RESOURCE = directory + "/customers.txt";
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.CUSTOMER;
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
 
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
-            int line_idx = 1;
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine();
-                String[] properties = line.split(SEPARATOR, -1);
-
-                if (properties.length < 7) {
-                    throw new FlightBookingSystemException("Malformed customer line at " + line_idx + ": " + line + " (Too few fields)");
-                }
-
-                try {
-                    int id = Integer.parseInt(properties[0]);
-                    String name = properties[1];
-                    String phone = properties[2];
-                    String email = properties[3];
-                    int age = Integer.parseInt(properties[4]);
-                    String gender = properties[5];
-                    MealType preferredMealType = MealType.valueOf(properties[6].toUpperCase());
-
-                    boolean isDeleted = false;
-                    if (properties.length > 7) {
-                        isDeleted = Boolean.parseBoolean(properties[7]);
-                    }
-
-                    Customer customer = new Customer(id, name, phone, email, age, gender, preferredMealType);
-                    customer.setDeleted(isDeleted);
-                    fbs.addCustomer(customer);
-
-                } catch (NumberFormatException ex) {
-                    throw new FlightBookingSystemException("Unable to parse customer ID/age on line " + line_idx + ": " + ex.getMessage(), ex);
-                } catch (IllegalArgumentException ex) {
-                    throw new FlightBookingSystemException("Invalid preferred meal type on line " + line_idx + ": " + ex.getMessage(), ex);
-                } catch (ArrayIndexOutOfBoundsException ex) {
-                    throw new FlightBookingSystemException("Malformed line at index " + line_idx + " in customer data (missing fields): " + line, ex);
-                }
-                line_idx++;
+        loadRecords(fbs, Files.readAllLines(Paths.get(RESOURCE)));
+    }
+
+    @Override
+    public Customer parseRecord(String line, int line_idx) throws FlightBookingSystemException {
+        RecordTokenizer fields = new RecordTokenizer(line);
+        int fieldCount = fields.fieldCount();
+
+        if (fieldCount < 7) {
+            throw new FlightBookingSystemException("Malformed customer line at " + line_idx + ": " + line + " (Too few fields)");
+        }
+
+        try {
+            int id = fields.nextInt();
+            String name = fields.nextString();
+            String phone = fields.nextString();
+            String email = fields.nextString();
+            int age = fields.nextInt();
+            String gender = fields.nextString();
+            MealType preferredMealType = fields.nextEnum(MEAL_TYPES, true);
+
+            boolean isDeleted = false;
+            if (fieldCount > 7) {
+                isDeleted = fields.nextBoolean();
             }
+
+            Customer customer = new Customer(id, name, phone, email, age, gender, preferredMealType);
+            customer.setDeleted(isDeleted);
+            return customer;
+
+        } catch (NumberFormatException ex) {
+            throw new FlightBookingSystemException("Unable to parse customer ID/age on line " + line_idx + ": " + ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new FlightBookingSystemException("Invalid preferred meal type on line " + line_idx + ": " + ex.getMessage(), ex);
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new FlightBookingSystemException("Malformed line at index " + line_idx + " in customer data (missing fields): " + line, ex);
         }
     }
 
     @Override
-    public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
-            for (Customer customer : fbs.getAllCustomers()) {
-                out.print(customer.getId() + SEPARATOR);
-                out.print(customer.getName() + SEPARATOR);
-                out.print(customer.getPhone() + SEPARATOR);
-                out.print(customer.getEmail() + SEPARATOR);
-                out.print(customer.getAge() + SEPARATOR);
-                out.print(customer.getGender() + SEPARATOR);
-                out.print(customer.getPreferredMealType().name() + SEPARATOR);
-                out.print(customer.isDeleted());
-                out.println();
-            }
+    public void addRecord(FlightBookingSystem fbs, Customer customer, int line_idx) {
+        fbs.addCustomer(customer);
+    }
+
+    @Override
+    public String formatRecord(FlightBookingSystem fbs, int id) {
+        Customer customer = fbs.getCustomerByIDIncludingDeleted(id);
+        return (customer != null) ? format(customer) : null;
+    }
+
+    private String format(Customer customer) {
+        return customer.getId() + SEPARATOR
+                + customer.getName() + SEPARATOR
+                + customer.getPhone() + SEPARATOR
+                + customer.getEmail() + SEPARATOR
+                + customer.getAge() + SEPARATOR
+                + customer.getGender() + SEPARATOR
+                + customer.getPreferredMealType().name() + SEPARATOR
+                + customer.isDeleted();
+    }
+
+    @Override
+    public void writeData(FlightBookingSystem fbs, OutputStream stream) throws IOException {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        for (Customer customer : fbs.getAllCustomers()) {
+            out.println(format(customer));
         }
+        out.flush();
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import java.io.IOException;
 public interface DataManager {
     
     public static final String SEPARATOR = "::";
+    public static final String DATA_DIRECTORY = "./resources/data";
     
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException;
     public void storeData(FlightBookingSystem fbs) throws IOException;
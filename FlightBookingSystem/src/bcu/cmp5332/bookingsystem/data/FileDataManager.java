@@ -0,0 +1,32 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+
+/**
+ * A {@link DataManager} that stores all entities of one type in a single resource file.
+ * The file is always replaced atomically through {@link AtomicFile}.
+ */
+public interface FileDataManager extends DataManager {
+
+    public EntityType getEntityType();
+    public String getResource();
+
+    /**
+     * Writes the content of the resource file. Must not close the stream.
+     *
+     * @param fbs The flight booking system to write.
+     * @param out The stream to write to.
+     * @throws IOException If the content cannot be written.
+     */
+    public void writeData(FlightBookingSystem fbs, OutputStream out) throws IOException;
+
+    @Override
+    public default void storeData(FlightBookingSystem fbs) throws IOException {
+        AtomicFile.write(Paths.get(getResource()), out -> writeData(fbs, out));
+    }
+
+}
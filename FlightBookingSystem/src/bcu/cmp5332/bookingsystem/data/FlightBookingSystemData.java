@@ -3,37 +3,343 @@ package bcu.cmp5332.bookingsystem.data;
 
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.EntityType;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class FlightBookingSystemData {
-    
-    private static final List<DataManager> dataManagers = new ArrayList<>();
-    
+
+    private static final List<TextDataManager<?>> dataManagers = new ArrayList<>();
+    private static final List<BinaryDataManager<?>> binaryDataManagers = new ArrayList<>();
+    private static final List<TextDataManager<?>> unpartitionedDataManagers = new ArrayList<>();
+    private static final PartitionedDataManager partitions = new PartitionedDataManager();
+    private static final Object snapshotLock = new Object();
+    private static final StorageFormat storageFormat = StorageFormat.configured();
+    private static final SnapshotManifest manifest = new SnapshotManifest();
+    private static final MutationJournal journal;
+    private static final PersistenceService<String> persistence;
+    private static final JdbcDataManager database;
+    private static final PersistenceService<JdbcDataManager.Change> databaseWriter;
+    private static final ParallelLoader loader = new ParallelLoader();
+    private static final boolean mappedBookings = MappedBookingStore.enabled();
+
     static {
         dataManagers.add(new MealDataManager());
         dataManagers.add(new CustomerDataManager());
         dataManagers.add(new FlightDataManager());
         dataManagers.add(new BookingDataManager());
+        dataManagers.add(new WaitlistDataManager());
+
+        binaryDataManagers.add(new BinaryMealDataManager());
+        binaryDataManagers.add(new BinaryCustomerDataManager());
+        binaryDataManagers.add(new BinaryFlightDataManager());
+        binaryDataManagers.add(new BinaryBookingDataManager());
+        binaryDataManagers.add(new BinaryWaitlistDataManager());
+
+        unpartitionedDataManagers.add(dataManagers.get(0));
+        unpartitionedDataManagers.add(dataManagers.get(1));
+        unpartitionedDataManagers.add(dataManagers.get(4));
+
+        journal = new MutationJournal(dataManagers, snapshotLock, manifest, storageFormat == StorageFormat.TEXT);
+        long window = PersistenceService.configuredWindowMillis();
+        persistence = new PersistenceService<>(journal::append, window);
+        if (storageFormat == StorageFormat.JDBC) {
+            database = new JdbcDataManager();
+            databaseWriter = new PersistenceService<>(database::write, window);
+        } else {
+            database = null;
+            databaseWriter = null;
+        }
+        // Fire-and-forget commits still waiting for their flush are written before exit.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            persistence.close();
+            if (database != null) {
+                databaseWriter.close();
+                database.close();
+            }
+        }, "fbs-persistence-shutdown"));
+        if (mappedBookings && storageFormat != StorageFormat.BINARY) {
+            System.err.println("Warning: " + MappedBookingStore.PROPERTY + " requires the binary storage format and is ignored.");
+        }
     }
 
-    
+
+    /**
+     * Loads the configured snapshot format. With mapped bookings, cancelled bookings are
+     * left in the binary booking file and read on demand through a {@link MappedBookingStore}.
+     *
+     * @return The loaded flight booking system.
+     * @throws FlightBookingSystemException If a record cannot be loaded.
+     * @throws IOException If a file cannot be read.
+     */
     public static FlightBookingSystem load() throws FlightBookingSystemException, IOException {
+        return load(storageFormat, mappedBookings && storageFormat == StorageFormat.BINARY);
+    }
+
+    /**
+     * Loads the snapshot files of the given format and replays the journal on top of them.
+     *
+     * @param format The format of the snapshot files to read.
+     * @return The loaded flight booking system.
+     * @throws FlightBookingSystemException If a record cannot be loaded.
+     * @throws IOException If a file cannot be read.
+     */
+    public static FlightBookingSystem load(StorageFormat format) throws FlightBookingSystemException, IOException {
+        return load(format, false);
+    }
+
+    private static FlightBookingSystem load(StorageFormat format, boolean mapped) throws FlightBookingSystemException, IOException {
 
         FlightBookingSystem fbs = new FlightBookingSystem();
-        for (DataManager dm : dataManagers) {
-            dm.loadData(fbs);
+        if (format == StorageFormat.JDBC) {
+            JdbcDataManager db = openDatabase();
+            try {
+                db.loadData(fbs);
+            } finally {
+                closeDatabase(db);
+            }
+            fbs.drainMutations();
+            fbs.markClean(EnumSet.allOf(EntityType.class));
+            return fbs;
+        }
+        manifest.recover();
+        Map<EntityType, Map<Integer, String>> journaled = journal.replay();
+        if (format == StorageFormat.BINARY) {
+            for (int i = 0; i < dataManagers.size(); i++) {
+                TextDataManager<?> dm = dataManagers.get(i);
+                Map<Integer, String> records = journaled.get(dm.getEntityType());
+                BinaryDataManager<?> binary = binaryDataManagers.get(i);
+                if (mapped && dm.getEntityType() == EntityType.BOOKING) {
+                    binary = new BinaryBookingDataManager(DataManager.DATA_DIRECTORY, false);
+                }
+                if (Files.exists(Paths.get(binary.getResource()))) {
+                    binary.loadData(fbs, records.keySet());
+                }
+                dm.loadRecords(fbs, new ArrayList<>(records.values()));
+            }
+            if (mapped && Files.exists(Paths.get(DataManager.DATA_DIRECTORY, BinaryBookingDataManager.FILE_NAME))) {
+                fbs.setBookingArchive(MappedBookingStore.open(DataManager.DATA_DIRECTORY));
+            }
+        } else {
+            boolean partitioned = format == StorageFormat.PARTITIONED;
+            YearMonth from = null;
+            if (partitioned) {
+                partitions.readCatalog();
+                if (!partitions.hasCatalog() && Files.exists(Paths.get(dataManagers.get(2).getResource()))) {
+                    System.err.println("Warning: No flight partitions found, convert the text files with 'SnapshotConverter text partitioned'.");
+                }
+                // Journaled flights and bookings may belong to any month, so they need all of them.
+                if (journaled.get(EntityType.FLIGHT).isEmpty() && journaled.get(EntityType.BOOKING).isEmpty()) {
+                    from = YearMonth.from(fbs.getSystemDate());
+                }
+            }
+            List<Callable<List<String>>> sources = new ArrayList<>();
+            for (TextDataManager<?> dm : dataManagers) {
+                Map<Integer, String> records = journaled.get(dm.getEntityType());
+                if (partitioned && !unpartitionedDataManagers.contains(dm)) {
+                    List<Path> files = partitions.selectPartitions(dm.getEntityType(), from);
+                    sources.add(() -> MutationJournal.overlay(PartitionedDataManager.readLines(files), records));
+                    continue;
+                }
+                sources.add(() -> {
+                    Path resource = Paths.get(dm.getResource());
+                    List<String> snapshot = Files.exists(resource) ? Files.readAllLines(resource) : new ArrayList<>();
+                    return MutationJournal.overlay(snapshot, records);
+                });
+            }
+            loader.load(fbs, dataManagers, sources);
+            if (partitioned) {
+                partitions.attachHistory(fbs);
+            }
+        }
+        fbs.drainMutations();
+
+        // Only entities replayed from the journal differ from the data files.
+        fbs.markClean(EnumSet.allOf(EntityType.class));
+        for (Map.Entry<EntityType, Map<Integer, String>> entry : journaled.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                fbs.markDirty(entry.getKey());
+            }
         }
         return fbs;
     }
 
+    /**
+     * Persists the mutations made since the last commit by appending them to the
+     * journal. The journal is synced to disk before this method returns, so a
+     * committed change survives a crash without rewriting the data files. Commits
+     * still queued by {@link #commitAsync} are written first.
+     *
+     * @param fbs The flight booking system whose changes are committed.
+     * @throws IOException If the journal cannot be written.
+     */
+    public static void commit(FlightBookingSystem fbs) throws IOException {
+        PersistenceService.await(commitAsync(fbs));
+    }
+
+    /**
+     * Captures the mutations made since the last commit and hands them to the background
+     * journal writer, which groups them with other commits arriving within the flush window.
+     * Must be called on the thread that mutates the system.
+     *
+     * @param fbs The flight booking system whose changes are committed.
+     * @return A future completed once the changes are synced to disk, or completed
+     * exceptionally with the {@link IOException} that prevented it.
+     */
+    public static CompletableFuture<Void> commitAsync(FlightBookingSystem fbs) {
+        // Mutations that fail to be written are given back, to be retried by the next commit.
+        if (databaseWriter != null) {
+            return databaseWriter.commit(fbs, database::capture);
+        }
+        return persistence.commit(fbs, journal::capture);
+    }
+
+    /**
+     * Writes a snapshot of every entity type changed since the data files were last
+     * written, then empties the journal. The files of unchanged types are left as they are,
+     * unless they do not exist yet.
+     *
+     * @param fbs The flight booking system to store.
+     * @throws IOException If a file cannot be written.
+     */
     public static void store(FlightBookingSystem fbs) throws IOException {
 
-        for (DataManager dm : dataManagers) {
-            dm.storeData(fbs);
+        commit(fbs);
+        Set<EntityType> dirty = fbs.getDirtyTypes();
+        if (storageFormat == StorageFormat.JDBC) {
+            // Every commit already wrote its rows to the database.
+            fbs.markClean(dirty);
+            return;
+        }
+        List<FileDataManager> changed = new ArrayList<>();
+        for (FileDataManager dm : managersFor(storageFormat)) {
+            if (dirty.contains(dm.getEntityType()) || !Files.exists(Paths.get(dm.getResource()))) {
+                changed.add(dm);
+            }
+        }
+        // Bookings are partitioned by the dates of their flights, so both are written together.
+        boolean partitionsChanged = storageFormat == StorageFormat.PARTITIONED
+                && (dirty.contains(EntityType.FLIGHT) || dirty.contains(EntityType.BOOKING) || !partitions.hasCatalog());
+        synchronized (snapshotLock) {
+            writeFiles(fbs, changed, partitionsChanged ? partitions : null);
+            journal.truncate();
         }
+        fbs.markClean(dirty);
     }
-    
+
+    /**
+     * Writes a full snapshot of the system in the given format without touching the
+     * journal, e.g. to convert the data files from one format to the other or to migrate
+     * them into the database. Past flights and bookings not loaded yet are loaded first.
+     *
+     * @param fbs The flight booking system to write.
+     * @param format The format of the snapshot files to write.
+     * @throws IOException If a file cannot be written.
+     */
+    public static void writeSnapshot(FlightBookingSystem fbs, StorageFormat format) throws IOException {
+        fbs.loadHistory();
+        if (format == StorageFormat.JDBC) {
+            JdbcDataManager db = openDatabase();
+            try {
+                db.storeData(fbs);
+            } finally {
+                closeDatabase(db);
+            }
+            return;
+        }
+        synchronized (snapshotLock) {
+            if (format == StorageFormat.PARTITIONED && storageFormat != StorageFormat.PARTITIONED) {
+                partitions.readCatalog();
+            }
+            writeFiles(fbs, managersFor(format), (format == StorageFormat.PARTITIONED) ? partitions : null);
+        }
+    }
+
+    /**
+     * Writes the files of the given managers to temporary files concurrently, then commits
+     * them together as the next generation of the manifest. If any file fails, none of
+     * them replaces its data file. The partition files, if given, are part of the same generation.
+     */
+    private static void writeFiles(FlightBookingSystem fbs, List<? extends FileDataManager> managers,
+            PartitionedDataManager partitioned) throws IOException {
+        List<ForkJoinTask<AtomicFile.Prepared>> tasks = new ArrayList<>();
+        for (FileDataManager dm : managers) {
+            tasks.add(ForkJoinPool.commonPool().submit(
+                    () -> AtomicFile.prepare(Paths.get(dm.getResource()), out -> dm.writeData(fbs, out))));
+        }
+        if (partitioned != null) {
+            for (Callable<AtomicFile.Prepared> task : partitioned.prepare(fbs)) {
+                tasks.add(ForkJoinPool.commonPool().submit(task));
+            }
+        }
+
+        List<AtomicFile.Prepared> prepared = new ArrayList<>();
+        IOException failure = null;
+        for (ForkJoinTask<AtomicFile.Prepared> task : tasks) {
+            try {
+                prepared.add(task.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = (failure != null) ? failure : new IOException("Interrupted while storing data.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (failure == null) {
+                    failure = (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            for (AtomicFile.Prepared file : prepared) {
+                file.discard();
+            }
+            if (partitioned != null) {
+                partitioned.discardPending();
+            }
+            throw failure;
+        }
+        manifest.commit(prepared);
+        if (partitioned != null) {
+            partitioned.committed();
+        }
+    }
+
+    /**
+     * Returns the database of the running system, or a new connection to the configured
+     * database when the system is not stored in one.
+     */
+    private static JdbcDataManager openDatabase() {
+        return (database != null) ? database : new JdbcDataManager();
+    }
+
+    private static void closeDatabase(JdbcDataManager db) {
+        if (db != database) {
+            db.close();
+        }
+    }
+
+    private static List<? extends FileDataManager> managersFor(StorageFormat format) {
+        switch (format) {
+            case BINARY:
+                return binaryDataManagers;
+            case PARTITIONED:
+                return unpartitionedDataManagers;
+            default:
+                return dataManagers;
+        }
+    }
+
 }
@@ -0,0 +1,628 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightType;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import bcu.cmp5332.bookingsystem.model.Mutation;
+import bcu.cmp5332.bookingsystem.model.WaitlistEntry;
+import bcu.cmp5332.bookingsystem.model.WaitlistStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the system in an embedded, file-based SQL database through JDBC, as an
+ * alternative to the data files. Each entity type has its own table, with indexes for the
+ * lookups the system makes, and commits write only the rows of the mutated entities in a
+ * single transaction. Prices are stored as decimal text, so they read back exactly as
+ * they were, with their scale, and dates as ISO text.
+ * <p>
+ * The database is named by a JDBC URL, set with the {@code fbs.jdbc.url} system property
+ * and defaulting to an H2 database in the data directory. Only standard SQL is used, so
+ * SQLite works as well (e.g. {@code jdbc:sqlite:./resources/data/flightbooking.db}); the
+ * driver of the chosen database must be on the class path.
+ */
+public class JdbcDataManager implements DataManager, AutoCloseable {
+
+    public static final String URL_PROPERTY = "fbs.jdbc.url";
+    public static final String DEFAULT_URL = "jdbc:h2:" + DATA_DIRECTORY + "/flightbooking";
+
+    private static final Table MEALS = new Table("meals", "id",
+            "id", "name", "description", "price", "meal_type", "deleted");
+    private static final Table CUSTOMERS = new Table("customers", "id",
+            "id", "name", "phone", "email", "age", "gender", "preferred_meal_type", "deleted");
+    private static final Table FLIGHTS = new Table("flights", "id",
+            "id", "flight_number", "origin", "destination", "departure_date", "economy_price",
+            "capacity", "flight_type", "deleted");
+    private static final Table FLIGHT_CLASSES = new Table("flight_classes", "flight_id",
+            "flight_id", "class_type", "capacity", "occupied");
+    private static final Table BOOKINGS = new Table("bookings", "id",
+            "id", "customer_id", "outbound_flight_id", "return_flight_id", "booking_date", "booked_class",
+            "price_outbound", "price_return", "cancellation_fee", "rebook_fee",
+            "meal_id", "cancelled");
+    private static final Table WAITLIST = new Table("waitlist", "id",
+            "id", "customer_id", "flight_id", "class_type", "joined_date", "status", "booking_id");
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS meals (id INTEGER PRIMARY KEY, name VARCHAR(255) NOT NULL,"
+                + " description VARCHAR(1024), price VARCHAR(64) NOT NULL, meal_type VARCHAR(32) NOT NULL,"
+                + " deleted BOOLEAN NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS customers (id INTEGER PRIMARY KEY, name VARCHAR(255) NOT NULL,"
+                + " phone VARCHAR(64), email VARCHAR(255), age INTEGER NOT NULL, gender VARCHAR(32),"
+                + " preferred_meal_type VARCHAR(32) NOT NULL, deleted BOOLEAN NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS flights (id INTEGER PRIMARY KEY, flight_number VARCHAR(32) NOT NULL,"
+                + " origin VARCHAR(255) NOT NULL, destination VARCHAR(255) NOT NULL, departure_date CHAR(10) NOT NULL,"
+                + " economy_price VARCHAR(64) NOT NULL, capacity INTEGER NOT NULL, flight_type VARCHAR(32) NOT NULL,"
+                + " deleted BOOLEAN NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS flight_classes (flight_id INTEGER NOT NULL, class_type VARCHAR(32) NOT NULL,"
+                + " capacity INTEGER, occupied INTEGER, PRIMARY KEY (flight_id, class_type))",
+        "CREATE TABLE IF NOT EXISTS bookings (id INTEGER PRIMARY KEY, customer_id INTEGER NOT NULL,"
+                + " outbound_flight_id INTEGER NOT NULL, return_flight_id INTEGER, booking_date CHAR(10) NOT NULL,"
+                + " booked_class VARCHAR(32) NOT NULL, price_outbound VARCHAR(64) NOT NULL,"
+                + " price_return VARCHAR(64) NOT NULL, cancellation_fee VARCHAR(64) NOT NULL,"
+                + " rebook_fee VARCHAR(64) NOT NULL, meal_id INTEGER, cancelled BOOLEAN NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS waitlist (id INTEGER PRIMARY KEY, customer_id INTEGER NOT NULL,"
+                + " flight_id INTEGER NOT NULL, class_type VARCHAR(32) NOT NULL, joined_date CHAR(10) NOT NULL,"
+                + " status VARCHAR(32) NOT NULL, booking_id INTEGER NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_flights_number_date ON flights (flight_number, departure_date)",
+        "CREATE INDEX IF NOT EXISTS idx_flights_route ON flights (origin, destination, departure_date)",
+        "CREATE INDEX IF NOT EXISTS idx_bookings_customer ON bookings (customer_id)",
+        "CREATE INDEX IF NOT EXISTS idx_bookings_outbound ON bookings (outbound_flight_id)",
+        "CREATE INDEX IF NOT EXISTS idx_bookings_return ON bookings (return_flight_id)",
+        "CREATE INDEX IF NOT EXISTS idx_waitlist_flight ON waitlist (flight_id)",
+    };
+
+    private final String url;
+    private Connection connection;
+
+    public JdbcDataManager() {
+        this(configuredUrl());
+    }
+
+    public JdbcDataManager(String url) {
+        this.url = url;
+    }
+
+    /**
+     * @return The URL set by the {@code fbs.jdbc.url} system property, or {@link #DEFAULT_URL}.
+     */
+    public static String configuredUrl() {
+        String value = System.getProperty(URL_PROPERTY);
+        return (value == null || value.trim().isEmpty()) ? DEFAULT_URL : value.trim();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public synchronized void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        try {
+            Connection db = connection();
+            loadMeals(db, fbs);
+            loadCustomers(db, fbs);
+            loadFlights(db, fbs);
+            loadBookings(db, fbs);
+            loadWaitlist(db, fbs);
+            db.commit();
+        } catch (SQLException e) {
+            throw new IOException("Unable to read the database " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replaces the content of every table with the whole system in one transaction, e.g.
+     * to migrate the data files into the database.
+     */
+    @Override
+    public synchronized void storeData(FlightBookingSystem fbs) throws IOException {
+        List<Change> changes = new ArrayList<>();
+        for (Meal meal : fbs.getAllMeals()) {
+            changes.add(capture(fbs, EntityType.MEAL, meal.getId()));
+        }
+        for (Customer customer : fbs.getAllCustomers()) {
+            changes.add(capture(fbs, EntityType.CUSTOMER, customer.getId()));
+        }
+        for (Flight flight : fbs.getAllFlights()) {
+            changes.add(capture(fbs, EntityType.FLIGHT, flight.getId()));
+        }
+        for (Booking booking : fbs.getBookings()) {
+            changes.add(capture(fbs, EntityType.BOOKING, booking.getId()));
+        }
+        for (WaitlistEntry entry : fbs.getWaitlistEntries()) {
+            changes.add(capture(fbs, EntityType.WAITLIST, entry.getId()));
+        }
+
+        try {
+            Connection db = connection();
+            try (Statement statement = db.createStatement()) {
+                for (Table table : new Table[] {WAITLIST, BOOKINGS, FLIGHT_CLASSES, FLIGHTS, CUSTOMERS, MEALS}) {
+                    statement.executeUpdate("DELETE FROM " + table.name);
+                }
+            }
+            insert(db, changes);
+            db.commit();
+        } catch (SQLException e) {
+            rollback();
+            throw new IOException("Unable to write the database " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drains the pending mutations of the system and captures the current rows of every
+     * mutated entity. This reads the model, so it must run on the thread that mutates it;
+     * the returned changes can then be written from any thread.
+     *
+     * @param fbs The flight booking system to capture mutations from.
+     * @return One change per mutated entity, in mutation order.
+     */
+    public List<Change> capture(FlightBookingSystem fbs) {
+        return capture(fbs, fbs.drainMutations());
+    }
+
+    /**
+     * Captures the current rows of every entity changed by the given mutations, which
+     * the caller has drained from the system. If a row cannot be captured, the mutations
+     * are given back to the system, so that no change is lost.
+     *
+     * @param fbs The flight booking system the mutations were drained from.
+     * @param mutations The drained mutations.
+     * @return One change per mutated entity, in mutation order.
+     */
+    public List<Change> capture(FlightBookingSystem fbs, List<Mutation> mutations) {
+        try {
+            Map<String, Mutation> latest = new LinkedHashMap<>();
+            for (Mutation mutation : mutations) {
+                String key = mutation.getEntityType() + SEPARATOR + mutation.getEntityId();
+                latest.remove(key);
+                latest.put(key, mutation);
+            }
+            List<Change> changes = new ArrayList<>();
+            for (Mutation mutation : latest.values()) {
+                changes.add(capture(fbs, mutation.getEntityType(), mutation.getEntityId()));
+            }
+            return changes;
+        } catch (RuntimeException e) {
+            fbs.restoreMutations(mutations);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the rows of the given changes in one transaction, replacing the previous
+     * rows of each entity.
+     *
+     * @param changes The changes produced by {@link #capture(FlightBookingSystem)}.
+     * @throws IOException If the transaction fails; it is rolled back.
+     */
+    public synchronized void write(List<Change> changes) throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            Connection db = connection();
+            Map<String, PreparedStatement> deletes = new HashMap<>();
+            try {
+                for (Change change : changes) {
+                    for (Table table : tablesOf(change.type)) {
+                        PreparedStatement delete = deletes.get(table.name);
+                        if (delete == null) {
+                            delete = db.prepareStatement("DELETE FROM " + table.name + " WHERE " + table.key + " = ?");
+                            deletes.put(table.name, delete);
+                        }
+                        delete.setInt(1, change.id);
+                        delete.addBatch();
+                    }
+                }
+                for (PreparedStatement delete : deletes.values()) {
+                    delete.executeBatch();
+                }
+            } finally {
+                for (PreparedStatement delete : deletes.values()) {
+                    delete.close();
+                }
+            }
+            insert(db, changes);
+            db.commit();
+        } catch (SQLException e) {
+            rollback();
+            throw new IOException("Unable to write the database " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Warning: Unable to close the database " + url + ": " + e.getMessage());
+            }
+            connection = null;
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DriverManager.getConnection(url);
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+            connection.commit();
+        }
+        return connection;
+    }
+
+    private void rollback() {
+        try {
+            if (connection != null) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            System.err.println("Warning: Unable to roll back the database " + url + ": " + e.getMessage());
+        }
+    }
+
+    private static Table[] tablesOf(EntityType type) {
+        switch (type) {
+            case MEAL:
+                return new Table[] {MEALS};
+            case CUSTOMER:
+                return new Table[] {CUSTOMERS};
+            case FLIGHT:
+                return new Table[] {FLIGHTS, FLIGHT_CLASSES};
+            case WAITLIST:
+                return new Table[] {WAITLIST};
+            default:
+                return new Table[] {BOOKINGS};
+        }
+    }
+
+    private static void insert(Connection db, List<Change> changes) throws SQLException {
+        Map<Table, PreparedStatement> inserts = new HashMap<>();
+        try {
+            for (Change change : changes) {
+                for (Row row : change.rows) {
+                    PreparedStatement insert = inserts.get(row.table);
+                    if (insert == null) {
+                        insert = db.prepareStatement(row.table.insertSql());
+                        inserts.put(row.table, insert);
+                    }
+                    for (int i = 0; i < row.values.length; i++) {
+                        setValue(insert, i + 1, row.values[i]);
+                    }
+                    insert.addBatch();
+                }
+            }
+            // Parents before children, although no foreign keys are declared.
+            for (Table table : new Table[] {MEALS, CUSTOMERS, FLIGHTS, FLIGHT_CLASSES, BOOKINGS, WAITLIST}) {
+                PreparedStatement insert = inserts.get(table);
+                if (insert != null) {
+                    insert.executeBatch();
+                }
+            }
+        } finally {
+            for (PreparedStatement insert : inserts.values()) {
+                insert.close();
+            }
+        }
+    }
+
+    private static void setValue(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else if (value instanceof Integer) {
+            statement.setInt(index, (Integer) value);
+        } else if (value instanceof Long) {
+            statement.setLong(index, (Long) value);
+        } else if (value instanceof Boolean) {
+            statement.setBoolean(index, (Boolean) value);
+        } else {
+            statement.setString(index, value.toString());
+        }
+    }
+
+    private static Change capture(FlightBookingSystem fbs, EntityType type, int id) {
+        Change change = new Change(type, id);
+        switch (type) {
+            case MEAL: {
+                Meal meal = fbs.getMealByIDIncludingDeleted(id);
+                if (meal != null) {
+                    change.add(MEALS, meal.getId(), meal.getName(), meal.getDescription(),
+                            amount(meal.getPrice()), meal.getType().name(), meal.isDeleted());
+                }
+                break;
+            }
+            case CUSTOMER: {
+                Customer customer = fbs.getCustomerByIDIncludingDeleted(id);
+                if (customer != null) {
+                    change.add(CUSTOMERS, customer.getId(), customer.getName(), customer.getPhone(),
+                            customer.getEmail(), customer.getAge(), customer.getGender(),
+                            customer.getPreferredMealType().name(), customer.isDeleted());
+                }
+                break;
+            }
+            case FLIGHT: {
+                Flight flight = fbs.getFlightByIDIncludingDeleted(id);
+                if (flight != null) {
+                    change.add(FLIGHTS, flight.getId(), flight.getFlightNumber(), flight.getOrigin(),
+                            flight.getDestination(), flight.getDepartureDate(),
+                            amount(flight.getEconomyPrice()), flight.getCapacity(),
+                            flight.getFlightType().name(), flight.isDeleted());
+                    // Budget capacities are implied by the total capacity, as in flights.txt.
+                    Map<CommercialClassType, Integer> capacities = flight.getFlightType() == FlightType.COMMERCIAL
+                            ? flight.getClassCapacities() : new HashMap<>();
+                    Map<CommercialClassType, Integer> occupiedSeats = flight.getOccupiedSeatsMap();
+                    for (CommercialClassType classType : CommercialClassType.values()) {
+                        Integer capacity = capacities.get(classType);
+                        Integer occupied = occupiedSeats.get(classType);
+                        if (capacity != null || occupied != null) {
+                            change.add(FLIGHT_CLASSES, flight.getId(), classType.name(), capacity, occupied);
+                        }
+                    }
+                }
+                break;
+            }
+            case BOOKING: {
+                Booking booking = fbs.getBookingByID(id);
+                if (booking != null) {
+                    change.add(BOOKINGS, booking.getId(), booking.getCustomer().getId(),
+                            booking.getOutboundFlight().getId(),
+                            booking.getReturnFlight() != null ? booking.getReturnFlight().getId() : null,
+                            booking.getBookingDate(), booking.getBookedClass().name(),
+                            amount(booking.getBookedPriceOutbound()),
+                            amount(booking.getBookedPriceReturn()),
+                            amount(booking.getCancellationFee()),
+                            amount(booking.getRebookFee()),
+                            booking.getMeal() != null ? booking.getMeal().getId() : null,
+                            booking.isCancelled());
+                }
+                break;
+            }
+            case WAITLIST: {
+                // Only waiting entries are kept, so an entry that was promoted or left is deleted.
+                WaitlistEntry entry = fbs.getWaitlistEntryByID(id);
+                if (entry != null && entry.isWaiting()) {
+                    change.add(WAITLIST, entry.getId(), entry.getCustomer().getId(), entry.getFlight().getId(),
+                            entry.getClassType().name(), entry.getJoinedDate(), entry.getStatus().name(),
+                            entry.getBookingId());
+                }
+                break;
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Formats an amount so that {@link BigDecimal#BigDecimal(String)} reads it back unchanged.
+     */
+    private static String amount(BigDecimal amount) {
+        return amount.toString();
+    }
+
+    private static BigDecimal amount(String text) {
+        return new BigDecimal(text);
+    }
+
+    private static void loadMeals(Connection db, FlightBookingSystem fbs) throws SQLException, FlightBookingSystemException {
+        try (Statement statement = db.createStatement();
+                ResultSet rows = statement.executeQuery(MEALS.selectSql())) {
+            while (rows.next()) {
+                int id = rows.getInt("id");
+                try {
+                    Meal meal = new Meal(id, rows.getString("name"), rows.getString("description"),
+                            amount(rows.getString("price")),
+                            MealType.valueOf(rows.getString("meal_type")));
+                    meal.setDeleted(rows.getBoolean("deleted"));
+                    fbs.addMeal(meal);
+                } catch (IllegalArgumentException ex) {
+                    throw new FlightBookingSystemException("Unable to load meal ID " + id + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    private static void loadCustomers(Connection db, FlightBookingSystem fbs) throws SQLException, FlightBookingSystemException {
+        try (Statement statement = db.createStatement();
+                ResultSet rows = statement.executeQuery(CUSTOMERS.selectSql())) {
+            while (rows.next()) {
+                int id = rows.getInt("id");
+                try {
+                    Customer customer = new Customer(id, rows.getString("name"), rows.getString("phone"),
+                            rows.getString("email"), rows.getInt("age"), rows.getString("gender"),
+                            MealType.valueOf(rows.getString("preferred_meal_type")));
+                    customer.setDeleted(rows.getBoolean("deleted"));
+                    fbs.addCustomer(customer);
+                } catch (IllegalArgumentException ex) {
+                    throw new FlightBookingSystemException("Invalid preferred meal type for customer ID " + id + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    private static void loadFlights(Connection db, FlightBookingSystem fbs) throws SQLException, FlightBookingSystemException {
+        Map<Integer, Map<CommercialClassType, Integer>> capacities = new HashMap<>();
+        Map<Integer, Map<CommercialClassType, Integer>> occupied = new HashMap<>();
+        try (Statement statement = db.createStatement();
+                ResultSet rows = statement.executeQuery(FLIGHT_CLASSES.selectSql())) {
+            while (rows.next()) {
+                int flightId = rows.getInt("flight_id");
+                CommercialClassType classType;
+                try {
+                    classType = CommercialClassType.valueOf(rows.getString("class_type"));
+                } catch (IllegalArgumentException ex) {
+                    throw new FlightBookingSystemException("Invalid class type for flight ID " + flightId + ": " + ex.getMessage(), ex);
+                }
+                int capacity = rows.getInt("capacity");
+                if (!rows.wasNull()) {
+                    capacities.computeIfAbsent(flightId, k -> new EnumMap<>(CommercialClassType.class)).put(classType, capacity);
+                }
+                int seats = rows.getInt("occupied");
+                if (!rows.wasNull()) {
+                    occupied.computeIfAbsent(flightId, k -> new EnumMap<>(CommercialClassType.class)).put(classType, seats);
+                }
+            }
+        }
+
+        try (Statement statement = db.createStatement();
+                ResultSet rows = statement.executeQuery(FLIGHTS.selectSql())) {
+            while (rows.next()) {
+                int id = rows.getInt("id");
+                try {
+                    FlightType flightType = FlightType.valueOf(rows.getString("flight_type"));
+                    LocalDate departureDate = LocalDate.parse(rows.getString("departure_date"));
+                    Flight flight;
+                    if (flightType == FlightType.BUDGET) {
+                        flight = new Flight(id, rows.getString("flight_number"), rows.getString("origin"),
+                                rows.getString("destination"), departureDate,
+                                amount(rows.getString("economy_price")), rows.getInt("capacity"));
+                    } else {
+                        flight = new Flight(id, rows.getString("flight_number"), rows.getString("origin"),
+                                rows.getString("destination"), departureDate,
+                                amount(rows.getString("economy_price")), rows.getInt("capacity"),
+                                flightType, capacities.get(id));
+                    }
+                    flight.setDeleted(rows.getBoolean("deleted"));
+                    if (occupied.containsKey(id)) {
+                        flight.setOccupiedSeatsByClass(occupied.get(id));
+                    }
+                    fbs.addFlight(flight);
+                } catch (DateTimeParseException ex) {
+                    throw new FlightBookingSystemException("Invalid departure date for flight ID " + id + ": " + ex.getMessage(), ex);
+                } catch (FlightBookingSystemException | IllegalArgumentException ex) {
+                    throw new FlightBookingSystemException("Unable to load flight ID " + id + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    private static void loadBookings(Connection db, FlightBookingSystem fbs) throws SQLException, FlightBookingSystemException {
+        BookingDataManager bookings = new BookingDataManager();
+        int rowIdx = 1;
+        try (Statement statement = db.createStatement();
+                ResultSet rows = statement.executeQuery(BOOKINGS.selectSql())) {
+            while (rows.next()) {
+                BookingDataManager.BookingRecord record = new BookingDataManager.BookingRecord();
+                record.id = rows.getInt("id");
+                try {
+                    record.customerId = rows.getInt("customer_id");
+                    record.outboundFlightId = rows.getInt("outbound_flight_id");
+                    int returnFlightId = rows.getInt("return_flight_id");
+                    record.returnFlightId = rows.wasNull() ? null : returnFlightId;
+                    record.bookingDate = LocalDate.parse(rows.getString("booking_date"));
+                    record.bookedClass = CommercialClassType.valueOf(rows.getString("booked_class"));
+                    record.bookedPriceOutbound = amount(rows.getString("price_outbound"));
+                    record.bookedPriceReturn = amount(rows.getString("price_return"));
+                    record.cancellationFee = amount(rows.getString("cancellation_fee"));
+                    record.rebookFee = amount(rows.getString("rebook_fee"));
+                    int mealId = rows.getInt("meal_id");
+                    record.mealId = rows.wasNull() ? null : mealId;
+                    record.cancelled = rows.getBoolean("cancelled");
+                } catch (DateTimeParseException | IllegalArgumentException ex) {
+                    throw new FlightBookingSystemException("Error parsing enum/date of booking ID " + record.id + ": " + ex.getMessage(), ex);
+                }
+                bookings.addRecord(fbs, record, rowIdx++);
+            }
+        }
+    }
+
+    private static void loadWaitlist(Connection db, FlightBookingSystem fbs) throws SQLException, FlightBookingSystemException {
+        try (Statement statement = db.createStatement();
+                ResultSet rows = statement.executeQuery(WAITLIST.selectSql())) {
+            while (rows.next()) {
+                int id = rows.getInt("id");
+                WaitlistEntry entry;
+                try {
+                    entry = WaitlistDataManager.resolve(fbs, id, rows.getInt("customer_id"), rows.getInt("flight_id"),
+                            CommercialClassType.valueOf(rows.getString("class_type")),
+                            LocalDate.parse(rows.getString("joined_date")),
+                            WaitlistStatus.valueOf(rows.getString("status")), rows.getInt("booking_id"), "the database");
+                } catch (DateTimeParseException | IllegalArgumentException ex) {
+                    throw new FlightBookingSystemException("Error parsing enum/date of waitlist entry ID " + id + ": " + ex.getMessage(), ex);
+                }
+                if (entry != null) {
+                    fbs.addWaitlistEntry(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * The new rows of one mutated entity; no rows if the entity no longer exists.
+     */
+    public static final class Change {
+
+        private final EntityType type;
+        private final int id;
+        private final List<Row> rows = new ArrayList<>();
+
+        private Change(EntityType type, int id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        private void add(Table table, Object... values) {
+            rows.add(new Row(table, values));
+        }
+    }
+
+    private static final class Row {
+        final Table table;
+        final Object[] values;
+
+        Row(Table table, Object[] values) {
+            this.table = table;
+            this.values = values;
+        }
+    }
+
+    private static final class Table {
+        final String name;
+        final String key;
+        final String[] columns;
+
+        Table(String name, String key, String... columns) {
+            this.name = name;
+            this.key = key;
+            this.columns = columns;
+        }
+
+        String insertSql() {
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(name).append(" (")
+                    .append(String.join(", ", columns)).append(") VALUES (");
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            return sql.append(')').toString();
+        }
+
+        String selectSql() {
+            return "SELECT " + String.join(", ", columns) + " FROM " + name + " ORDER BY " + columns[0];
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingArchive;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads bookings on demand from the binary booking snapshot, which is memory-mapped
+ * rather than loaded, so bookings that are not needed in memory stay on disk. The
+ * fixed-width records are found by ID, and by customer, through a sidecar index file,
+ * also mapped:
+ * <pre>
+ *   int    magic ("FBSI")
+ *   short  format version
+ *   long   size of the booking file
+ *   long   last-modified time of the booking file, in milliseconds
+ *   int    entry count
+ *   entry count entries of int booking ID and long record offset, in ID order
+ *   entry count entries of int customer ID and long record offset, in customer ID
+ *          order and then booking ID order
+ * </pre>
+ * The index is rebuilt from the booking file whenever it does not match it, so it never
+ * needs to be written together with the snapshot.
+ * <p>
+ * Enabled with {@code -Dfbs.mappedBookings=true} together with the binary storage format,
+ * in which case cancelled bookings are left in the archive instead of being loaded.
+ */
+public class MappedBookingStore implements BookingArchive {
+
+    public static final String PROPERTY = "fbs.mappedBookings";
+    public static final String INDEX_FILE_NAME = "bookings.idx";
+    public static final int INDEX_MAGIC = 0x46425349;
+    public static final short INDEX_VERSION = 2;
+
+    private static final int INDEX_HEADER_SIZE = 26;
+    private static final int INDEX_ENTRY_SIZE = 12;
+    private static final int RECORD_SIZE = BinaryBookingDataManager.RECORD_SIZE;
+
+    private final Path dataFile;
+    private final ByteBuffer data;
+    private final String[] dictionary;
+    private final int recordStart;
+    private final int recordCount;
+    private final ByteBuffer index;
+
+    private MappedBookingStore(Path dataFile, Path indexFile) throws IOException {
+        this.dataFile = dataFile;
+        this.data = map(dataFile);
+        BinaryDataManager.Header header = BinaryDataManager.Header.read(data.duplicate(), dataFile.toString(),
+                EntityType.BOOKING, RECORD_SIZE);
+        this.dictionary = header.dictionary;
+        this.recordStart = header.start;
+        this.recordCount = header.recordCount;
+        this.index = openIndex(indexFile);
+    }
+
+    /**
+     * @return Whether the {@code fbs.mappedBookings} system property is set.
+     */
+    public static boolean enabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Maps the booking snapshot of a data directory and its index, rebuilding the index
+     * if it is missing or out of date.
+     *
+     * @param directory The data directory.
+     * @return The opened store.
+     * @throws IOException If the booking file cannot be mapped or is not a valid snapshot.
+     */
+    public static MappedBookingStore open(String directory) throws IOException {
+        Path dir = Paths.get(directory);
+        return new MappedBookingStore(dir.resolve(BinaryBookingDataManager.FILE_NAME), dir.resolve(INDEX_FILE_NAME));
+    }
+
+    /**
+     * @return The number of bookings in the store.
+     */
+    public int size() {
+        return index.getInt(INDEX_HEADER_SIZE - 4);
+    }
+
+    @Override
+    public Booking getBooking(FlightBookingSystem fbs, int id) {
+        int slot = find(id);
+        return (slot < 0) ? null : read(fbs, offsetAt(slot));
+    }
+
+    /**
+     * Finds the records of the customer through the customer section of the index, in
+     * O(log n + k) for k bookings of the customer.
+     */
+    @Override
+    public List<Booking> getBookingsForCustomer(FlightBookingSystem fbs, int customerId) {
+        List<Booking> bookings = new ArrayList<>();
+        int count = size();
+        for (int slot = firstOfCustomer(customerId); slot < count && customerAt(slot) == customerId; slot++) {
+            Booking booking = read(fbs, customerOffsetAt(slot));
+            if (booking != null) {
+                bookings.add(booking);
+            }
+        }
+        return bookings;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return find(id) >= 0;
+    }
+
+    @Override
+    public int getMaxBookingId() {
+        int count = size();
+        return (count == 0) ? 0 : idAt(count - 1);
+    }
+
+    /**
+     * Counts the records of bookings that the system does not hold in memory.
+     *
+     * @param fbs The flight booking system.
+     * @return The number of records only held by the store.
+     */
+    public int countRecordsNotIn(FlightBookingSystem fbs) {
+        int count = 0;
+        for (int i = 0; i < recordCount; i++) {
+            if (!fbs.isBookingInMemory(data.getInt(recordStart + i * RECORD_SIZE))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies the records of bookings that the system does not hold in memory. Amounts held
+     * in the dictionary of the store are moved to the dictionary of the file being written.
+     *
+     * @param fbs The flight booking system.
+     * @param out The buffer to append the records to.
+     * @param outDictionary The dictionary of the file being written.
+     */
+    void copyRecordsNotIn(FlightBookingSystem fbs, ByteBuffer out, BinaryDataManager.StringDictionary outDictionary) {
+        ByteBuffer source = data.duplicate();
+        for (int i = 0; i < recordCount; i++) {
+            int offset = recordStart + i * RECORD_SIZE;
+            if (!fbs.isBookingInMemory(data.getInt(offset))) {
+                int start = out.position();
+                source.limit(offset + RECORD_SIZE).position(offset);
+                out.put(source);
+                for (int amountOffset : BinaryBookingDataManager.AMOUNT_OFFSETS) {
+                    int amount = start + amountOffset;
+                    if (out.get(amount + 8) == BinaryDataManager.DICTIONARY_AMOUNT) {
+                        out.putLong(amount, outDictionary.ref(dictionary[Math.toIntExact(out.getLong(amount))]));
+                    }
+                }
+            }
+        }
+    }
+
+    private Booking read(FlightBookingSystem fbs, int offset) {
+        ByteBuffer in = data.duplicate();
+        in.position(offset);
+        try {
+            return BinaryBookingDataManager.readBooking(fbs, in, dictionary, "archived record at offset " + offset);
+        } catch (FlightBookingSystemException e) {
+            System.err.println("Warning: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private int find(int id) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The first slot of the customer section whose customer ID is not below the given one.
+     */
+    private int firstOfCustomer(int customerId) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (customerAt(mid) < customerId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int customerAt(int slot) {
+        return index.getInt(customerSection() + slot * INDEX_ENTRY_SIZE);
+    }
+
+    private int customerOffsetAt(int slot) {
+        return (int) index.getLong(customerSection() + slot * INDEX_ENTRY_SIZE + 4);
+    }
+
+    private int customerSection() {
+        return INDEX_HEADER_SIZE + size() * INDEX_ENTRY_SIZE;
+    }
+
+    private int idAt(int slot) {
+        return index.getInt(INDEX_HEADER_SIZE + slot * INDEX_ENTRY_SIZE);
+    }
+
+    private int offsetAt(int slot) {
+        return (int) index.getLong(INDEX_HEADER_SIZE + slot * INDEX_ENTRY_SIZE + 4);
+    }
+
+    private ByteBuffer openIndex(Path indexFile) throws IOException {
+        long dataSize = Files.size(dataFile);
+        long dataModified = Files.getLastModifiedTime(dataFile).toMillis();
+        if (Files.exists(indexFile)) {
+            ByteBuffer existing = map(indexFile);
+            if (existing.capacity() >= INDEX_HEADER_SIZE
+                    && existing.getInt(0) == INDEX_MAGIC
+                    && existing.getShort(4) == INDEX_VERSION
+                    && existing.getLong(6) == dataSize
+                    && existing.getLong(14) == dataModified
+                    && existing.getInt(22) == recordCount
+                    && existing.capacity() == INDEX_HEADER_SIZE + 2L * recordCount * INDEX_ENTRY_SIZE) {
+                return existing;
+            }
+        }
+
+        // Sort the records by ID; the record number fits in the low half of each key.
+        long[] keys = new long[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            keys[i] = ((long) data.getInt(recordStart + i * RECORD_SIZE) << 32) | i;
+        }
+        Arrays.sort(keys);
+        // Then by customer; the slot in ID order keeps each customer's bookings in ID order.
+        long[] customerKeys = new long[recordCount];
+        for (int slot = 0; slot < recordCount; slot++) {
+            int customerId = data.getInt(recordOffset(keys[slot]) + BinaryBookingDataManager.CUSTOMER_OFFSET);
+            customerKeys[slot] = ((long) customerId << 32) | slot;
+        }
+        Arrays.sort(customerKeys);
+
+        ByteBuffer built = ByteBuffer.allocate(INDEX_HEADER_SIZE + 2 * recordCount * INDEX_ENTRY_SIZE);
+        built.putInt(INDEX_MAGIC).putShort(INDEX_VERSION).putLong(dataSize).putLong(dataModified).putInt(recordCount);
+        for (long key : keys) {
+            built.putInt((int) (key >> 32)).putLong(recordOffset(key));
+        }
+        for (long key : customerKeys) {
+            built.putInt((int) (key >> 32)).putLong(recordOffset(keys[(int) key]));
+        }
+        built.flip();
+
+        try {
+            AtomicFile.write(indexFile, stream -> stream.write(built.array()));
+            return map(indexFile);
+        } catch (IOException e) {
+            System.err.println("Warning: Unable to write " + indexFile + ", keeping the booking index in memory: " + e.getMessage());
+            return built;
+        }
+    }
+
+    /**
+     * @return The offset of the record whose number is in the low half of the key.
+     */
+    private int recordOffset(long key) {
+        return recordStart + (int) key * RECORD_SIZE;
+    }
+
+    /**
+     * Maps a whole file read-only. The mapping stays valid after the channel is closed,
+     * and after the file is atomically replaced.
+     */
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to map.");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
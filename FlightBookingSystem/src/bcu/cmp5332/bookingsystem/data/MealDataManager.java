@@ -1,74 +1,113 @@
 package bcu.cmp5332.bookingsystem.data;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.EntityType;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.model.Meal;
 import bcu.cmp5332.bookingsystem.model.MealType;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
-public class MealDataManager implements DataManager {
+public class MealDataManager implements TextDataManager<Meal> {
 
-    private final String RESOURCE = "./resources/data/meals.txt";
+    private final String RESOURCE;
     private final String SEPARATOR = "::";
+    private static final MealType[] MEAL_TYPES = MealType.values();
+
+    public MealDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public MealDataManager(String directory) {
+        this.RESOURCE = directory + "/meals.txt";
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.MEAL;
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
 
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
-            int line_idx = 1;
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine();
-                String[] properties = line.split(SEPARATOR, -1);
-
-                if (properties.length < 5) {
-                    throw new FlightBookingSystemException("Malformed meal line at " + line_idx + ": " + line + " (Too few fields for basic meal properties)");
-                }
-
-                try {
-                    int id = Integer.parseInt(properties[0].trim());
-                    String name = properties[1].trim();
-                    String description = properties[2].trim();
-                    BigDecimal price = new BigDecimal(properties[3].trim());
-                    MealType type = MealType.valueOf(properties[4].trim().toUpperCase());
-
-                    boolean isDeleted = false;
-                    if (properties.length > 5) {
-                        isDeleted = Boolean.parseBoolean(properties[5].trim());
-                    }
-
-                    Meal meal = new Meal(id, name, description, price, type);
-                    meal.setDeleted(isDeleted);
-                    fbs.addMeal(meal);
-
-                } catch (NumberFormatException ex) {
-                    throw new FlightBookingSystemException("Unable to parse meal ID/price on line " + line_idx + ": " + ex.getMessage(), ex);
-                } catch (IllegalArgumentException ex) {
-                    throw new FlightBookingSystemException("Invalid meal type on line " + line_idx + ": " + ex.getMessage(), ex);
-                } catch (ArrayIndexOutOfBoundsException ex) {
-                    throw new FlightBookingSystemException("Malformed line at index " + line_idx + " in meal data (missing fields): " + line, ex);
-                }
-                line_idx++;
+        loadRecords(fbs, Files.readAllLines(Paths.get(RESOURCE)));
+    }
+
+    @Override
+    public Meal parseRecord(String line, int line_idx) throws FlightBookingSystemException {
+        RecordTokenizer fields = new RecordTokenizer(line);
+        int fieldCount = fields.fieldCount();
+
+        if (fieldCount < 5) {
+            throw new FlightBookingSystemException("Malformed meal line at " + line_idx + ": " + line + " (Too few fields for basic meal properties)");
+        }
+
+        try {
+            int id = fields.nextInt();
+            String name = fields.nextTrimmedString();
+            String description = fields.nextTrimmedString();
+            BigDecimal price = fields.nextDecimal();
+            MealType type = fields.nextEnum(MEAL_TYPES, true);
+
+            boolean isDeleted = false;
+            if (fieldCount > 5) {
+                isDeleted = fields.nextBoolean();
             }
+
+            Meal meal = new Meal(id, name, description, price, type);
+            meal.setDeleted(isDeleted);
+            return meal;
+
+        } catch (NumberFormatException ex) {
+            throw new FlightBookingSystemException("Unable to parse meal ID/price on line " + line_idx + ": " + ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new FlightBookingSystemException("Invalid meal type on line " + line_idx + ": " + ex.getMessage(), ex);
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new FlightBookingSystemException("Malformed line at index " + line_idx + " in meal data (missing fields): " + line, ex);
         }
     }
 
     @Override
-    public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
-            for (Meal meal : fbs.getAllMeals()) {
-                out.print(meal.getId() + SEPARATOR);
-                out.print(meal.getName() + SEPARATOR);
-                out.print(meal.getDescription() + SEPARATOR);
-                out.print(meal.getPrice().toPlainString() + SEPARATOR);
-                out.print(meal.getType().name() + SEPARATOR);
-                out.print(meal.isDeleted());
-                out.println();
-            }
+    public void addRecord(FlightBookingSystem fbs, Meal meal, int line_idx) throws FlightBookingSystemException {
+        try {
+            fbs.addMeal(meal);
+        } catch (IllegalArgumentException ex) {
+            throw new FlightBookingSystemException("Unable to add meal on line " + line_idx + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public String formatRecord(FlightBookingSystem fbs, int id) {
+        Meal meal = fbs.getMealByIDIncludingDeleted(id);
+        return (meal != null) ? format(meal) : null;
+    }
+
+    private String format(Meal meal) {
+        return meal.getId() + SEPARATOR
+                + meal.getName() + SEPARATOR
+                + meal.getDescription() + SEPARATOR
+                + meal.getPrice().toPlainString() + SEPARATOR
+                + meal.getType().name() + SEPARATOR
+                + meal.isDeleted();
+    }
+
+    @Override
+    public void writeData(FlightBookingSystem fbs, OutputStream stream) throws IOException {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        for (Meal meal : fbs.getAllMeals()) {
+            out.println(format(meal));
         }
+        out.flush();
     }
-}
\ No newline at end of file
+}
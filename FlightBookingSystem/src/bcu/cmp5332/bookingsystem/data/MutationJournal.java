@@ -0,0 +1,314 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Mutation;
+import bcu.cmp5332.bookingsystem.model.MutationType;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of the mutations made since the last snapshot of the data files.
+ * Each journal line holds the {@link MutationType} followed by the full record of the
+ * mutated entity as written by its {@link TextDataManager}, so replaying the journal
+ * simply overlays the newest record of every entity on top of the snapshot.
+ * Once the journal grows past {@link #COMPACTION_THRESHOLD} records it is folded
+ * into the text snapshot files on a background thread. Binary snapshots cannot be
+ * patched line by line, so with those the journal is only folded in by a full store.
+ */
+public class MutationJournal {
+
+    public static final String FILE_NAME = "journal.txt";
+    public static final String COMPACTING_FILE_NAME = "journal.compacting.txt";
+    public static final int COMPACTION_THRESHOLD = 1000;
+
+    private final String SEPARATOR = "::";
+
+    private final Path resource;
+    private final Path compactingResource;
+    private final Map<EntityType, TextDataManager<?>> dataManagers = new EnumMap<>(EntityType.class);
+    private final Object snapshotLock;
+    private final SnapshotManifest manifest;
+    private final boolean backgroundCompaction;
+    private int recordCount = 0;
+    private Thread compactor;
+
+    public MutationJournal(List<TextDataManager<?>> dataManagers, Object snapshotLock, SnapshotManifest manifest,
+            boolean backgroundCompaction) {
+        this(DataManager.DATA_DIRECTORY, dataManagers, snapshotLock, manifest, backgroundCompaction);
+    }
+
+    /**
+     * Creates a journal for the given data managers.
+     *
+     * @param directory The directory of the journal files.
+     * @param dataManagers The managers owning the snapshot file of each entity type.
+     * @param snapshotLock The lock held by every writer of the snapshot files.
+     * @param manifest The manifest that compacted snapshot files are committed to.
+     * @param backgroundCompaction Whether the journal is folded into the text snapshot
+     * files once it reaches {@link #COMPACTION_THRESHOLD} records.
+     */
+    public MutationJournal(String directory, List<TextDataManager<?>> dataManagers, Object snapshotLock,
+            SnapshotManifest manifest, boolean backgroundCompaction) {
+        this.resource = Paths.get(directory, FILE_NAME);
+        this.compactingResource = Paths.get(directory, COMPACTING_FILE_NAME);
+        for (TextDataManager<?> dm : dataManagers) {
+            this.dataManagers.put(dm.getEntityType(), dm);
+        }
+        this.snapshotLock = snapshotLock;
+        this.manifest = manifest;
+        this.backgroundCompaction = backgroundCompaction;
+    }
+
+    /**
+     * Drains the pending mutations of the system and formats the current record of
+     * every mutated entity. This reads the model, so it must run on the thread that
+     * mutates it; the returned lines can then be appended from any thread.
+     *
+     * @param fbs The flight booking system to capture mutations from.
+     * @return One journal line per mutated entity, in mutation order.
+     */
+    public List<String> capture(FlightBookingSystem fbs) {
+        return capture(fbs, fbs.drainMutations());
+    }
+
+    /**
+     * Formats the current record of every entity changed by the given mutations, which
+     * the caller has drained from the system. If a record cannot be formatted, the
+     * mutations are given back to the system, so that no change is lost.
+     *
+     * @param fbs The flight booking system the mutations were drained from.
+     * @param mutations The drained mutations.
+     * @return One journal line per mutated entity, in mutation order.
+     */
+    public List<String> capture(FlightBookingSystem fbs, List<Mutation> mutations) {
+        try {
+            Map<String, Mutation> latest = new LinkedHashMap<>();
+            for (Mutation mutation : mutations) {
+                String key = mutation.getEntityType() + SEPARATOR + mutation.getEntityId();
+                latest.remove(key);
+                latest.put(key, mutation);
+            }
+
+            List<String> lines = new ArrayList<>();
+            for (Mutation mutation : latest.values()) {
+                TextDataManager<?> dm = dataManagers.get(mutation.getEntityType());
+                String record = dm.formatRecord(fbs, mutation.getEntityId());
+                if (record != null) {
+                    lines.add(mutation.getType().name() + SEPARATOR + record);
+                }
+            }
+            return lines;
+        } catch (RuntimeException e) {
+            fbs.restoreMutations(mutations);
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the given lines to the journal and forces them to disk before returning.
+     * A background compaction is started once the journal is large enough.
+     *
+     * @param lines The journal lines produced by {@link #capture(FlightBookingSystem)}.
+     * @throws IOException If the journal cannot be written or synced.
+     */
+    public synchronized void append(List<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(resource,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        recordCount += lines.size();
+
+        if (backgroundCompaction && recordCount >= COMPACTION_THRESHOLD) {
+            startCompaction();
+        }
+    }
+
+    /**
+     * Reads every journaled record, grouped by entity type and keyed by entity ID.
+     * Records left over from an interrupted compaction are read first, so that the
+     * newest record of each entity wins. A torn last line from a crash mid-append is ignored.
+     *
+     * @return The newest journaled record of each entity, per entity type.
+     * @throws IOException If a journal file cannot be read.
+     */
+    public synchronized Map<EntityType, Map<Integer, String>> replay() throws IOException {
+        Map<EntityType, Map<Integer, String>> records = new EnumMap<>(EntityType.class);
+        for (EntityType type : EntityType.values()) {
+            records.put(type, new LinkedHashMap<>());
+        }
+        readInto(compactingResource, records);
+        recordCount = readInto(resource, records);
+        return records;
+    }
+
+    private int readInto(Path path, Map<EntityType, Map<Integer, String>> records) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        int count = 0;
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            start = end + 1;
+
+            int split = line.indexOf(SEPARATOR);
+            if (split < 0) {
+                continue;
+            }
+            MutationType type;
+            try {
+                type = MutationType.valueOf(line.substring(0, split));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Warning: Unknown journal entry skipped: " + line);
+                continue;
+            }
+            String record = line.substring(split + SEPARATOR.length());
+            Integer id = recordId(record);
+            if (id == null) {
+                System.err.println("Warning: Journal entry without a valid ID skipped: " + line);
+                continue;
+            }
+            Map<Integer, String> byId = records.get(type.getEntityType());
+            byId.remove(id);
+            byId.put(id, record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Overlays journaled records on the records of a snapshot file. A journaled record
+     * replaces the snapshot record with the same ID in place; records of new entities
+     * are appended in journal order.
+     *
+     * @param snapshot The records read from the snapshot file.
+     * @param journaled The newest journaled record of each entity of the same type.
+     * @return The merged records.
+     */
+    public static List<String> overlay(List<String> snapshot, Map<Integer, String> journaled) {
+        if (journaled.isEmpty()) {
+            return snapshot;
+        }
+        Map<Integer, String> pending = new LinkedHashMap<>(journaled);
+        List<String> merged = new ArrayList<>(snapshot.size() + pending.size());
+        for (String line : snapshot) {
+            Integer id = recordId(line);
+            String replacement = (id != null) ? pending.remove(id) : null;
+            merged.add(replacement != null ? replacement : line);
+        }
+        merged.addAll(pending.values());
+        return merged;
+    }
+
+    private static Integer recordId(String record) {
+        int end = record.indexOf(DataManager.SEPARATOR);
+        String id = (end < 0 ? record : record.substring(0, end)).trim();
+        if (id.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Empties the journal once a full snapshot has been written. The caller must hold
+     * the snapshot lock, so no compaction can be running.
+     *
+     * @throws IOException If a journal file cannot be removed.
+     */
+    public synchronized void truncate() throws IOException {
+        Files.deleteIfExists(resource);
+        Files.deleteIfExists(compactingResource);
+        recordCount = 0;
+    }
+
+    private void startCompaction() throws IOException {
+        if (compactor != null && compactor.isAlive()) {
+            return;
+        }
+        if (!Files.exists(compactingResource)) {
+            Files.move(resource, compactingResource, StandardCopyOption.ATOMIC_MOVE);
+        }
+        // After a failed compaction, the next attempt waits for another threshold of records.
+        recordCount = 0;
+        compactor = new Thread(this::compact, "journal-compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+
+    private void compact() {
+        synchronized (snapshotLock) {
+            try {
+                if (!Files.exists(compactingResource)) {
+                    return;
+                }
+                Map<EntityType, Map<Integer, String>> records = new EnumMap<>(EntityType.class);
+                for (EntityType type : EntityType.values()) {
+                    records.put(type, new LinkedHashMap<>());
+                }
+                readInto(compactingResource, records);
+
+                List<AtomicFile.Prepared> prepared = new ArrayList<>();
+                try {
+                    for (TextDataManager<?> dm : dataManagers.values()) {
+                        Map<Integer, String> journaled = records.get(dm.getEntityType());
+                        if (journaled.isEmpty()) {
+                            continue;
+                        }
+                        Path snapshotFile = Paths.get(dm.getResource());
+                        List<String> snapshot = Files.exists(snapshotFile) ? Files.readAllLines(snapshotFile) : new ArrayList<>();
+                        List<String> merged = overlay(snapshot, journaled);
+                        prepared.add(AtomicFile.prepare(snapshotFile, stream -> {
+                            PrintWriter out = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+                            for (String line : merged) {
+                                out.println(line);
+                            }
+                            out.flush();
+                        }));
+                    }
+                } catch (IOException e) {
+                    for (AtomicFile.Prepared file : prepared) {
+                        file.discard();
+                    }
+                    throw e;
+                }
+                manifest.commit(prepared);
+                Files.delete(compactingResource);
+            } catch (IOException e) {
+                System.err.println("Warning: Journal compaction failed, it will be retried on the next compaction: " + e.getMessage());
+            }
+        }
+    }
+}
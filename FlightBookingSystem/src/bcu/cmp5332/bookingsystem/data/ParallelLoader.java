@@ -0,0 +1,192 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads text data files on a fork-join pool. All files are read and parsed at the same
+ * time, each one split into chunks of lines parsed in parallel. Parsing never touches the
+ * system, so the parsed records are then added on the calling thread in manager order;
+ * this final phase links every booking to the customers, flights and meals added before it.
+ * <p>
+ * Errors are reported exactly as a sequential load would report them: the records before
+ * the first bad line of a file are added, then the error of that line is thrown, and no
+ * later file is added.
+ */
+public class ParallelLoader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelLoader(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Loads the records of every manager into the system.
+     *
+     * @param fbs The flight booking system to load into.
+     * @param managers The managers to load, in dependency order.
+     * @param sources The records of each manager, read on the pool.
+     * @throws IOException If a source cannot be read.
+     * @throws FlightBookingSystemException If a record cannot be parsed or added.
+     */
+    public void load(FlightBookingSystem fbs, List<? extends TextDataManager<?>> managers,
+            List<? extends Callable<List<String>>> sources) throws IOException, FlightBookingSystemException {
+        if (managers.size() != sources.size()) {
+            throw new IllegalArgumentException("Every manager needs exactly one source.");
+        }
+
+        List<ForkJoinTask<ParsedFile>> tasks = new ArrayList<>();
+        for (int i = 0; i < managers.size(); i++) {
+            TextDataManager<?> dm = managers.get(i);
+            Callable<List<String>> source = sources.get(i);
+            tasks.add(pool.submit(() -> parse(dm, source.call())));
+        }
+
+        try {
+            for (int i = 0; i < managers.size(); i++) {
+                add(fbs, managers.get(i), join(tasks.get(i)));
+            }
+        } finally {
+            for (ForkJoinTask<ParsedFile> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private ParsedFile parse(TextDataManager<?> dm, List<String> lines) {
+        List<String> records = (lines instanceof RandomAccess) ? lines : new ArrayList<>(lines);
+        Object[] parsed = new Object[records.size()];
+        Failure failure = new ParseTask(dm, records, parsed, 0, records.size()).invoke();
+        return new ParsedFile(parsed, failure);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void add(FlightBookingSystem fbs, TextDataManager<T> dm, ParsedFile file)
+            throws FlightBookingSystemException {
+        int end = (file.failure != null) ? file.failure.index : file.records.length;
+        try {
+            for (int i = 0; i < end; i++) {
+                if (file.records[i] != null) {
+                    dm.addRecord(fbs, (T) file.records[i], i + 1);
+                }
+            }
+            if (file.failure != null) {
+                if (file.failure.exception instanceof FlightBookingSystemException) {
+                    throw (FlightBookingSystemException) file.failure.exception;
+                }
+                throw (RuntimeException) file.failure.exception;
+            }
+        } finally {
+            dm.afterLoad(fbs);
+        }
+    }
+
+    private static ParsedFile join(ForkJoinTask<ParsedFile> task) throws IOException, FlightBookingSystemException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading data.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof FlightBookingSystemException) {
+                throw (FlightBookingSystemException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static class ParsedFile {
+        final Object[] records;
+        final Failure failure;
+
+        ParsedFile(Object[] records, Failure failure) {
+            this.records = records;
+            this.failure = failure;
+        }
+    }
+
+    private static class Failure {
+        final int index;
+        final Exception exception;
+
+        Failure(int index, Exception exception) {
+            this.index = index;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Parses a range of lines, splitting it in halves until it is at most one chunk.
+     * Returns the failure of the lowest failing line in the range, if any.
+     */
+    private class ParseTask extends RecursiveTask<Failure> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TextDataManager<?> dm;
+        private final List<String> lines;
+        private final Object[] parsed;
+        private final int from;
+        private final int to;
+
+        ParseTask(TextDataManager<?> dm, List<String> lines, Object[] parsed, int from, int to) {
+            this.dm = dm;
+            this.lines = lines;
+            this.parsed = parsed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Failure compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        parsed[i] = dm.parseRecord(lines.get(i), i + 1);
+                    } catch (FlightBookingSystemException | RuntimeException e) {
+                        return new Failure(i, e);
+                    }
+                }
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            ParseTask right = new ParseTask(dm, lines, parsed, mid, to);
+            right.fork();
+            Failure failure = new ParseTask(dm, lines, parsed, from, mid).compute();
+            Failure rightFailure = right.join();
+            return (failure != null) ? failure : rightFailure;
+        }
+    }
+}
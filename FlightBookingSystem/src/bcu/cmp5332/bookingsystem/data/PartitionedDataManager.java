@@ -0,0 +1,350 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.HistoryLoader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+
+/**
+ * Stores flights and bookings in one text file per departure month, such as
+ * {@code flights-2025-07.txt} and {@code bookings-2025-07.txt}, in the record format of
+ * {@link FlightDataManager} and {@link BookingDataManager}. A booking belongs to the month
+ * of its earliest flight, so the flights of every booking are in the same or a later month.
+ * <p>
+ * Only the partitions of the current and later months are loaded up front. The past
+ * partitions are loaded by the {@link FlightBookingSystem} the first time it is asked for
+ * all flights or bookings, or for one it does not hold. Until then they are never read or
+ * rewritten, since past flights cannot change.
+ * <p>
+ * The partitions are listed in a catalog, which is written last and so commits a store:
+ * <pre>
+ *   &lt;file name&gt;::&lt;record count&gt;::&lt;highest ID&gt;
+ * </pre>
+ * The highest IDs keep the IDs of unloaded flights and bookings from being reused.
+ */
+public class PartitionedDataManager implements DataManager, HistoryLoader {
+
+    public static final String CATALOG_FILE_NAME = "partitions.txt";
+
+    private static final String FLIGHT_PREFIX = "flights-";
+    private static final String BOOKING_PREFIX = "bookings-";
+    private static final String SUFFIX = ".txt";
+
+    private final String SEPARATOR = "::";
+
+    private final Path directory;
+    private final FlightDataManager flights;
+    private final BookingDataManager bookings;
+    private Map<String, Entry> catalog = new TreeMap<>();
+    private final Set<String> unloaded = new TreeSet<>();
+    private Map<String, Entry> pendingCatalog;
+
+    public PartitionedDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public PartitionedDataManager(String directory) {
+        this.directory = Paths.get(directory);
+        this.flights = new FlightDataManager(directory);
+        this.bookings = new BookingDataManager(directory);
+    }
+
+    public Path getCatalog() {
+        return directory.resolve(CATALOG_FILE_NAME);
+    }
+
+    /**
+     * Loads the flights and bookings of the current and later months, and leaves the rest
+     * to be loaded by the system when needed. Meals and customers must be loaded first.
+     */
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        readCatalog();
+        YearMonth from = YearMonth.from(fbs.getSystemDate());
+        flights.loadRecords(fbs, readLines(selectPartitions(EntityType.FLIGHT, from)));
+        bookings.loadRecords(fbs, readLines(selectPartitions(EntityType.BOOKING, from)));
+        attachHistory(fbs);
+    }
+
+    /**
+     * Rewrites the partitions of the loaded flights and bookings, then the catalog. Past
+     * partitions are only kept if this is the manager that loaded the system.
+     */
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        List<AtomicFile.Prepared> prepared = new ArrayList<>();
+        try {
+            for (Callable<AtomicFile.Prepared> task : prepare(fbs)) {
+                prepared.add(task.call());
+            }
+        } catch (Exception e) {
+            for (AtomicFile.Prepared file : prepared) {
+                file.discard();
+            }
+            discardPending();
+            throw (e instanceof IOException) ? (IOException) e : new IOException(e);
+        }
+        // The catalog is prepared last, so it is renamed into place after every partition.
+        for (AtomicFile.Prepared file : prepared) {
+            file.commit();
+        }
+        committed();
+    }
+
+    @Override
+    public synchronized void loadHistory(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        List<Path> pastFlights = new ArrayList<>();
+        List<Path> pastBookings = new ArrayList<>();
+        for (String name : unloaded) {
+            (name.startsWith(FLIGHT_PREFIX) ? pastFlights : pastBookings).add(directory.resolve(name));
+        }
+        // The bookings of a past month may be on the flights of any later month.
+        flights.loadRecords(fbs, readLines(pastFlights));
+        bookings.loadRecords(fbs, readLines(pastBookings));
+        unloaded.clear();
+    }
+
+    /**
+     * Reads the catalog, forgetting which partitions were left unloaded.
+     *
+     * @throws IOException If the catalog cannot be read.
+     */
+    synchronized void readCatalog() throws IOException {
+        catalog = new TreeMap<>();
+        unloaded.clear();
+        Path resource = getCatalog();
+        if (!Files.exists(resource)) {
+            return;
+        }
+        int line_idx = 1;
+        for (String line : Files.readAllLines(resource, StandardCharsets.UTF_8)) {
+            String[] properties = line.split(SEPARATOR, -1);
+            try {
+                monthOf(properties[0]);
+                catalog.put(properties[0], new Entry(Integer.parseInt(properties[1]), Integer.parseInt(properties[2])));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException | DateTimeParseException ex) {
+                System.err.println("Warning: Ignoring malformed partition catalog line " + line_idx + ": " + line);
+            }
+            line_idx++;
+        }
+    }
+
+    synchronized boolean hasCatalog() {
+        return Files.exists(getCatalog());
+    }
+
+    /**
+     * Returns the partition files of a type from the given month on, and remembers the
+     * earlier ones as unloaded.
+     *
+     * @param type {@link EntityType#FLIGHT} or {@link EntityType#BOOKING}.
+     * @param from The first month to load, or null for every month.
+     * @return The files to load, in month order.
+     */
+    synchronized List<Path> selectPartitions(EntityType type, YearMonth from) {
+        String prefix = prefixOf(type);
+        List<Path> selected = new ArrayList<>();
+        for (Map.Entry<String, Entry> partition : catalog.entrySet()) {
+            String name = partition.getKey();
+            if (!name.startsWith(prefix) || partition.getValue().records == 0) {
+                continue;
+            }
+            if (from != null && monthOf(name).isBefore(from)) {
+                unloaded.add(name);
+            } else {
+                selected.add(directory.resolve(name));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Lets the system load the unloaded partitions when it needs them.
+     */
+    synchronized void attachHistory(FlightBookingSystem fbs) {
+        if (unloaded.isEmpty()) {
+            return;
+        }
+        int maxFlightId = 0;
+        int maxBookingId = 0;
+        for (String name : unloaded) {
+            int maxId = catalog.get(name).maxId;
+            if (name.startsWith(FLIGHT_PREFIX)) {
+                maxFlightId = Math.max(maxFlightId, maxId);
+            } else {
+                maxBookingId = Math.max(maxBookingId, maxId);
+            }
+        }
+        fbs.setHistoryLoader(this, maxFlightId, maxBookingId);
+    }
+
+    /**
+     * Formats the loaded flights and bookings by partition and returns one task per file
+     * to write, the catalog last. Unloaded partitions are kept as they are; if a loaded
+     * entity belongs to one of them, the past partitions are loaded first.
+     *
+     * @param fbs The flight booking system to write.
+     * @return The tasks preparing each file, to be committed together.
+     * @throws IOException If a past partition is needed but cannot be loaded.
+     */
+    List<Callable<AtomicFile.Prepared>> prepare(FlightBookingSystem fbs) throws IOException {
+        List<Callable<AtomicFile.Prepared>> tasks = prepareLoaded(fbs);
+        if (tasks == null) {
+            // Loaded outside the lock of this manager, which the history loader takes itself.
+            fbs.loadHistory();
+            tasks = prepareLoaded(fbs);
+            if (tasks == null) {
+                throw new IOException("Unable to store the partitions, their past records could not be loaded.");
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * @return The tasks of {@link #prepare}, or null if a loaded entity belongs to an
+     *         unloaded partition.
+     */
+    private synchronized List<Callable<AtomicFile.Prepared>> prepareLoaded(FlightBookingSystem fbs) {
+        Map<String, List<String>> partitions = new TreeMap<>();
+        for (Flight flight : fbs.getLoadedFlights()) {
+            partitions.computeIfAbsent(fileName(EntityType.FLIGHT, monthOf(flight)), name -> new ArrayList<>())
+                    .add(flights.formatRecord(fbs, flight.getId()));
+        }
+        for (Booking booking : fbs.getLoadedBookings()) {
+            partitions.computeIfAbsent(fileName(EntityType.BOOKING, monthOf(booking)), name -> new ArrayList<>())
+                    .add(bookings.formatRecord(fbs, booking.getId()));
+        }
+        for (String name : partitions.keySet()) {
+            if (unloaded.contains(name)) {
+                return null;
+            }
+        }
+
+        Map<String, Entry> nextCatalog = new TreeMap<>();
+        for (String name : unloaded) {
+            nextCatalog.put(name, catalog.get(name));
+        }
+        List<Callable<AtomicFile.Prepared>> tasks = new ArrayList<>();
+        for (Map.Entry<String, List<String>> partition : partitions.entrySet()) {
+            List<String> lines = partition.getValue();
+            int maxId = 0;
+            for (String line : lines) {
+                maxId = Math.max(maxId, new RecordTokenizer(line).nextInt());
+            }
+            nextCatalog.put(partition.getKey(), new Entry(lines.size(), maxId));
+            tasks.add(() -> AtomicFile.prepare(directory.resolve(partition.getKey()), stream -> writeLines(lines, stream)));
+        }
+        // Partitions left without records are emptied rather than deleted, so that they
+        // are replaced in the same generation as the rest.
+        for (String name : catalog.keySet()) {
+            if (!nextCatalog.containsKey(name) && Files.exists(directory.resolve(name))) {
+                nextCatalog.put(name, new Entry(0, 0));
+                tasks.add(() -> AtomicFile.prepare(directory.resolve(name), stream -> writeLines(new ArrayList<>(), stream)));
+            }
+        }
+
+        List<String> catalogLines = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : nextCatalog.entrySet()) {
+            catalogLines.add(entry.getKey() + SEPARATOR + entry.getValue().records + SEPARATOR + entry.getValue().maxId);
+        }
+        tasks.add(() -> AtomicFile.prepare(getCatalog(), stream -> writeLines(catalogLines, stream)));
+        pendingCatalog = nextCatalog;
+        return tasks;
+    }
+
+    /**
+     * Takes the catalog of the last {@link #prepare} as the current one, once its files
+     * have been committed.
+     */
+    synchronized void committed() {
+        if (pendingCatalog != null) {
+            catalog = pendingCatalog;
+            pendingCatalog = null;
+        }
+    }
+
+    synchronized void discardPending() {
+        pendingCatalog = null;
+    }
+
+    static String fileName(EntityType type, YearMonth month) {
+        return prefixOf(type) + month + SUFFIX;
+    }
+
+    static YearMonth monthOf(Flight flight) {
+        return YearMonth.from(flight.getDepartureDate());
+    }
+
+    static YearMonth monthOf(Booking booking) {
+        YearMonth month = monthOf(booking.getOutboundFlight());
+        if (booking.getReturnFlight() != null && monthOf(booking.getReturnFlight()).isBefore(month)) {
+            month = monthOf(booking.getReturnFlight());
+        }
+        return month;
+    }
+
+    static List<String> readLines(List<Path> files) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path file : files) {
+            lines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    private static String prefixOf(EntityType type) {
+        switch (type) {
+            case FLIGHT:
+                return FLIGHT_PREFIX;
+            case BOOKING:
+                return BOOKING_PREFIX;
+            default:
+                throw new IllegalArgumentException(type + " is not partitioned.");
+        }
+    }
+
+    private static YearMonth monthOf(String fileName) {
+        if (!fileName.endsWith(SUFFIX) || !(fileName.startsWith(FLIGHT_PREFIX) || fileName.startsWith(BOOKING_PREFIX))) {
+            throw new DateTimeParseException("Not a partition file name", fileName, 0);
+        }
+        int start = fileName.startsWith(FLIGHT_PREFIX) ? FLIGHT_PREFIX.length() : BOOKING_PREFIX.length();
+        return YearMonth.parse(fileName.substring(start, fileName.length() - SUFFIX.length()));
+    }
+
+    private static void writeLines(List<String> lines, OutputStream stream) {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        for (String line : lines) {
+            out.println(line);
+        }
+        out.flush();
+    }
+
+    private static class Entry {
+        final int records;
+        final int maxId;
+
+        Entry(int records, int maxId) {
+            this.records = records;
+            this.maxId = maxId;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Mutation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes commits on a background writer thread, grouping every commit that arrives within
+ * a short window into a single durable write, such as one append and sync of the journal
+ * or one database transaction. Callers get a future that completes once their changes are
+ * durable, which they can wait on with {@link #await(Future)} or ignore.
+ * <p>
+ * Changes are written in the order they were submitted. The window is set with the
+ * {@code fbs.flushWindowMillis} system property and defaults to
+ * {@link #DEFAULT_WINDOW_MILLIS} milliseconds.
+ *
+ * @param <T> The type of change written, e.g. a journal line.
+ */
+public class PersistenceService<T> {
+
+    public static final String WINDOW_PROPERTY = "fbs.flushWindowMillis";
+    public static final long DEFAULT_WINDOW_MILLIS = 5;
+
+    private final BatchWriter<T> batchWriter;
+    private final long windowNanos;
+    private final Object lock = new Object();
+    private List<Pending<T>> queue = new ArrayList<>();
+    private boolean flushing = false;
+    private boolean closed = false;
+    private Thread writer;
+
+    /**
+     * Durably writes one batch of changes, all or nothing where the storage allows it.
+     */
+    public interface BatchWriter<T> {
+        void write(List<T> changes) throws IOException;
+    }
+
+    /**
+     * Captures the changes of mutations drained from the system.
+     */
+    public interface Capture<T> {
+        List<T> capture(FlightBookingSystem fbs, List<Mutation> mutations);
+    }
+
+    /**
+     * @param batchWriter Writes each batch, e.g. {@link MutationJournal#append}.
+     * @param windowMillis How long to wait after a commit for more commits to group with it.
+     */
+    public PersistenceService(BatchWriter<T> batchWriter, long windowMillis) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Flush window must not be negative.");
+        }
+        this.batchWriter = batchWriter;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    /**
+     * @return The flush window set by the {@code fbs.flushWindowMillis} system property.
+     */
+    public static long configuredWindowMillis() {
+        String value = System.getProperty(WINDOW_PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_WINDOW_MILLIS;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Invalid flush window '" + value + "', using " + DEFAULT_WINDOW_MILLIS + " ms.");
+            return DEFAULT_WINDOW_MILLIS;
+        }
+    }
+
+    /**
+     * Queues changes for the next flush.
+     *
+     * @param changes The changes captured from the system, e.g. by {@link MutationJournal#capture}.
+     * @return A future completed once the changes, and every change submitted before them,
+     * are durable, or completed exceptionally with the {@link IOException} of the failed flush.
+     */
+    public CompletableFuture<Void> submit(List<T> changes) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (closed) {
+                future.completeExceptionally(new IOException("The persistence service is closed."));
+                return future;
+            }
+            if (changes.isEmpty() && queue.isEmpty() && !flushing) {
+                future.complete(null);
+                return future;
+            }
+            queue.add(new Pending<>(changes, future));
+            if (writer == null) {
+                writer = new Thread(this::run, "fbs-persistence-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+            lock.notifyAll();
+        }
+        return future;
+    }
+
+    /**
+     * Drains the pending mutations of the system, captures them and queues the captured
+     * changes for the next flush. If the flush fails, the mutations are given back to the
+     * system, so that the next commit writes them again.
+     * Must be called on the thread that mutates the system.
+     *
+     * @param fbs The flight booking system whose changes are committed.
+     * @param capture Captures the changes of the drained mutations, e.g. {@link MutationJournal#capture(FlightBookingSystem, List)}.
+     * @return A future completed as for {@link #submit(List)}.
+     */
+    public CompletableFuture<Void> commit(FlightBookingSystem fbs, Capture<T> capture) {
+        List<Mutation> mutations = fbs.drainMutations();
+        return submit(capture.capture(fbs, mutations)).whenComplete((done, failure) -> {
+            if (failure != null) {
+                fbs.restoreMutations(mutations);
+            }
+        });
+    }
+
+    /**
+     * Flushes everything queued and stops the writer thread. Later submissions fail.
+     */
+    public void close() {
+        Thread stopping;
+        synchronized (lock) {
+            closed = true;
+            stopping = writer;
+            lock.notifyAll();
+        }
+        if (stopping != null && stopping != Thread.currentThread()) {
+            try {
+                stopping.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits for a submitted flush.
+     *
+     * @param future A future returned by {@link #submit(List)}.
+     * @throws IOException If the flush failed or the wait was interrupted.
+     */
+    public static void await(Future<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for data to be saved.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<Pending<T>> batch;
+            synchronized (lock) {
+                while (queue.isEmpty() && !closed) {
+                    waitOn(lock, 0);
+                }
+                if (queue.isEmpty()) {
+                    writer = null;
+                    return;
+                }
+                // Give other commits the rest of the window to join this flush.
+                long deadline = System.nanoTime() + windowNanos;
+                long remaining = windowNanos;
+                while (remaining > 0 && !closed) {
+                    waitOn(lock, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+                batch = queue;
+                queue = new ArrayList<>();
+                flushing = true;
+            }
+
+            List<T> changes = new ArrayList<>();
+            for (Pending<T> pending : batch) {
+                changes.addAll(pending.changes);
+            }
+            IOException failure = null;
+            try {
+                batchWriter.write(changes);
+            } catch (IOException | RuntimeException e) {
+                failure = (e instanceof IOException) ? (IOException) e : new IOException(e);
+            }
+
+            synchronized (lock) {
+                flushing = false;
+            }
+            for (Pending<T> pending : batch) {
+                if (failure == null) {
+                    pending.future.complete(null);
+                } else {
+                    pending.future.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    private static void waitOn(Object monitor, long nanos) {
+        try {
+            if (nanos == 0) {
+                monitor.wait();
+            } else {
+                TimeUnit.NANOSECONDS.timedWait(monitor, nanos);
+            }
+        } catch (InterruptedException e) {
+            // Only close() stops the writer, so that no queued changes are lost.
+        }
+    }
+
+    private static class Pending<T> {
+        final List<T> changes;
+        final CompletableFuture<Void> future;
+
+        Pending(List<T> changes, CompletableFuture<Void> future) {
+            this.changes = changes;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the fields of one {@code ::} separated record in order, without regular
+ * expressions and without creating a String per field. Numbers, dates, enums and
+ * booleans are parsed straight from the characters of the line; only text fields
+ * allocate a String. A tokenizer can be {@link #reset(CharSequence) reset} to reuse it
+ * for the next line.
+ * <p>
+ * Fields are trimmed before they are parsed, except by {@link #nextString()}. Parse
+ * errors throw the same exception types as the {@code parseInt}, {@code BigDecimal},
+ * {@code LocalDate.parse} and {@code valueOf} calls they replace.
+ */
+public class RecordTokenizer {
+
+    private static final String SEPARATOR = DataManager.SEPARATOR;
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private CharSequence line;
+    private int position;
+    private int fieldStart;
+    private int fieldEnd;
+
+    public RecordTokenizer() {
+        reset("");
+    }
+
+    public RecordTokenizer(CharSequence line) {
+        reset(line);
+    }
+
+    public RecordTokenizer reset(CharSequence line) {
+        this.line = line;
+        this.position = 0;
+        return this;
+    }
+
+    /**
+     * Returns the number of fields of the whole line, the same as
+     * {@code line.split("::", -1).length}.
+     *
+     * @return The number of fields.
+     */
+    public int fieldCount() {
+        int count = 1;
+        int i = indexOfSeparator(0);
+        while (i >= 0) {
+            count++;
+            i = indexOfSeparator(i + SEPARATOR.length());
+        }
+        return count;
+    }
+
+    public boolean hasNext() {
+        return position <= line.length();
+    }
+
+    public void skip() {
+        advance();
+    }
+
+    /**
+     * @return The next field as it is, without trimming.
+     */
+    public String nextString() {
+        advance();
+        return line.subSequence(fieldStart, fieldEnd).toString();
+    }
+
+    public String nextTrimmedString() {
+        advanceTrimmed();
+        return line.subSequence(fieldStart, fieldEnd).toString();
+    }
+
+    /**
+     * @return Whether the next field is blank, without consuming it.
+     */
+    public boolean isNextBlank() {
+        int savedPosition = position;
+        advanceTrimmed();
+        position = savedPosition;
+        return fieldStart == fieldEnd;
+    }
+
+    /**
+     * @return Whether the next field is blank or {@code null}, without consuming it.
+     */
+    public boolean isNextNull() {
+        int savedPosition = position;
+        advanceTrimmed();
+        position = savedPosition;
+        return fieldStart == fieldEnd || matches("null", false);
+    }
+
+    public int nextInt() {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw numberFormat();
+        }
+        return (int) value;
+    }
+
+    public long nextLong() {
+        advanceTrimmed();
+        return parseLongField();
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 12}, {@code 12.5} or {@code -0.50}, keeping its
+     * scale like {@code new BigDecimal(String)} does.
+     *
+     * @return The next field as a decimal.
+     */
+    public BigDecimal nextDecimal() {
+        advanceTrimmed();
+        int i = fieldStart;
+        boolean negative = false;
+        if (i < fieldEnd && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (; i < fieldEnd; i++) {
+            char c = line.charAt(i);
+            if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c >= '0' && c <= '9') {
+                if (++digits > MAX_FAST_DIGITS) {
+                    return new BigDecimal(field());
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (seenPoint) {
+                    scale++;
+                }
+            } else {
+                // Exponents and other forms BigDecimal accepts.
+                return new BigDecimal(field());
+            }
+        }
+        if (digits == 0) {
+            throw numberFormat();
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    /**
+     * Parses an ISO date such as {@code 2025-07-10}.
+     *
+     * @return The next field as a date.
+     * @throws DateTimeParseException If the field is not a valid ISO date.
+     */
+    public LocalDate nextDate() {
+        advanceTrimmed();
+        if (fieldEnd - fieldStart != 10 || line.charAt(fieldStart + 4) != '-' || line.charAt(fieldStart + 7) != '-') {
+            return LocalDate.parse(field());
+        }
+        int year = digits(fieldStart, 4);
+        int month = digits(fieldStart + 5, 2);
+        int day = digits(fieldStart + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return LocalDate.parse(field());
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new DateTimeParseException("Text '" + field() + "' could not be parsed: " + e.getMessage(), field(), 0, e);
+        }
+    }
+
+    /**
+     * Matches the next field against the names of the given constants.
+     *
+     * @param values The constants of the enum, e.g. {@code MealType.values()}.
+     * @param ignoreCase Whether to match the names case-insensitively.
+     * @return The matching constant.
+     * @throws IllegalArgumentException If no constant has that name.
+     */
+    public <E extends Enum<E>> E nextEnum(E[] values, boolean ignoreCase) {
+        advanceTrimmed();
+        return matchEnum(values, ignoreCase, fieldStart, fieldEnd);
+    }
+
+    /**
+     * Same as {@code Boolean.parseBoolean} on the trimmed field.
+     *
+     * @return Whether the next field is {@code true}, ignoring case.
+     */
+    public boolean nextBoolean() {
+        advanceTrimmed();
+        return matches("true", true);
+    }
+
+    /**
+     * Parses a field of {@code KEY:count} entries separated by commas, such as
+     * {@code ECONOMY:100,BUSINESS:20}. Entries without exactly one colon are ignored.
+     *
+     * @param values The constants of the key enum; keys are matched case-sensitively.
+     * @return The parsed counts, empty if the field is blank.
+     */
+    public <E extends Enum<E>> Map<E, Integer> nextCounts(E[] values) {
+        advanceTrimmed();
+        Map<E, Integer> counts = new HashMap<>();
+        int end = fieldEnd;
+        int entryStart = fieldStart;
+        while (entryStart < end) {
+            int entryEnd = indexOf(',', entryStart, end);
+            int colon = indexOf(':', entryStart, entryEnd);
+            if (colon + 1 < entryEnd && indexOf(':', colon + 1, entryEnd) == entryEnd) {
+                int keyStart = skipWhitespace(entryStart, colon);
+                int keyEnd = trimEnd(keyStart, colon);
+                E key = matchEnum(values, false, keyStart, keyEnd);
+                fieldStart = skipWhitespace(colon + 1, entryEnd);
+                fieldEnd = trimEnd(fieldStart, entryEnd);
+                long count = parseLongField();
+                if (count < Integer.MIN_VALUE || count > Integer.MAX_VALUE) {
+                    throw numberFormat();
+                }
+                counts.put(key, (int) count);
+            }
+            entryStart = entryEnd + 1;
+        }
+        return counts;
+    }
+
+    private long parseLongField() {
+        int i = fieldStart;
+        boolean negative = false;
+        if (i < fieldEnd && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+        if (i == fieldEnd || fieldEnd - i > MAX_FAST_DIGITS) {
+            return Long.parseLong(field());
+        }
+        long value = 0;
+        for (; i < fieldEnd; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormat();
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private <E extends Enum<E>> E matchEnum(E[] values, boolean ignoreCase, int start, int end) {
+        int length = end - start;
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == length && regionMatches(name, start, ignoreCase)) {
+                return value;
+            }
+        }
+        String type = (values.length > 0) ? values[0].getDeclaringClass().getCanonicalName() : "enum";
+        throw new IllegalArgumentException("No enum constant " + type + "." + line.subSequence(start, end));
+    }
+
+    private boolean regionMatches(String name, int start, boolean ignoreCase) {
+        for (int i = 0; i < name.length(); i++) {
+            char a = line.charAt(start + i);
+            char b = name.charAt(i);
+            if (a != b && !(ignoreCase && Character.toUpperCase(a) == Character.toUpperCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(String word, boolean ignoreCase) {
+        return fieldEnd - fieldStart == word.length() && regionMatches(word, fieldStart, ignoreCase);
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private NumberFormatException numberFormat() {
+        return new NumberFormatException("For input string: \"" + field() + "\"");
+    }
+
+    private String field() {
+        return line.subSequence(fieldStart, fieldEnd).toString();
+    }
+
+    private void advance() {
+        if (position > line.length()) {
+            throw new ArrayIndexOutOfBoundsException("No more fields in record: " + line);
+        }
+        int separator = indexOfSeparator(position);
+        fieldStart = position;
+        fieldEnd = (separator < 0) ? line.length() : separator;
+        position = (separator < 0) ? line.length() + 1 : separator + SEPARATOR.length();
+    }
+
+    private void advanceTrimmed() {
+        advance();
+        fieldStart = skipWhitespace(fieldStart, fieldEnd);
+        fieldEnd = trimEnd(fieldStart, fieldEnd);
+    }
+
+    private int skipWhitespace(int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private int indexOf(char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line.charAt(i) == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private int indexOfSeparator(int from) {
+        int last = line.length() - SEPARATOR.length();
+        for (int i = from; i <= last; i++) {
+            if (line.charAt(i) == SEPARATOR.charAt(0) && line.charAt(i + 1) == SEPARATOR.charAt(1)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,56 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+
+/**
+ * Converts the data snapshots between storage formats, and migrates the data files into
+ * the database.
+ * <pre>
+ *   java bcu.cmp5332.bookingsystem.data.SnapshotConverter export        (text files to .bin files)
+ *   java bcu.cmp5332.bookingsystem.data.SnapshotConverter import        (.bin files to text files)
+ *   java bcu.cmp5332.bookingsystem.data.SnapshotConverter text jdbc     (any format to any other)
+ * </pre>
+ * Past flights and bookings of partitioned files are loaded too, so every record is converted.
+ * Pending journal records are included in the converted snapshot. The journal itself is
+ * left in place, so it still applies on top of the snapshots of either file format. The
+ * database is named by the {@code fbs.jdbc.url} system property.
+ */
+public class SnapshotConverter {
+
+    public static void main(String[] args) throws IOException, FlightBookingSystemException {
+        StorageFormat from = null;
+        StorageFormat to = null;
+        if (args.length == 1 && args[0].equals("export")) {
+            from = StorageFormat.TEXT;
+            to = StorageFormat.BINARY;
+        } else if (args.length == 1 && args[0].equals("import")) {
+            from = StorageFormat.BINARY;
+            to = StorageFormat.TEXT;
+        } else if (args.length == 2) {
+            from = parse(args[0]);
+            to = parse(args[1]);
+        }
+        if (from == null || to == null || from == to) {
+            System.err.println("Usage: SnapshotConverter export|import|<from> <to>, where the formats are text, binary, partitioned or jdbc");
+            System.exit(1);
+        }
+
+        FlightBookingSystem fbs = FlightBookingSystemData.load(from);
+        FlightBookingSystemData.writeSnapshot(fbs, to);
+        System.out.println("Converted " + fbs.getAllMeals().size() + " meals, "
+                + fbs.getAllCustomers().size() + " customers, "
+                + fbs.getAllFlights().size() + " flights and "
+                + fbs.getBookings().size() + " bookings from " + from + " to " + to + ".");
+    }
+
+    private static StorageFormat parse(String name) {
+        try {
+            return StorageFormat.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
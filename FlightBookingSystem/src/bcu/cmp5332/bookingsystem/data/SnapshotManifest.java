@@ -0,0 +1,152 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ties the data files to a single generation number. Each store writes the changed files
+ * to temporary files first, then atomically replaces the manifest with the next generation
+ * and the size and checksum of every new file, and only then renames the temporary files
+ * into place. Replacing the manifest is the commit point: on start-up, temporary files that
+ * match the manifest belong to a committed store and are renamed, and any others belong to
+ * an interrupted one and are deleted. The manifest is a text file:
+ * <pre>
+ *   generation::&lt;number&gt;
+ *   &lt;file name&gt;::&lt;size&gt;::&lt;CRC-32&gt;
+ * </pre>
+ */
+public class SnapshotManifest {
+
+    public static final String FILE_NAME = "manifest.txt";
+
+    private final String SEPARATOR = "::";
+    private final String GENERATION = "generation";
+
+    private final Path directory;
+    private final Path resource;
+    private long generation = 0;
+    private Map<String, Entry> entries = new TreeMap<>();
+
+    public SnapshotManifest() {
+        this(DataManager.DATA_DIRECTORY);
+    }
+
+    public SnapshotManifest(String directory) {
+        this.directory = Paths.get(directory);
+        this.resource = this.directory.resolve(FILE_NAME);
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Reads the manifest and finishes or rolls back a store that was interrupted by a
+     * crash. Must be called before the data files are loaded.
+     *
+     * @throws IOException If the directory cannot be read or a file cannot be renamed.
+     */
+    public synchronized void recover() throws IOException {
+        read();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, "*" + AtomicFile.TEMP_SUFFIX)) {
+            for (Path temp : temps) {
+                String name = temp.getFileName().toString();
+                String target = name.substring(0, name.length() - AtomicFile.TEMP_SUFFIX.length());
+                Entry entry = entries.get(target);
+                if (entry != null && Files.size(temp) == entry.size && AtomicFile.checksum(temp) == entry.checksum) {
+                    Files.move(temp, directory.resolve(target), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    System.err.println("Warning: Completed interrupted write of " + target + " (generation " + generation + ").");
+                } else {
+                    Files.delete(temp);
+                    System.err.println("Warning: Discarded incomplete write of " + target + ".");
+                }
+            }
+        }
+    }
+
+    /**
+     * Commits the prepared files as the next generation. The manifest is replaced first,
+     * then every file is renamed into place. If the manifest cannot be written, the
+     * prepared files are discarded and the previous generation stays intact.
+     *
+     * @param files The files written for this generation.
+     * @throws IOException If the manifest cannot be written or a file cannot be renamed.
+     */
+    public synchronized void commit(List<AtomicFile.Prepared> files) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
+        long nextGeneration = generation + 1;
+        Map<String, Entry> nextEntries = new TreeMap<>(entries);
+        for (AtomicFile.Prepared file : files) {
+            nextEntries.put(file.getTarget().getFileName().toString(), new Entry(file.getSize(), file.getChecksum()));
+        }
+
+        try {
+            AtomicFile.write(resource, out -> {
+                PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.print(GENERATION + SEPARATOR + nextGeneration + "\n");
+                for (Map.Entry<String, Entry> entry : nextEntries.entrySet()) {
+                    writer.print(entry.getKey() + SEPARATOR + entry.getValue().size + SEPARATOR + entry.getValue().checksum + "\n");
+                }
+                writer.flush();
+            });
+        } catch (IOException e) {
+            for (AtomicFile.Prepared file : files) {
+                file.discard();
+            }
+            throw e;
+        }
+        generation = nextGeneration;
+        entries = nextEntries;
+
+        for (AtomicFile.Prepared file : files) {
+            file.commit();
+        }
+    }
+
+    private void read() throws IOException {
+        generation = 0;
+        entries = new TreeMap<>();
+        if (!Files.exists(resource)) {
+            return;
+        }
+        int line_idx = 1;
+        for (String line : Files.readAllLines(resource, StandardCharsets.UTF_8)) {
+            String[] properties = line.split(SEPARATOR, -1);
+            try {
+                if (properties[0].equals(GENERATION)) {
+                    generation = Long.parseLong(properties[1]);
+                } else if (properties.length == 3) {
+                    entries.put(properties[0], new Entry(Long.parseLong(properties[1]), Long.parseLong(properties[2])));
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                System.err.println("Warning: Ignoring malformed manifest line " + line_idx + ": " + line);
+            }
+            line_idx++;
+        }
+    }
+
+    private static class Entry {
+        final long size;
+        final long checksum;
+
+        Entry(long size, long checksum) {
+            this.size = size;
+            this.checksum = checksum;
+        }
+    }
+}
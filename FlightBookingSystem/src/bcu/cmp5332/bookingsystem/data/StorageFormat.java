@@ -0,0 +1,36 @@
+package bcu.cmp5332.bookingsystem.data;
+
+/**
+ * The on-disk format of the data snapshots, selected at start-up with the
+ * {@code fbs.storage} system property (for example {@code -Dfbs.storage=binary}).
+ * The text format is the default. {@link #PARTITIONED} keeps the text format but splits
+ * flights and bookings into a file per departure month, see {@link PartitionedDataManager}.
+ * {@link #JDBC} stores the system in an embedded database instead of data files, see
+ * {@link JdbcDataManager}.
+ */
+public enum StorageFormat {
+    TEXT,
+    BINARY,
+    PARTITIONED,
+    JDBC;
+
+    public static final String PROPERTY = "fbs.storage";
+
+    /**
+     * Returns the format named by the {@code fbs.storage} system property.
+     *
+     * @return The configured format, or {@link #TEXT} if none or an unknown one is set.
+     */
+    public static StorageFormat configured() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return TEXT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: Unknown storage format '" + value + "', using text files.");
+            return TEXT;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import java.util.List;
+
+/**
+ * A {@link DataManager} that keeps one text record per entity in its resource file.
+ * Every record starts with the entity ID, followed by the remaining fields
+ * separated by {@link DataManager#SEPARATOR}.
+ * <p>
+ * Loading a record is split in two steps: {@link #parseRecord(String, int)} only reads
+ * the line and may run on any thread, while {@link #addRecord(FlightBookingSystem, Object, int)}
+ * resolves references and adds the entity to the system on the loading thread.
+ *
+ * @param <T> The type a record is parsed into.
+ */
+public interface TextDataManager<T> extends FileDataManager {
+
+    public T parseRecord(String line, int lineIdx) throws FlightBookingSystemException;
+    public void addRecord(FlightBookingSystem fbs, T record, int lineIdx) throws FlightBookingSystemException;
+
+    /**
+     * Called once every record has been added, even if loading failed.
+     */
+    public default void afterLoad(FlightBookingSystem fbs) {
+    }
+
+    public default void loadRecords(FlightBookingSystem fbs, List<String> records) throws FlightBookingSystemException {
+        try {
+            int lineIdx = 1;
+            for (String line : records) {
+                T record = parseRecord(line, lineIdx);
+                if (record != null) {
+                    addRecord(fbs, record, lineIdx);
+                }
+                lineIdx++;
+            }
+        } finally {
+            afterLoad(fbs);
+        }
+    }
+
+    public String formatRecord(FlightBookingSystem fbs, int id);
+
+}
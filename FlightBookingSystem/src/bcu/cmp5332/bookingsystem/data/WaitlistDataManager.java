@@ -0,0 +1,149 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Stores the waitlists of the flights, one line per entry in the order the customers
+ * joined. Snapshots only keep the entries that are still waiting; promoted and left
+ * entries are only journaled, so that the change is replayed until the next snapshot.
+ */
+public class WaitlistDataManager implements TextDataManager<WaitlistDataManager.WaitlistRecord> {
+
+    public final String RESOURCE;
+    private final String SEPARATOR = "::";
+    private static final CommercialClassType[] CLASS_TYPES = CommercialClassType.values();
+    private static final WaitlistStatus[] STATUSES = WaitlistStatus.values();
+
+    public WaitlistDataManager() {
+        this(DATA_DIRECTORY);
+    }
+
+    public WaitlistDataManager(String directory) {
+        this.RESOURCE = directory + "/waitlists.txt";
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return EntityType.WAITLIST;
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        loadRecords(fbs, Files.readAllLines(Paths.get(RESOURCE)));
+    }
+
+    @Override
+    public WaitlistRecord parseRecord(String record, int lineIdx) throws FlightBookingSystemException {
+        String line = record.trim();
+        if (line.isEmpty()) {
+            return null;
+        }
+
+        RecordTokenizer fields = new RecordTokenizer(line);
+        if (fields.fieldCount() < 7) {
+            throw new FlightBookingSystemException("Malformed waitlist line at " + lineIdx + ": " + line + " (Too few fields)");
+        }
+
+        try {
+            WaitlistRecord parsed = new WaitlistRecord();
+            parsed.id = fields.nextInt();
+            parsed.customerId = fields.nextInt();
+            parsed.flightId = fields.nextInt();
+            parsed.classType = fields.nextEnum(CLASS_TYPES, true);
+            parsed.joinedDate = fields.nextDate();
+            parsed.status = fields.nextEnum(STATUSES, true);
+            parsed.bookingId = fields.nextInt();
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new FlightBookingSystemException("Error parsing number in waitlist data on line " + lineIdx + ": " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new FlightBookingSystemException("Error parsing enum/date in waitlist data on line " + lineIdx + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolves the customer and flight of a parsed entry and adds it to the system.
+     * Entries whose customer or flight is not loaded are skipped.
+     */
+    @Override
+    public void addRecord(FlightBookingSystem fbs, WaitlistRecord parsed, int lineIdx) {
+        WaitlistEntry entry = resolve(fbs, parsed.id, parsed.customerId, parsed.flightId, parsed.classType,
+                parsed.joinedDate, parsed.status, parsed.bookingId, "line " + lineIdx);
+        if (entry != null) {
+            fbs.addWaitlistEntry(entry);
+        }
+    }
+
+    /**
+     * Builds a waitlist entry from its stored fields. Shared by every waitlist loader so
+     * that all storage formats load identically.
+     *
+     * @return The entry, or null if its customer or flight is not loaded.
+     */
+    static WaitlistEntry resolve(FlightBookingSystem fbs, int id, int customerId, int flightId,
+            CommercialClassType classType, LocalDate joinedDate, WaitlistStatus status, int bookingId, String location) {
+        Customer customer = fbs.getCustomerByIDIncludingDeleted(customerId);
+        if (customer == null) {
+            System.err.println("Warning: Customer ID " + customerId + " not found for waitlist entry ID " + id + " in " + location + ". Skipping entry.");
+            return null;
+        }
+        Flight flight = fbs.getFlightByIDIncludingDeleted(flightId);
+        if (flight == null) {
+            // Partitioned loading leaves out past flights, whose waitlists no longer matter.
+            return null;
+        }
+        return new WaitlistEntry(id, customer, flight, classType, joinedDate, status, bookingId);
+    }
+
+    @Override
+    public String formatRecord(FlightBookingSystem fbs, int id) {
+        WaitlistEntry entry = fbs.getWaitlistEntryByID(id);
+        return (entry != null) ? format(entry) : null;
+    }
+
+    private String format(WaitlistEntry entry) {
+        return entry.getId() + SEPARATOR
+                + entry.getCustomer().getId() + SEPARATOR
+                + entry.getFlight().getId() + SEPARATOR
+                + entry.getClassType().name() + SEPARATOR
+                + entry.getJoinedDate().format(DateTimeFormatter.ISO_LOCAL_DATE) + SEPARATOR
+                + entry.getStatus().name() + SEPARATOR
+                + entry.getBookingId();
+    }
+
+    @Override
+    public void writeData(FlightBookingSystem fbs, OutputStream stream) throws IOException {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        for (WaitlistEntry entry : fbs.getWaitlistEntries()) {
+            if (entry.isWaiting()) {
+                out.println(format(entry));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * The fields of a waitlist line, with its references still unresolved.
+     */
+    static class WaitlistRecord {
+        int id;
+        int customerId;
+        int flightId;
+        CommercialClassType classType;
+        LocalDate joinedDate;
+        WaitlistStatus status;
+        int bookingId;
+    }
+}
@@ -3,7 +3,6 @@ package bcu.cmp5332.bookingsystem.gui;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.MealType;
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 
 import javax.swing.*;
 import java.awt.*;
@@ -11,7 +10,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -224,7 +222,7 @@ public class AddCustomerWindow extends JFrame implements ActionListener {
 
             mw.getFlightBookingSystem().addCustomer(customer);
 
-            FlightBookingSystemData.store(mw.getFlightBookingSystem());
+            MainWindow.commitInBackground(mw, mw.getFlightBookingSystem());
 
             JOptionPane.showMessageDialog(this,
                 "Customer " + customer.getName() + " (ID: " + customer.getId() + ") added successfully!",
@@ -235,8 +233,6 @@ public class AddCustomerWindow extends JFrame implements ActionListener {
 
         } catch (FlightBookingSystemException ex) {
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Error saving data: " + ex.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE);
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
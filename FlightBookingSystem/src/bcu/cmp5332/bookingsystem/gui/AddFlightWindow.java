@@ -2,7 +2,6 @@ package bcu.cmp5332.bookingsystem.gui;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.CommercialClassType;
 import bcu.cmp5332.bookingsystem.model.FlightType;
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 
 import javax.swing.*;
 import java.awt.*;
@@ -10,7 +9,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter; 
 import java.awt.event.MouseEvent; 
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
@@ -290,6 +288,11 @@ public class AddFlightWindow extends JFrame implements ActionListener {
             } catch (DateTimeParseException dtpe) {
                 throw new FlightBookingSystemException("Departure Date must be in YYYY-MM-DD format.");
             }
+            bcu.cmp5332.bookingsystem.model.Flight scheduled = mw.getFlightBookingSystem().findFlightByNumber(flightNumber, departureDate);
+            if (scheduled != null) {
+                throw new FlightBookingSystemException("Flight " + flightNumber + " already departs on "
+                        + departureDate + " (ID: " + scheduled.getId() + ").");
+            }
 
             BigDecimal economyPrice;
             try {
@@ -368,7 +371,7 @@ public class AddFlightWindow extends JFrame implements ActionListener {
                 mw.getFlightBookingSystem().addFlight(newFlight);
             }
 
-            FlightBookingSystemData.store(mw.getFlightBookingSystem());
+            MainWindow.commitInBackground(mw, mw.getFlightBookingSystem());
             
             JOptionPane.showMessageDialog(this,
                 "Flight " + flightNumber + " added successfully!",
@@ -381,8 +384,6 @@ public class AddFlightWindow extends JFrame implements ActionListener {
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Please enter valid numbers for price and capacity/percentages.", "Input Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Error saving data: " + ex.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE);
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
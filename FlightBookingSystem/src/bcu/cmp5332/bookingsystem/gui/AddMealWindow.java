@@ -1,6 +1,5 @@
 package bcu.cmp5332.bookingsystem.gui;
 
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Meal;
 import bcu.cmp5332.bookingsystem.model.MealType;
@@ -11,7 +10,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
 import java.math.BigDecimal;
 
 public class AddMealWindow extends JFrame implements ActionListener {
@@ -197,7 +195,7 @@ public class AddMealWindow extends JFrame implements ActionListener {
             Meal meal = new Meal(newMealId, name, description, price, type);
             mw.getFlightBookingSystem().addMeal(meal);
             
-            FlightBookingSystemData.store(mw.getFlightBookingSystem());
+            MainWindow.commitInBackground(mw, mw.getFlightBookingSystem());
             
             JOptionPane.showMessageDialog(this,
                 "Meal '" + meal.getName() + "' (ID: " + meal.getId() + ") added successfully!",
@@ -208,8 +206,6 @@ public class AddMealWindow extends JFrame implements ActionListener {
 
         } catch (FlightBookingSystemException ex) {
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Error saving data: " + ex.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE);
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
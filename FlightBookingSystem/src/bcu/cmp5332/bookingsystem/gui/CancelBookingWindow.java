@@ -108,17 +108,10 @@ public class CancelBookingWindow extends JFrame implements ActionListener {
     public void actionPerformed(ActionEvent ae) {
         if (ae.getSource() == confirmButton) {
             try {
-                fbs.cancelBooking(this.customer, this.flightToCancel); 
+                Booking actualCancelledBooking = fbs.cancelBooking(this.customer, this.flightToCancel); 
+                MainWindow.commitInBackground(mw, fbs);
                 
-                Booking actualCancelledBooking = null;
-                for(Booking b : customer.getBookings()) {
-                    if (b.isCancelled() && (b.getOutboundFlight().equals(flightToCancel) || (b.getReturnFlight() != null && b.getReturnFlight().equals(flightToCancel)))) {
-                        actualCancelledBooking = b;
-                        break;
-                    }
-                }
-                
-                String bookingIdMsg = (actualCancelledBooking != null) ? "Booking ID " + actualCancelledBooking.getId() : "A booking";
+                String bookingIdMsg = "Booking ID " + actualCancelledBooking.getId();
 
                 JOptionPane.showMessageDialog(this, bookingIdMsg + " has been cancelled.", 
                                               "Cancellation Successful", JOptionPane.INFORMATION_MESSAGE);
@@ -181,7 +181,7 @@ public class CustomerDetailsWindow extends JFrame implements ActionListener {
 
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-        for (Booking booking : customer.getBookings()) {
+        for (Booking booking : mw.getFlightBookingSystem().getBookingHistory(customer)) {
             String outboundFlightDetails = "N/A";
             if (booking.getOutboundFlight() != null) {
                 Flight of = booking.getOutboundFlight();
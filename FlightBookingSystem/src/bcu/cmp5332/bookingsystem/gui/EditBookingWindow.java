@@ -14,7 +14,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.math.BigDecimal; // Import BigDecimal
@@ -242,9 +241,9 @@ public class EditBookingWindow extends JFrame implements ActionListener {
                 //     fbs.editBooking(customer, returnFlight, newReturnDepartureDate, newClass); // Re-use or adapt for return flight
                 // }
 
-                // --- IMPORTANT: Persist the changes to the text file ---
-                // This call saves the entire state of flights, customers, and bookings
-                FlightBookingSystemData.store(fbs);
+                // --- IMPORTANT: Persist the changes ---
+                // This call journals the edited booking and any flight whose seats changed
+                MainWindow.commitInBackground(mw, fbs);
 
                 JOptionPane.showMessageDialog(this,
                     "Booking " + booking.getId() + " updated successfully!",
@@ -261,11 +260,6 @@ public class EditBookingWindow extends JFrame implements ActionListener {
                 JOptionPane.showMessageDialog(this,
                     ex.getMessage(),
                     "Validation Error", JOptionPane.ERROR_MESSAGE);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this,
-                    "Error saving data: " + ex.getMessage(),
-                    "Save Error", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace(); // Print stack trace for debugging
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this,
                     "An unexpected error occurred: " + ex.getMessage(),
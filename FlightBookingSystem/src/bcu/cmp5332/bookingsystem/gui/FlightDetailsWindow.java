@@ -1,8 +1,8 @@
 package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightQuote;
 import bcu.cmp5332.bookingsystem.model.FlightType;
 import bcu.cmp5332.bookingsystem.model.CommercialClassType;
 import java.awt.BorderLayout;
@@ -16,7 +16,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.Map;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -268,7 +269,7 @@ public class FlightDetailsWindow extends JFrame implements ActionListener {
     }
 
     private void setupCommercialClassTable() {
-        String[] columns = new String[]{"Class Type", "Total Capacity", "Available Seats"};
+        String[] columns = new String[]{"Class Type", "Total Capacity", "Available Seats", "Current Price (£)"};
         classCapacityTableModel = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -277,6 +278,7 @@ public class FlightDetailsWindow extends JFrame implements ActionListener {
         };
 
         Map<CommercialClassType, Integer> classCapacities = flight.getClassCapacities();
+        FlightQuote quote = mw.getFlightBookingSystem().quoteAll(Collections.singletonList(flight)).get(0);
 
         CommercialClassType[] displayOrder = {
             CommercialClassType.FIRST,
@@ -289,11 +291,13 @@ public class FlightDetailsWindow extends JFrame implements ActionListener {
             int total = classCapacities.getOrDefault(type, 0);
             int occupied = flight.getOccupiedSeatsByClass(type);
             int available = total - occupied;
+            BigDecimal price = quote.getPrice(type);
 
             classCapacityTableModel.addRow(new Object[]{
                 type.getClassName(),
                 total,
-                available
+                available,
+                price != null ? price.toPlainString() : "N/A"
             });
         }
 
@@ -311,11 +315,13 @@ public class FlightDetailsWindow extends JFrame implements ActionListener {
         classCapacityTable.getColumnModel().getColumn(0).setPreferredWidth(150);
         classCapacityTable.getColumnModel().getColumn(1).setPreferredWidth(100);
         classCapacityTable.getColumnModel().getColumn(2).setPreferredWidth(120);
+        classCapacityTable.getColumnModel().getColumn(3).setPreferredWidth(120);
 
         DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
         centerRenderer.setHorizontalAlignment(JLabel.CENTER);
         classCapacityTable.getColumnModel().getColumn(1).setCellRenderer(centerRenderer);
         classCapacityTable.getColumnModel().getColumn(2).setCellRenderer(centerRenderer);
+        classCapacityTable.getColumnModel().getColumn(3).setCellRenderer(centerRenderer);
 
         classCapacityTable.getColumnModel().getColumn(2).setCellRenderer(new AvailableSeatRenderer());
     }
@@ -354,7 +360,7 @@ public class FlightDetailsWindow extends JFrame implements ActionListener {
                 boolean removed = mw.getFlightBookingSystem().removeFlightById(flight.getId());
 
                 if (removed) {
-                    FlightBookingSystemData.store(mw.getFlightBookingSystem());
+                    MainWindow.commitInBackground(mw, mw.getFlightBookingSystem());
 
                     JOptionPane.showMessageDialog(this,
                         "Flight " + flight.getFlightNumber() + " (ID: " + flight.getId() + ") has been successfully marked as removed.",
@@ -378,7 +384,7 @@ public class FlightDetailsWindow extends JFrame implements ActionListener {
                         "Removal Failed", JOptionPane.WARNING_MESSAGE);
                 }
 
-            } catch (FlightBookingSystemException | IOException ex) {
+            } catch (FlightBookingSystemException ex) {
                 JOptionPane.showMessageDialog(this, "Error removing flight: " + ex.getMessage(), "Removal Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "An unexpected error occurred during removal: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -0,0 +1,142 @@
+package bcu.cmp5332.bookingsystem.gui;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingRequest;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Books several customers on the same flights and class at once. The group is booked
+ * as a whole, so a failure leaves every customer of it unbooked.
+ */
+public class GroupBookingWindow extends JFrame {
+
+    private MainWindow mainWindow;
+
+    private JList<Customer> customerList;
+    private JComboBox<Flight> outboundFlightComboBox;
+    private JComboBox<Flight> returnFlightComboBox;
+    private JComboBox<CommercialClassType> classTypeComboBox;
+
+    public GroupBookingWindow(MainWindow mainWindow) {
+        this.mainWindow = mainWindow;
+        initialize();
+    }
+
+    private void initialize() {
+        setTitle("Issue Group Booking");
+        setSize(550, 450);
+        setLocationRelativeTo(mainWindow);
+        setResizable(false);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        setLayout(new BorderLayout());
+
+        FlightBookingSystem fbs = mainWindow.getFlightBookingSystem();
+
+        JPanel inputPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        // Customer Selection (several at once)
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.anchor = GridBagConstraints.NORTH;
+        inputPanel.add(new JLabel("Select Customers:"), gbc);
+        gbc.gridx = 1;
+        DefaultListModel<Customer> customerModel = new DefaultListModel<>();
+        fbs.getCustomers().stream()
+           .filter(c -> !c.isDeleted())
+           .forEach(customerModel::addElement);
+        customerList = new JList<>(customerModel);
+        customerList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        customerList.setVisibleRowCount(8);
+        inputPanel.add(new JScrollPane(customerList), gbc);
+
+        // Outbound Flight Selection
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        inputPanel.add(new JLabel("Select Outbound Flight:"), gbc);
+        gbc.gridx = 1;
+        outboundFlightComboBox = new JComboBox<>();
+        fbs.getFlights().forEach(outboundFlightComboBox::addItem);
+        inputPanel.add(outboundFlightComboBox, gbc);
+
+        // Return Flight Selection (Optional)
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        inputPanel.add(new JLabel("Select Return Flight (Optional):"), gbc);
+        gbc.gridx = 1;
+        returnFlightComboBox = new JComboBox<>();
+        returnFlightComboBox.addItem(null);
+        fbs.getFlights().forEach(returnFlightComboBox::addItem);
+        inputPanel.add(returnFlightComboBox, gbc);
+
+        // Class Type Selection
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        inputPanel.add(new JLabel("Select Class Type:"), gbc);
+        gbc.gridx = 1;
+        classTypeComboBox = new JComboBox<>(CommercialClassType.values());
+        inputPanel.add(classTypeComboBox, gbc);
+
+        add(inputPanel, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton bookButton = new JButton("Book Group");
+        bookButton.addActionListener(e -> bookGroup());
+        buttonPanel.add(bookButton);
+
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> dispose());
+        buttonPanel.add(cancelButton);
+
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        setVisible(true);
+    }
+
+    private void bookGroup() {
+        List<Customer> selectedCustomers = customerList.getSelectedValuesList();
+        Flight outbound = (Flight) outboundFlightComboBox.getSelectedItem();
+        Flight returnFlight = (Flight) returnFlightComboBox.getSelectedItem();
+        CommercialClassType classType = (CommercialClassType) classTypeComboBox.getSelectedItem();
+
+        if (selectedCustomers.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please select at least one customer.", "Booking Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (outbound == null) {
+            JOptionPane.showMessageDialog(this, "Please select an outbound flight.", "Booking Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        List<BookingRequest> requests = new ArrayList<>();
+        for (Customer customer : selectedCustomers) {
+            requests.add(new BookingRequest(customer, outbound, returnFlight, classType, null));
+        }
+
+        try {
+            List<Booking> bookings = mainWindow.getFlightBookingSystem().addBookings(requests);
+            MainWindow.commitInBackground(mainWindow, mainWindow.getFlightBookingSystem());
+
+            JOptionPane.showMessageDialog(this, bookings.size() + " bookings successfully issued!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            mainWindow.displayBookings();
+            dispose();
+        } catch (FlightBookingSystemException ex) {
+            JOptionPane.showMessageDialog(this, "Group Booking Failed: " + ex.getMessage(), "Booking Error", JOptionPane.ERROR_MESSAGE);
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + ex.getMessage(), "System Error", JOptionPane.ERROR_MESSAGE);
+            ex.printStackTrace();
+        }
+    }
+}
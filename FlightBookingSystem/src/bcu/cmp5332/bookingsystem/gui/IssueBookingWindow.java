@@ -6,13 +6,16 @@ import bcu.cmp5332.bookingsystem.model.CommercialClassType;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.SeatHold;
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData; 
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.IOException; 
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter; // Might not be directly used in this class, but good to keep if needed later
 import java.util.List;
 
@@ -27,6 +30,11 @@ public class IssueBookingWindow extends JFrame {
     private JComboBox<Flight> returnFlightComboBox; 
     private JComboBox<CommercialClassType> classTypeComboBox;
     private JComboBox<Meal> mealComboBox; 
+    private JLabel holdStatusLabel;
+
+    // Seats held for the current selection until it is booked, changed or the window closes
+    private SeatHold outboundHold;
+    private SeatHold returnHold;
 
     private JButton bookButton;
     private JButton cancelButton;
@@ -40,7 +48,7 @@ public class IssueBookingWindow extends JFrame {
 
     private void initialize() {
         setTitle("Issue New Booking");
-        setSize(550, 400); 
+        setSize(550, 430); 
         setLocationRelativeTo(mainWindow);
         setResizable(false);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -98,8 +106,26 @@ public class IssueBookingWindow extends JFrame {
         loadMeals(); 
         inputPanel.add(mealComboBox, gbc);
 
+        // Seat Hold Status
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        gbc.gridwidth = 2;
+        holdStatusLabel = new JLabel(" ");
+        inputPanel.add(holdStatusLabel, gbc);
+
         add(inputPanel, BorderLayout.CENTER);
 
+        outboundFlightComboBox.addActionListener(e -> updateHolds());
+        returnFlightComboBox.addActionListener(e -> updateHolds());
+        classTypeComboBox.addActionListener(e -> updateHolds());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                releaseHolds();
+            }
+        });
+        updateHolds();
+
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         bookButton = new JButton("Book");
         bookButton.addActionListener(new BookButtonListener());
@@ -169,6 +195,41 @@ public class IssueBookingWindow extends JFrame {
         }
     }
 
+    /**
+     * Holds a seat on each selected flight in the selected class, giving back the seats
+     * held for the previous selection.
+     */
+    private void updateHolds() {
+        releaseHolds();
+        Flight outbound = (Flight) outboundFlightComboBox.getSelectedItem();
+        Flight returnFlight = (Flight) returnFlightComboBox.getSelectedItem();
+        CommercialClassType classType = (CommercialClassType) classTypeComboBox.getSelectedItem();
+        if (outbound == null || classType == null) {
+            holdStatusLabel.setText(" ");
+            return;
+        }
+        FlightBookingSystem fbs = mainWindow.getFlightBookingSystem();
+        try {
+            outboundHold = fbs.holdSeat(outbound, classType);
+            if (returnFlight != null) {
+                returnHold = fbs.holdSeat(returnFlight, classType);
+            }
+            Duration ttl = fbs.getSeatHoldTtl();
+            holdStatusLabel.setText("Seats held for " + (ttl.toMinutes() > 0 ? ttl.toMinutes() + " minute(s)" : ttl.getSeconds() + " second(s)") + ".");
+        } catch (FlightBookingSystemException ex) {
+            releaseHolds();
+            holdStatusLabel.setText("Seats could not be held: " + ex.getMessage());
+        }
+    }
+
+    private void releaseHolds() {
+        FlightBookingSystem fbs = mainWindow.getFlightBookingSystem();
+        fbs.releaseHold(outboundHold);
+        fbs.releaseHold(returnHold);
+        outboundHold = null;
+        returnHold = null;
+    }
+
     /**
      * ActionListener for the "Book" button.
      * Uses mainWindow.getFlightBookingSystem() to get FBS.
@@ -198,8 +259,12 @@ public class IssueBookingWindow extends JFrame {
 
             try {
                 // === MODIFIED LINE ===
-                mainWindow.getFlightBookingSystem().addBooking(selectedCustomer, selectedOutboundFlight, selectedReturnFlight, selectedClassType, selectedMeal);
-                FlightBookingSystemData.store(mainWindow.getFlightBookingSystem()); // Access FBS via mainWindow
+                if (outboundHold != null && (selectedReturnFlight == null || returnHold != null)) {
+                    mainWindow.getFlightBookingSystem().addBooking(selectedCustomer, outboundHold, returnHold, selectedMeal);
+                } else {
+                    mainWindow.getFlightBookingSystem().addBooking(selectedCustomer, selectedOutboundFlight, selectedReturnFlight, selectedClassType, selectedMeal);
+                }
+                MainWindow.commitInBackground(mainWindow, mainWindow.getFlightBookingSystem()); // Access FBS via mainWindow
                 // =====================
 
                 JOptionPane.showMessageDialog(IssueBookingWindow.this, "Booking successfully issued!", "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -210,9 +275,6 @@ public class IssueBookingWindow extends JFrame {
                 dispose(); 
             } catch (FlightBookingSystemException ex) {
                 JOptionPane.showMessageDialog(IssueBookingWindow.this, "Booking Failed: " + ex.getMessage(), "Booking Error", JOptionPane.ERROR_MESSAGE);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(IssueBookingWindow.this, "Error saving data after booking: " + ex.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace(); 
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(IssueBookingWindow.this, "An unexpected error occurred: " + ex.getMessage(), "System Error", JOptionPane.ERROR_MESSAGE);
                 ex.printStackTrace();
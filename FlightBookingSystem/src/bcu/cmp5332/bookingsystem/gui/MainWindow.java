@@ -5,6 +5,7 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
@@ -16,6 +17,7 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 public class MainWindow extends JFrame implements ActionListener {
@@ -34,6 +36,7 @@ public class MainWindow extends JFrame implements ActionListener {
     private JMenuItem flightsAdd;
 
     private JMenuItem bookingsIssue;
+    private JMenuItem bookingsIssueGroup;
     private JMenuItem bookingsViewAll;
 
     private JMenuItem custViewActive;
@@ -110,13 +113,16 @@ public class MainWindow extends JFrame implements ActionListener {
         
         bookingsViewAll = new JMenuItem("View All Bookings"); 
         bookingsIssue = new JMenuItem("Issue New Booking");
+        bookingsIssueGroup = new JMenuItem("Issue Group Booking");
         
         bookingsMenu.add(bookingsViewAll); 
         bookingsMenu.addSeparator();
         bookingsMenu.add(bookingsIssue);
+        bookingsMenu.add(bookingsIssueGroup);
         
         bookingsViewAll.addActionListener(this);
         bookingsIssue.addActionListener(this);
+        bookingsIssueGroup.addActionListener(this);
 
         customersMenu = new JMenu("Customers");
         menuBar.add(customersMenu);
@@ -183,6 +189,9 @@ public class MainWindow extends JFrame implements ActionListener {
         else if (ae.getSource() == bookingsIssue) {
             new IssueBookingWindow(this);
         }
+        else if (ae.getSource() == bookingsIssueGroup) {
+            new GroupBookingWindow(this);
+        }
     }
 
     private void showFlightView(boolean showAll) {
@@ -285,6 +294,22 @@ public class MainWindow extends JFrame implements ActionListener {
         contentPanel.repaint();
     }
 
+    /**
+     * Commits the changes made by a window without blocking the event dispatch thread on
+     * the disk. A failed save is reported in a dialog once the background flush fails.
+     *
+     * @param parent The component to show a save error over.
+     * @param fbs The flight booking system whose changes are committed.
+     */
+    static void commitInBackground(Component parent, FlightBookingSystem fbs) {
+        FlightBookingSystemData.commitAsync(fbs).whenComplete((ignored, error) -> {
+            if (error != null) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parent,
+                        "Error saving data: " + error.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE));
+            }
+        });
+    }
+
     private void exitApplication() {
         try {
             FlightBookingSystemData.store(fbs);
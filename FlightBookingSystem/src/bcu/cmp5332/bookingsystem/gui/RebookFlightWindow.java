@@ -2,13 +2,11 @@ package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.*;
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
@@ -247,7 +245,7 @@ public class RebookFlightWindow extends JFrame implements ActionListener {
                 fbs.cancelBooking(selectedBooking.getCustomer(), selectedOldFlight);
                 fbs.addBooking(selectedBooking.getCustomer(), newFlight, null, newClass, null);
 
-                FlightBookingSystemData.store(fbs);
+                MainWindow.commitInBackground(mw, fbs);
 
                 JOptionPane.showMessageDialog(this, "Flight rebooked successfully! Old booking cancelled, new booking created.",
                                               "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -256,9 +254,6 @@ public class RebookFlightWindow extends JFrame implements ActionListener {
             }
         } catch (FlightBookingSystemException ex) {
             JOptionPane.showMessageDialog(this, "Rebooking failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Error saving data: " + ex.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "An unexpected error occurred: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
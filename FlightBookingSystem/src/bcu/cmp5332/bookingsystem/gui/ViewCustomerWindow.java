@@ -1,6 +1,5 @@
 package bcu.cmp5332.bookingsystem.gui;
 
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -13,7 +12,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
 import java.util.List;
 
 import javax.swing.JLabel;
@@ -277,7 +275,7 @@ public class ViewCustomerWindow implements ActionListener {
                 boolean removed = fbs.removeCustomerById(customerIdToDelete);
 
                 if (removed) {
-                    FlightBookingSystemData.store(fbs);
+                    MainWindow.commitInBackground(mainWindow, fbs);
                     
                     JOptionPane.showMessageDialog(mainWindow,
                         "Customer " + customerName + " (ID: " + customerIdToDelete + ") has been successfully marked as removed.",
@@ -290,7 +288,7 @@ public class ViewCustomerWindow implements ActionListener {
                         "Deletion Failed", JOptionPane.WARNING_MESSAGE);
                 }
 
-            } catch (FlightBookingSystemException | IOException ex) {
+            } catch (FlightBookingSystemException ex) {
                 JOptionPane.showMessageDialog(mainWindow, "Error deleting customer: " + ex.getMessage(), "Deletion Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(mainWindow, "An unexpected error occurred during deletion: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
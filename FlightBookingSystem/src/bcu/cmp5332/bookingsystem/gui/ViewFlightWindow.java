@@ -1,9 +1,10 @@
 package bcu.cmp5332.bookingsystem.gui;
 
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightQuote;
 import bcu.cmp5332.bookingsystem.model.FlightType;
 
 import java.awt.BorderLayout;
@@ -14,7 +15,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -66,7 +67,7 @@ public class ViewFlightWindow implements ActionListener {
         mainPanel.add(headerPanel, BorderLayout.NORTH);
         
         String[] columns = new String[]{
-            "ID", "Flight No", "Origin", "Destination", "Date", "Type", "Economy Price (£)", "Total Capacity", "Status"
+            "ID", "Flight No", "Origin", "Destination", "Date", "Type", "Economy Price (£)", "Current Economy (£)", "Total Capacity", "Status"
         };
         
         flightsTableModel = new DefaultTableModel(columns, 0) {
@@ -108,16 +109,17 @@ public class ViewFlightWindow implements ActionListener {
         flightsTable.getColumnModel().getColumn(4).setPreferredWidth(90);
         flightsTable.getColumnModel().getColumn(5).setPreferredWidth(80);
         flightsTable.getColumnModel().getColumn(6).setPreferredWidth(100);
-        flightsTable.getColumnModel().getColumn(7).setPreferredWidth(80);
-        flightsTable.getColumnModel().getColumn(8).setPreferredWidth(70);
+        flightsTable.getColumnModel().getColumn(7).setPreferredWidth(100);
+        flightsTable.getColumnModel().getColumn(8).setPreferredWidth(80);
+        flightsTable.getColumnModel().getColumn(9).setPreferredWidth(70);
         
         DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
         centerRenderer.setHorizontalAlignment(JLabel.CENTER);
         flightsTable.getColumnModel().getColumn(0).setCellRenderer(centerRenderer);
         flightsTable.getColumnModel().getColumn(1).setCellRenderer(centerRenderer);
         flightsTable.getColumnModel().getColumn(5).setCellRenderer(centerRenderer);
-        flightsTable.getColumnModel().getColumn(7).setCellRenderer(centerRenderer);
         flightsTable.getColumnModel().getColumn(8).setCellRenderer(centerRenderer);
+        flightsTable.getColumnModel().getColumn(9).setCellRenderer(centerRenderer);
     }
     
     private void setupPopupMenu() {
@@ -160,7 +162,7 @@ public class ViewFlightWindow implements ActionListener {
                     if (flightsTableModel.getRowCount() > 0 && !(flightsTableModel.getValueAt(flightsTable.getSelectedRow(), 0) instanceof Integer)) {
                         removeFlightMenuItem.setEnabled(false);
                     } else {
-                        String currentStatus = (String) flightsTableModel.getValueAt(flightsTable.getSelectedRow(), 8);
+                        String currentStatus = (String) flightsTableModel.getValueAt(flightsTable.getSelectedRow(), 9);
                         removeFlightMenuItem.setEnabled("Active".equals(currentStatus));
                     }
                     flightPopupMenu.show(e.getComponent(), e.getX(), e.getY());
@@ -189,7 +191,7 @@ public class ViewFlightWindow implements ActionListener {
             flightsTable.setFont(DesignConstants.TABLE_EMPTY_MESSAGE_FONT);
             flightsTable.setForeground(DesignConstants.TEXT_DARK.darker());
             flightsTable.clearSelection();
-            flightsTableModel.addRow(new Object[]{"", "", "", "No flights to display.", "", "", "", "", ""});
+            flightsTableModel.addRow(new Object[]{"", "", "", "No flights to display.", "", "", "", "", "", ""});
             titleLabel.setText(tableTitle);
             return;
         }
@@ -199,7 +201,9 @@ public class ViewFlightWindow implements ActionListener {
 
         LocalDate today = LocalDate.now();
 
-        for (Flight flight : flightsList) {
+        // One quote of the whole list, rather than a price lookup per row.
+        for (FlightQuote quote : fbs.quoteAll(flightsList)) {
+            Flight flight = quote.getFlight();
             String status;
             if (flight.isDeleted()) {
                 status = "Removed";
@@ -218,6 +222,7 @@ public class ViewFlightWindow implements ActionListener {
                     flight.getDepartureDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) : "TBD",
                 flight.getFlightType() == FlightType.COMMERCIAL ? "Commercial" : "Budget",
                 flight.getEconomyPrice().toPlainString(),
+                currentPrice(quote, status),
                 flight.getCapacity(),
                 status
             });
@@ -226,6 +231,14 @@ public class ViewFlightWindow implements ActionListener {
         titleLabel.setText(tableTitle);
     }
     
+    /**
+     * The quoted economy price of an active flight, or a dash for flights that can no longer be booked.
+     */
+    private static String currentPrice(FlightQuote quote, String status) {
+        BigDecimal price = quote.getPrice(CommercialClassType.ECONOMY);
+        return ("Active".equals(status) && price != null) ? price.toPlainString() : "-";
+    }
+
     @Override
     public void actionPerformed(ActionEvent ae) {
         if (ae.getSource() == viewDetailsMenuItem) {
@@ -273,7 +286,7 @@ public class ViewFlightWindow implements ActionListener {
             return;
         }
 
-        String status = (String) flightsTableModel.getValueAt(selectedRow, 8);
+        String status = (String) flightsTableModel.getValueAt(selectedRow, 9);
         if (status.equals("Removed")) {
             JOptionPane.showMessageDialog(mainWindow, "This flight has already been removed.", "Already Removed", JOptionPane.INFORMATION_MESSAGE);
             return;
@@ -296,7 +309,7 @@ public class ViewFlightWindow implements ActionListener {
                 boolean removed = fbs.removeFlightById(flightIdToDelete);
 
                 if (removed) {
-                    FlightBookingSystemData.store(fbs);
+                    MainWindow.commitInBackground(mainWindow, fbs);
                     
                     JOptionPane.showMessageDialog(mainWindow, 
                         "Flight " + flightNumber + " (ID: " + flightIdToDelete + ") has been successfully marked as removed.", 
@@ -309,7 +322,7 @@ public class ViewFlightWindow implements ActionListener {
                         "Removal Failed", JOptionPane.WARNING_MESSAGE);
                 }
 
-            } catch (FlightBookingSystemException | IOException ex) {
+            } catch (FlightBookingSystemException ex) {
                 JOptionPane.showMessageDialog(mainWindow, "Error removing flight: " + ex.getMessage(), "Removal Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(mainWindow, "An unexpected error occurred during removal: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -1,7 +1,6 @@
 package bcu.cmp5332.bookingsystem.gui;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.model.Meal;
-import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
@@ -240,10 +239,8 @@ public class ViewMealWindow extends JFrame implements ActionListener {
         if (confirm == JOptionPane.YES_OPTION) {
             int mealId = (int) mealsTable.getValueAt(selectedRow, 0);
             try {
-                Meal mealToDelete = fbs.getMealByIDIncludingDeleted(mealId);
-                if (mealToDelete != null) {
-                    mealToDelete.setDeleted(true);
-                    FlightBookingSystemData.store(fbs);
+                if (fbs.removeMealById(mealId)) {
+                    MainWindow.commitInBackground(mainPanel, fbs);
                     JOptionPane.showMessageDialog(mainPanel, "Meal removed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                     refreshView();
                 } else {
@@ -2,6 +2,7 @@ package bcu.cmp5332.bookingsystem.main;
 
 import bcu.cmp5332.bookingsystem.commands.*;
 import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightType;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.model.MealType; // Still needed for addmeal command
@@ -11,8 +12,10 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -20,6 +23,7 @@ import java.util.regex.Pattern;
 public class CommandParser {
 
     private static final Pattern ADDBOOKING_PATTERN = Pattern.compile("^addbooking\\s+(\\d+)\\s+(\\d+)(?:\\s+(\\d+))?$");
+    private static final Pattern ADDGROUPBOOKING_PATTERN = Pattern.compile("^addgroupbooking\\s+(\\d+)(?:\\s+(\\d+))?$");
 
     public static Command parse(String line, FlightBookingSystem fbs, BufferedReader reader) throws IOException, FlightBookingSystemException {
         String[] parts = line.trim().split(" ", 2); // Split into command and argument part
@@ -34,6 +38,11 @@ public class CommandParser {
                 System.out.print("Destination: ");
                 String destination = reader.readLine();
                 LocalDate departureDate = parseDateWithAttempts(reader);
+                Flight scheduled = fbs.findFlightByNumber(flightNumber, departureDate);
+                if (scheduled != null) {
+                    throw new FlightBookingSystemException("Flight " + flightNumber + " already departs on "
+                            + departureDate + " (flight ID " + scheduled.getId() + ").");
+                }
                 System.out.print("Economy Price: ");
                 BigDecimal economyPrice;
                 try {
@@ -187,6 +196,50 @@ public class CommandParser {
                 }
                 return new AddBooking(customerId, outboundFlightId, returnFlightId, selectedClass);
 
+            case "addgroupbooking":
+                Matcher groupMatcher = ADDGROUPBOOKING_PATTERN.matcher(line.trim());
+                if (!groupMatcher.matches()) {
+                    throw new FlightBookingSystemException("Usage: addgroupbooking <outbound flight ID> [return flight ID]");
+                }
+                int groupOutboundId = Integer.parseInt(groupMatcher.group(1));
+                Integer groupReturnId = null;
+                if (groupMatcher.group(2) != null) {
+                    groupReturnId = Integer.parseInt(groupMatcher.group(2));
+                }
+
+                System.out.print("Enter customer IDs (separated by commas or spaces): ");
+                String idsInput = reader.readLine();
+                List<Integer> groupCustomerIds = new ArrayList<>();
+                if (idsInput != null) {
+                    for (String id : idsInput.trim().split("[,\\s]+")) {
+                        if (id.isEmpty()) {
+                            continue;
+                        }
+                        try {
+                            groupCustomerIds.add(Integer.parseInt(id));
+                        } catch (NumberFormatException e) {
+                            throw new FlightBookingSystemException("Invalid customer ID: " + id);
+                        }
+                    }
+                }
+                if (groupCustomerIds.isEmpty()) {
+                    throw new FlightBookingSystemException("A group booking needs at least one customer ID.");
+                }
+
+                System.out.print("Enter desired booking class (ECONOMY, PREMIUM_ECONOMY, BUSINESS, FIRST - default ECONOMY): ");
+                String groupClassInput = reader.readLine().trim().toUpperCase();
+                CommercialClassType groupClass;
+                if (groupClassInput.isEmpty()) {
+                    groupClass = CommercialClassType.ECONOMY;
+                } else {
+                    try {
+                        groupClass = CommercialClassType.valueOf(groupClassInput);
+                    } catch (IllegalArgumentException e) {
+                        throw new FlightBookingSystemException("Invalid class type. Please choose from ECONOMY, PREMIUM_ECONOMY, BUSINESS, FIRST.");
+                    }
+                }
+                return new AddGroupBooking(groupCustomerIds, groupOutboundId, groupReturnId, groupClass);
+
             case "cancelbooking":
                 if (parts.length < 2) {
                     throw new FlightBookingSystemException("Usage: cancelbooking <customer ID> <flight ID>");
@@ -199,6 +252,43 @@ public class CommandParser {
                 int cancelFlightId = Integer.parseInt(cancelParts[1]);
                 return new CancelBooking(cancelCustomerId, cancelFlightId);
                 
+            case "joinwaitlist":
+                if (parts.length < 2) {
+                    throw new FlightBookingSystemException("Usage: joinwaitlist <customer ID> <flight ID>");
+                }
+                String[] waitlistParts = parts[1].trim().split("\\s+");
+                if (waitlistParts.length != 2) {
+                    throw new FlightBookingSystemException("Usage: joinwaitlist <customer ID> <flight ID>");
+                }
+                int waitlistCustomerId = Integer.parseInt(waitlistParts[0]);
+                int waitlistFlightId = Integer.parseInt(waitlistParts[1]);
+
+                System.out.print("Enter class to wait for (ECONOMY, PREMIUM_ECONOMY, BUSINESS, FIRST - default ECONOMY): ");
+                String waitlistClassInput = reader.readLine().trim().toUpperCase();
+                CommercialClassType waitlistClass;
+                if (waitlistClassInput.isEmpty()) {
+                    waitlistClass = CommercialClassType.ECONOMY;
+                } else {
+                    try {
+                        waitlistClass = CommercialClassType.valueOf(waitlistClassInput);
+                    } catch (IllegalArgumentException e) {
+                        throw new FlightBookingSystemException("Invalid class type. Please choose from ECONOMY, PREMIUM_ECONOMY, BUSINESS, FIRST.");
+                    }
+                }
+                return new JoinWaitlist(waitlistCustomerId, waitlistFlightId, waitlistClass);
+
+            case "showwaitlist":
+                if (parts.length < 2) {
+                    throw new FlightBookingSystemException("Usage: showwaitlist <flight ID>");
+                }
+                return new ShowWaitlist(Integer.parseInt(parts[1].trim()));
+
+            case "leavewaitlist":
+                if (parts.length < 2) {
+                    throw new FlightBookingSystemException("Usage: leavewaitlist <waitlist entry ID>");
+                }
+                return new LeaveWaitlist(Integer.parseInt(parts[1].trim()));
+
             case "editbooking":
                 if (parts.length < 2) {
                     throw new FlightBookingSystemException("Usage: editbooking <customer ID> <flight ID>");
@@ -262,6 +352,19 @@ public class CommandParser {
             case "listallflights":
                 return new ListAllFlights();
 
+            case "searchflights":
+                System.out.print("Origin: ");
+                String searchOrigin = reader.readLine();
+                System.out.print("Destination: ");
+                String searchDestination = reader.readLine();
+                if (searchOrigin == null || searchOrigin.trim().isEmpty()
+                        || searchDestination == null || searchDestination.trim().isEmpty()) {
+                    throw new FlightBookingSystemException("Origin and destination are required.");
+                }
+                LocalDate searchFrom = parseOptionalDate(reader, "Earliest Departure Date (YYYY-MM-DD, blank for any): ");
+                LocalDate searchTo = parseOptionalDate(reader, "Latest Departure Date (YYYY-MM-DD, blank for any): ");
+                return new SearchFlights(searchOrigin, searchDestination, searchFrom, searchTo);
+
             case "listcustomers":
                 return new ListCustomers();
 
@@ -270,6 +373,9 @@ public class CommandParser {
 
             case "listmeals":
                 return new ListMeals();
+
+            case "pricecache":
+                return new ShowPriceCache();
                 
             case "loadgui":
             	return new LoadGUI();
@@ -328,4 +434,18 @@ public class CommandParser {
             throws IOException, FlightBookingSystemException {
         return parseDateWithAttempts(br, 3);
     }
+
+    private static LocalDate parseOptionalDate(BufferedReader br, String prompt)
+            throws IOException, FlightBookingSystemException {
+        System.out.print(prompt);
+        String input = br.readLine();
+        if (input == null || input.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(input.trim());
+        } catch (DateTimeParseException e) {
+            throw new FlightBookingSystemException("Invalid date format. Please use YYYY-MM-DD.");
+        }
+    }
 }
@@ -36,7 +36,7 @@ public class Main {
 
                 command.execute(fbs, reader);
 
-                FlightBookingSystemData.store(fbs);
+                FlightBookingSystemData.commit(fbs);
 
             } catch (FlightBookingSystemException ex) {
                 System.out.println("Error: " + ex.getMessage());
@@ -0,0 +1,36 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.List;
+
+/**
+ * Bookings kept on disk rather than in the {@link FlightBookingSystem}, read on demand.
+ * Archived bookings are history: they are not linked to their customer or flights, and
+ * changing one has no effect on the system.
+ */
+public interface BookingArchive {
+
+    /**
+     * Reads a booking from the archive.
+     *
+     * @param fbs The system holding the customer, flights and meal of the booking.
+     * @param id The ID of the booking.
+     * @return The booking, or null if the archive does not hold it.
+     */
+    Booking getBooking(FlightBookingSystem fbs, int id);
+
+    /**
+     * Reads every archived booking of a customer.
+     *
+     * @param fbs The system holding the customer, flights and meals of the bookings.
+     * @param customerId The ID of the customer.
+     * @return The bookings in ID order, possibly empty.
+     */
+    List<Booking> getBookingsForCustomer(FlightBookingSystem fbs, int customerId);
+
+    boolean contains(int id);
+
+    /**
+     * @return The highest archived booking ID, or 0 if the archive is empty.
+     */
+    int getMaxBookingId();
+}
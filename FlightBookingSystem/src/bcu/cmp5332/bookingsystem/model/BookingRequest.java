@@ -0,0 +1,52 @@
+package bcu.cmp5332.bookingsystem.model;
+
+/**
+ * One booking of a group made with {@link FlightBookingSystem#addBookings}: a
+ * customer, the flights they are booked on and the class and meal they chose.
+ */
+
+public class BookingRequest {
+
+	private final Customer customer;
+	private final Flight outboundFlight;
+	private final Flight returnFlight;
+	private final CommercialClassType bookedClass;
+	private final Meal meal;
+
+	/**
+	 * @param customer The customer to book.
+	 * @param outboundFlight The outbound flight. Cannot be null.
+	 * @param returnFlight The return flight, or null for a one-way booking.
+	 * @param bookedClass The class to book.
+	 * @param meal The selected meal, or null for none.
+	 */
+
+	public BookingRequest(Customer customer, Flight outboundFlight, Flight returnFlight,
+			CommercialClassType bookedClass, Meal meal) {
+		this.customer = customer;
+		this.outboundFlight = outboundFlight;
+		this.returnFlight = returnFlight;
+		this.bookedClass = bookedClass;
+		this.meal = meal;
+	}
+
+	public Customer getCustomer() {
+		return customer;
+	}
+
+	public Flight getOutboundFlight() {
+		return outboundFlight;
+	}
+
+	public Flight getReturnFlight() {
+		return returnFlight;
+	}
+
+	public CommercialClassType getBookedClass() {
+		return bookedClass;
+	}
+
+	public Meal getMeal() {
+		return meal;
+	}
+}
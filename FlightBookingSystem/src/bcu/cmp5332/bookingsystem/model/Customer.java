@@ -149,6 +149,17 @@ public class Customer {
     
     
     public String getDetailsLong() {
+        return getDetailsLong(bookings);
+    }
+
+    /**
+     * Returns a long string representation of the customer's details with the given
+     * bookings, such as their full history including archived bookings.
+     *
+     * @param bookings The bookings to list.
+     * @return A detailed string of the customer and the given bookings.
+     */
+    public String getDetailsLong(List<Booking> bookings) {
         StringBuilder sb = new StringBuilder();
         sb.append("Customer ID: ").append(id)
           .append("\nName: ").append(name)
@@ -0,0 +1,67 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The standard pricing rules. A seat costs its class price, raised close to departure
+ * and as the class fills up, as {@link Flight#getDynamicPrice} computes and caches it.
+ * Cancelling costs 10% of the booked price, flights and meal, and at least £20.00;
+ * rebooking costs a fixed £30.00.
+ */
+
+public class DefaultPricingStrategy implements PricingStrategy {
+
+    private static final BigDecimal CANCELLATION_RATE = new BigDecimal("0.10");
+    private static final BigDecimal MINIMUM_CANCELLATION_FEE = new BigDecimal("20.00");
+    private static final BigDecimal REBOOK_FEE = new BigDecimal("30.00");
+
+    @Override
+    public List<FlightQuote> quoteAll(List<Flight> flights, LocalDate systemDate) {
+        List<FlightQuote> quotes = new ArrayList<>(flights.size());
+        Map<CommercialClassType, BigDecimal> prices = new EnumMap<>(CommercialClassType.class);
+        for (Flight flight : flights) {
+            prices.clear();
+            for (CommercialClassType classType : flight.getAvailableClasses()) {
+                try {
+                    prices.put(classType, flight.getDynamicPrice(classType, systemDate));
+                } catch (FlightBookingSystemException e) {
+                    // Not priced; the quote leaves the class out.
+                }
+            }
+            quotes.add(new FlightQuote(flight, prices));
+        }
+        return quotes;
+    }
+
+    @Override
+    public BigDecimal quote(Flight flight, CommercialClassType classType, LocalDate systemDate)
+            throws FlightBookingSystemException {
+        return flight.getDynamicPrice(classType, systemDate);
+    }
+
+    @Override
+    public BigDecimal cancellationFee(Booking booking) {
+        BigDecimal totalBookedPrice = booking.getBookedPriceOutbound().add(booking.getBookedPriceReturn());
+        if (booking.getMeal() != null) {
+            totalBookedPrice = totalBookedPrice.add(booking.getMeal().getPrice());
+        }
+        BigDecimal fee = totalBookedPrice.multiply(CANCELLATION_RATE);
+        if (fee.compareTo(MINIMUM_CANCELLATION_FEE) < 0) {
+            fee = MINIMUM_CANCELLATION_FEE;
+        }
+        return fee.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public BigDecimal rebookFee(Booking booking, Flight newFlight, CommercialClassType newClass) {
+        return REBOOK_FEE;
+    }
+}
@@ -0,0 +1,182 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+
+/**
+ * Holds entities by their int ID. IDs are handed out sequentially, so entities are
+ * kept in an array indexed by ID, which gives lookups without boxing the key and
+ * iteration in ID order without sorting. An ID far beyond the populated range, or a
+ * negative one, is kept in a sorted overflow map instead of growing the array to
+ * reach it; overflow entries move into the array once it grows past them.
+ * <p>
+ * The store is not thread-safe and must not be modified while it is being iterated.
+ *
+ * @param <T> The type of entity.
+ */
+
+public class EntityStore<T> implements Iterable<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_GAP = 1024;
+
+    private Object[] dense = new Object[INITIAL_CAPACITY];
+    private final TreeMap<Integer, T> overflow = new TreeMap<>();
+    private int size;
+
+    /**
+     * Returns the entity with an ID.
+     *
+     * @param id The ID.
+     * @return The entity, or null if there is none.
+     */
+
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        if (id >= 0 && id < dense.length) {
+            return (T) dense[id];
+        }
+        return overflow.isEmpty() ? null : overflow.get(id);
+    }
+
+    public boolean containsKey(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Stores an entity under an ID, replacing any entity already stored under it.
+     *
+     * @param id The ID.
+     * @param entity The entity, which must not be null.
+     * @return The entity that was replaced, or null if there was none.
+     */
+
+    @SuppressWarnings("unchecked")
+    public T put(int id, T entity) {
+        if (entity == null) {
+            throw new NullPointerException("Entity must not be null.");
+        }
+        if (id >= dense.length && id <= 2L * size + MAX_GAP) {
+            grow(id);
+        }
+        T previous;
+        if (id >= 0 && id < dense.length) {
+            previous = (T) dense[id];
+            dense[id] = entity;
+        } else {
+            previous = overflow.put(id, entity);
+        }
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the entity with an ID.
+     *
+     * @param id The ID.
+     * @return The removed entity, or null if there was none.
+     */
+
+    @SuppressWarnings("unchecked")
+    public T remove(int id) {
+        T previous;
+        if (id >= 0 && id < dense.length) {
+            previous = (T) dense[id];
+            dense[id] = null;
+        } else {
+            previous = overflow.remove(id);
+        }
+        if (previous != null) {
+            size--;
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a new list of the stored entities in ID order.
+     *
+     * @return The entities.
+     */
+
+    public List<T> values() {
+        List<T> values = new ArrayList<>(size);
+        for (T entity : this) {
+            values.add(entity);
+        }
+        return values;
+    }
+
+    /**
+     * Iterates over the stored entities in ID order.
+     */
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Iterator<T> negative = overflow.headMap(0).values().iterator();
+            private final Iterator<T> beyond = overflow.tailMap(dense.length).values().iterator();
+            private int index = nextDenseIndex(0);
+
+            @Override
+            public boolean hasNext() {
+                return negative.hasNext() || index < dense.length || beyond.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (negative.hasNext()) {
+                    return negative.next();
+                }
+                if (index < dense.length) {
+                    T entity = (T) dense[index];
+                    index = nextDenseIndex(index + 1);
+                    return entity;
+                }
+                if (beyond.hasNext()) {
+                    return beyond.next();
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    private int nextDenseIndex(int from) {
+        Object[] slots = dense;
+        while (from < slots.length && slots[from] == null) {
+            from++;
+        }
+        return from;
+    }
+
+    private void grow(int id) {
+        int oldCapacity = dense.length;
+        int newCapacity = Math.max(oldCapacity * 2, id + 1);
+        Object[] grown = new Object[newCapacity];
+        System.arraycopy(dense, 0, grown, 0, oldCapacity);
+        dense = grown;
+        if (!overflow.isEmpty()) {
+            Iterator<Map.Entry<Integer, T>> moved = overflow.subMap(oldCapacity, newCapacity).entrySet().iterator();
+            while (moved.hasNext()) {
+                Map.Entry<Integer, T> entry = moved.next();
+                dense[entry.getKey()] = entry.getValue();
+                moved.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package bcu.cmp5332.bookingsystem.model;
+
+
+/**
+ * Defines the kinds of entity held by the {@link FlightBookingSystem}.
+ * Each entity type is persisted to its own data file.
+ */
+
+public enum EntityType {
+    MEAL, CUSTOMER, FLIGHT, BOOKING, WAITLIST
+}
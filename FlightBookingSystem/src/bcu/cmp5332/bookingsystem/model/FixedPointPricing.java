@@ -0,0 +1,163 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+
+/**
+ * Computes dynamic prices in whole pence with integer arithmetic. Every price is the
+ * economy price times three multipliers: the class multiplier, one for the days left
+ * before departure and one for the occupancy of the class. All of them are multiples
+ * of a tenth, so their products are precomputed in thousandths per class, days band and
+ * occupancy band, and a price costs one multiplication and one rounding division.
+ * <p>
+ * The result is the exact product rounded half up to the penny, so it equals what the
+ * same calculation gives with {@link BigDecimal}. Prices too large for a {@code long}
+ * are computed with {@link BigDecimal} from the same table.
+ */
+
+public final class FixedPointPricing {
+
+    /** Departs within 7 days: 1.5 times the price. */
+    public static final int LAST_WEEK = 2;
+    /** Departs within 30 days: 1.2 times the price. */
+    public static final int LAST_MONTH = 1;
+    /** Departs later: no surcharge. */
+    public static final int EARLY = 0;
+
+    /** More than 80% of the class taken: 1.3 times the price. */
+    public static final int NEARLY_FULL = 2;
+    /** More than 60% of the class taken: 1.1 times the price. */
+    public static final int FILLING = 1;
+    /** 60% or less taken: no surcharge. */
+    public static final int OPEN = 0;
+
+    private static final int[] DAYS_TENTHS = {10, 12, 15};
+    private static final long[] DAYS_BAND_MIN = {31, 8, Long.MIN_VALUE};
+    private static final long[] DAYS_BAND_MAX = {Long.MAX_VALUE, 30, 7};
+    private static final int[] OCCUPANCY_TENTHS = {10, 11, 13};
+    private static final int MULTIPLIER_SCALE = 3;
+
+    private static final long[][][] MULTIPLIERS;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        CommercialClassType[] classTypes = CommercialClassType.values();
+        MULTIPLIERS = new long[classTypes.length][DAYS_TENTHS.length][OCCUPANCY_TENTHS.length];
+        for (CommercialClassType classType : classTypes) {
+            // Fails here, rather than pricing wrongly, if a class multiplier ever needs more than a tenth.
+            long classTenths = BigDecimal.valueOf(classType.getMultiplier()).movePointRight(1).longValueExact();
+            for (int days = 0; days < DAYS_TENTHS.length; days++) {
+                for (int occupancy = 0; occupancy < OCCUPANCY_TENTHS.length; occupancy++) {
+                    MULTIPLIERS[classType.ordinal()][days][occupancy] =
+                            classTenths * DAYS_TENTHS[days] * OCCUPANCY_TENTHS[occupancy];
+                }
+            }
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPointPricing() {
+    }
+
+    /**
+     * @param daysLeft The days left before departure; departed flights count as the last week.
+     * @return {@link #LAST_WEEK}, {@link #LAST_MONTH} or {@link #EARLY}.
+     */
+
+    public static int daysBand(long daysLeft) {
+        if (daysLeft <= DAYS_BAND_MAX[LAST_WEEK]) {
+            return LAST_WEEK;
+        }
+        return (daysLeft <= DAYS_BAND_MAX[LAST_MONTH]) ? LAST_MONTH : EARLY;
+    }
+
+    /**
+     * @return The fewest days left before departure that fall in a days band.
+     */
+
+    public static long minDaysLeft(int daysBand) {
+        return DAYS_BAND_MIN[daysBand];
+    }
+
+    /**
+     * @return The most days left before departure that fall in a days band.
+     */
+
+    public static long maxDaysLeft(int daysBand) {
+        return DAYS_BAND_MAX[daysBand];
+    }
+
+    /**
+     * @param occupied The seats of the class that are taken.
+     * @param capacity The seats of the class.
+     * @return {@link #NEARLY_FULL}, {@link #FILLING} or {@link #OPEN}.
+     */
+
+    public static int occupancyBand(int occupied, int capacity) {
+        if (capacity <= 0) {
+            return OPEN;
+        }
+        // occupied / capacity > 0.8 and > 0.6, without dividing.
+        if ((long) occupied * 5 > (long) capacity * 4) {
+            return NEARLY_FULL;
+        }
+        return ((long) occupied * 5 > (long) capacity * 3) ? FILLING : OPEN;
+    }
+
+    /**
+     * @return The product of the class, days and occupancy multipliers, in thousandths.
+     */
+
+    public static long multiplier(CommercialClassType classType, int daysBand, int occupancyBand) {
+        return MULTIPLIERS[classType.ordinal()][daysBand][occupancyBand];
+    }
+
+    /**
+     * Prices an amount given as a number of units of 10<sup>-scale</sup> pounds, e.g.
+     * 9999 at scale 2 for £99.99.
+     *
+     * @param units The unscaled economy price.
+     * @param scale The scale of the economy price, between 0 and 17.
+     * @param multiplier The multiplier in thousandths, from {@link #multiplier}.
+     * @return The price in pence, rounded half up.
+     * @throws ArithmeticException If the price does not fit in a {@code long}.
+     */
+
+    public static long pricePence(long units, int scale, long multiplier) {
+        // units / 10^scale * multiplier / 1000 pounds is units * multiplier / 10^(scale + 1) pence.
+        long product = Math.multiplyExact(units, multiplier);
+        long divisor = POWERS_OF_TEN[scale + 1];
+        long pence = product / divisor;
+        long remainder = Math.abs(product % divisor);
+        if (remainder >= divisor - remainder) {
+            pence += Long.signum(product);
+        }
+        return pence;
+    }
+
+    /**
+     * Prices an economy price with {@link BigDecimal}, for amounts {@link #pricePence}
+     * cannot take.
+     */
+
+    public static BigDecimal price(BigDecimal economyPrice, long multiplier) {
+        return economyPrice.multiply(BigDecimal.valueOf(multiplier, MULTIPLIER_SCALE)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal toPounds(long pence) {
+        return BigDecimal.valueOf(pence, 2);
+    }
+
+    /**
+     * @return Whether {@link #pricePence} can take the unscaled value and scale of an amount.
+     */
+
+    public static boolean fits(BigDecimal amount) {
+        return amount.scale() >= 0 && amount.scale() < POWERS_OF_TEN.length - 1
+                && amount.unscaledValue().bitLength() < Long.SIZE;
+    }
+}
@@ -5,9 +5,11 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
 /**
@@ -18,6 +20,8 @@ import java.util.*;
 
 public class Flight {
 
+	private static final CommercialClassType[] CLASS_TYPES = CommercialClassType.values();
+
 	private int id;
 	private String flightNumber;
 	private String origin;
@@ -28,7 +32,12 @@ public class Flight {
 	private FlightType flightType;
 	private Map<CommercialClassType, Integer> classCapacities;
 	private Map<CommercialClassType, BigDecimal> classPrices;
-	private Map<CommercialClassType, Integer> occupiedSeatsByClass;
+	private long economyPriceUnits;
+	private int economyPriceScale = -1;
+	private final AtomicLongArray seatsByClass = new AtomicLongArray(CLASS_TYPES.length);
+	private volatile boolean occupiedSeatsLoaded = false;
+	private final AtomicReferenceArray<CachedPrice> priceCache = new AtomicReferenceArray<>(CLASS_TYPES.length);
+	private final AtomicIntegerArray priceVersions = new AtomicIntegerArray(CLASS_TYPES.length);
 
 	private final Set<Customer> passengers;
 	private boolean deleted = false;
@@ -59,9 +68,7 @@ public class Flight {
 		this.capacity = capacity;
 		this.flightType = FlightType.BUDGET;
 		this.classCapacities = createBudgetCapacities(capacity);
-		this.passengers = new HashSet<>();
-		this.occupiedSeatsByClass = new HashMap<>();
-		this.occupiedSeatsByClass.put(CommercialClassType.ECONOMY, 0);
+		this.passengers = ConcurrentHashMap.newKeySet();
 
 		calculateClassPrices();
 	}
@@ -96,11 +103,7 @@ public class Flight {
 		this.flightType = flightType;
 		this.classCapacities = (classCapacities != null) ? new HashMap<>(classCapacities)
 				: createDefaultCapacities(totalCapacity);
-		this.passengers = new HashSet<>();
-		this.occupiedSeatsByClass = new HashMap<>();
-		for (CommercialClassType classType : CommercialClassType.values()) {
-			this.occupiedSeatsByClass.put(classType, 0);
-		}
+		this.passengers = ConcurrentHashMap.newKeySet();
 
 		calculateClassPrices();
 	}
@@ -143,6 +146,16 @@ public class Flight {
 				classPrices.put(classType, classPrice);
 			}
 		}
+
+		// The unscaled economy price is kept for the fixed-point pricing, unless it does not fit.
+		BigDecimal units = (economyPrice != null && economyPrice.scale() < 0) ? economyPrice.setScale(0) : economyPrice;
+		if (units != null && FixedPointPricing.fits(units)) {
+			economyPriceUnits = units.unscaledValue().longValue();
+			economyPriceScale = units.scale();
+		} else {
+			economyPriceScale = -1;
+		}
+		clearPriceCache();
 	}
 
 	public List<CommercialClassType> getAvailableClasses() {
@@ -173,10 +186,15 @@ public class Flight {
 		return classCapacities.getOrDefault(classType, 0);
 	}
 
+    /**
+     * Returns the seats of a class that are neither booked nor held.
+     * @param classType The {@link CommercialClassType} to check.
+     * @return The number of seats left in the class.
+     */
+
 	public int getRemainingSeatsForClass(CommercialClassType classType) {
-		int totalCapacity = getCapacityForClass(classType);
-		int occupied = occupiedSeatsByClass.getOrDefault(classType, 0);
-		return totalCapacity - occupied;
+		long seats = seatsByClass.get(classType.ordinal());
+		return getCapacityForClass(classType) - booked(seats) - held(seats);
 	}
 
     /**
@@ -194,12 +212,148 @@ public class Flight {
 	}
 
 	public boolean hasAnySeatsLeft() {
-		return passengers.size() < capacity;
+		int taken = 0;
+		for (int i = 0; i < CLASS_TYPES.length; i++) {
+			long seats = seatsByClass.get(i);
+			taken += booked(seats) + held(seats);
+		}
+		return taken < capacity;
+	}
+
+    /**
+     * Takes a seat in a class if one is left. Concurrent callers never take more seats
+     * than the class holds, as the count is only raised by compare-and-set.
+     *
+     * @param classType The class to take a seat in.
+     * @return true if a seat was taken, false if the class is full or not offered.
+     */
+
+	public boolean reserveSeat(CommercialClassType classType) {
+		return takeSeat(classType, 1, 0);
+	}
+
+    /**
+     * Gives back a seat taken in a class. The count never drops below zero.
+     *
+     * @param classType The class the seat was taken in.
+     */
+
+	public void releaseSeat(CommercialClassType classType) {
+		int index = classType.ordinal();
+		while (true) {
+			long seats = seatsByClass.get(index);
+			if (booked(seats) <= 0) {
+				return;
+			}
+			long released = seats(booked(seats) - 1, held(seats));
+			if (seatsByClass.compareAndSet(index, seats, released)) {
+				seatsChanged(index, seats, released);
+				return;
+			}
+		}
+	}
+
+    /**
+     * Holds a seat in a class for a booking that is still being made. A held seat is
+     * not booked, but is no longer left for anyone else.
+     *
+     * @param classType The class to hold a seat in.
+     * @return true if a seat was held, false if the class is full or not offered.
+     */
+
+	public boolean holdSeat(CommercialClassType classType) {
+		return takeSeat(classType, 0, 1);
+	}
+
+    /**
+     * Gives back a held seat. The count never drops below zero.
+     *
+     * @param classType The class the seat was held in.
+     */
+
+	public void releaseHeldSeat(CommercialClassType classType) {
+		int index = classType.ordinal();
+		while (true) {
+			long seats = seatsByClass.get(index);
+			if (held(seats) <= 0) {
+				return;
+			}
+			long released = seats(booked(seats), held(seats) - 1);
+			if (seatsByClass.compareAndSet(index, seats, released)) {
+				seatsChanged(index, seats, released);
+				return;
+			}
+		}
+	}
+
+	public int getHeldSeatsByClass(CommercialClassType classType) {
+		return held(seatsByClass.get(classType.ordinal()));
+	}
+
+	private boolean takeSeat(CommercialClassType classType, int booking, int holding) {
+		if (flightType == FlightType.BUDGET && classType != CommercialClassType.ECONOMY) {
+			return false;
+		}
+		int capacityForClass = getCapacityForClass(classType);
+		int index = classType.ordinal();
+		while (true) {
+			long seats = seatsByClass.get(index);
+			if (booked(seats) + held(seats) >= capacityForClass) {
+				return false;
+			}
+			long taken = seats(booked(seats) + booking, held(seats) + holding);
+			if (seatsByClass.compareAndSet(index, seats, taken)) {
+				seatsChanged(index, seats, taken);
+				return true;
+			}
+		}
+	}
+
+    /**
+     * Invalidates the cached price of a class if a seat change moved its occupancy
+     * across a pricing threshold. Seats taken and given back within the same band keep
+     * the cached price. The version is raised after the seats are changed, so a price
+     * computed from the old seats can never be cached under the new version.
+     */
+
+	private void seatsChanged(int index, long before, long after) {
+		int capacityForClass = getCapacityForClass(CLASS_TYPES[index]);
+		if (FixedPointPricing.occupancyBand(booked(before) + held(before), capacityForClass)
+				!= FixedPointPricing.occupancyBand(booked(after) + held(after), capacityForClass)) {
+			priceVersions.incrementAndGet(index);
+			PriceCacheMetrics.recordInvalidation();
+		}
+	}
+
+	private void clearPriceCache() {
+		for (int i = 0; i < CLASS_TYPES.length; i++) {
+			priceVersions.incrementAndGet(i);
+		}
+	}
+
+	// The booked seats of a class are kept in the high half of one long and the held
+	// seats in the low half, so both can be checked against the capacity and changed
+	// together by a single compare-and-set.
+
+	private static int booked(long seats) {
+		return (int) (seats >>> 32);
+	}
+
+	private static int held(long seats) {
+		return (int) seats;
+	}
+
+	private static long seats(int booked, int held) {
+		return ((long) booked << 32) | (held & 0xFFFFFFFFL);
 	}
 	
     /**
      * Calculates the dynamic price for a given commercial class based on the system date
      * and current occupancy. Price can increase closer to departure or with higher occupancy.
+     * <p>
+     * The price of each class is cached until a seat change moves the class across an
+     * occupancy threshold or the days left before departure move into another band, as
+     * it cannot change in between; see {@link PriceCacheMetrics}.
      *
      * @param classType The {@link CommercialClassType} for which to calculate the price.
      * @param systemDate The current date of the system, used to determine days until departure.
@@ -210,27 +364,58 @@ public class Flight {
 
 	public BigDecimal getDynamicPrice(CommercialClassType classType, LocalDate systemDate)
 			throws FlightBookingSystemException {
-		BigDecimal basePrice = getPriceForClass(classType);
-		long daysLeft = ChronoUnit.DAYS.between(systemDate, departureDate);
-
-		BigDecimal dynamicPrice = basePrice;
-		if (daysLeft <= 7) {
-			dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.5"));
-		} else if (daysLeft <= 30) {
-			dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.2"));
+		getPriceForClass(classType);
+		int index = classType.ordinal();
+		long daysLeft = departureDate.toEpochDay() - systemDate.toEpochDay();
+
+		// Read before the seats, so that a threshold crossing made meanwhile makes this entry stale.
+		int version = priceVersions.get(index);
+		CachedPrice cached = priceCache.get(index);
+		if (cached != null && cached.version == version) {
+			if (cached.covers(daysLeft)) {
+				PriceCacheMetrics.recordHit();
+				return cached.price;
+			}
+			PriceCacheMetrics.recordRollover();
 		}
+		PriceCacheMetrics.recordMiss();
 
-		int remainingSeats = getRemainingSeatsForClass(classType);
+		int daysBand = FixedPointPricing.daysBand(daysLeft);
 		int classTotalCapacity = getCapacityForClass(classType);
-		if (classTotalCapacity > 0) {
-			double occupancyRate = (double) (classTotalCapacity - remainingSeats) / classTotalCapacity;
-			if (occupancyRate > 0.8) {
-				dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.3"));
-			} else if (occupancyRate > 0.6) {
-				dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.1"));
+		int occupied = classTotalCapacity - getRemainingSeatsForClass(classType);
+		long multiplier = FixedPointPricing.multiplier(classType, daysBand,
+				FixedPointPricing.occupancyBand(occupied, classTotalCapacity));
+
+		BigDecimal price = null;
+		if (economyPriceScale >= 0) {
+			try {
+				price = FixedPointPricing.toPounds(
+						FixedPointPricing.pricePence(economyPriceUnits, economyPriceScale, multiplier));
+			} catch (ArithmeticException e) {
+				// Too large for pence in a long; priced exactly below.
 			}
 		}
-		return dynamicPrice.setScale(2, RoundingMode.HALF_UP);
+		if (price == null) {
+			price = FixedPointPricing.price(economyPrice, multiplier);
+		}
+		priceCache.set(index, new CachedPrice(version, daysBand, price));
+		return price;
+	}
+
+	private static final class CachedPrice {
+		final int version;
+		final int daysBand;
+		final BigDecimal price;
+
+		CachedPrice(int version, int daysBand, BigDecimal price) {
+			this.version = version;
+			this.daysBand = daysBand;
+			this.price = price;
+		}
+
+		boolean covers(long daysLeft) {
+			return daysLeft >= FixedPointPricing.minDaysLeft(daysBand) && daysLeft <= FixedPointPricing.maxDaysLeft(daysBand);
+		}
 	}
 	
     /**
@@ -282,6 +467,7 @@ public class Flight {
 
 	public void setDepartureDate(LocalDate departureDate) {
 		this.departureDate = departureDate;
+		clearPriceCache();
 	}
 
 	public BigDecimal getEconomyPrice() {
@@ -340,15 +526,35 @@ public class Flight {
 	}
 
 	public int getOccupiedSeatsByClass(CommercialClassType classType) {
-		return occupiedSeatsByClass.getOrDefault(classType, 0);
+		return booked(seatsByClass.get(classType.ordinal()));
 	}
 
+    /**
+     * Sets the occupied seats read back from the data files. The passengers of the
+     * loaded bookings are then restored without counting their seats a second time.
+     *
+     * @param occupiedSeatsByClass The occupied seats of each class; missing classes have none.
+     */
+
 	public void setOccupiedSeatsByClass(Map<CommercialClassType, Integer> occupiedSeatsByClass) {
-		this.occupiedSeatsByClass = occupiedSeatsByClass;
+		for (CommercialClassType classType : CLASS_TYPES) {
+			int booked = occupiedSeatsByClass.getOrDefault(classType, 0);
+			seatsByClass.updateAndGet(classType.ordinal(), seats -> seats(booked, held(seats)));
+		}
+		occupiedSeatsLoaded = true;
+		clearPriceCache();
 	}
 
 	public Map<CommercialClassType, Integer> getOccupiedSeatsMap() {
-		return new HashMap<>(occupiedSeatsByClass);
+		Map<CommercialClassType, Integer> occupied = new HashMap<>();
+		if (flightType == FlightType.BUDGET) {
+			occupied.put(CommercialClassType.ECONOMY, getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+		} else {
+			for (CommercialClassType classType : CLASS_TYPES) {
+				occupied.put(classType, getOccupiedSeatsByClass(classType));
+			}
+		}
+		return occupied;
 	}
 	
     /**
@@ -367,14 +573,14 @@ public class Flight {
     /**
      * Returns a long string representation of the flight details.
      * This provides a comprehensive overview including all flight attributes,
-     * class-specific capacities, base and dynamic prices, remaining seats,
+     * class-specific capacities, base and current prices, remaining seats,
      * and a list of current passengers.
-     * @param systemDate The current system date, used for dynamic price calculation.
+     * @param quote The current prices of the flight, as quoted by the pricing strategy of
+     * the system. A class missing from the quote is shown without a current price.
      * @return A {@link String} containing detailed information about the flight.
-     * @throws FlightBookingSystemException If there's an issue getting the dynamic price for a class.
      */
 	
-	public String getDetailsLong(LocalDate systemDate) throws FlightBookingSystemException {
+	public String getDetailsLong(FlightQuote quote) {
 		DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 		StringBuilder sb = new StringBuilder();
 		sb.append("Flight ID: ").append(id).append("\nFlight Number: ").append(flightNumber).append("\nFrom: ")
@@ -386,7 +592,7 @@ public class Flight {
 		sb.append("\n\nClass Information:");
 		for (CommercialClassType classType : getAvailableClasses()) {
 			sb.append("\n - ").append(classType.getClassName()).append(": Base £").append(classPrices.get(classType))
-					.append(" | Current Price: £").append(getDynamicPrice(classType, systemDate))
+					.append(" | Current Price: ").append(formatQuotedPrice(quote.getPrice(classType)))
 					.append(" (Remaining Seats: ").append(getRemainingSeatsForClass(classType)).append(" / Total: ")
 					.append(classCapacities.get(classType)).append(")");
 		}
@@ -403,6 +609,10 @@ public class Flight {
 		return sb.toString();
 	}
 
+	private static String formatQuotedPrice(BigDecimal price) {
+		return (price != null) ? "£" + price : "not available";
+	}
+
     /**
      * Adds a passenger to the flight in a specific commercial class.
      * This method increments the occupied seats count for the given class.
@@ -417,12 +627,59 @@ public class Flight {
 			throw new FlightBookingSystemException(
 					"Flight " + flightNumber + " " + classType.getClassName() + " class is at full capacity.");
 		}
-		if (passengers.contains(passenger)) {
+		if (!passengers.add(passenger)) {
+			throw new FlightBookingSystemException("Customer is already a passenger on this flight.");
+		}
+		if (!reserveSeat(classType)) {
+			passengers.remove(passenger);
+			throw new FlightBookingSystemException(
+					"Flight " + flightNumber + " " + classType.getClassName() + " class is at full capacity.");
+		}
+	}
+
+    /**
+     * Adds a passenger into a seat held for them, which becomes a booked seat.
+     *
+     * @param passenger The {@link Customer} to be added as a passenger.
+     * @param classType The {@link CommercialClassType} the seat was held in.
+     * @throws FlightBookingSystemException If no seat is held in the class or the customer
+     * is already a passenger. The held seat is kept in either case.
+     */
+
+	public void addHeldPassenger(Customer passenger, CommercialClassType classType) throws FlightBookingSystemException {
+		if (!passengers.add(passenger)) {
 			throw new FlightBookingSystemException("Customer is already a passenger on this flight.");
 		}
+		int index = classType.ordinal();
+		while (true) {
+			long seats = seatsByClass.get(index);
+			if (held(seats) <= 0) {
+				passengers.remove(passenger);
+				throw new FlightBookingSystemException(
+						"No seat is held on flight " + flightNumber + " in " + classType.getClassName() + " class.");
+			}
+			if (seatsByClass.compareAndSet(index, seats, seats(booked(seats) + 1, held(seats) - 1))) {
+				return;
+			}
+		}
+	}
 
-		passengers.add(passenger);
-		occupiedSeatsByClass.put(classType, occupiedSeatsByClass.getOrDefault(classType, 0) + 1);
+    /**
+     * Adds the passenger of a booking read back from the data files. Their seat is only
+     * counted if the occupied seats were not read back with the flight.
+     *
+     * @param passenger The {@link Customer} of the booking.
+     * @param classType The {@link CommercialClassType} of the booking.
+     * @throws FlightBookingSystemException If the seat has to be counted and the class is full,
+     * or the customer is already a passenger.
+     */
+
+	public void restorePassenger(Customer passenger, CommercialClassType classType) throws FlightBookingSystemException {
+		if (!occupiedSeatsLoaded) {
+			addPassenger(passenger, classType);
+		} else if (!passengers.add(passenger)) {
+			throw new FlightBookingSystemException("Customer is already a passenger on this flight.");
+		}
 	}
 	
     /**
@@ -437,7 +694,7 @@ public class Flight {
 
 	public void removePassenger(Customer passenger, CommercialClassType classType) {
 		if (passengers.remove(passenger)) {
-			occupiedSeatsByClass.put(classType, occupiedSeatsByClass.getOrDefault(classType, 0) - 1);
+			releaseSeat(classType);
 		}
 	}
 
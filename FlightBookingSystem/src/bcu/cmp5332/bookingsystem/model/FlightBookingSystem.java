@@ -1,8 +1,11 @@
 package bcu.cmp5332.bookingsystem.model;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -16,83 +19,306 @@ import java.util.stream.Collectors;
 
 public class FlightBookingSystem {
 
-    private final LocalDate systemDate = LocalDate.now();
+    private final Clock clock;
+    private volatile LocalDate systemDate;
+
+    private final EntityStore<Customer> customers = new EntityStore<>();
+    private final EntityStore<Flight> flights = new EntityStore<>();
+    private final EntityStore<Meal> meals = new EntityStore<>();
+    private final EntityStore<Booking> bookings = new EntityStore<>(); // ADDED: Map to store bookings
+    private final Map<String, NavigableMap<LocalDate, List<Flight>>> flightsByRoute = new HashMap<>();
+    private final Map<String, Flight> flightsByNumberAndDate = new HashMap<>();
+    private final EntityStore<Flight> activeFlights = new EntityStore<>();
+    private final Map<Integer, Map<Integer, Booking>> activeBookingsByFlight = new HashMap<>();
+    private final EntityStore<WaitlistEntry> waitlistEntries = new EntityStore<>();
+    private final Map<Integer, Map<CommercialClassType, Deque<WaitlistEntry>>> waitlistsByFlight = new HashMap<>();
+    private final PriorityQueue<Departure> activeByDeparture = new PriorityQueue<>(
+            Comparator.comparing((Departure departure) -> departure.date).thenComparingInt(departure -> departure.flight.getId()));
+    private volatile List<Flight> activeFlightsView;
+
+    private final List<Mutation> pendingMutations = new ArrayList<>();
+    private final FlightLocks flightLocks = new FlightLocks();
+    private final SeatHolds seatHolds;
+    private final Object registryLock = new Object();
+    private final Set<EntityType> dirtyTypes = EnumSet.noneOf(EntityType.class);
+    private BookingArchive bookingArchive;
+    private volatile HistoryLoader historyLoader;
+    private final Object historyLock = new Object();
+    private volatile Thread historyLoadingThread;
+    private volatile PricingStrategy pricingStrategy = PricingStrategy.configured();
+
+    public FlightBookingSystem() {
+        this(Clock.systemDefaultZone());
+    }
 
-    private final Map<Integer, Customer> customers = new TreeMap<>();
-    private final Map<Integer, Flight> flights = new TreeMap<>();
-    private final Map<Integer, Meal> meals = new TreeMap<>();
-    private final Map<Integer, Booking> bookings = new TreeMap<>(); // ADDED: Map to store bookings
+    /**
+     * @param clock The clock the system date is read from.
+     */
+    public FlightBookingSystem(Clock clock) {
+        this.clock = clock;
+        this.systemDate = LocalDate.now(clock);
+        this.seatHolds = new SeatHolds(clock, SeatHolds.configuredTtl(), this::seatFreed);
+        for (EntityType type : EntityType.values()) {
+            idAllocators.put(type, new IdAllocator());
+        }
+    }
 
+    /**
+     * Returns today's date. When the date has moved on since the last call, the flights
+     * that have departed since are retired from the active flights.
+     *
+     * @return The current date of the system's clock.
+     */
     public LocalDate getSystemDate() {
+        LocalDate today = LocalDate.now(clock);
+        if (today.isAfter(systemDate)) {
+            synchronized (registryLock) {
+                if (today.isAfter(systemDate)) {
+                    systemDate = today;
+                    retireDepartedFlights();
+                }
+            }
+        }
         return systemDate;
     }
 
-    private int nextFlightId = 1;
-    private int nextCustomerId = 1;
-    private int nextMealId = 1;
-    private int nextBookingId = 1;
+    public PricingStrategy getPricingStrategy() {
+        return pricingStrategy;
+    }
+
+    /**
+     * Sets the rules seats and fees are priced by from now on. Bookings already made
+     * keep the prices they were booked at.
+     *
+     * @param pricingStrategy The pricing strategy.
+     */
+
+    public void setPricingStrategy(PricingStrategy pricingStrategy) {
+        this.pricingStrategy = Objects.requireNonNull(pricingStrategy);
+    }
+
+    /**
+     * Quotes a seat in one class of a flight at today's price.
+     *
+     * @param flight The flight to quote.
+     * @param classType The class to quote.
+     * @return The price of a seat in the class.
+     * @throws FlightBookingSystemException If the class cannot be priced.
+     */
+
+    public BigDecimal quotePrice(Flight flight, CommercialClassType classType) throws FlightBookingSystemException {
+        return pricingStrategy.quote(flight, classType, getSystemDate());
+    }
+
+    /**
+     * Quotes every class of a batch of flights at today's prices, in one call to the
+     * pricing strategy.
+     *
+     * @param flights The flights to quote.
+     * @return One quote per flight, in the order of the flights.
+     */
+
+    public List<FlightQuote> quoteAll(List<Flight> flights) {
+        return pricingStrategy.quoteAll(flights, getSystemDate());
+    }
+
+    private final Map<EntityType, IdAllocator> idAllocators = new EnumMap<>(EntityType.class);
 
     /**
-     * Generates the next available unique flight ID.
+     * Returns the allocator that hands out the IDs of an entity type. It is safe to
+     * allocate from several threads at once.
      *
-     * @return The next available flight ID.
+     * @param type The entity type.
+     * @return The allocator of the type.
+     */
+
+    public IdAllocator getIdAllocator(EntityType type) {
+        return idAllocators.get(type);
+    }
+
+    /**
+     * Allocates a new unique flight ID.
+     *
+     * @return The allocated flight ID.
      */
 
 
     public int generateNextFlightId() {
-        while (flights.containsKey(nextFlightId)) {
-            nextFlightId++;
-        }
-        return nextFlightId;
+        return idAllocators.get(EntityType.FLIGHT).allocate();
     }
 
 
     /**
-     * Generates the next available unique customer ID.
+     * Allocates a new unique customer ID.
      *
-     * @return The next available customer ID.
+     * @return The allocated customer ID.
      */
 
 
     public int generateNextCustomerId() {
-        while (customers.containsKey(nextCustomerId)) {
-            nextCustomerId++;
-        }
-        return nextCustomerId;
+        return idAllocators.get(EntityType.CUSTOMER).allocate();
     }
 
     public int generateNextMealId() {
-        while (meals.containsKey(nextMealId)) {
-            nextMealId++;
-        }
-        return nextMealId;
+        return idAllocators.get(EntityType.MEAL).allocate();
     }
 
     public int generateNextBookingId() {
-        while (bookings.containsKey(nextBookingId)) {
-            nextBookingId++;
+        return idAllocators.get(EntityType.BOOKING).allocate();
+    }
+
+    private void recordMutation(MutationType type, int entityId) {
+        if (historyLoadingThread == Thread.currentThread()) {
+            return;
+        }
+        synchronized (registryLock) {
+            pendingMutations.add(new Mutation(type, entityId));
+            dirtyTypes.add(type.getEntityType());
         }
-        return nextBookingId;
     }
 
-    public void setNextBookingId(int id) {
-        this.nextBookingId = id;
+    /**
+     * Returns the mutations made since the last call and clears them.
+     * The persistence layer uses these to write only the entities that changed.
+     *
+     * @return The pending mutations, in the order they were made.
+     */
+
+    public List<Mutation> drainMutations() {
+        synchronized (registryLock) {
+            List<Mutation> drained = new ArrayList<>(pendingMutations);
+            pendingMutations.clear();
+            return drained;
+        }
+    }
+
+    /**
+     * Gives back mutations drained by {@link #drainMutations()} that could not be
+     * persisted, ahead of any made since, so that the next drain retries them.
+     *
+     * @param mutations The drained mutations, in the order they were made.
+     */
+
+    public void restoreMutations(List<Mutation> mutations) {
+        synchronized (registryLock) {
+            pendingMutations.addAll(0, mutations);
+            for (Mutation mutation : mutations) {
+                dirtyTypes.add(mutation.getEntityType());
+            }
+        }
+    }
+
+    /**
+     * Returns the entity types changed since the data files were last written.
+     * Unlike the pending mutations, these are only cleared by {@link #markClean(Set)}.
+     *
+     * @return A copy of the set of changed entity types.
+     */
+
+    public Set<EntityType> getDirtyTypes() {
+        synchronized (registryLock) {
+            return EnumSet.copyOf(dirtyTypes);
+        }
+    }
+
+    public void markDirty(EntityType type) {
+        synchronized (registryLock) {
+            dirtyTypes.add(type);
+        }
+    }
+
+    /**
+     * Marks the given entity types as written to the data files.
+     *
+     * @param types The entity types that were written.
+     */
+
+    public void markClean(Set<EntityType> types) {
+        synchronized (registryLock) {
+            dirtyTypes.removeAll(types);
+        }
     }
 
     /**
      * Returns an unmodifiable list of active (not deleted and not departed) flights.
+     * The list is a snapshot shared by every caller until the active flights change,
+     * so it is only built once per change rather than on every call.
      *
-     * @return A list of active flights.
+     * @return A list of active flights, in ID order.
      */
 
     public List<Flight> getFlights() {
-        List<Flight> out = new ArrayList<>();
-        for (Flight flight : flights.values()) {
+        getSystemDate();
+        List<Flight> view = activeFlightsView;
+        if (view == null) {
+            synchronized (registryLock) {
+                view = activeFlightsView;
+                if (view == null) {
+                    view = Collections.unmodifiableList(activeFlights.values());
+                    activeFlightsView = view;
+                }
+            }
+        }
+        return view;
+    }
+
+    private void addActiveFlight(Flight flight) {
+        synchronized (registryLock) {
             if (!flight.isDeleted() && !flight.hasDeparted(systemDate)) {
-                out.add(flight);
+                activeFlights.put(flight.getId(), flight);
+                if (activeByDeparture.size() > 2 * activeFlights.size() + 16) {
+                    activeByDeparture.clear();
+                    for (Flight active : activeFlights) {
+                        activeByDeparture.add(new Departure(active));
+                    }
+                } else {
+                    activeByDeparture.add(new Departure(flight));
+                }
+                activeFlightsView = null;
             }
         }
-        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Removes a flight from the active flights. Its departure stays queued and is skipped
+     * when it comes up, rather than searching the queue for it.
+     */
+    private void removeActiveFlight(Flight flight) {
+        synchronized (registryLock) {
+            if (activeFlights.remove(flight.getId()) != null) {
+                activeFlightsView = null;
+            }
+        }
+    }
+
+    /**
+     * Retires the active flights departing on or before the system date, earliest first.
+     * Departures of flights that were removed or rescheduled since they were queued are
+     * dropped. Called with the registry lock held.
+     */
+    private void retireDepartedFlights() {
+        while (!activeByDeparture.isEmpty() && !activeByDeparture.peek().date.isAfter(systemDate)) {
+            Flight flight = activeByDeparture.poll().flight;
+            if (activeFlights.get(flight.getId()) == flight && flight.hasDeparted(systemDate)) {
+                activeFlights.remove(flight.getId());
+                activeFlightsView = null;
+            }
+        }
+    }
+
+    /**
+     * A flight queued by the departure date it had when it became active, so that
+     * rescheduling the flight does not reorder the queue under it.
+     */
+    private static final class Departure {
+
+        private final LocalDate date;
+        private final Flight flight;
+
+        Departure(Flight flight) {
+            this.date = flight.getDepartureDate();
+            this.flight = flight;
+        }
     }
 
 
@@ -103,7 +329,22 @@ public class FlightBookingSystem {
      */
 
     public List<Flight> getAllFlights() {
-        return Collections.unmodifiableList(new ArrayList<>(flights.values()));
+        loadHistory();
+        synchronized (registryLock) {
+            return Collections.unmodifiableList(flights.values());
+        }
+    }
+
+    /**
+     * Returns the flights held in memory, without loading past flights left on disk.
+     *
+     * @return A list of the loaded flights, including deleted and departed ones.
+     */
+
+    public List<Flight> getLoadedFlights() {
+        synchronized (registryLock) {
+            return Collections.unmodifiableList(flights.values());
+        }
     }
 
     /**
@@ -114,7 +355,11 @@ public class FlightBookingSystem {
 
 
     public List<Customer> getCustomers() {
-        return customers.values().stream()
+        List<Customer> all;
+        synchronized (registryLock) {
+            all = customers.values();
+        }
+        return all.stream()
                 .filter(customer -> !customer.isDeleted())
                 .collect(Collectors.toUnmodifiableList());
     }
@@ -127,7 +372,9 @@ public class FlightBookingSystem {
      */
 
     public List<Customer> getAllCustomers() {
-        return Collections.unmodifiableList(new ArrayList<>(customers.values()));
+        synchronized (registryLock) {
+            return Collections.unmodifiableList(customers.values());
+        }
     }
 
     /**
@@ -137,7 +384,11 @@ public class FlightBookingSystem {
      */
 
     public List<Meal> getMeals() {
-        return meals.values().stream()
+        List<Meal> all;
+        synchronized (registryLock) {
+            all = meals.values();
+        }
+        return all.stream()
                 .filter(meal -> !meal.isDeleted())
                 .collect(Collectors.toUnmodifiableList());
     }
@@ -150,7 +401,9 @@ public class FlightBookingSystem {
 
 
     public List<Meal> getAllMeals() {
-        return Collections.unmodifiableList(new ArrayList<>(meals.values()));
+        synchronized (registryLock) {
+            return Collections.unmodifiableList(meals.values());
+        }
     }
 
     /**
@@ -165,7 +418,11 @@ public class FlightBookingSystem {
         if (preferredType == MealType.NONE) {
             return getMeals(); // Return all active meals if no preference
         }
-        return meals.values().stream()
+        List<Meal> all;
+        synchronized (registryLock) {
+            all = meals.values();
+        }
+        return all.stream()
                 .filter(meal -> !meal.isDeleted() && meal.getType() == preferredType)
                 .collect(Collectors.toUnmodifiableList());
     }
@@ -179,8 +436,12 @@ public class FlightBookingSystem {
      */
 
     public Flight getFlightByID(int id) throws FlightBookingSystemException {
-        Flight flight = flights.get(id);
-        if (flight == null || flight.isDeleted() || flight.hasDeparted(systemDate)) {
+        getSystemDate();
+        Flight flight;
+        synchronized (registryLock) {
+            flight = activeFlights.get(id);
+        }
+        if (flight == null) {
             throw new FlightBookingSystemException("There is no active flight with that ID or it has departed.");
         }
         return flight;
@@ -195,7 +456,16 @@ public class FlightBookingSystem {
 
 
     public Flight getFlightByIDIncludingDeleted(int id) {
-        return flights.get(id);
+        synchronized (registryLock) {
+            Flight flight = flights.get(id);
+            if (flight != null || historyLoader == null) {
+                return flight;
+            }
+        }
+        loadHistory();
+        synchronized (registryLock) {
+            return flights.get(id);
+        }
     }
 
     /**
@@ -207,7 +477,10 @@ public class FlightBookingSystem {
      */
 
     public Customer getCustomerByID(int id) throws FlightBookingSystemException {
-        Customer customer = customers.get(id);
+        Customer customer;
+        synchronized (registryLock) {
+            customer = customers.get(id);
+        }
         if (customer == null || customer.isDeleted()) {
             throw new FlightBookingSystemException("There is no customer with that ID.");
         }
@@ -223,7 +496,9 @@ public class FlightBookingSystem {
 
 
     public Customer getCustomerByIDIncludingDeleted(int id) {
-        return customers.get(id);
+        synchronized (registryLock) {
+            return customers.get(id);
+        }
     }
 
     /**
@@ -235,7 +510,10 @@ public class FlightBookingSystem {
      */
 
     public Meal getMealByID(int id) throws FlightBookingSystemException {
-        Meal meal = meals.get(id);
+        Meal meal;
+        synchronized (registryLock) {
+            meal = meals.get(id);
+        }
         if (meal == null || meal.isDeleted()) {
             throw new FlightBookingSystemException("There is no active meal with that ID.");
         }
@@ -251,11 +529,14 @@ public class FlightBookingSystem {
 
 
     public Meal getMealByIDIncludingDeleted(int id) {
-        return meals.get(id);
+        synchronized (registryLock) {
+            return meals.get(id);
+        }
     }
 
     /**
-     * Adds a new flight to the system.
+     * Adds a new flight to the system. Only flights that are not deleted hold their
+     * flight number and departure date, so a removed flight can be scheduled again.
      *
      * @param flight The Flight object to add.
      * @throws FlightBookingSystemException If a flight with the same flight number and departure date already exists.
@@ -263,17 +544,137 @@ public class FlightBookingSystem {
      */
 
     public void addFlight(Flight flight) throws FlightBookingSystemException {
-        if (flights.containsKey(flight.getId())) {
-            throw new IllegalArgumentException("Duplicate flight ID.");
+        loadHistoryFor(flight.getDepartureDate());
+        synchronized (registryLock) {
+            if (flights.containsKey(flight.getId())) {
+                throw new IllegalArgumentException("Duplicate flight ID.");
+            }
+            if (!flight.isDeleted()) {
+                String key = scheduleKey(flight.getFlightNumber(), flight.getDepartureDate());
+                if (flightsByNumberAndDate.containsKey(key)) {
+                    throw new FlightBookingSystemException("There is a flight with same "
+                            + "number and departure date in the system");
+                }
+                flightsByNumberAndDate.put(key, flight);
+            }
+            flights.put(flight.getId(), flight);
+            idAllocators.get(EntityType.FLIGHT).reserve(flight.getId());
+            indexRoute(flight);
+            addActiveFlight(flight);
+            recordMutation(MutationType.FLIGHT_ADDED, flight.getId());
+        }
+    }
+
+    /**
+     * Finds the flight with a flight number departing on a date, through a hash index of
+     * the flights that are not deleted.
+     *
+     * @param flightNumber The flight number, matched exactly.
+     * @param departureDate The departure date.
+     * @return The flight, or null if there is none.
+     */
+
+    public Flight findFlightByNumber(String flightNumber, LocalDate departureDate) {
+        loadHistoryFor(departureDate);
+        synchronized (registryLock) {
+            return flightsByNumberAndDate.get(scheduleKey(flightNumber, departureDate));
         }
-        for (Flight existing : flights.values()) {
-            if (existing.getFlightNumber().equals(flight.getFlightNumber())
-                    && existing.getDepartureDate().isEqual(flight.getDepartureDate())) {
+    }
+
+    /**
+     * Moves a flight to another departure date, keeping the flight indexes up to date.
+     *
+     * @param flightId The ID of the flight.
+     * @param newDate The new departure date.
+     * @throws FlightBookingSystemException If there is no such flight, it is deleted, or
+     * another flight with its number already departs on the new date.
+     */
+
+    public void rescheduleFlight(int flightId, LocalDate newDate) throws FlightBookingSystemException {
+        loadHistoryFor(newDate);
+        synchronized (registryLock) {
+            Flight flight = flights.get(flightId);
+            if (flight == null || flight.isDeleted()) {
+                throw new FlightBookingSystemException("There is no flight with that ID.");
+            }
+            if (newDate.isEqual(flight.getDepartureDate())) {
+                return;
+            }
+            String key = scheduleKey(flight.getFlightNumber(), newDate);
+            if (flightsByNumberAndDate.containsKey(key)) {
                 throw new FlightBookingSystemException("There is a flight with same "
                         + "number and departure date in the system");
             }
+            flightsByNumberAndDate.remove(scheduleKey(flight.getFlightNumber(), flight.getDepartureDate()));
+            unindexRoute(flight);
+            removeActiveFlight(flight);
+            flight.setDepartureDate(newDate);
+            flightsByNumberAndDate.put(key, flight);
+            indexRoute(flight);
+            addActiveFlight(flight);
+            recordMutation(MutationType.FLIGHT_UPDATED, flightId);
         }
-        flights.put(flight.getId(), flight);
+    }
+
+    private void indexRoute(Flight flight) {
+        flightsByRoute.computeIfAbsent(routeKey(flight.getOrigin(), flight.getDestination()), route -> new TreeMap<>())
+                .computeIfAbsent(flight.getDepartureDate(), date -> new ArrayList<>(1))
+                .add(flight);
+    }
+
+    private void unindexRoute(Flight flight) {
+        NavigableMap<LocalDate, List<Flight>> byDate = flightsByRoute.get(routeKey(flight.getOrigin(), flight.getDestination()));
+        List<Flight> departures = byDate.get(flight.getDepartureDate());
+        departures.remove(flight);
+        if (departures.isEmpty()) {
+            byDate.remove(flight.getDepartureDate());
+        }
+    }
+
+    private static String scheduleKey(String flightNumber, LocalDate departureDate) {
+        return flightNumber + '\n' + departureDate;
+    }
+
+    /**
+     * Finds the active flights of a route departing within a date range, through an index
+     * of each route's flights by departure date, in O(log n + k) for k flights in the range.
+     * Origin and destination are matched ignoring case and surrounding spaces.
+     *
+     * @param origin The origin of the route.
+     * @param destination The destination of the route.
+     * @param fromDate The earliest departure date, or null for no limit.
+     * @param toDate The latest departure date, or null for no limit.
+     * @return An unmodifiable list of the matching flights, ordered by departure date.
+     */
+
+    public List<Flight> searchFlights(String origin, String destination, LocalDate fromDate, LocalDate toDate) {
+        // Flights departing today or earlier have departed, so the range starts after today.
+        LocalDate today = getSystemDate();
+        boolean afterToday = fromDate == null || !fromDate.isAfter(today);
+        LocalDate from = afterToday ? today : fromDate;
+        if (toDate != null && (toDate.isBefore(from) || (afterToday && toDate.isEqual(from)))) {
+            return Collections.emptyList();
+        }
+        List<Flight> out = new ArrayList<>();
+        synchronized (registryLock) {
+            NavigableMap<LocalDate, List<Flight>> byDate = flightsByRoute.get(routeKey(origin, destination));
+            if (byDate == null) {
+                return Collections.emptyList();
+            }
+            byDate = (toDate == null) ? byDate.tailMap(from, !afterToday) : byDate.subMap(from, !afterToday, toDate, true);
+            for (List<Flight> departures : byDate.values()) {
+                for (Flight flight : departures) {
+                    if (!flight.isDeleted()) {
+                        out.add(flight);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    private static String routeKey(String origin, String destination) {
+        return origin.trim().toLowerCase(Locale.ROOT) + '\n' + destination.trim().toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -284,13 +685,10 @@ public class FlightBookingSystem {
 
 
     public void addCustomer(Customer customer) {
-        if (customers.containsKey(customer.getId())) {
-            customers.put(customer.getId(), customer);
-        } else {
+        synchronized (registryLock) {
             customers.put(customer.getId(), customer);
-            if (customer.getId() >= nextCustomerId) {
-                nextCustomerId = customer.getId() + 1;
-            }
+            idAllocators.get(EntityType.CUSTOMER).reserve(customer.getId());
+            recordMutation(MutationType.CUSTOMER_ADDED, customer.getId());
         }
     }
 
@@ -302,10 +700,14 @@ public class FlightBookingSystem {
      */
 
     public void addMeal(Meal meal) throws FlightBookingSystemException {
-        if (meals.containsKey(meal.getId())) {
-            throw new IllegalArgumentException("Duplicate meal ID.");
+        synchronized (registryLock) {
+            if (meals.containsKey(meal.getId())) {
+                throw new IllegalArgumentException("Duplicate meal ID.");
+            }
+            meals.put(meal.getId(), meal);
+            idAllocators.get(EntityType.MEAL).reserve(meal.getId());
+            recordMutation(MutationType.MEAL_ADDED, meal.getId());
         }
-        meals.put(meal.getId(), meal);
     }
 
     /**
@@ -321,37 +723,273 @@ public class FlightBookingSystem {
 
     public void addBooking(Customer customer, Flight outbound, Flight returnFlight, CommercialClassType bookedClass, Meal selectedMeal)
             throws FlightBookingSystemException {
+        addBooking(customer, outbound, null, returnFlight, null, bookedClass, selectedMeal);
+    }
 
-        if (!outbound.hasAnySeatsLeft()) {
-            throw new FlightBookingSystemException("Outbound flight " + outbound.getFlightNumber() + " is at full capacity.");
-        }
-        if (!outbound.isClassAvailable(bookedClass)) {
-            throw new FlightBookingSystemException("Outbound flight " + outbound.getFlightNumber() + " has no seats left in " + bookedClass.getClassName() + " class.");
+    /**
+     * Adds a new booking into seats held with {@link #holdSeat}. A hold that has expired
+     * is booked like a new seat, if one is left.
+     *
+     * @param customer The customer making the booking.
+     * @param outboundHold The seat held on the outbound flight.
+     * @param returnHold The seat held on the return flight (can be null for one-way).
+     * @param selectedMeal The selected meal for the booking.
+     * @throws FlightBookingSystemException If the holds are in different classes, or a hold
+     * has expired and its class is now full.
+     */
+
+    public void addBooking(Customer customer, SeatHold outboundHold, SeatHold returnHold, Meal selectedMeal)
+            throws FlightBookingSystemException {
+        CommercialClassType bookedClass = outboundHold.getClassType();
+        if (returnHold != null && returnHold.getClassType() != bookedClass) {
+            throw new FlightBookingSystemException("The outbound and return seats are held in different classes.");
         }
+        addBooking(customer, outboundHold.getFlight(), outboundHold,
+                (returnHold != null) ? returnHold.getFlight() : null, returnHold, bookedClass, selectedMeal);
+    }
 
-        if (returnFlight != null) {
-            if (!returnFlight.hasAnySeatsLeft()) {
-                throw new FlightBookingSystemException("Return flight " + returnFlight.getFlightNumber() + " is at full capacity.");
+    private Booking addBooking(Customer customer, Flight outbound, SeatHold outboundHold, Flight returnFlight,
+            SeatHold returnHold, CommercialClassType bookedClass, Meal selectedMeal) throws FlightBookingSystemException {
+
+        flightLocks.lock(outbound, returnFlight);
+        try {
+            // A leg with an active hold already has its seat; every other leg is checked.
+            if (outboundHold == null || !outboundHold.isActive()) {
+                if (!outbound.hasAnySeatsLeft()) {
+                    throw new FlightBookingSystemException("Outbound flight " + outbound.getFlightNumber() + " is at full capacity.");
+                }
+                if (!outbound.isClassAvailable(bookedClass)) {
+                    throw new FlightBookingSystemException("Outbound flight " + outbound.getFlightNumber() + " has no seats left in " + bookedClass.getClassName() + " class.");
+                }
             }
-            if (!returnFlight.isClassAvailable(bookedClass)) {
-                throw new FlightBookingSystemException("Return flight " + returnFlight.getFlightNumber() + " has no seats left in " + bookedClass.getClassName() + " class.");
+
+            if (returnFlight != null && (returnHold == null || !returnHold.isActive())) {
+                if (!returnFlight.hasAnySeatsLeft()) {
+                    throw new FlightBookingSystemException("Return flight " + returnFlight.getFlightNumber() + " is at full capacity.");
+                }
+                if (!returnFlight.isClassAvailable(bookedClass)) {
+                    throw new FlightBookingSystemException("Return flight " + returnFlight.getFlightNumber() + " has no seats left in " + bookedClass.getClassName() + " class.");
+                }
+            }
+
+            LocalDate today = getSystemDate();
+            PricingStrategy pricing = pricingStrategy;
+            BigDecimal outboundBookedPrice = pricing.quote(outbound, bookedClass, today);
+            BigDecimal returnBookedPrice = (returnFlight != null) ? pricing.quote(returnFlight, bookedClass, today) : BigDecimal.ZERO;
+
+            // Hold the seats on both legs before the booking exists, so that a leg that
+            // cannot be booked gives back the seat already held on the other.
+            SeatReservation seats = new SeatReservation(seatHolds);
+            Booking booking;
+            try {
+                takeSeat(seats, outbound, outboundHold, customer, bookedClass);
+                takeSeat(seats, returnFlight, returnHold, customer, bookedClass);
+                booking = new Booking(generateNextBookingId(), customer, outbound, returnFlight, today, bookedClass,
+                        outboundBookedPrice, returnBookedPrice, selectedMeal);
+                registerBooking(booking);
+                seats.commit();
+            } finally {
+                seats.rollback();
+            }
+            System.out.println("Booking ID " + booking.getId() + " created for customer " + customer.getName() + ".");
+            return booking;
+        } finally {
+            flightLocks.unlock(outbound, returnFlight);
+        }
+    }
+
+    private void takeSeat(SeatReservation seats, Flight flight, SeatHold hold, Customer customer,
+            CommercialClassType bookedClass) throws FlightBookingSystemException {
+        if (hold != null && seatHolds.claim(hold)) {
+            seats.take(hold, customer);
+        } else {
+            seats.hold(flight, customer, bookedClass);
+        }
+    }
+
+    /**
+     * Holds a seat while a booking is being made, for the time set by
+     * {@link #setSeatHoldTtl}. The held seat is not left for other bookings.
+     *
+     * @param flight The flight.
+     * @param classType The class to hold a seat in.
+     * @return The hold, to be booked with {@link #addBooking(Customer, SeatHold, SeatHold, Meal)}
+     * or given back with {@link #releaseHold}.
+     * @throws FlightBookingSystemException If the class has no seats left.
+     */
+
+    public SeatHold holdSeat(Flight flight, CommercialClassType classType) throws FlightBookingSystemException {
+        return seatHolds.hold(flight, classType);
+    }
+
+    /**
+     * Gives back a held seat. Releasing a hold that has been booked or has expired does nothing.
+     *
+     * @param hold The hold, or null.
+     */
+
+    public void releaseHold(SeatHold hold) {
+        if (hold != null) {
+            seatHolds.release(hold);
+        }
+    }
+
+    public Duration getSeatHoldTtl() {
+        return seatHolds.getTtl();
+    }
+
+    public void setSeatHoldTtl(Duration ttl) {
+        seatHolds.setTtl(ttl);
+    }
+
+    /**
+     * Releases every seat hold that has expired. Expired holds are also released in
+     * the background, so this is only needed to see them released at once.
+     *
+     * @return The number of holds released.
+     */
+
+    public int expireSeatHolds() {
+        return seatHolds.expireDue();
+    }
+
+    /**
+     * Adds the bookings of a group, all of them or none. Every flight of the group is
+     * locked once, the seats the group needs are checked against the seats left in
+     * one pass, and the booking IDs are taken as one consecutive block.
+     *
+     * @param requests The bookings to make.
+     * @return The new bookings, in the order they were requested.
+     * @throws FlightBookingSystemException If any booking of the group cannot be made,
+     * in which case none of them is made.
+     */
+
+    public List<Booking> addBookings(List<BookingRequest> requests) throws FlightBookingSystemException {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Flight> flights = new LinkedHashSet<>();
+        for (BookingRequest request : requests) {
+            flights.add(request.getOutboundFlight());
+            if (request.getReturnFlight() != null) {
+                flights.add(request.getReturnFlight());
             }
         }
 
-        BigDecimal outboundBookedPrice = outbound.getDynamicPrice(bookedClass, systemDate);
-        BigDecimal returnBookedPrice = (returnFlight != null) ? returnFlight.getDynamicPrice(bookedClass, systemDate) : BigDecimal.ZERO;
+        int[] locked = flightLocks.lockAll(flights);
+        try {
+            // Count the seats the whole group needs on each flight and class, so that a
+            // group which does not fit fails before any seat is taken.
+            Map<Flight, EnumMap<CommercialClassType, Integer>> seatsNeeded = new LinkedHashMap<>();
+            Set<String> passengers = new HashSet<>();
+            for (BookingRequest request : requests) {
+                countGroupSeat(seatsNeeded, passengers, request.getOutboundFlight(), request);
+                if (request.getReturnFlight() != null) {
+                    countGroupSeat(seatsNeeded, passengers, request.getReturnFlight(), request);
+                }
+            }
+            for (Map.Entry<Flight, EnumMap<CommercialClassType, Integer>> entry : seatsNeeded.entrySet()) {
+                Flight flight = entry.getKey();
+                for (Map.Entry<CommercialClassType, Integer> needed : entry.getValue().entrySet()) {
+                    CommercialClassType classType = needed.getKey();
+                    if (!flight.getAvailableClasses().contains(classType)) {
+                        throw new FlightBookingSystemException("Flight " + flight.getFlightNumber() + " does not offer "
+                                + classType.getClassName() + " class.");
+                    }
+                    int left = flight.getRemainingSeatsForClass(classType);
+                    if (left < needed.getValue()) {
+                        throw new FlightBookingSystemException("Flight " + flight.getFlightNumber() + " has " + left
+                                + " seats left in " + classType.getClassName() + " class, but the group needs "
+                                + needed.getValue() + ".");
+                    }
+                }
+            }
+
+            // Price every seat before any is taken, in one quote of all the flights, so
+            // the whole group pays what its first member would have paid.
+            LocalDate today = getSystemDate();
+            Map<Flight, FlightQuote> quotes = new HashMap<>();
+            for (FlightQuote quote : pricingStrategy.quoteAll(new ArrayList<>(seatsNeeded.keySet()), today)) {
+                quotes.put(quote.getFlight(), quote);
+            }
+            BigDecimal[][] legPrices = new BigDecimal[requests.size()][];
+            for (int i = 0; i < requests.size(); i++) {
+                BookingRequest request = requests.get(i);
+                Flight returnFlight = request.getReturnFlight();
+                legPrices[i] = new BigDecimal[] {
+                    groupPrice(quotes, request.getOutboundFlight(), request.getBookedClass()),
+                    (returnFlight != null) ? groupPrice(quotes, returnFlight, request.getBookedClass()) : BigDecimal.ZERO
+                };
+            }
+
+            List<Booking> created = new ArrayList<>(requests.size());
+            SeatReservation seats = new SeatReservation();
+            try {
+                for (BookingRequest request : requests) {
+                    seats.hold(request.getOutboundFlight(), request.getCustomer(), request.getBookedClass());
+                    seats.hold(request.getReturnFlight(), request.getCustomer(), request.getBookedClass());
+                }
+                int firstId = idAllocators.get(EntityType.BOOKING).allocate(requests.size());
+                for (int i = 0; i < requests.size(); i++) {
+                    BookingRequest request = requests.get(i);
+                    created.add(new Booking(firstId + i, request.getCustomer(), request.getOutboundFlight(),
+                            request.getReturnFlight(), today, request.getBookedClass(), legPrices[i][0], legPrices[i][1],
+                            request.getMeal()));
+                }
+                for (Booking booking : created) {
+                    registerBooking(booking);
+                }
+                seats.commit();
+            } finally {
+                seats.rollback();
+            }
+            System.out.println(created.size() + " bookings created, IDs " + created.get(0).getId() + " to "
+                    + created.get(created.size() - 1).getId() + ".");
+            return Collections.unmodifiableList(created);
+        } finally {
+            flightLocks.unlockAll(locked);
+        }
+    }
 
-        int newBookingId = generateNextBookingId();
+    private static void countGroupSeat(Map<Flight, EnumMap<CommercialClassType, Integer>> seatsNeeded,
+            Set<String> passengers, Flight flight, BookingRequest request) throws FlightBookingSystemException {
+        if (!passengers.add(flight.getId() + ":" + request.getCustomer().getId())) {
+            throw new FlightBookingSystemException("Customer " + request.getCustomer().getName()
+                    + " is booked on flight " + flight.getFlightNumber() + " more than once.");
+        }
+        seatsNeeded.computeIfAbsent(flight, f -> new EnumMap<>(CommercialClassType.class))
+                .merge(request.getBookedClass(), 1, Integer::sum);
+    }
 
-        Booking booking = new Booking(newBookingId, customer, outbound, returnFlight, systemDate, bookedClass, outboundBookedPrice, returnBookedPrice, selectedMeal);
+    /**
+     * Looks the price of a group member's seat up in the quotes of the group's flights.
+     */
+    private static BigDecimal groupPrice(Map<Flight, FlightQuote> quotes, Flight flight,
+            CommercialClassType classType) throws FlightBookingSystemException {
+        FlightQuote quote = quotes.get(flight);
+        BigDecimal price = (quote != null) ? quote.getPrice(classType) : null;
+        if (price == null) {
+            throw new FlightBookingSystemException("Class " + classType.getClassName()
+                    + " cannot be priced on flight " + flight.getFlightNumber() + ".");
+        }
+        return price;
+    }
 
-        customer.addBooking(booking);
-        outbound.addPassenger(customer, bookedClass);
-        if (returnFlight != null) {
-            returnFlight.addPassenger(customer, bookedClass);
+    /**
+     * Adds a new booking, whose seats are already held, to its customer and the system.
+     */
+    private void registerBooking(Booking booking) {
+        synchronized (registryLock) {
+            booking.getCustomer().addBooking(booking);
+            bookings.put(booking.getId(), booking); // ADDED: Add booking to the system's map
+            indexBooking(booking);
+            recordMutation(MutationType.BOOKING_CREATED, booking.getId());
+            recordMutation(MutationType.FLIGHT_UPDATED, booking.getOutboundFlight().getId());
+            if (booking.getReturnFlight() != null) {
+                recordMutation(MutationType.FLIGHT_UPDATED, booking.getReturnFlight().getId());
+            }
         }
-        bookings.put(booking.getId(), booking); // ADDED: Add booking to the system's map
-        System.out.println("Booking ID " + booking.getId() + " created for customer " + customer.getName() + ".");
     }
 
     /**
@@ -360,7 +998,75 @@ public class FlightBookingSystem {
      * @param booking The Booking object to add.
      */
     public void addBookingWithoutFlightUpdate(Booking booking) {
-        bookings.put(booking.getId(), booking);
+        synchronized (registryLock) {
+            bookings.put(booking.getId(), booking);
+            idAllocators.get(EntityType.BOOKING).reserve(booking.getId());
+            indexBooking(booking);
+            recordMutation(MutationType.BOOKING_CREATED, booking.getId());
+        }
+    }
+
+    /**
+     * Returns the active bookings on a flight, outbound or return, ordered by customer ID.
+     * Past bookings left on disk are loaded first when the flight departs before this month.
+     *
+     * @param flight The flight.
+     * @return An unmodifiable list of the flight's active bookings.
+     */
+    public List<Booking> getFlightManifest(Flight flight) {
+        loadHistoryFor(flight.getDepartureDate());
+        synchronized (registryLock) {
+            Map<Integer, Booking> manifest = activeBookingsByFlight.get(flight.getId());
+            if (manifest == null) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(new ArrayList<>(manifest.values()));
+        }
+    }
+
+    /**
+     * Finds a customer's active booking on a flight.
+     *
+     * @param customer The customer.
+     * @param flight The outbound or return flight of the booking.
+     * @return The booking, or null if the customer has no active booking on the flight.
+     */
+    public Booking findActiveBooking(Customer customer, Flight flight) {
+        loadHistoryFor(flight.getDepartureDate());
+        synchronized (registryLock) {
+            Map<Integer, Booking> manifest = activeBookingsByFlight.get(flight.getId());
+            return (manifest != null) ? manifest.get(customer.getId()) : null;
+        }
+    }
+
+    private void indexBooking(Booking booking) {
+        if (booking.isCancelled()) {
+            return;
+        }
+        indexBooking(booking, booking.getOutboundFlight());
+        indexBooking(booking, booking.getReturnFlight());
+    }
+
+    private void indexBooking(Booking booking, Flight flight) {
+        if (flight != null) {
+            activeBookingsByFlight.computeIfAbsent(flight.getId(), id -> new TreeMap<>())
+                    .put(booking.getCustomer().getId(), booking);
+        }
+    }
+
+    private void unindexBooking(Booking booking) {
+        unindexBooking(booking, booking.getOutboundFlight());
+        unindexBooking(booking, booking.getReturnFlight());
+    }
+
+    private void unindexBooking(Booking booking, Flight flight) {
+        if (flight == null) {
+            return;
+        }
+        Map<Integer, Booking> manifest = activeBookingsByFlight.get(flight.getId());
+        if (manifest != null && manifest.remove(booking.getCustomer().getId(), booking) && manifest.isEmpty()) {
+            activeBookingsByFlight.remove(flight.getId());
+        }
     }
 
 
@@ -370,64 +1076,255 @@ public class FlightBookingSystem {
      *
      * @param customer The customer whose booking is to be cancelled.
      * @param flight The flight associated with the booking to be cancelled.
+     * @return The cancelled booking.
      * @throws FlightBookingSystemException If the customer does not have a booking for the specified flight, or it's already cancelled.
      */
 
-    public void cancelBooking(Customer customer, Flight flight) throws FlightBookingSystemException {
-        Booking bookingToCancel = null;
-        for (Booking booking : customer.getBookings()) {
-            if (!booking.isCancelled() && // Only consider active bookings
-                ((booking.getOutboundFlight().equals(flight) && !booking.getOutboundFlight().isDeleted()) ||
-                 (booking.getReturnFlight() != null && booking.getReturnFlight().equals(flight) && !booking.getReturnFlight().isDeleted()))) {
-                bookingToCancel = booking;
-                break;
-            }
-        }
+    public Booking cancelBooking(Customer customer, Flight flight) throws FlightBookingSystemException {
+        Booking bookingToCancel = flight.isDeleted() ? null : findActiveBooking(customer, flight);
 
         if (bookingToCancel == null) {
             throw new FlightBookingSystemException("No active booking found for customer " + customer.getName() + " on flight " + flight.getFlightNumber());
         }
 
-        BigDecimal cancellationFee = calculateCancellationFee(bookingToCancel);
-        bookingToCancel.setCancellationFee(cancellationFee);
+        BigDecimal cancellationFee;
+        flightLocks.lock(bookingToCancel.getOutboundFlight(), bookingToCancel.getReturnFlight());
+        try {
+            if (bookingToCancel.isCancelled()) {
+                throw new FlightBookingSystemException("No active booking found for customer " + customer.getName() + " on flight " + flight.getFlightNumber());
+            }
+            cancellationFee = calculateCancellationFee(bookingToCancel);
+            bookingToCancel.setCancellationFee(cancellationFee);
+
+            bookingToCancel.setCancelled(true);
+
+            // A round trip gives up its seat on both legs, as both leave the flight manifests.
+            List<Flight> legs = new ArrayList<>();
+            legs.add(bookingToCancel.getOutboundFlight());
+            if (bookingToCancel.getReturnFlight() != null) {
+                legs.add(bookingToCancel.getReturnFlight());
+            }
+            for (Flight leg : legs) {
+                leg.removePassenger(customer, bookingToCancel.getBookedClass());
+            }
+            synchronized (registryLock) {
+                unindexBooking(bookingToCancel);
+                recordMutation(MutationType.BOOKING_CANCELLED, bookingToCancel.getId());
+                for (Flight leg : legs) {
+                    recordMutation(MutationType.FLIGHT_UPDATED, leg.getId());
+                }
+            }
+            System.out.println("Booking ID " + bookingToCancel.getId() + " for Flight " + flight.getFlightNumber() + " cancelled. Cancellation Fee: £" + cancellationFee);
+
+            // The freed seats go to the waitlists before the flights are unlocked.
+            for (Flight leg : legs) {
+                promoteFromWaitlist(leg, bookingToCancel.getBookedClass());
+            }
+        } finally {
+            flightLocks.unlock(bookingToCancel.getOutboundFlight(), bookingToCancel.getReturnFlight());
+        }
+
+        return bookingToCancel;
+    }
+
+
+    /**
+     * Puts a customer on the waitlist of a class of a full flight. When a seat in that
+     * class is freed, by a cancellation, a rebooking, a class change or a hold that ends
+     * unbooked, it is booked for the first customer waiting.
+     *
+     * @param customer The customer.
+     * @param flight The flight.
+     * @param classType The class to wait for.
+     * @return The new waitlist entry.
+     * @throws FlightBookingSystemException If the flight is not full in that class, does not
+     * offer it, or the customer is already on the flight or its waitlist.
+     */
+
+    public WaitlistEntry joinWaitlist(Customer customer, Flight flight, CommercialClassType classType)
+            throws FlightBookingSystemException {
+        flightLocks.lock(flight, null);
+        try {
+            if (!flight.getAvailableClasses().contains(classType)) {
+                throw new FlightBookingSystemException("Flight " + flight.getFlightNumber() + " does not offer "
+                        + classType.getClassName() + " class.");
+            }
+            if (flight.isClassAvailable(classType)) {
+                throw new FlightBookingSystemException("Flight " + flight.getFlightNumber() + " still has seats in "
+                        + classType.getClassName() + " class, so the customer can be booked instead.");
+            }
+            if (findActiveBooking(customer, flight) != null) {
+                throw new FlightBookingSystemException("Customer " + customer.getName() + " is already booked on flight "
+                        + flight.getFlightNumber() + ".");
+            }
+            synchronized (registryLock) {
+                for (WaitlistEntry waiting : waitlistOf(flight, classType)) {
+                    if (waiting.isWaiting() && waiting.getCustomer().equals(customer)) {
+                        throw new FlightBookingSystemException("Customer " + customer.getName()
+                                + " is already on the waitlist of flight " + flight.getFlightNumber() + ".");
+                    }
+                }
+                WaitlistEntry entry = new WaitlistEntry(idAllocators.get(EntityType.WAITLIST).allocate(), customer, flight,
+                        classType, getSystemDate(), WaitlistStatus.WAITING, 0);
+                addWaitlistEntry(entry);
+                return entry;
+            }
+        } finally {
+            flightLocks.unlock(flight, null);
+        }
+    }
+
+    /**
+     * Adds a waitlist entry to the system, e.g. when it is loaded. A waiting entry joins
+     * the back of the waitlist of its flight and class.
+     *
+     * @param entry The waitlist entry.
+     */
+
+    public void addWaitlistEntry(WaitlistEntry entry) {
+        synchronized (registryLock) {
+            waitlistEntries.put(entry.getId(), entry);
+            idAllocators.get(EntityType.WAITLIST).reserve(entry.getId());
+            if (entry.isWaiting()) {
+                waitlistOf(entry.getFlight(), entry.getClassType()).addLast(entry);
+            }
+            recordMutation(MutationType.WAITLIST_JOINED, entry.getId());
+        }
+    }
+
+    /**
+     * Takes a customer off a waitlist.
+     *
+     * @param entry The waitlist entry.
+     * @throws FlightBookingSystemException If the entry is no longer waiting.
+     */
+
+    public void leaveWaitlist(WaitlistEntry entry) throws FlightBookingSystemException {
+        flightLocks.lock(entry.getFlight(), null);
+        try {
+            synchronized (registryLock) {
+                if (!entry.isWaiting()) {
+                    throw new FlightBookingSystemException("Waitlist entry #" + entry.getId() + " is no longer waiting.");
+                }
+                // The entry stays in its queue and is skipped when it reaches the front.
+                entry.leave();
+                recordMutation(MutationType.WAITLIST_LEFT, entry.getId());
+            }
+        } finally {
+            flightLocks.unlock(entry.getFlight(), null);
+        }
+    }
+
+    /**
+     * Returns the customers waiting for a class of a flight, first in line first.
+     *
+     * @param flight The flight.
+     * @param classType The class.
+     * @return The waiting entries.
+     */
 
-        bookingToCancel.setCancelled(true);
+    public List<WaitlistEntry> getWaitlist(Flight flight, CommercialClassType classType) {
+        synchronized (registryLock) {
+            Map<CommercialClassType, Deque<WaitlistEntry>> byClass = waitlistsByFlight.get(flight.getId());
+            Deque<WaitlistEntry> queue = (byClass != null) ? byClass.get(classType) : null;
+            if (queue == null) {
+                return Collections.emptyList();
+            }
+            return queue.stream().filter(WaitlistEntry::isWaiting).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns every waitlist entry held by the system, including promoted and left ones.
+     *
+     * @return The waitlist entries, in ID order.
+     */
 
-        if (bookingToCancel.getOutboundFlight().equals(flight)) {
-            bookingToCancel.getOutboundFlight().removePassenger(customer, bookingToCancel.getBookedClass());
-        } else if (bookingToCancel.getReturnFlight() != null && bookingToCancel.getReturnFlight().equals(flight)) {
-            bookingToCancel.getReturnFlight().removePassenger(customer, bookingToCancel.getBookedClass());
+    public List<WaitlistEntry> getWaitlistEntries() {
+        synchronized (registryLock) {
+            return Collections.unmodifiableList(waitlistEntries.values());
         }
+    }
+
+    public WaitlistEntry getWaitlistEntryByID(int id) {
+        synchronized (registryLock) {
+            return waitlistEntries.get(id);
+        }
+    }
 
+    private Deque<WaitlistEntry> waitlistOf(Flight flight, CommercialClassType classType) {
+        return waitlistsByFlight.computeIfAbsent(flight.getId(), id -> new EnumMap<>(CommercialClassType.class))
+                .computeIfAbsent(classType, type -> new ArrayDeque<>());
+    }
 
-        System.out.println("Booking ID " + bookingToCancel.getId() + " for Flight " + flight.getFlightNumber() + " cancelled. Cancellation Fee: £" + cancellationFee);
+    /**
+     * Offers a seat given back by an ended hold to the waitlist of its class.
+     */
+    private void seatFreed(Flight flight, CommercialClassType classType) {
+        flightLocks.lock(flight, null);
+        try {
+            promoteFromWaitlist(flight, classType);
+        } finally {
+            flightLocks.unlock(flight, null);
+        }
     }
 
+    /**
+     * Books the seats left in a class for the customers at the front of its waitlist.
+     * The caller must hold the lock of the flight. Each promotion takes the front entry,
+     * so it costs constant time; entries that have left are dropped as they reach the front.
+     */
+    private void promoteFromWaitlist(Flight flight, CommercialClassType classType) {
+        while (flight.isClassAvailable(classType)) {
+            WaitlistEntry next;
+            synchronized (registryLock) {
+                Map<CommercialClassType, Deque<WaitlistEntry>> byClass = waitlistsByFlight.get(flight.getId());
+                Deque<WaitlistEntry> queue = (byClass != null) ? byClass.get(classType) : null;
+                next = null;
+                while (queue != null && !queue.isEmpty() && next == null) {
+                    WaitlistEntry head = queue.pollFirst();
+                    if (head.isWaiting()) {
+                        next = head;
+                    }
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            try {
+                Booking booking = addBooking(next.getCustomer(), flight, null, null, null, classType, null);
+                synchronized (registryLock) {
+                    next.promote(booking.getId());
+                    recordMutation(MutationType.WAITLIST_PROMOTED, next.getId());
+                }
+                System.out.println("Customer " + next.getCustomer().getName() + " was promoted from the waitlist of flight "
+                        + flight.getFlightNumber() + ".");
+            } catch (FlightBookingSystemException e) {
+                synchronized (registryLock) {
+                    next.leave();
+                    recordMutation(MutationType.WAITLIST_LEFT, next.getId());
+                }
+                System.out.println("Waitlist entry #" + next.getId() + " could not be promoted and was removed: " + e.getMessage());
+            }
+        }
+    }
 
     /**
-     * Calculates the cancellation fee for a given booking.
-     * The fee is 10% of the total booked price (flights + meal), with a minimum of £20.00.
+     * Calculates the cancellation fee for a given booking with the pricing strategy.
+     * By default the fee is 10% of the total booked price (flights + meal), with a minimum of £20.00.
      *
      * @param booking The booking for which to calculate the cancellation fee.
      * @return The calculated cancellation fee, rounded to two decimal places.
      */
 
     public BigDecimal calculateCancellationFee(Booking booking) {
-        BigDecimal totalBookedPrice = booking.getBookedPriceOutbound().add(booking.getBookedPriceReturn());
-        if (booking.getMeal() != null) {
-            totalBookedPrice = totalBookedPrice.add(booking.getMeal().getPrice());
-        }
-        BigDecimal fee = totalBookedPrice.multiply(new BigDecimal("0.10"));
-        if (fee.compareTo(new BigDecimal("20.00")) < 0) {
-            fee = new BigDecimal("20.00");
-        }
-        return fee.setScale(2, RoundingMode.HALF_UP);
+        return pricingStrategy.cancellationFee(booking).setScale(2, RoundingMode.HALF_UP);
     }
 
 
     /**
-     * Calculates the rebooking fee for a booking.
-     * Currently, this is a fixed fee of £30.00.
+     * Calculates the rebooking fee for a booking with the pricing strategy.
+     * By default, this is a fixed fee of £30.00.
      *
      * @param booking The original booking.
      * @param newFlight The new flight for rebooking.
@@ -436,7 +1333,7 @@ public class FlightBookingSystem {
      */
 
     public BigDecimal calculateRebookFee(Booking booking, Flight newFlight, CommercialClassType newClass) {
-        return new BigDecimal("30.00").setScale(2, RoundingMode.HALF_UP);
+        return pricingStrategy.rebookFee(booking, newFlight, newClass).setScale(2, RoundingMode.HALF_UP);
     }
 
     /**
@@ -448,12 +1345,19 @@ public class FlightBookingSystem {
      */
 
     public boolean removeFlightById(int flightId) throws FlightBookingSystemException {
-        Flight flight = flights.get(flightId);
-        if (flight == null) {
-            return false;
+        synchronized (registryLock) {
+            Flight flight = flights.get(flightId);
+            if (flight == null) {
+                return false;
+            }
+            if (!flight.isDeleted()) {
+                flightsByNumberAndDate.remove(scheduleKey(flight.getFlightNumber(), flight.getDepartureDate()));
+            }
+            removeActiveFlight(flight);
+            flight.setDeleted(true);
+            recordMutation(MutationType.FLIGHT_REMOVED, flightId);
+            return true;
         }
-        flight.setDeleted(true);
-        return true;
     }
     /**
      * Removes a customer from the system by marking them as deleted.
@@ -464,11 +1368,14 @@ public class FlightBookingSystem {
      */
 
     public boolean removeCustomerById(int customerId) throws FlightBookingSystemException {
-        Customer customer = customers.get(customerId);
-        if (customer == null) {
-            return false;
+        synchronized (registryLock) {
+            Customer customer = customers.get(customerId);
+            if (customer == null) {
+                return false;
+            }
+            customer.setDeleted(true);
+            recordMutation(MutationType.CUSTOMER_REMOVED, customerId);
         }
-        customer.setDeleted(true);
         // Also ensure any bookings associated with this customer are handled
         // For simplicity, we are just marking customer as deleted.
         // In a real system, you might want to cancel their active bookings too.
@@ -485,57 +1392,65 @@ public class FlightBookingSystem {
 
 
     public boolean removeMealById(int mealId) throws FlightBookingSystemException {
-        Meal meal = meals.get(mealId);
-        if (meal == null) {
-            return false;
+        synchronized (registryLock) {
+            Meal meal = meals.get(mealId);
+            if (meal == null) {
+                return false;
+            }
+            meal.setDeleted(true);
+            recordMutation(MutationType.MEAL_REMOVED, mealId);
+            return true;
         }
-        meal.setDeleted(true);
-        return true;
     }
     public void editBooking(Customer customer, Flight flightInBooking, LocalDate newBookingDate, CommercialClassType newClass) throws FlightBookingSystemException {
-        Booking bookingToEdit = null;
-        // Find the booking associated with the customer and the flightInBooking
-        for (Booking booking : customer.getBookings()) {
-            // Check if the booking is active and relates to the flightInBooking
-            if (!booking.isCancelled() &&
-                ((booking.getOutboundFlight() != null && booking.getOutboundFlight().getId() == flightInBooking.getId()) ||
-                 (booking.getReturnFlight() != null && booking.getReturnFlight().getId() == flightInBooking.getId()))) {
-                bookingToEdit = booking;
-                break;
-            }
-        }
+        Booking bookingToEdit = findActiveBooking(customer, flightInBooking);
 
         if (bookingToEdit == null) {
             throw new FlightBookingSystemException("No active booking for Customer ID " + customer.getId() + " on Flight ID " + flightInBooking.getId() + " found.");
         }
 
-        if (newClass != null && newClass != bookingToEdit.getBookedClass()) {
-            // Check if new class is available and has seats
-            if (!flightInBooking.isClassAvailable(newClass)) {
-                throw new FlightBookingSystemException("New class " + newClass.getClassName() + " is not available on flight " + flightInBooking.getFlightNumber());
-            }
-            if (!flightInBooking.isClassAvailable(newClass)) { // Use hasSeatsAvailableForClass
-                throw new FlightBookingSystemException("No seats available for " + newClass.getClassName() + " on flight " + flightInBooking.getFlightNumber());
+        flightLocks.lock(bookingToEdit.getOutboundFlight(), bookingToEdit.getReturnFlight());
+        try {
+            if (bookingToEdit.isCancelled()) {
+                throw new FlightBookingSystemException("No active booking for Customer ID " + customer.getId() + " on Flight ID " + flightInBooking.getId() + " found.");
             }
 
-            // Remove passenger from old class and add to new class
-            flightInBooking.removePassenger(customer, bookingToEdit.getBookedClass());
-            flightInBooking.addPassenger(customer, newClass);
-            bookingToEdit.setBookedClass(newClass);
-        }
+            if (newClass != null && newClass != bookingToEdit.getBookedClass()) {
+                // Check if new class is available and has seats
+                if (!flightInBooking.isClassAvailable(newClass)) {
+                    throw new FlightBookingSystemException("New class " + newClass.getClassName() + " is not available on flight " + flightInBooking.getFlightNumber());
+                }
+                if (!flightInBooking.isClassAvailable(newClass)) { // Use hasSeatsAvailableForClass
+                    throw new FlightBookingSystemException("No seats available for " + newClass.getClassName() + " on flight " + flightInBooking.getFlightNumber());
+                }
+
+                // Remove passenger from old class and add to new class
+                flightInBooking.removePassenger(customer, bookingToEdit.getBookedClass());
+                flightInBooking.addPassenger(customer, newClass);
+                CommercialClassType oldClass = bookingToEdit.getBookedClass();
+                bookingToEdit.setBookedClass(newClass);
+                recordMutation(MutationType.FLIGHT_UPDATED, flightInBooking.getId());
+                promoteFromWaitlist(flightInBooking, oldClass);
+            }
 
-        // Update booking date if different
-        if (newBookingDate != null && !newBookingDate.isEqual(bookingToEdit.getBookingDate())) {
-            bookingToEdit.setBookingDate(newBookingDate);
-        }
+            // Update booking date if different
+            if (newBookingDate != null && !newBookingDate.isEqual(bookingToEdit.getBookingDate())) {
+                bookingToEdit.setBookingDate(newBookingDate);
+            }
 
-        // Recalculate prices based on current system date and new class
-        BigDecimal newOutboundPrice = bookingToEdit.getOutboundFlight().getDynamicPrice(bookingToEdit.getBookedClass(), systemDate);
-        bookingToEdit.setBookedPriceOutbound(newOutboundPrice);
+            // Recalculate prices based on current system date and new class
+            LocalDate today = getSystemDate();
+            PricingStrategy pricing = pricingStrategy;
+            BigDecimal newOutboundPrice = pricing.quote(bookingToEdit.getOutboundFlight(), bookingToEdit.getBookedClass(), today);
+            bookingToEdit.setBookedPriceOutbound(newOutboundPrice);
 
-        if (bookingToEdit.getReturnFlight() != null) {
-            BigDecimal newReturnPrice = bookingToEdit.getReturnFlight().getDynamicPrice(bookingToEdit.getBookedClass(), systemDate);
-            bookingToEdit.setBookedPriceReturn(newReturnPrice);
+            if (bookingToEdit.getReturnFlight() != null) {
+                BigDecimal newReturnPrice = pricing.quote(bookingToEdit.getReturnFlight(), bookingToEdit.getBookedClass(), today);
+                bookingToEdit.setBookedPriceReturn(newReturnPrice);
+            }
+            recordMutation(MutationType.BOOKING_EDITED, bookingToEdit.getId());
+        } finally {
+            flightLocks.unlock(bookingToEdit.getOutboundFlight(), bookingToEdit.getReturnFlight());
         }
 
         System.out.println("Booking ID " + bookingToEdit.getId() + " for customer " + customer.getName() + " on flight " + flightInBooking.getFlightNumber() + " updated.");
@@ -546,7 +1461,20 @@ public class FlightBookingSystem {
      * @return A list of all bookings.
      */
     public List<Booking> getBookings() {
-        return Collections.unmodifiableList(new ArrayList<>(bookings.values()));
+        loadHistory();
+        synchronized (registryLock) {
+            return Collections.unmodifiableList(bookings.values());
+        }
+    }
+
+    /**
+     * Returns the bookings held in memory, without loading past bookings left on disk.
+     * @return A list of the loaded bookings.
+     */
+    public List<Booking> getLoadedBookings() {
+        synchronized (registryLock) {
+            return Collections.unmodifiableList(bookings.values());
+        }
     }
 
     /**
@@ -555,6 +1483,125 @@ public class FlightBookingSystem {
      * @return The Booking object, or null if not found.
      */
     public Booking getBookingByID(int id) {
-        return bookings.get(id);
+        Booking booking;
+        synchronized (registryLock) {
+            booking = bookings.get(id);
+        }
+        if (booking == null && historyLoader != null) {
+            loadHistory();
+            synchronized (registryLock) {
+                booking = bookings.get(id);
+            }
+        }
+        if (booking == null && bookingArchive != null) {
+            booking = bookingArchive.getBooking(this, id);
+        }
+        return booking;
+    }
+
+    /**
+     * Checks whether a booking is held in memory, as opposed to only in the archive.
+     *
+     * @param id The ID of the booking.
+     * @return true if the system holds the booking.
+     */
+    public boolean isBookingInMemory(int id) {
+        synchronized (registryLock) {
+            return bookings.containsKey(id);
+        }
+    }
+
+    /**
+     * Returns every booking of a customer, including those read back from the archive.
+     *
+     * @param customer The customer whose bookings to return.
+     * @return The bookings in ID order.
+     */
+    public List<Booking> getBookingHistory(Customer customer) {
+        loadHistory();
+        if (bookingArchive == null) {
+            return customer.getBookings();
+        }
+        Map<Integer, Booking> history = new TreeMap<>();
+        for (Booking booking : bookingArchive.getBookingsForCustomer(this, customer.getId())) {
+            history.put(booking.getId(), booking);
+        }
+        for (Booking booking : customer.getBookings()) {
+            history.put(booking.getId(), booking);
+        }
+        return new ArrayList<>(history.values());
+    }
+
+    public BookingArchive getBookingArchive() {
+        return bookingArchive;
+    }
+
+    /**
+     * Sets where bookings that are not held in memory are read from. Archived booking
+     * IDs are never handed out again.
+     *
+     * @param bookingArchive The archive, or null for none.
+     */
+    public void setBookingArchive(BookingArchive bookingArchive) {
+        this.bookingArchive = bookingArchive;
+        if (bookingArchive != null) {
+            idAllocators.get(EntityType.BOOKING).reserve(bookingArchive.getMaxBookingId());
+        }
+    }
+
+    /**
+     * Sets what loads the past flights and bookings that were left on disk. Their IDs
+     * are never handed out again, even before they are loaded.
+     *
+     * @param historyLoader The loader, or null if everything is loaded.
+     * @param maxFlightId The highest ID of the flights left on disk.
+     * @param maxBookingId The highest ID of the bookings left on disk.
+     */
+    public void setHistoryLoader(HistoryLoader historyLoader, int maxFlightId, int maxBookingId) {
+        this.historyLoader = historyLoader;
+        idAllocators.get(EntityType.FLIGHT).reserve(maxFlightId);
+        idAllocators.get(EntityType.BOOKING).reserve(maxBookingId);
+    }
+
+    public boolean isHistoryLoaded() {
+        return historyLoader == null;
+    }
+
+    /**
+     * Loads the past flights and bookings left on disk if the date is before the current
+     * month, since only those may not be loaded yet.
+     */
+    private void loadHistoryFor(LocalDate date) {
+        if (historyLoader != null && date.isBefore(getSystemDate().withDayOfMonth(1))) {
+            loadHistory();
+        }
+    }
+
+    /**
+     * Loads the past flights and bookings left on disk, if that has not happened yet.
+     * Loading them is not a change: it records no mutations and marks nothing dirty.
+     * If loading fails, a warning is printed and the system keeps what was loaded.
+     */
+    public void loadHistory() {
+        if (historyLoader == null) {
+            return;
+        }
+        // Other threads wait for the load to finish; the loading thread itself may come
+        // back here through the methods the loader calls.
+        synchronized (historyLock) {
+            HistoryLoader loader = historyLoader;
+            if (loader == null || historyLoadingThread != null) {
+                return;
+            }
+            historyLoadingThread = Thread.currentThread();
+            try {
+                loader.loadHistory(this);
+            } catch (IOException | FlightBookingSystemException e) {
+                System.err.println("Warning: Unable to load past flights and bookings: " + e.getMessage());
+            } finally {
+                historyLoader = null;
+                historyLoadingThread = null;
+            }
+        }
     }
-}
\ No newline at end of file
+}
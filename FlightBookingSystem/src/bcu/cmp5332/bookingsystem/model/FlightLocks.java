@@ -0,0 +1,101 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Serialises changes to the seats of a flight. Each flight maps to one of a fixed
+ * number of lock stripes by its ID, so changes to different flights proceed in
+ * parallel. The flights of a round trip are always locked in stripe order, which is
+ * their ID order, so two bookings of the same pair of flights cannot deadlock.
+ */
+
+public class FlightLocks {
+
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public FlightLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes The number of locks, rounded up to a power of two.
+     */
+
+    public FlightLocks(int stripes) {
+        int count = (stripes <= 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * Locks one or two flights, waiting until both are free.
+     *
+     * @param first A flight.
+     * @param second Another flight, or null.
+     */
+
+    public void lock(Flight first, Flight second) {
+        int a = stripe(first);
+        int b = (second != null) ? stripe(second) : a;
+        stripes[Math.min(a, b)].lock();
+        if (a != b) {
+            stripes[Math.max(a, b)].lock();
+        }
+    }
+
+    /**
+     * Unlocks the flights locked by {@link #lock(Flight, Flight)}.
+     *
+     * @param first A flight.
+     * @param second Another flight, or null.
+     */
+
+    public void unlock(Flight first, Flight second) {
+        int a = stripe(first);
+        int b = (second != null) ? stripe(second) : a;
+        if (a != b) {
+            stripes[Math.max(a, b)].unlock();
+        }
+        stripes[Math.min(a, b)].unlock();
+    }
+
+    /**
+     * Locks any number of flights, waiting until all of them are free. The stripes
+     * are taken in ascending order, as by {@link #lock(Flight, Flight)}.
+     *
+     * @param flights The flights to lock.
+     * @return The stripes taken, to be passed to {@link #unlockAll(int[])}.
+     */
+
+    public int[] lockAll(Collection<Flight> flights) {
+        int[] taken = flights.stream().mapToInt(this::stripe).sorted().distinct().toArray();
+        for (int stripe : taken) {
+            stripes[stripe].lock();
+        }
+        return taken;
+    }
+
+    /**
+     * Unlocks the stripes taken by {@link #lockAll(Collection)}.
+     *
+     * @param taken The stripes taken.
+     */
+
+    public void unlockAll(int[] taken) {
+        for (int i = taken.length - 1; i >= 0; i--) {
+            stripes[taken[i]].unlock();
+        }
+    }
+
+    private int stripe(Flight flight) {
+        return flight.getId() & mask;
+    }
+}
@@ -0,0 +1,45 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The current prices of the classes of one flight, as quoted by a {@link PricingStrategy}.
+ * A class the strategy could not price has no price in the quote.
+ */
+
+public final class FlightQuote {
+
+    private final Flight flight;
+    private final Map<CommercialClassType, BigDecimal> prices;
+
+    /**
+     * @param flight The quoted flight.
+     * @param prices The price of each quoted class.
+     */
+
+    public FlightQuote(Flight flight, Map<CommercialClassType, BigDecimal> prices) {
+        this.flight = flight;
+        this.prices = prices.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(prices));
+    }
+
+    public Flight getFlight() {
+        return flight;
+    }
+
+    /**
+     * @return The price of a class, or null if the class was not quoted.
+     */
+
+    public BigDecimal getPrice(CommercialClassType classType) {
+        return prices.get(classType);
+    }
+
+    public Map<CommercialClassType, BigDecimal> getPrices() {
+        return prices;
+    }
+}
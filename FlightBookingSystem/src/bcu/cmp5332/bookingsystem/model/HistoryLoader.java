@@ -0,0 +1,21 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import java.io.IOException;
+
+/**
+ * Loads the flights and bookings that were left on disk when the system was loaded,
+ * because they departed before the current month. The {@link FlightBookingSystem} calls
+ * it at most once, the first time a caller asks for data that may include them.
+ */
+public interface HistoryLoader {
+
+    /**
+     * Adds the past flights and bookings to the system.
+     *
+     * @param fbs The system to load into.
+     * @throws IOException If the data cannot be read.
+     * @throws FlightBookingSystemException If a record cannot be loaded.
+     */
+    void loadHistory(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException;
+}
@@ -0,0 +1,61 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Hands out the IDs of one {@link EntityType}. IDs are allocated from an atomic
+ * counter, so concurrent callers always receive distinct IDs without locking.
+ * The counter is kept above the ID of every entity added to the system, which
+ * is how it is restored when the data is loaded.
+ */
+
+public class IdAllocator {
+
+    private final AtomicInteger next = new AtomicInteger(1);
+
+    /**
+     * Allocates a new ID. An allocated ID is never handed out again, even if no
+     * entity is added with it.
+     *
+     * @return The allocated ID.
+     */
+
+    public int allocate() {
+        return next.getAndIncrement();
+    }
+
+    /**
+     * Allocates a block of consecutive IDs with a single update of the counter.
+     *
+     * @param count The number of IDs to allocate.
+     * @return The first ID of the block.
+     */
+
+    public int allocate(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one ID must be allocated.");
+        }
+        return next.getAndAdd(count);
+    }
+
+    /**
+     * Records that an ID is in use, so that it is never allocated.
+     *
+     * @param id An ID that is in use.
+     */
+
+    public void reserve(int id) {
+        next.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * Returns the ID the next call to {@link #allocate()} would return.
+     *
+     * @return The next ID.
+     */
+
+    public int peek() {
+        return next.get();
+    }
+}
@@ -0,0 +1,43 @@
+package bcu.cmp5332.bookingsystem.model;
+
+
+/**
+ * Records a single change made to an entity of the flight booking system.
+ * Mutations are collected by the {@link FlightBookingSystem} mutators so that
+ * only the changed entities need to be persisted.
+ */
+
+public class Mutation {
+
+    private final MutationType type;
+    private final int entityId;
+
+    /**
+     * Constructs a new Mutation.
+     *
+     * @param type The kind of change that was made.
+     * @param entityId The ID of the entity that was changed.
+     */
+
+    public Mutation(MutationType type, int entityId) {
+        this.type = type;
+        this.entityId = entityId;
+    }
+
+    public MutationType getType() {
+        return type;
+    }
+
+    public EntityType getEntityType() {
+        return type.getEntityType();
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    @Override
+    public String toString() {
+        return type + " #" + entityId;
+    }
+}
@@ -0,0 +1,43 @@
+package bcu.cmp5332.bookingsystem.model;
+
+
+/**
+ * Defines the changes that can be made to the entities of the flight booking system.
+ * Each mutation type belongs to the {@link EntityType} whose state it changes.
+ */
+
+public enum MutationType {
+    MEAL_ADDED(EntityType.MEAL),
+    MEAL_REMOVED(EntityType.MEAL),
+    CUSTOMER_ADDED(EntityType.CUSTOMER),
+    CUSTOMER_REMOVED(EntityType.CUSTOMER),
+    FLIGHT_ADDED(EntityType.FLIGHT),
+    FLIGHT_UPDATED(EntityType.FLIGHT),
+    FLIGHT_REMOVED(EntityType.FLIGHT),
+    BOOKING_CREATED(EntityType.BOOKING),
+    BOOKING_CANCELLED(EntityType.BOOKING),
+    BOOKING_EDITED(EntityType.BOOKING),
+    WAITLIST_JOINED(EntityType.WAITLIST),
+    WAITLIST_LEFT(EntityType.WAITLIST),
+    WAITLIST_PROMOTED(EntityType.WAITLIST);
+
+    private final EntityType entityType;
+
+    /**
+     * Constructs a MutationType enum entry.
+     * @param entityType The type of entity changed by this mutation.
+     */
+
+    MutationType(EntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    /**
+     * Gets the type of entity changed by this mutation.
+     * @return The {@link EntityType} of the mutated entity.
+     */
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+}
@@ -0,0 +1,80 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counts how the dynamic prices cached by the flights are used, across all flights.
+ * A lookup is a hit when the cached price still applies, and a miss when the price has
+ * to be computed: because none was cached yet, because a seat change moved the class
+ * across an occupancy threshold (an invalidation), or because the days left before
+ * departure moved into another band (a rollover).
+ */
+
+public final class PriceCacheMetrics {
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder invalidations = new LongAdder();
+    private static final LongAdder rollovers = new LongAdder();
+
+    private PriceCacheMetrics() {
+    }
+
+    static void recordHit() {
+        hits.increment();
+    }
+
+    static void recordMiss() {
+        misses.increment();
+    }
+
+    static void recordInvalidation() {
+        invalidations.increment();
+    }
+
+    static void recordRollover() {
+        rollovers.increment();
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of times a seat change moved a class across an occupancy threshold.
+     */
+
+    public static long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return The number of cached prices found outdated by a change of days band.
+     */
+
+    public static long getRollovers() {
+        return rollovers.sum();
+    }
+
+    /**
+     * @return The share of lookups that were hits, between 0 and 1, or 0 before any lookup.
+     */
+
+    public static double getHitRate() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return (lookups == 0) ? 0 : (double) hitCount / lookups;
+    }
+
+    public static void reset() {
+        hits.reset();
+        misses.reset();
+        invalidations.reset();
+        rollovers.reset();
+    }
+}
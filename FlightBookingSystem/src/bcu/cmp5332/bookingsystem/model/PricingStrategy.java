@@ -0,0 +1,88 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prices seats and fees for a {@link FlightBookingSystem}. Quotes are asked for a whole
+ * batch of flights at once, as the listings show them, so that an implementation can
+ * share the work of the batch instead of pricing one class at a time.
+ * <p>
+ * The system uses {@link DefaultPricingStrategy} unless the {@code fbs.pricingStrategy}
+ * system property names another implementation, or one is set with
+ * {@link FlightBookingSystem#setPricingStrategy}. Implementations must be safe to call
+ * from several threads at once.
+ */
+
+public interface PricingStrategy {
+
+    String PROPERTY = "fbs.pricingStrategy";
+
+    /**
+     * Quotes every class offered by each of the flights.
+     *
+     * @param flights The flights to quote.
+     * @param systemDate The current date of the system.
+     * @return One quote per flight, in the order of the flights.
+     */
+
+    List<FlightQuote> quoteAll(List<Flight> flights, LocalDate systemDate);
+
+    /**
+     * Quotes one class of one flight, as a booking is priced.
+     *
+     * @param flight The flight to quote.
+     * @param classType The class to quote.
+     * @param systemDate The current date of the system.
+     * @return The price of a seat in the class.
+     * @throws FlightBookingSystemException If the class cannot be priced.
+     */
+
+    default BigDecimal quote(Flight flight, CommercialClassType classType, LocalDate systemDate)
+            throws FlightBookingSystemException {
+        BigDecimal price = quoteAll(Collections.singletonList(flight), systemDate).get(0).getPrice(classType);
+        if (price == null) {
+            throw new FlightBookingSystemException("Class " + classType.getClassName()
+                    + " cannot be priced on flight " + flight.getFlightNumber() + ".");
+        }
+        return price;
+    }
+
+    /**
+     * @param booking The booking being cancelled.
+     * @return The fee charged for cancelling the booking.
+     */
+
+    BigDecimal cancellationFee(Booking booking);
+
+    /**
+     * @param booking The booking being rebooked.
+     * @param newFlight The flight it is moved to.
+     * @param newClass The class it is moved to.
+     * @return The fee charged for the rebooking.
+     */
+
+    BigDecimal rebookFee(Booking booking, Flight newFlight, CommercialClassType newClass);
+
+    /**
+     * @return A new instance of the strategy named by the {@code fbs.pricingStrategy}
+     *         system property, or the default strategy if it is not set or cannot be made.
+     */
+
+    static PricingStrategy configured() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return new DefaultPricingStrategy();
+        }
+        try {
+            return Class.forName(value.trim()).asSubclass(PricingStrategy.class).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            System.err.println("Warning: Invalid pricing strategy '" + value + "' (" + e + "), using the default.");
+            return new DefaultPricingStrategy();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * A seat held on a flight while a booking is being made. The hold ends exactly once:
+ * when its seat is booked, when it is released, or when it expires.
+ */
+
+public class SeatHold {
+
+    private final int id;
+    private final Flight flight;
+    private final CommercialClassType classType;
+    private final Instant expiresAt;
+    private final AtomicBoolean active = new AtomicBoolean(true);
+    private volatile TimerWheel.Timeout<SeatHold> timeout;
+
+    SeatHold(int id, Flight flight, CommercialClassType classType, Instant expiresAt) {
+        this.id = id;
+        this.flight = flight;
+        this.classType = classType;
+        this.expiresAt = expiresAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Flight getFlight() {
+        return flight;
+    }
+
+    public CommercialClassType getClassType() {
+        return classType;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @return true until the hold is booked, released or expired.
+     */
+
+    public boolean isActive() {
+        return active.get();
+    }
+
+    void setTimeout(TimerWheel.Timeout<SeatHold> timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Ends the hold. Only the first caller succeeds, so a hold that is booked as it
+     * expires is either booked or expired, never both.
+     *
+     * @return true if this call ended the hold.
+     */
+
+    boolean end() {
+        if (!active.compareAndSet(true, false)) {
+            return false;
+        }
+        TimerWheel.Timeout<SeatHold> scheduled = timeout;
+        if (scheduled != null) {
+            scheduled.cancel();
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Hold #" + id + " on flight " + flight.getFlightNumber() + " (" + classType.getClassName()
+                + ") until " + expiresAt;
+    }
+}
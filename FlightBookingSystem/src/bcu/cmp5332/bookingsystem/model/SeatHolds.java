@@ -0,0 +1,209 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Holds seats for bookings that are still being made and gives them back when they
+ * expire. Expiry runs on a {@link TimerWheel}, so each hold costs constant time to
+ * schedule, end and expire. While any hold is pending, a daemon thread moves the
+ * wheel on once a tick; expired holds are also collected whenever a seat is held.
+ * Every seat given back is reported to a listener, so that it can be offered to others.
+ */
+
+public class SeatHolds {
+
+    public static final String TTL_PROPERTY = "fbs.seatHoldTtlSeconds";
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 4096;
+
+    private final Clock clock;
+    private final TimerWheel<SeatHold> wheel;
+    private final BiConsumer<Flight, CommercialClassType> onRelease;
+    private final AtomicInteger ids = new AtomicInteger();
+    private volatile Duration ttl;
+    private Thread ticker;
+
+    /**
+     * @param clock The clock holds expire by.
+     * @param ttl How long a hold lasts.
+     */
+
+    public SeatHolds(Clock clock, Duration ttl) {
+        this(clock, ttl, (flight, classType) -> { });
+    }
+
+    /**
+     * @param clock The clock holds expire by.
+     * @param ttl How long a hold lasts.
+     * @param onRelease Called with the flight and class of each seat given back, after
+     * the seat is free again.
+     */
+
+    public SeatHolds(Clock clock, Duration ttl, BiConsumer<Flight, CommercialClassType> onRelease) {
+        this.clock = clock;
+        this.onRelease = onRelease;
+        this.wheel = new TimerWheel<>(TICK_MILLIS, WHEEL_SIZE, clock.millis());
+        setTtl(ttl);
+    }
+
+    /**
+     * @return The hold TTL set by the {@code fbs.seatHoldTtlSeconds} system property.
+     */
+
+    public static Duration configuredTtl() {
+        String value = System.getProperty(TTL_PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_TTL;
+        }
+        try {
+            long seconds = Long.parseLong(value.trim());
+            if (seconds > 0) {
+                return Duration.ofSeconds(seconds);
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        System.err.println("Warning: Invalid seat hold TTL '" + value + "', using " + DEFAULT_TTL.getSeconds() + " s.");
+        return DEFAULT_TTL;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Sets how long new holds last. Holds already made keep their expiry time.
+     *
+     * @param ttl The hold duration.
+     */
+
+    public void setTtl(Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("The seat hold TTL must be positive.");
+        }
+        this.ttl = ttl;
+    }
+
+    /**
+     * Holds a seat on a flight until the hold is booked, released or expires.
+     *
+     * @param flight The flight.
+     * @param classType The class to hold a seat in.
+     * @return The hold.
+     * @throws FlightBookingSystemException If the class has no seats left.
+     */
+
+    public SeatHold hold(Flight flight, CommercialClassType classType) throws FlightBookingSystemException {
+        expireDue();
+        if (!flight.holdSeat(classType)) {
+            throw new FlightBookingSystemException("Flight " + flight.getFlightNumber() + " has no seats left in "
+                    + classType.getClassName() + " class.");
+        }
+        Instant expiresAt = clock.instant().plus(ttl);
+        SeatHold hold = new SeatHold(ids.incrementAndGet(), flight, classType, expiresAt);
+        hold.setTimeout(wheel.schedule(hold, expiresAt.toEpochMilli()));
+        startTicker();
+        return hold;
+    }
+
+    /**
+     * Releases a hold, giving its seat back.
+     *
+     * @param hold The hold.
+     * @return true if the hold was released, false if it had already ended.
+     */
+
+    public boolean release(SeatHold hold) {
+        if (!hold.end()) {
+            return false;
+        }
+        giveBack(hold);
+        return true;
+    }
+
+    /**
+     * Gives back the seat of a claimed hold that could not be booked, as releasing the
+     * hold would have.
+     *
+     * @param hold A hold claimed with {@link #claim}, whose seat is still held.
+     */
+
+    public void giveBack(SeatHold hold) {
+        hold.getFlight().releaseHeldSeat(hold.getClassType());
+        onRelease.accept(hold.getFlight(), hold.getClassType());
+    }
+
+    /**
+     * Ends a hold so that its seat can be booked. The seat stays held until the booking
+     * takes it with {@link Flight#addHeldPassenger}.
+     *
+     * @param hold The hold.
+     * @return true if the hold was claimed, false if it had already ended.
+     */
+
+    public boolean claim(SeatHold hold) {
+        return hold.end();
+    }
+
+    /**
+     * Releases every hold that has expired.
+     *
+     * @return The number of holds released.
+     */
+
+    public int expireDue() {
+        int expired = 0;
+        for (SeatHold hold : wheel.advance(clock.millis())) {
+            if (release(hold)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @return The number of holds that have not ended.
+     */
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    private synchronized void startTicker() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = new Thread(this::tick, "seat-hold-expiry");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    private void tick() {
+        while (true) {
+            synchronized (this) {
+                if (wheel.size() == 0) {
+                    ticker = null;
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(wheel.getTickMillis());
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    ticker = null;
+                }
+                return;
+            }
+            expireDue();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Holds seats on the legs of a booking until they are either all kept or all given
+ * back. Each seat is taken with {@link Flight#addPassenger}, so holding it needs no
+ * lock beyond the flight's own seat counters; if any seat cannot be held, the seats
+ * already held are given back before the failure is reported.
+ */
+
+public class SeatReservation {
+
+    private final List<Seat> seats = new ArrayList<>();
+    private final SeatHolds holds;
+    private boolean closed = false;
+
+    public SeatReservation() {
+        this(null);
+    }
+
+    /**
+     * @param holds The holds whose claimed seats are taken with {@link #take}. A seat
+     * taken from a hold that is given back goes back through {@link SeatHolds#giveBack}.
+     */
+    public SeatReservation(SeatHolds holds) {
+        this.holds = holds;
+    }
+
+    /**
+     * Holds a seat for a passenger on a flight.
+     *
+     * @param flight The flight, or null for no leg.
+     * @param passenger The passenger.
+     * @param classType The class of the seat.
+     * @throws FlightBookingSystemException If the seat cannot be held. Every seat this
+     * reservation held is given back first.
+     */
+
+    public void hold(Flight flight, Customer passenger, CommercialClassType classType) throws FlightBookingSystemException {
+        if (closed) {
+            throw new IllegalStateException("The reservation has already been committed or rolled back.");
+        }
+        if (flight == null) {
+            return;
+        }
+        try {
+            flight.addPassenger(passenger, classType);
+        } catch (FlightBookingSystemException | RuntimeException e) {
+            rollback();
+            throw e;
+        }
+        seats.add(new Seat(flight, passenger, classType, null));
+    }
+
+    /**
+     * Takes the seat of a claimed {@link SeatHold} for a passenger. If the passenger
+     * cannot take it, the held seat is given back through the holds of this reservation.
+     *
+     * @param hold A hold claimed with {@link SeatHolds#claim}.
+     * @param passenger The passenger.
+     * @throws FlightBookingSystemException If the passenger cannot take the seat. Every
+     * seat this reservation held is given back first.
+     */
+
+    public void take(SeatHold hold, Customer passenger) throws FlightBookingSystemException {
+        if (closed) {
+            throw new IllegalStateException("The reservation has already been committed or rolled back.");
+        }
+        if (holds == null) {
+            throw new IllegalStateException("The reservation was made without seat holds.");
+        }
+        Flight flight = hold.getFlight();
+        try {
+            flight.addHeldPassenger(passenger, hold.getClassType());
+        } catch (FlightBookingSystemException | RuntimeException e) {
+            holds.giveBack(hold);
+            rollback();
+            throw e;
+        }
+        seats.add(new Seat(flight, passenger, hold.getClassType(), hold));
+    }
+
+    /**
+     * Keeps every held seat.
+     */
+
+    public void commit() {
+        closed = true;
+    }
+
+    /**
+     * Gives back every held seat, latest first, unless the reservation was committed.
+     */
+
+    public void rollback() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = seats.size() - 1; i >= 0; i--) {
+            Seat seat = seats.get(i);
+            seat.flight.removePassenger(seat.passenger, seat.classType);
+            // A seat taken from a hold is held again, then given back as its hold would be.
+            if (seat.hold != null && seat.flight.holdSeat(seat.classType)) {
+                holds.giveBack(seat.hold);
+            }
+        }
+        seats.clear();
+    }
+
+    public int size() {
+        return seats.size();
+    }
+
+    private static final class Seat {
+
+        private final Flight flight;
+        private final Customer passenger;
+        private final CommercialClassType classType;
+        private final SeatHold hold;
+
+        Seat(Flight flight, Customer passenger, CommercialClassType classType, SeatHold hold) {
+            this.flight = flight;
+            this.passenger = passenger;
+            this.classType = classType;
+            this.hold = hold;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A hashed timer wheel. Time is cut into ticks of a fixed length and each tick hashes
+ * to one of a fixed number of buckets, so scheduling and cancelling a timeout take
+ * constant time however many are pending. Advancing the wheel only visits the buckets
+ * of the ticks that have passed; a timeout due more than one turn of the wheel ahead
+ * stays in its bucket until the turn it is due.
+ *
+ * @param <T> The item each timeout carries.
+ */
+
+public class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int size = 0;
+
+    /**
+     * @param tickMillis The length of a tick; timeouts expire at most one tick late.
+     * @param wheelSize The number of buckets, rounded up to a power of two.
+     * @param startMillis The time the wheel starts at.
+     */
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("The tick must be positive.");
+        }
+        int count = (wheelSize <= 1) ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = (Timeout<T>[]) new Timeout<?>[count];
+        this.mask = count - 1;
+        this.currentTick = 0;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Schedules an item to expire at a time. A time that has already passed expires on
+     * the next call to {@link #advance(long)}.
+     *
+     * @param item The item.
+     * @param deadlineMillis The time the item expires at.
+     * @return The timeout, which may be cancelled.
+     */
+
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        long elapsed = deadlineMillis - startMillis;
+        long tick = Math.max((elapsed + tickMillis - 1) / tickMillis, currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(this, item, tick);
+        int bucket = (int) (tick & mask);
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        buckets[bucket] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel on to a time and removes every timeout due by then.
+     *
+     * @param nowMillis The current time.
+     * @return The items of the removed timeouts.
+     */
+
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        if (nowTick <= currentTick) {
+            return new ArrayList<>(0);
+        }
+        List<T> expired = new ArrayList<>();
+        // Past one turn every bucket has been visited, so there is no need to go round again.
+        long lastTick = Math.min(nowTick, currentTick + buckets.length);
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            Timeout<T> timeout = buckets[(int) (tick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.tick <= nowTick) {
+                    unlink(timeout);
+                    expired.add(timeout.item);
+                }
+                timeout = next;
+            }
+        }
+        currentTick = nowTick;
+        return expired;
+    }
+
+    /**
+     * @return The number of timeouts that have neither expired nor been cancelled.
+     */
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (!timeout.scheduled) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[(int) (timeout.tick & mask)] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.scheduled = false;
+        size--;
+    }
+
+    /**
+     * A scheduled item, linked into the bucket of the tick it is due in.
+     */
+
+    public static final class Timeout<T> {
+
+        private final TimerWheel<T> wheel;
+        private final T item;
+        private final long tick;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        private boolean scheduled = true;
+
+        private Timeout(TimerWheel<T> wheel, T item, long tick) {
+            this.wheel = wheel;
+            this.item = item;
+            this.tick = tick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * Removes the timeout from the wheel.
+         *
+         * @return true if it was removed, false if it had already expired or been cancelled.
+         */
+
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+}
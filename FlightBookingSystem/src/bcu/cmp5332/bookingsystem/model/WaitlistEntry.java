@@ -0,0 +1,95 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+
+/**
+ * A customer waiting for a seat in one class of a full flight. Entries are served in
+ * the order they joined; when a seat is freed, the first waiting entry is promoted into
+ * a booking.
+ */
+
+public class WaitlistEntry {
+
+    private final int id;
+    private final Customer customer;
+    private final Flight flight;
+    private final CommercialClassType classType;
+    private final LocalDate joinedDate;
+    private volatile WaitlistStatus status;
+    private volatile int bookingId;
+
+    /**
+     * @param id The unique identifier of the entry.
+     * @param customer The waiting customer.
+     * @param flight The flight they are waiting for.
+     * @param classType The class they are waiting for.
+     * @param joinedDate The date they joined the waitlist.
+     * @param status The state of the entry.
+     * @param bookingId The ID of the booking the entry was promoted into, or 0.
+     */
+
+    public WaitlistEntry(int id, Customer customer, Flight flight, CommercialClassType classType, LocalDate joinedDate,
+            WaitlistStatus status, int bookingId) {
+        this.id = id;
+        this.customer = customer;
+        this.flight = flight;
+        this.classType = classType;
+        this.joinedDate = joinedDate;
+        this.status = status;
+        this.bookingId = bookingId;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public Flight getFlight() {
+        return flight;
+    }
+
+    public CommercialClassType getClassType() {
+        return classType;
+    }
+
+    public LocalDate getJoinedDate() {
+        return joinedDate;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public boolean isWaiting() {
+        return status == WaitlistStatus.WAITING;
+    }
+
+    /**
+     * @return The ID of the booking the entry was promoted into, or 0 if it was not.
+     */
+
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    void promote(int bookingId) {
+        this.bookingId = bookingId;
+        this.status = WaitlistStatus.PROMOTED;
+    }
+
+    void leave() {
+        this.status = WaitlistStatus.LEFT;
+    }
+
+    public String getDetailsShort() {
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        return "Waitlist #" + id + " - " + customer.getName() + " (ID: " + customer.getId() + ") for "
+                + flight.getFlightNumber() + " in " + classType.getClassName() + " class, joined "
+                + joinedDate.format(dtf) + " - " + status;
+    }
+}
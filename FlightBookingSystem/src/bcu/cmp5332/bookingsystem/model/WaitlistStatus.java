@@ -0,0 +1,11 @@
+package bcu.cmp5332.bookingsystem.model;
+
+
+/**
+ * Defines the states of a {@link WaitlistEntry}. An entry starts out waiting and
+ * ends either promoted into a booking or by leaving the waitlist.
+ */
+
+public enum WaitlistStatus {
+    WAITING, PROMOTED, LEFT
+}
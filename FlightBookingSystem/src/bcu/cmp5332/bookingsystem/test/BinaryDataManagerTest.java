@@ -0,0 +1,190 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.BinaryBookingDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryCustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryFlightDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryMealDataManager;
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.MealDataManager;
+import bcu.cmp5332.bookingsystem.data.TextDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightType;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryDataManagerTest {
+
+    private Path directory;
+    private List<TextDataManager<?>> textManagers;
+    private List<DataManager> binaryManagers;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("fbs-binary-test");
+        String dir = directory.toString();
+        textManagers = Arrays.asList(new MealDataManager(dir), new CustomerDataManager(dir),
+                new FlightDataManager(dir), new BookingDataManager(dir));
+        binaryManagers = Arrays.asList(new BinaryMealDataManager(dir), new BinaryCustomerDataManager(dir),
+                new BinaryFlightDataManager(dir), new BinaryBookingDataManager(dir));
+    }
+
+    @AfterEach
+    void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    private FlightBookingSystem createSystem() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Meal meal = new Meal(1, "Veg Momo", "Steamed dumplings", new BigDecimal("4.50"), MealType.VEG);
+        Meal deletedMeal = new Meal(2, "Chicken Curry", "", new BigDecimal("7.25"), MealType.NON_VEG);
+        deletedMeal.setDeleted(true);
+        fbs.addMeal(meal);
+        fbs.addMeal(deletedMeal);
+
+        Customer alice = new Customer(1, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.VEGAN);
+        Customer bob = new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE);
+        bob.setDeleted(true);
+        fbs.addCustomer(alice);
+        fbs.addCustomer(bob);
+
+        Flight budget = new Flight(1, "FB001", "Birmingham", "Paris", LocalDate.of(2030, 5, 1),
+                new BigDecimal("99.99"), 100);
+        Map<CommercialClassType, Integer> capacities = new HashMap<>();
+        capacities.put(CommercialClassType.ECONOMY, 100);
+        capacities.put(CommercialClassType.PREMIUM_ECONOMY, 30);
+        capacities.put(CommercialClassType.BUSINESS, 15);
+        capacities.put(CommercialClassType.FIRST, 5);
+        Flight commercial = new Flight(2, "FC002", "Paris", "Birmingham", LocalDate.of(2030, 5, 8),
+                new BigDecimal("150.00"), 150, FlightType.COMMERCIAL, capacities);
+        fbs.addFlight(budget);
+        fbs.addFlight(commercial);
+
+        Booking roundTrip = new Booking(1, alice, budget, commercial, LocalDate.of(2030, 1, 1),
+                CommercialClassType.ECONOMY, new BigDecimal("99.99"), new BigDecimal("150.00"), meal);
+        roundTrip.setCancellationFee(BigDecimal.ZERO.setScale(2));
+        roundTrip.setRebookFee(BigDecimal.ZERO.setScale(2));
+        Booking cancelled = new Booking(2, bob, commercial, null, LocalDate.of(2030, 1, 2),
+                CommercialClassType.BUSINESS, new BigDecimal("375.00"), BigDecimal.ZERO.setScale(2), null);
+        cancelled.setCancelled(true);
+        cancelled.setCancellationFee(new BigDecimal("37.50"));
+        cancelled.setRebookFee(BigDecimal.ZERO.setScale(2));
+        for (Booking booking : Arrays.asList(roundTrip, cancelled)) {
+            booking.getCustomer().addBooking(booking);
+            fbs.addBookingWithoutFlightUpdate(booking);
+        }
+        return fbs;
+    }
+
+    private FlightBookingSystem load(List<? extends DataManager> managers) throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (DataManager dm : managers) {
+            dm.loadData(fbs);
+        }
+        return fbs;
+    }
+
+    @Test
+    void testBinarySnapshotLoadsSameRecordsAsText() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem();
+        for (DataManager dm : textManagers) {
+            dm.storeData(fbs);
+        }
+        for (DataManager dm : binaryManagers) {
+            dm.storeData(fbs);
+        }
+
+        FlightBookingSystem fromText = load(textManagers);
+        FlightBookingSystem fromBinary = load(binaryManagers);
+
+        for (TextDataManager<?> dm : textManagers) {
+            for (int id = 1; id <= 2; id++) {
+                String expected = dm.formatRecord(fromText, id);
+                assertNotNull(expected, dm.getEntityType() + " " + id + " missing from text load");
+                assertEquals(expected, dm.formatRecord(fromBinary, id), dm.getEntityType() + " " + id);
+            }
+        }
+        assertEquals(3, fromBinary.generateNextBookingId());
+    }
+
+    @Test
+    void testStoredOccupancyIsNotCountedAgain() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem();
+        fbs.getFlightByIDIncludingDeleted(1).reserveSeat(CommercialClassType.ECONOMY);
+        for (DataManager dm : textManagers) {
+            dm.storeData(fbs);
+        }
+        for (DataManager dm : binaryManagers) {
+            dm.storeData(fbs);
+        }
+
+        for (FlightBookingSystem loaded : Arrays.asList(load(textManagers), load(binaryManagers))) {
+            Flight budget = loaded.getFlightByIDIncludingDeleted(1);
+            assertEquals(1, budget.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+            assertEquals(1, budget.getPassengers().size());
+            assertEquals(0, loaded.getFlightByIDIncludingDeleted(2).getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        }
+    }
+
+    @Test
+    void testPricesAreReadBackExactly() throws IOException, FlightBookingSystemException {
+        List<String> prices = Arrays.asList("2", "1.005", "123.456", "1E+3", "123456789012345678901234567890.55");
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= prices.size(); id++) {
+            fbs.addMeal(new Meal(id, "Tea " + id, "", new BigDecimal(prices.get(id - 1)), MealType.NONE));
+        }
+        new BinaryMealDataManager(directory.toString()).storeData(fbs);
+
+        FlightBookingSystem loaded = load(Arrays.asList(new BinaryMealDataManager(directory.toString())));
+        for (int id = 1; id <= prices.size(); id++) {
+            assertEquals(new BigDecimal(prices.get(id - 1)), loaded.getMealByIDIncludingDeleted(id).getPrice());
+        }
+    }
+
+    @Test
+    void testFileOfAnotherEntityTypeIsRejected() throws IOException, FlightBookingSystemException {
+        new BinaryMealDataManager(directory.toString()).storeData(createSystem());
+        Files.move(directory.resolve("meals.bin"), directory.resolve("customers.bin"));
+
+        assertThrows(IOException.class, () -> new BinaryCustomerDataManager(directory.toString()).loadData(new FlightBookingSystem()));
+    }
+
+    @Test
+    void testTruncatedFileIsRejected() throws IOException, FlightBookingSystemException {
+        new BinaryBookingDataManager(directory.toString()).storeData(createSystem());
+        Path resource = directory.resolve("bookings.bin");
+        byte[] bytes = Files.readAllBytes(resource);
+        Files.write(resource, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThrows(IOException.class, () -> new BinaryBookingDataManager(directory.toString()).loadData(createSystem()));
+    }
+}
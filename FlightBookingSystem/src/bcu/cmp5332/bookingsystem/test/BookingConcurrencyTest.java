@@ -0,0 +1,226 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightLocks;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books seats from many threads at once to check that flights are never oversold.
+ */
+public class BookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CUSTOMERS = 400;
+
+    private FlightBookingSystem fbs;
+    private List<Customer> customers;
+
+    @BeforeEach
+    void setUp() {
+        fbs = new FlightBookingSystem();
+        customers = new ArrayList<>();
+        for (int id = 1; id <= CUSTOMERS; id++) {
+            Customer customer = new Customer(id, "Customer " + id, "07000000" + id, "c" + id + "@example.com",
+                    30, "Other", MealType.NONE);
+            fbs.addCustomer(customer);
+            customers.add(customer);
+        }
+    }
+
+    private Flight addFlight(int id, int capacity) throws FlightBookingSystemException {
+        Flight flight = new SlowFlight(id, fbs.getSystemDate().plusDays(30 + id), capacity);
+        fbs.addFlight(flight);
+        return flight;
+    }
+
+    /**
+     * Runs one task per customer on a pool of threads that all start together.
+     *
+     * @return The number of tasks that completed without an exception.
+     */
+    private int runForEachCustomer(Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Customer customer : customers) {
+                futures.add(pool.submit((Callable<Void>) () -> {
+                    start.await();
+                    try {
+                        task.run(customer);
+                        succeeded.incrementAndGet();
+                    } catch (FlightBookingSystemException e) {
+                        // Expected once the flight is full.
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    @Test
+    void testConcurrentBookingsNeverOversell() throws Exception {
+        Flight flight = addFlight(1, 50);
+
+        int booked = runForEachCustomer(customer ->
+                fbs.addBooking(customer, flight, null, CommercialClassType.ECONOMY, null));
+
+        assertEquals(50, booked);
+        assertEquals(50, flight.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertEquals(50, flight.getPassengers().size());
+        assertEquals(50, fbs.getFlightManifest(flight).size());
+        assertEquals(50, fbs.getBookings().size());
+    }
+
+    @Test
+    void testOpposingRoundTripsNeitherDeadlockNorOversell() throws Exception {
+        Flight first = addFlight(1, 300);
+        Flight second = addFlight(2, 300);
+
+        int booked = runForEachCustomer(customer -> {
+            if (customer.getId() % 2 == 0) {
+                fbs.addBooking(customer, first, second, CommercialClassType.ECONOMY, null);
+            } else {
+                fbs.addBooking(customer, second, first, CommercialClassType.ECONOMY, null);
+            }
+        });
+
+        int economySeats = first.getCapacityForClass(CommercialClassType.ECONOMY);
+        assertEquals(economySeats, booked);
+        assertEquals(economySeats, first.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertEquals(economySeats, second.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertEquals(fbs.getBookings().size(), fbs.getFlightManifest(first).size());
+    }
+
+    @Test
+    void testRoundTripIsCancelledOnlyOnce() throws Exception {
+        Flight outbound = addFlight(1, 500);
+        Flight inbound = addFlight(2, 500);
+        for (Customer customer : customers) {
+            fbs.addBooking(customer, outbound, inbound, CommercialClassType.ECONOMY, null);
+        }
+
+        int cancelled = runForEachCustomer(customer -> {
+            Flight flight = (customer.getId() % 2 == 0) ? outbound : inbound;
+            fbs.cancelBooking(customer, flight);
+        });
+        int cancelledAgain = runForEachCustomer(customer -> fbs.cancelBooking(customer, outbound));
+
+        assertEquals(CUSTOMERS, cancelled);
+        assertEquals(0, cancelledAgain);
+        assertTrue(fbs.getFlightManifest(outbound).isEmpty());
+        assertTrue(fbs.getFlightManifest(inbound).isEmpty());
+    }
+
+    @Test
+    void testBookingsCanBeListedWhileOthersBook() throws Exception {
+        Flight flight = addFlight(1, CUSTOMERS);
+        AtomicBoolean booking = new AtomicBoolean(true);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> listed = reader.submit(() -> {
+                int largest = 0;
+                while (booking.get()) {
+                    List<Booking> bookings = fbs.getBookings();
+                    for (Booking listedBooking : bookings) {
+                        assertNotNull(listedBooking);
+                    }
+                    assertTrue(bookings.size() >= largest);
+                    largest = bookings.size();
+                }
+                return largest;
+            });
+
+            int booked;
+            try {
+                booked = runForEachCustomer(customer ->
+                        fbs.addBooking(customer, flight, null, CommercialClassType.ECONOMY, null));
+            } finally {
+                booking.set(false);
+            }
+
+            assertTrue(listed.get(30, TimeUnit.SECONDS) <= booked);
+            assertEquals(booked, fbs.getBookings().size());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLockingOneFlightDoesNotBlockAnother() throws Exception {
+        FlightLocks locks = new FlightLocks(16);
+        Flight held = addFlight(1, 10);
+        Flight other = addFlight(2, 10);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        locks.lock(held, null);
+        try {
+            pool.submit(() -> {
+                locks.lock(other, null);
+                locks.unlock(other, null);
+            }).get(5, TimeUnit.SECONDS);
+
+            Future<?> waiting = pool.submit(() -> {
+                locks.lock(other, held);
+                locks.unlock(other, held);
+            });
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());
+            locks.unlock(held, null);
+            waiting.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Pauses after every seat check, which makes a booking that is not locked against
+     * another one on the same flight oversell it almost every time.
+     */
+    private static final class SlowFlight extends Flight {
+
+        SlowFlight(int id, LocalDate departureDate, int capacity) {
+            super(id, "FB" + id, "Birmingham", "Paris", departureDate, new BigDecimal("99.99"), capacity);
+        }
+
+        @Override
+        public boolean isClassAvailable(CommercialClassType classType) {
+            boolean available = super.isClassAvailable(classType);
+            Thread.yield();
+            return available;
+        }
+    }
+
+    private interface Task {
+        void run(Customer customer) throws FlightBookingSystemException;
+    }
+}
@@ -0,0 +1,65 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.model.EntityStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityStoreTest {
+
+    @Test
+    void testPutGetAndReplace() {
+        EntityStore<String> store = new EntityStore<>();
+        assertNull(store.put(3, "three"));
+        assertEquals("three", store.put(3, "THREE"));
+        assertEquals("THREE", store.get(3));
+        assertNull(store.get(4));
+        assertFalse(store.containsKey(-1));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testIteratesInIdOrderAcrossOverflow() {
+        EntityStore<String> store = new EntityStore<>();
+        store.put(1_000_000, "far");
+        store.put(2, "two");
+        store.put(-5, "negative");
+        store.put(40, "forty");
+        store.put(1, "one");
+
+        assertEquals(List.of("negative", "one", "two", "forty", "far"), store.values());
+        assertEquals("far", store.get(1_000_000));
+        assertEquals(5, store.size());
+    }
+
+    @Test
+    void testOverflowMovesIntoArrayAsItGrows() {
+        EntityStore<Integer> store = new EntityStore<>();
+        store.put(5_000, 5_000);
+        for (int id = 1; id <= 5_000; id++) {
+            store.put(id, id);
+        }
+
+        List<Integer> values = store.values();
+        assertEquals(5_000, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i + 1, (int) values.get(i));
+        }
+    }
+
+    @Test
+    void testRemove() {
+        EntityStore<String> store = new EntityStore<>();
+        store.put(1, "one");
+        store.put(2, "two");
+        store.put(100_000, "far");
+
+        assertEquals("one", store.remove(1));
+        assertEquals("far", store.remove(100_000));
+        assertNull(store.remove(1));
+        assertEquals(List.of("two"), store.values());
+        assertEquals(1, store.size());
+    }
+}
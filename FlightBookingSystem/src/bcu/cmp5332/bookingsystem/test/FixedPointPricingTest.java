@@ -0,0 +1,121 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.FixedPointPricing;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedPointPricingTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 1);
+    private static final String[] PRICES = {
+        "99.99", "100", "0.01", "0.005", "123.456", "149.985", "1E+3", "19.9999999",
+        "92233720368547758.07", "123456789012345678901234567890.55"
+    };
+
+    /**
+     * The BigDecimal calculation the fixed-point pricing replaced.
+     */
+    private static BigDecimal referencePrice(Flight flight, CommercialClassType classType, LocalDate systemDate)
+            throws FlightBookingSystemException {
+        BigDecimal basePrice = flight.getPriceForClass(classType);
+        long daysLeft = ChronoUnit.DAYS.between(systemDate, flight.getDepartureDate());
+
+        BigDecimal dynamicPrice = basePrice;
+        if (daysLeft <= 7) {
+            dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.5"));
+        } else if (daysLeft <= 30) {
+            dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.2"));
+        }
+
+        int remainingSeats = flight.getRemainingSeatsForClass(classType);
+        int classTotalCapacity = flight.getCapacityForClass(classType);
+        if (classTotalCapacity > 0) {
+            double occupancyRate = (double) (classTotalCapacity - remainingSeats) / classTotalCapacity;
+            if (occupancyRate > 0.8) {
+                dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.3"));
+            } else if (occupancyRate > 0.6) {
+                dynamicPrice = dynamicPrice.multiply(new BigDecimal("1.1"));
+            }
+        }
+        return dynamicPrice.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Flight commercialFlight(String price) {
+        Map<CommercialClassType, Integer> capacities = new EnumMap<>(CommercialClassType.class);
+        capacities.put(CommercialClassType.ECONOMY, 10);
+        capacities.put(CommercialClassType.PREMIUM_ECONOMY, 7);
+        capacities.put(CommercialClassType.BUSINESS, 5);
+        capacities.put(CommercialClassType.FIRST, 3);
+        return new Flight(1, "FC001", "London", "Paris", TODAY.plusDays(20), new BigDecimal(price), 25,
+                FlightType.COMMERCIAL, capacities);
+    }
+
+    @Test
+    void testPricesMatchBigDecimalCalculation() throws FlightBookingSystemException {
+        for (String price : PRICES) {
+            Flight commercial = commercialFlight(price);
+            Flight budget = new Flight(2, "FB002", "London", "Paris", TODAY.plusDays(20), new BigDecimal(price), 10);
+            for (Flight flight : new Flight[] {commercial, budget}) {
+                for (CommercialClassType classType : flight.getAvailableClasses()) {
+                    int capacity = flight.getCapacityForClass(classType);
+                    for (int taken = 0; taken <= capacity; taken++) {
+                        for (long days = -2; days <= 35; days++) {
+                            LocalDate systemDate = flight.getDepartureDate().minusDays(days);
+                            BigDecimal expected = referencePrice(flight, classType, systemDate);
+                            BigDecimal actual = flight.getDynamicPrice(classType, systemDate);
+                            assertEquals(expected, actual, price + " " + classType + " taken " + taken + " days " + days);
+                        }
+                        flight.reserveSeat(classType);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testHeldSeatsCountTowardsOccupancy() throws FlightBookingSystemException {
+        Flight flight = commercialFlight("100.00");
+        for (int i = 0; i < 9; i++) {
+            flight.holdSeat(CommercialClassType.ECONOMY);
+        }
+
+        assertEquals(referencePrice(flight, CommercialClassType.ECONOMY, TODAY),
+                flight.getDynamicPrice(CommercialClassType.ECONOMY, TODAY));
+        assertEquals(new BigDecimal("156.00"), flight.getDynamicPrice(CommercialClassType.ECONOMY, TODAY));
+    }
+
+    @Test
+    void testRoundsHalfUpToThePenny() {
+        long unchanged = FixedPointPricing.multiplier(CommercialClassType.ECONOMY,
+                FixedPointPricing.EARLY, FixedPointPricing.OPEN);
+
+        assertEquals(1000, unchanged);
+        assertEquals(1, FixedPointPricing.pricePence(5, 3, unchanged));
+        assertEquals(0, FixedPointPricing.pricePence(4, 3, unchanged));
+        assertEquals(-1, FixedPointPricing.pricePence(-5, 3, unchanged));
+        assertEquals(new BigDecimal("0.01"), FixedPointPricing.toPounds(1));
+    }
+
+    @Test
+    void testOccupancyBandsMatchTheThresholds() {
+        assertEquals(FixedPointPricing.OPEN, FixedPointPricing.occupancyBand(3, 5));
+        assertEquals(FixedPointPricing.FILLING, FixedPointPricing.occupancyBand(4, 6));
+        assertEquals(FixedPointPricing.FILLING, FixedPointPricing.occupancyBand(4, 5));
+        assertEquals(FixedPointPricing.NEARLY_FULL, FixedPointPricing.occupancyBand(5, 6));
+        assertEquals(FixedPointPricing.OPEN, FixedPointPricing.occupancyBand(0, 0));
+        assertEquals(FixedPointPricing.NEARLY_FULL,
+                FixedPointPricing.occupancyBand(Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+}
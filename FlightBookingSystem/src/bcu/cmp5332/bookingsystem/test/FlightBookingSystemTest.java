@@ -0,0 +1,333 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingRequest;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+public class FlightBookingSystemTest {
+
+    private FlightBookingSystem fbs;
+    private Customer customer;
+    private Flight flight;
+
+    @BeforeEach
+    void setUp() throws FlightBookingSystemException {
+        fbs = new FlightBookingSystem();
+        customer = new Customer(1, "John Doe", "1234567890", "john.doe@example.com", 30, "Male", MealType.NON_VEG);
+        flight = new Flight(1, "BA2490", "London", "New York",
+                fbs.getSystemDate().plusDays(30), new BigDecimal("500.00"), 150);
+        fbs.addCustomer(customer);
+        fbs.addFlight(flight);
+        fbs.markClean(EnumSet.allOf(EntityType.class));
+    }
+
+    @Test
+    void testNewSystemIsClean() {
+        assertTrue(new FlightBookingSystem().getDirtyTypes().isEmpty());
+    }
+
+    @Test
+    void testAddMealOnlyDirtiesMeals() throws FlightBookingSystemException {
+        fbs.addMeal(new Meal(1, "Paneer Tikka", "Spicy Indian dish", new BigDecimal("12.50"), MealType.VEG));
+
+        assertEquals(EnumSet.of(EntityType.MEAL), fbs.getDirtyTypes());
+    }
+
+    @Test
+    void testAddBookingDirtiesBookingsAndFlights() throws FlightBookingSystemException {
+        fbs.addBooking(customer, flight, null, CommercialClassType.ECONOMY, null);
+
+        assertEquals(EnumSet.of(EntityType.BOOKING, EntityType.FLIGHT), fbs.getDirtyTypes());
+    }
+
+    @Test
+    void testDrainingMutationsKeepsTypesDirty() throws FlightBookingSystemException {
+        fbs.removeCustomerById(customer.getId());
+        fbs.drainMutations();
+
+        assertEquals(EnumSet.of(EntityType.CUSTOMER), fbs.getDirtyTypes());
+    }
+
+    @Test
+    void testMarkCleanOnlyClearsGivenTypes() throws FlightBookingSystemException {
+        fbs.removeCustomerById(customer.getId());
+        fbs.removeFlightById(flight.getId());
+        fbs.markClean(EnumSet.of(EntityType.FLIGHT));
+
+        assertEquals(EnumSet.of(EntityType.CUSTOMER), fbs.getDirtyTypes());
+    }
+
+    @Test
+    void testSearchFlightsByRouteAndDate() throws FlightBookingSystemException {
+        Flight later = new Flight(2, "BA2491", "london ", "NEW YORK",
+                fbs.getSystemDate().plusDays(60), new BigDecimal("450.00"), 150);
+        Flight otherRoute = new Flight(3, "BA100", "London", "Paris",
+                fbs.getSystemDate().plusDays(30), new BigDecimal("90.00"), 150);
+        Flight departed = new Flight(4, "BA2489", "London", "New York",
+                fbs.getSystemDate(), new BigDecimal("500.00"), 150);
+        fbs.addFlight(later);
+        fbs.addFlight(otherRoute);
+        fbs.addFlight(departed);
+
+        List<Flight> all = fbs.searchFlights("London", "New York", null, null);
+        assertEquals(2, all.size());
+        assertEquals(flight, all.get(0));
+        assertEquals(later, all.get(1));
+        assertEquals(List.of(later), fbs.searchFlights("LONDON", "new york", fbs.getSystemDate().plusDays(31), null));
+        assertEquals(List.of(flight), fbs.searchFlights("London", "New York", null, fbs.getSystemDate().plusDays(30)));
+        assertTrue(fbs.searchFlights("London", "New York", null, fbs.getSystemDate()).isEmpty());
+        assertTrue(fbs.searchFlights("New York", "London", null, null).isEmpty());
+        assertTrue(fbs.searchFlights("London", "New York", fbs.getSystemDate().plusDays(40), fbs.getSystemDate().plusDays(35)).isEmpty());
+
+        fbs.removeFlightById(later.getId());
+        assertEquals(List.of(flight), fbs.searchFlights("London", "New York", null, null));
+    }
+
+    @Test
+    void testDuplicateFlightNumberAndDateIsRejected() throws FlightBookingSystemException {
+        Flight duplicate = new Flight(2, "BA2490", "Paris", "Rome",
+                flight.getDepartureDate(), new BigDecimal("100.00"), 50);
+
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addFlight(duplicate));
+        assertSame(flight, fbs.findFlightByNumber("BA2490", flight.getDepartureDate()));
+        assertNull(fbs.findFlightByNumber("BA2490", flight.getDepartureDate().plusDays(1)));
+        assertNull(fbs.findFlightByNumber("ba2490", flight.getDepartureDate()));
+    }
+
+    @Test
+    void testRemovedFlightFreesItsNumberAndDate() throws FlightBookingSystemException {
+        fbs.removeFlightById(flight.getId());
+        assertNull(fbs.findFlightByNumber("BA2490", flight.getDepartureDate()));
+
+        Flight replacement = new Flight(2, "BA2490", "London", "New York",
+                flight.getDepartureDate(), new BigDecimal("520.00"), 150);
+        fbs.addFlight(replacement);
+        assertSame(replacement, fbs.findFlightByNumber("BA2490", flight.getDepartureDate()));
+    }
+
+    @Test
+    void testRescheduleFlightUpdatesIndexes() throws FlightBookingSystemException {
+        LocalDate oldDate = flight.getDepartureDate();
+        LocalDate newDate = oldDate.plusDays(7);
+        Flight other = new Flight(2, "BA2490", "London", "New York",
+                oldDate.plusDays(14), new BigDecimal("500.00"), 150);
+        fbs.addFlight(other);
+        fbs.markClean(EnumSet.allOf(EntityType.class));
+
+        fbs.rescheduleFlight(flight.getId(), newDate);
+
+        assertEquals(newDate, flight.getDepartureDate());
+        assertNull(fbs.findFlightByNumber("BA2490", oldDate));
+        assertSame(flight, fbs.findFlightByNumber("BA2490", newDate));
+        assertEquals(List.of(flight), fbs.searchFlights("London", "New York", newDate, newDate));
+        assertTrue(fbs.searchFlights("London", "New York", oldDate, oldDate).isEmpty());
+        assertEquals(EnumSet.of(EntityType.FLIGHT), fbs.getDirtyTypes());
+        assertThrows(FlightBookingSystemException.class, () -> fbs.rescheduleFlight(flight.getId(), oldDate.plusDays(14)));
+    }
+
+    @Test
+    void testActiveFlightsAreSharedUntilTheyChange() throws FlightBookingSystemException {
+        List<Flight> active = fbs.getFlights();
+        assertSame(active, fbs.getFlights());
+        assertThrows(UnsupportedOperationException.class, () -> active.add(flight));
+
+        Flight second = new Flight(2, "BA2491", "New York", "London",
+                fbs.getSystemDate().plusDays(40), new BigDecimal("450.00"), 150);
+        fbs.addFlight(second);
+        assertEquals(List.of(flight, second), fbs.getFlights());
+        assertEquals(1, active.size());
+
+        fbs.removeFlightById(1);
+        assertEquals(List.of(second), fbs.getFlights());
+        assertThrows(FlightBookingSystemException.class, () -> fbs.getFlightByID(1));
+    }
+
+    @Test
+    void testFlightsAreRetiredAsTheyDepart() throws FlightBookingSystemException {
+        SettableClock clock = new SettableClock(LocalDate.of(2030, 5, 1));
+        FlightBookingSystem system = new FlightBookingSystem(clock);
+        Flight early = new Flight(1, "FB001", "Birmingham", "Paris", LocalDate.of(2030, 5, 3),
+                new BigDecimal("99.99"), 100);
+        Flight late = new Flight(2, "FB002", "Paris", "Birmingham", LocalDate.of(2030, 5, 10),
+                new BigDecimal("89.99"), 100);
+        system.addFlight(late);
+        system.addFlight(early);
+        assertEquals(List.of(early, late), system.getFlights());
+
+        clock.setDate(LocalDate.of(2030, 5, 3));
+        assertEquals(List.of(late), system.getFlights());
+        assertThrows(FlightBookingSystemException.class, () -> system.getFlightByID(1));
+        assertEquals(2, system.getAllFlights().size());
+
+        system.rescheduleFlight(2, LocalDate.of(2030, 5, 20));
+        clock.setDate(LocalDate.of(2030, 5, 15));
+        assertEquals(List.of(late), system.getFlights());
+        clock.setDate(LocalDate.of(2030, 5, 21));
+        assertTrue(system.getFlights().isEmpty());
+    }
+
+    @Test
+    void testRescheduledAndRemovedFlightsAreRetiredOnTheirCurrentDate() throws FlightBookingSystemException {
+        SettableClock clock = new SettableClock(LocalDate.of(2030, 5, 1));
+        FlightBookingSystem system = new FlightBookingSystem(clock);
+        Flight moved = new Flight(1, "FB001", "Birmingham", "Paris", LocalDate.of(2030, 5, 10),
+                new BigDecimal("99.99"), 100);
+        Flight removed = new Flight(2, "FB002", "Paris", "Birmingham", LocalDate.of(2030, 5, 4),
+                new BigDecimal("89.99"), 100);
+        system.addFlight(moved);
+        system.addFlight(removed);
+
+        system.rescheduleFlight(1, LocalDate.of(2030, 5, 3));
+        system.removeFlightById(2);
+        assertEquals(List.of(moved), system.getFlights());
+
+        clock.setDate(LocalDate.of(2030, 5, 3));
+        assertTrue(system.getFlights().isEmpty());
+        clock.setDate(LocalDate.of(2030, 5, 11));
+        assertTrue(system.getFlights().isEmpty());
+    }
+
+    @Test
+    void testManifestFollowsBookingsAndCancellations() throws FlightBookingSystemException {
+        Customer other = new Customer(2, "Jane Roe", "0987654321", "jane.roe@example.com", 28, "Female", MealType.VEG);
+        fbs.addCustomer(other);
+        Flight inbound = new Flight(2, "BA2491", "New York", "London",
+                fbs.getSystemDate().plusDays(40), new BigDecimal("450.00"), 150);
+        fbs.addFlight(inbound);
+        fbs.addBooking(other, flight, null, CommercialClassType.ECONOMY, null);
+        fbs.addBooking(customer, flight, inbound, CommercialClassType.ECONOMY, null);
+
+        List<Booking> manifest = fbs.getFlightManifest(flight);
+        assertEquals(2, manifest.size());
+        assertSame(customer, manifest.get(0).getCustomer());
+        assertSame(manifest.get(0), fbs.findActiveBooking(customer, inbound));
+        assertNull(fbs.findActiveBooking(other, inbound));
+
+        Booking cancelled = fbs.cancelBooking(customer, inbound);
+        assertTrue(cancelled.isCancelled());
+        assertEquals(1, fbs.getFlightManifest(flight).size());
+        assertTrue(fbs.getFlightManifest(inbound).isEmpty());
+        assertThrows(FlightBookingSystemException.class, () -> fbs.cancelBooking(customer, flight));
+
+        fbs.editBooking(other, flight, null, CommercialClassType.ECONOMY);
+        assertSame(other, fbs.getFlightManifest(flight).get(0).getCustomer());
+    }
+
+    @Test
+    void testFailedReturnLegDoesNotLeakOutboundSeat() throws FlightBookingSystemException {
+        Flight inbound = new Flight(2, "BA2491", "New York", "London",
+                fbs.getSystemDate().plusDays(40), new BigDecimal("450.00"), 150);
+        fbs.addFlight(inbound);
+        inbound.addPassenger(customer, CommercialClassType.ECONOMY);
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.addBooking(customer, flight, inbound, CommercialClassType.ECONOMY, null));
+        assertEquals(0, flight.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertTrue(flight.getPassengers().isEmpty());
+        assertTrue(customer.getBookings().isEmpty());
+        assertTrue(fbs.getFlightManifest(flight).isEmpty());
+        assertEquals(1, fbs.generateNextBookingId());
+    }
+
+    @Test
+    void testGroupIsBookedWithConsecutiveIds() throws FlightBookingSystemException {
+        Customer second = new Customer(2, "Jane Doe", "0987654321", "jane.doe@example.com", 28, "Female", MealType.VEG);
+        fbs.addCustomer(second);
+        fbs.addBooking(customer, flight, null, CommercialClassType.ECONOMY, null);
+        Customer third = new Customer(3, "Sam Roe", "0555555555", "sam.roe@example.com", 41, "Other", MealType.NONE);
+        fbs.addCustomer(third);
+
+        List<Booking> group = fbs.addBookings(List.of(
+                new BookingRequest(second, flight, null, CommercialClassType.ECONOMY, null),
+                new BookingRequest(third, flight, null, CommercialClassType.ECONOMY, null)));
+
+        assertEquals(2, group.size());
+        assertEquals(2, group.get(0).getId());
+        assertEquals(3, group.get(1).getId());
+        assertEquals(group.get(0).getBookedPriceOutbound(), group.get(1).getBookedPriceOutbound());
+        assertEquals(3, flight.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertEquals(3, fbs.getFlightManifest(flight).size());
+        assertSame(group.get(1), fbs.findActiveBooking(third, flight));
+        assertEquals(4, fbs.generateNextBookingId());
+    }
+
+    @Test
+    void testGroupThatDoesNotFitBooksNoOne() throws FlightBookingSystemException {
+        Flight small = new Flight(2, "BA2491", "London", "Paris",
+                fbs.getSystemDate().plusDays(40), new BigDecimal("90.00"), 10);
+        fbs.addFlight(small);
+        int economySeats = small.getCapacityForClass(CommercialClassType.ECONOMY);
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int id = 2; id <= economySeats + 2; id++) {
+            Customer member = new Customer(id, "Member " + id, "0700000000", "m" + id + "@example.com", 30, "Other", MealType.NONE);
+            fbs.addCustomer(member);
+            requests.add(new BookingRequest(member, flight, small, CommercialClassType.ECONOMY, null));
+        }
+
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addBookings(requests));
+        assertEquals(0, flight.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertEquals(0, small.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertTrue(fbs.getBookings().isEmpty());
+        assertTrue(fbs.getFlightManifest(flight).isEmpty());
+        assertEquals(1, fbs.generateNextBookingId());
+    }
+
+    @Test
+    void testGroupWithRepeatedCustomerBooksNoOne() throws FlightBookingSystemException {
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addBookings(List.of(
+                new BookingRequest(customer, flight, null, CommercialClassType.ECONOMY, null),
+                new BookingRequest(customer, flight, null, CommercialClassType.ECONOMY, null))));
+        assertTrue(flight.getPassengers().isEmpty());
+        assertTrue(customer.getBookings().isEmpty());
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private Instant instant;
+
+        SettableClock(LocalDate date) {
+            setDate(date);
+        }
+
+        void setDate(LocalDate date) {
+            instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package bcu.cmp5332.bookingsystem.test;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.CommercialClassType;
 import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.DefaultPricingStrategy;
 import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightQuote;
 import bcu.cmp5332.bookingsystem.model.FlightType;
 import bcu.cmp5332.bookingsystem.model.MealType;
 
@@ -13,8 +15,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class FlightTest {
     
@@ -189,6 +198,59 @@ class FlightTest {
         assertEquals(0, budgetFlight.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
     }
     
+    @Test
+    void testReserveSeatStopsAtClassCapacity() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(commercialFlight.reserveSeat(CommercialClassType.FIRST));
+        }
+        assertFalse(commercialFlight.reserveSeat(CommercialClassType.FIRST));
+        assertFalse(commercialFlight.isClassAvailable(CommercialClassType.FIRST));
+        assertFalse(budgetFlight.reserveSeat(CommercialClassType.BUSINESS));
+
+        commercialFlight.releaseSeat(CommercialClassType.FIRST);
+        assertEquals(1, commercialFlight.getRemainingSeatsForClass(CommercialClassType.FIRST));
+        budgetFlight.releaseSeat(CommercialClassType.ECONOMY);
+        assertEquals(0, budgetFlight.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+    }
+
+    @Test
+    void testConcurrentReservationsNeverExceedCapacity() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger reserved = new AtomicInteger();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        if (commercialFlight.reserveSeat(CommercialClassType.BUSINESS)) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(30, reserved.get());
+        assertEquals(30, commercialFlight.getOccupiedSeatsByClass(CommercialClassType.BUSINESS));
+    }
+
+    @Test
+    void testRestoredPassengerIsNotCountedTwice() throws FlightBookingSystemException {
+        Map<CommercialClassType, Integer> occupied = new HashMap<>();
+        occupied.put(CommercialClassType.ECONOMY, 21);
+        budgetFlight.setOccupiedSeatsByClass(occupied);
+        budgetFlight.restorePassenger(testCustomer, CommercialClassType.ECONOMY);
+        assertEquals(21, budgetFlight.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertEquals(1, budgetFlight.getPassengers().size());
+
+        commercialFlight.restorePassenger(testCustomer, CommercialClassType.BUSINESS);
+        assertEquals(1, commercialFlight.getOccupiedSeatsByClass(CommercialClassType.BUSINESS));
+    }
+
     @Test
     void testHasDeparted() {
         // Flight with future date should not have departed
@@ -275,8 +337,9 @@ class FlightTest {
     }
     
     @Test
-    void testGetDetailsLong() throws FlightBookingSystemException {
-        String details = budgetFlight.getDetailsLong(systemDate);
+    void testGetDetailsLong() {
+        FlightQuote quote = new DefaultPricingStrategy().quoteAll(Collections.singletonList(budgetFlight), systemDate).get(0);
+        String details = budgetFlight.getDetailsLong(quote);
         assertTrue(details.contains("Flight ID: 1"));
         assertTrue(details.contains("Flight Number: BF001"));
         assertTrue(details.contains("From: London"));
@@ -284,5 +347,6 @@ class FlightTest {
         assertTrue(details.contains("Flight Type: BUDGET"));
         assertTrue(details.contains("Total Capacity: 150"));
         assertTrue(details.contains("Class Information:"));
+        assertTrue(details.contains("Current Price: £" + quote.getPrice(CommercialClassType.ECONOMY)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdAllocator;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdAllocatorTest {
+
+    @Test
+    void testReservedIdsAreNeverAllocated() {
+        IdAllocator ids = new IdAllocator();
+        assertEquals(1, ids.allocate());
+        ids.reserve(5);
+        ids.reserve(3);
+        assertEquals(6, ids.peek());
+        assertEquals(6, ids.allocate());
+        assertEquals(7, ids.allocate());
+    }
+
+    @Test
+    void testBlockIsAllocatedInOneStep() {
+        IdAllocator ids = new IdAllocator();
+        ids.reserve(4);
+        assertEquals(5, ids.allocate(3));
+        assertEquals(8, ids.allocate());
+        assertThrows(IllegalArgumentException.class, () -> ids.allocate(0));
+    }
+
+    @Test
+    void testConcurrentCallersReceiveDistinctIds() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        IdAllocator ids = new IdAllocator();
+        Set<Integer> allocated = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        allocated.add(ids.allocate());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(threads * perThread, allocated.size());
+        assertEquals(threads * perThread + 1, ids.peek());
+    }
+
+    @Test
+    void testAddedEntitiesAdvanceTheAllocator() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(41, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.VEGAN));
+
+        assertEquals(42, fbs.generateNextCustomerId());
+        assertEquals(43, fbs.generateNextCustomerId());
+        assertEquals(1, fbs.getIdAllocator(EntityType.MEAL).peek());
+    }
+}
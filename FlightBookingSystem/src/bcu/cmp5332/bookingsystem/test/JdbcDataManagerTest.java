@@ -0,0 +1,155 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.JdbcDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against H2 or SQLite, whichever driver is on the class path; skipped without either.
+ */
+public class JdbcDataManagerTest {
+
+    private Path directory;
+    private JdbcDataManager database;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String url = null;
+        directory = Files.createTempDirectory("fbs-jdbc-test");
+        if (hasDriver("org.h2.Driver")) {
+            url = "jdbc:h2:" + directory.resolve("flightbooking");
+        } else if (hasDriver("org.sqlite.JDBC")) {
+            url = "jdbc:sqlite:" + directory.resolve("flightbooking.db");
+        }
+        assumeTrue(url != null, "No H2 or SQLite driver on the class path.");
+        database = new JdbcDataManager(url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    private static boolean hasDriver(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private FlightBookingSystem createSystem() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Meal meal = new Meal(1, "Veg Momo", "Steamed dumplings", new BigDecimal("4.50"), MealType.VEG);
+        fbs.addMeal(meal);
+        Customer alice = new Customer(1, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.VEGAN);
+        fbs.addCustomer(alice);
+        Flight outbound = new Flight(1, "FB001", "Birmingham", "Paris", LocalDate.of(2030, 5, 1),
+                new BigDecimal("99.99"), 100);
+        Flight inbound = new Flight(2, "FB002", "Paris", "Birmingham", LocalDate.of(2030, 5, 8),
+                new BigDecimal("89.99"), 100);
+        fbs.addFlight(outbound);
+        fbs.addFlight(inbound);
+        Booking booking = new Booking(1, alice, outbound, inbound, LocalDate.of(2030, 1, 1),
+                CommercialClassType.ECONOMY, new BigDecimal("99.99"), new BigDecimal("89.99"), meal);
+        alice.addBooking(booking);
+        fbs.addBookingWithoutFlightUpdate(booking);
+        return fbs;
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws IOException, FlightBookingSystemException {
+        database.storeData(createSystem());
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        database.loadData(loaded);
+        assertEquals(1, loaded.getMeals().size());
+        assertEquals(new BigDecimal("4.50"), loaded.getMealByID(1).getPrice());
+        assertEquals("FB002", loaded.getFlightByID(2).getFlightNumber());
+        assertEquals(LocalDate.of(2030, 5, 8), loaded.getFlightByID(2).getDepartureDate());
+        Booking booking = loaded.getBookingByID(1);
+        assertEquals("Alice", booking.getCustomer().getName());
+        assertEquals(new BigDecimal("89.99"), booking.getBookedPriceReturn());
+        assertEquals("Veg Momo", booking.getMeal().getName());
+        assertEquals(1, loaded.getCustomerByID(1).getBookings().size());
+    }
+
+    @Test
+    void testCapturedChangesReplaceRows() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem();
+        database.storeData(fbs);
+        fbs.drainMutations();
+
+        fbs.removeMealById(1);
+        fbs.addCustomer(new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE));
+        database.write(database.capture(fbs));
+        assertTrue(fbs.drainMutations().isEmpty());
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        database.loadData(loaded);
+        assertTrue(loaded.getMeals().isEmpty());
+        assertTrue(loaded.getMealByIDIncludingDeleted(1).isDeleted());
+        assertEquals(2, loaded.getCustomers().size());
+        assertEquals("Bob", loaded.getCustomerByID(2).getName());
+    }
+
+    @Test
+    void testPricesAreReadBackExactly() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem();
+        fbs.getMealByID(1).setPrice(new BigDecimal("1.005"));
+        fbs.getFlightByID(1).setEconomyPrice(new BigDecimal("123.456"));
+        fbs.getBookingByID(1).setCancellationFee(new BigDecimal("1E+3"));
+        database.storeData(fbs);
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        database.loadData(loaded);
+        assertEquals(new BigDecimal("1.005"), loaded.getMealByID(1).getPrice());
+        assertEquals(new BigDecimal("123.456"), loaded.getFlightByID(1).getEconomyPrice());
+        assertEquals(new BigDecimal("1E+3"), loaded.getBookingByID(1).getCancellationFee());
+    }
+
+    @Test
+    void testFailedCaptureGivesTheMutationsBack() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem();
+        fbs.drainMutations();
+        fbs.addCustomer(new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE));
+        fbs.removeMealById(1);
+        Booking unpriced = new Booking(2, fbs.getCustomerByID(1), fbs.getFlightByID(1), null, LocalDate.of(2030, 1, 1),
+                CommercialClassType.ECONOMY, null, BigDecimal.ZERO, null);
+        fbs.addBookingWithoutFlightUpdate(unpriced);
+
+        assertThrows(NullPointerException.class, () -> database.capture(fbs));
+
+        unpriced.setBookedPriceOutbound(new BigDecimal("99.99"));
+        assertEquals(3, database.capture(fbs).size());
+    }
+}
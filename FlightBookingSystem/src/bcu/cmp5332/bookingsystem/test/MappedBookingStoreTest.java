@@ -0,0 +1,168 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.BinaryBookingDataManager;
+import bcu.cmp5332.bookingsystem.data.MappedBookingStore;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedBookingStoreTest {
+
+    private static final String LARGE_FEE = "123456789012345678901234567890.125";
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException, FlightBookingSystemException {
+        directory = Files.createTempDirectory("fbs-mapped-test");
+        new BinaryBookingDataManager(directory.toString()).storeData(createSystem(true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    /**
+     * Two customers and two flights; bookings 1, 3 and 5 belong to Alice and booking 3
+     * is cancelled with a fee too large for a long, bookings 2 and 4 belong to Bob. Bookings 4 and 5 are on the second flight.
+     */
+    private FlightBookingSystem createSystem(boolean withBookings) throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Meal meal = new Meal(1, "Veg Momo", "Steamed dumplings", new BigDecimal("4.50"), MealType.VEG);
+        fbs.addMeal(meal);
+        Customer alice = new Customer(1, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.VEGAN);
+        Customer bob = new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE);
+        fbs.addCustomer(alice);
+        fbs.addCustomer(bob);
+        Flight outbound = new Flight(1, "FB001", "Birmingham", "Paris", LocalDate.of(2030, 5, 1),
+                new BigDecimal("99.99"), 100);
+        Flight inbound = new Flight(2, "FB002", "Paris", "Birmingham", LocalDate.of(2030, 5, 8),
+                new BigDecimal("89.99"), 100);
+        fbs.addFlight(outbound);
+        fbs.addFlight(inbound);
+        if (withBookings) {
+            for (int id = 1; id <= 5; id++) {
+                Customer customer = (id % 2 == 1) ? alice : bob;
+                Booking booking = new Booking(id, customer, (id < 4) ? outbound : inbound, (id == 3) ? inbound : null,
+                        LocalDate.of(2030, 1, id), CommercialClassType.ECONOMY, new BigDecimal("99.99"),
+                        (id == 3) ? new BigDecimal("89.99") : BigDecimal.ZERO, (id == 5) ? meal : null);
+                booking.setCancelled(id == 3);
+                if (id == 3) {
+                    booking.setCancellationFee(new BigDecimal(LARGE_FEE));
+                }
+                customer.addBooking(booking);
+                fbs.addBookingWithoutFlightUpdate(booking);
+            }
+        }
+        return fbs;
+    }
+
+    @Test
+    void testBookingsAreReadByID() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem(false);
+        MappedBookingStore store = MappedBookingStore.open(directory.toString());
+
+        assertEquals(5, store.size());
+        assertEquals(5, store.getMaxBookingId());
+        Booking booking = store.getBooking(fbs, 3);
+        assertEquals(3, booking.getId());
+        assertEquals("Alice", booking.getCustomer().getName());
+        assertEquals("FB002", booking.getReturnFlight().getFlightNumber());
+        assertEquals(new BigDecimal("89.99"), booking.getBookedPriceReturn());
+        assertTrue(booking.isCancelled());
+        assertEquals(new BigDecimal(LARGE_FEE), booking.getCancellationFee());
+        assertEquals("Veg Momo", store.getBooking(fbs, 5).getMeal().getName());
+        assertNull(store.getBooking(fbs, 6));
+        assertFalse(store.contains(0));
+    }
+
+    @Test
+    void testIndexIsWrittenAndRebuiltWhenStale() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem(false);
+        Path index = directory.resolve(MappedBookingStore.INDEX_FILE_NAME);
+
+        MappedBookingStore.open(directory.toString());
+        assertEquals(26 + 2 * 5 * 12, Files.size(index));
+
+        Files.write(index, new byte[] {1, 2, 3});
+        MappedBookingStore store = MappedBookingStore.open(directory.toString());
+        assertEquals(26 + 2 * 5 * 12, Files.size(index));
+        assertEquals(4, store.getBooking(fbs, 4).getId());
+    }
+
+    @Test
+    void testCustomerHistory() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem(false);
+        MappedBookingStore store = MappedBookingStore.open(directory.toString());
+
+        List<Booking> history = store.getBookingsForCustomer(fbs, 1);
+        assertEquals(3, history.size());
+        assertEquals(1, history.get(0).getId());
+        assertEquals(3, history.get(1).getId());
+        assertEquals(5, history.get(2).getId());
+        List<Booking> bobs = store.getBookingsForCustomer(fbs, 2);
+        assertEquals(2, bobs.size());
+        assertEquals(2, bobs.get(0).getId());
+        assertEquals(4, bobs.get(1).getId());
+        assertTrue(store.getBookingsForCustomer(fbs, 0).isEmpty());
+        assertTrue(store.getBookingsForCustomer(fbs, 99).isEmpty());
+    }
+
+    @Test
+    void testCancelledBookingsStayOnDisk() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem(false);
+        new BinaryBookingDataManager(directory.toString(), false).loadData(fbs);
+        fbs.setBookingArchive(MappedBookingStore.open(directory.toString()));
+
+        assertEquals(4, fbs.getBookings().size());
+        assertFalse(fbs.isBookingInMemory(3));
+        assertTrue(fbs.getBookingByID(3).isCancelled());
+        Customer alice = fbs.getCustomerByID(1);
+        assertEquals(2, alice.getBookings().size());
+        assertEquals(3, fbs.getBookingHistory(alice).size());
+        assertEquals(6, fbs.generateNextBookingId());
+    }
+
+    @Test
+    void testStoringKeepsArchivedBookings() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem(false);
+        BinaryBookingDataManager bookings = new BinaryBookingDataManager(directory.toString(), false);
+        bookings.loadData(fbs);
+        fbs.setBookingArchive(MappedBookingStore.open(directory.toString()));
+        fbs.getBookingByID(1).setRebookFee(new BigDecimal("98765432109876543210.5"));
+        bookings.storeData(fbs);
+
+        FlightBookingSystem reloaded = createSystem(false);
+        new BinaryBookingDataManager(directory.toString()).loadData(reloaded);
+        assertEquals(5, reloaded.getBookings().size());
+        assertTrue(reloaded.getBookingByID(3).isCancelled());
+        assertEquals(new BigDecimal(LARGE_FEE), reloaded.getBookingByID(3).getCancellationFee());
+        assertEquals(new BigDecimal("98765432109876543210.5"), reloaded.getBookingByID(1).getRebookFee());
+        assertEquals(5, MappedBookingStore.open(directory.toString()).size());
+    }
+}
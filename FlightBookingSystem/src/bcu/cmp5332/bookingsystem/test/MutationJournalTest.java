@@ -0,0 +1,262 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.AtomicFile;
+import bcu.cmp5332.bookingsystem.data.MealDataManager;
+import bcu.cmp5332.bookingsystem.data.MutationJournal;
+import bcu.cmp5332.bookingsystem.data.SnapshotManifest;
+import bcu.cmp5332.bookingsystem.data.TextDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutationJournalTest {
+
+    private Path directory;
+    private Path journalFile;
+    private Path compactingFile;
+    private Path mealsFile;
+    private MealDataManager meals;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("fbs-journal-test");
+        journalFile = directory.resolve(MutationJournal.FILE_NAME);
+        compactingFile = directory.resolve(MutationJournal.COMPACTING_FILE_NAME);
+        mealsFile = directory.resolve("meals.txt");
+        meals = new MealDataManager(directory.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    private MutationJournal journal(SnapshotManifest manifest, boolean backgroundCompaction) {
+        return journal(manifest, backgroundCompaction, new Object());
+    }
+
+    private MutationJournal journal(SnapshotManifest manifest, boolean backgroundCompaction, Object snapshotLock) {
+        List<TextDataManager<?>> managers = Collections.singletonList(meals);
+        return new MutationJournal(directory.toString(), managers, snapshotLock, manifest, backgroundCompaction);
+    }
+
+    private static List<String> meals(int from, int count) {
+        List<String> lines = new ArrayList<>();
+        for (int id = from; id < from + count; id++) {
+            lines.add(meal(id, "Meal " + id));
+        }
+        return lines;
+    }
+
+    private static boolean compactorRunning() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("journal-compactor") && thread.isAlive());
+    }
+
+    private static void awaitCompactor() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (compactorRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static String meal(int id, String name) {
+        return "MEAL_ADDED::" + id + "::" + name + "::::2.50::NONE::false";
+    }
+
+    /**
+     * Loads the meals as the system does on start-up: the manifest is recovered, then
+     * the journal is replayed on top of the snapshot file.
+     */
+    private FlightBookingSystem load() throws IOException, FlightBookingSystemException {
+        new SnapshotManifest(directory.toString()).recover();
+        Map<Integer, String> journaled = journal(null, false).replay().get(EntityType.MEAL);
+        List<String> snapshot = Files.exists(mealsFile) ? Files.readAllLines(mealsFile) : new ArrayList<>();
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        meals.loadRecords(fbs, MutationJournal.overlay(snapshot, journaled));
+        return fbs;
+    }
+
+    private FlightBookingSystem createSnapshot() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addMeal(new Meal(1, "Tea", "", new BigDecimal("2.50"), MealType.NONE));
+        fbs.addMeal(new Meal(2, "Veg Momo", "Steamed dumplings", new BigDecimal("4.50"), MealType.VEG));
+        meals.storeData(fbs);
+        fbs.drainMutations();
+        return fbs;
+    }
+
+    @Test
+    void testReplayOverlaysTheNewestRecordsOnTheSnapshot() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSnapshot();
+        fbs.removeMealById(2);
+        fbs.addMeal(new Meal(3, "Coffee", "", new BigDecimal("3.00"), MealType.NONE));
+        fbs.removeMealById(2);
+
+        MutationJournal journal = journal(null, false);
+        List<String> lines = journal.capture(fbs);
+        assertEquals(2, lines.size());
+        journal.append(lines);
+
+        FlightBookingSystem loaded = load();
+        assertEquals(3, loaded.getAllMeals().size());
+        assertFalse(loaded.getMealByIDIncludingDeleted(1).isDeleted());
+        assertTrue(loaded.getMealByIDIncludingDeleted(2).isDeleted());
+        assertEquals("Coffee", loaded.getMealByIDIncludingDeleted(3).getName());
+    }
+
+    @Test
+    void testOverlayReplacesInPlaceAndAppendsNewRecords() {
+        List<String> snapshot = Arrays.asList("1::a", "2::b", "3::c");
+        Map<Integer, String> journaled = new HashMap<>();
+        journaled.put(5, "5::e");
+        journaled.put(2, "2::B");
+
+        assertEquals(Arrays.asList("1::a", "2::B", "3::c", "5::e"), MutationJournal.overlay(snapshot, journaled));
+        assertSame(snapshot, MutationJournal.overlay(snapshot, Collections.emptyMap()));
+    }
+
+    @Test
+    void testLeftoverCompactingJournalIsReplayedFirst() throws IOException {
+        Files.write(compactingFile, Arrays.asList(meal(1, "Old Tea"), meal(2, "Momo")), StandardCharsets.UTF_8);
+        Files.write(journalFile, (meal(1, "New Tea") + "\n" + meal(3, "Torn")).getBytes(StandardCharsets.UTF_8));
+
+        Map<Integer, String> records = journal(null, false).replay().get(EntityType.MEAL);
+
+        assertEquals(Arrays.asList(2, 1), new ArrayList<>(records.keySet()));
+        assertTrue(records.get(1).startsWith("1::New Tea::"));
+    }
+
+    @Test
+    void testBackgroundCompactionFoldsTheJournalIntoTheSnapshot() throws Exception {
+        createSnapshot();
+        SnapshotManifest manifest = new SnapshotManifest(directory.toString());
+        manifest.recover();
+        MutationJournal journal = journal(manifest, true);
+
+        journal.append(meals(2, MutationJournal.COMPACTION_THRESHOLD));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (Files.exists(compactingFile) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(Files.exists(compactingFile));
+        assertFalse(Files.exists(journalFile));
+        assertEquals(1, manifest.getGeneration());
+        List<String> snapshot = Files.readAllLines(mealsFile);
+        assertEquals(1 + MutationJournal.COMPACTION_THRESHOLD, snapshot.size());
+        assertTrue(snapshot.get(1).startsWith("2::Meal 2::"));
+        assertEquals("Meal 1001", load().getMealByIDIncludingDeleted(1001).getName());
+    }
+
+    @Test
+    void testFailedCompactionIsRetriedAfterAnotherThreshold() throws Exception {
+        createSnapshot();
+        SnapshotManifest manifest = new SnapshotManifest(directory.toString());
+        manifest.recover();
+        Object snapshotLock = new Object();
+        MutationJournal journal = journal(manifest, true, snapshotLock);
+        Path snapshot = Files.move(mealsFile, directory.resolve("meals.bak"));
+        // The snapshot cannot be read while a directory stands in its place.
+        Files.createDirectory(mealsFile);
+
+        journal.append(meals(2, MutationJournal.COMPACTION_THRESHOLD));
+        awaitCompactor();
+        journal.append(meals(2000, MutationJournal.COMPACTION_THRESHOLD));
+        awaitCompactor();
+        assertTrue(Files.exists(compactingFile));
+
+        synchronized (snapshotLock) {
+            journal.append(meals(3000, 1));
+            assertFalse(compactorRunning());
+
+            journal.append(meals(3001, MutationJournal.COMPACTION_THRESHOLD - 1));
+            assertTrue(compactorRunning());
+            Files.delete(mealsFile);
+            Files.move(snapshot, mealsFile);
+        }
+        awaitCompactor();
+
+        assertFalse(Files.exists(compactingFile));
+        assertEquals(1, manifest.getGeneration());
+        List<String> merged = Files.readAllLines(mealsFile);
+        assertEquals(1 + MutationJournal.COMPACTION_THRESHOLD, merged.size());
+        assertTrue(merged.get(merged.size() - 1).startsWith("1001::Meal 1001::"));
+        assertEquals("Meal 3500", load().getMealByIDIncludingDeleted(3500).getName());
+    }
+
+    @Test
+    void testTruncateEmptiesTheJournal() throws IOException {
+        Files.write(compactingFile, Arrays.asList(meal(1, "Tea")), StandardCharsets.UTF_8);
+        Files.write(journalFile, Arrays.asList(meal(2, "Momo")), StandardCharsets.UTF_8);
+        MutationJournal journal = journal(null, false);
+
+        journal.truncate();
+
+        assertFalse(Files.exists(compactingFile));
+        assertFalse(Files.exists(journalFile));
+        assertTrue(journal.replay().get(EntityType.MEAL).isEmpty());
+    }
+
+    @Test
+    void testCrashBeforeCompactionCommitsIsRecovered() throws IOException, FlightBookingSystemException {
+        createSnapshot();
+        Files.write(compactingFile, Arrays.asList(meal(1, "Green Tea"), meal(3, "Coffee")), StandardCharsets.UTF_8);
+        Files.write(journalFile, Arrays.asList(meal(4, "Juice")), StandardCharsets.UTF_8);
+        // The compactor prepared the merged snapshot but died before the manifest named it.
+        AtomicFile.prepare(mealsFile, out -> out.write("1::Gre".getBytes(StandardCharsets.UTF_8)));
+
+        FlightBookingSystem loaded = load();
+
+        assertFalse(Files.exists(AtomicFile.tempFor(mealsFile)));
+        assertEquals(4, loaded.getAllMeals().size());
+        assertEquals("Green Tea", loaded.getMealByIDIncludingDeleted(1).getName());
+        assertEquals("Veg Momo", loaded.getMealByIDIncludingDeleted(2).getName());
+        assertEquals("Juice", loaded.getMealByIDIncludingDeleted(4).getName());
+    }
+
+    @Test
+    void testCrashAfterCompactionCommitsIsRecovered() throws IOException, FlightBookingSystemException {
+        createSnapshot();
+        Files.write(compactingFile, Arrays.asList(meal(1, "Green Tea"), meal(3, "Coffee")), StandardCharsets.UTF_8);
+        List<String> merged = MutationJournal.overlay(Files.readAllLines(mealsFile),
+                journal(null, false).replay().get(EntityType.MEAL));
+        SnapshotManifest manifest = new SnapshotManifest(directory.toString());
+        manifest.recover();
+        // The compactor committed the merged snapshot but died before deleting its journal.
+        manifest.commit(Collections.singletonList(AtomicFile.prepare(mealsFile,
+                out -> out.write((String.join("\n", merged) + "\n").getBytes(StandardCharsets.UTF_8)))));
+
+        FlightBookingSystem loaded = load();
+
+        assertEquals(3, loaded.getAllMeals().size());
+        assertEquals("Green Tea", loaded.getMealByIDIncludingDeleted(1).getName());
+        assertEquals("Coffee", loaded.getMealByIDIncludingDeleted(3).getName());
+    }
+}
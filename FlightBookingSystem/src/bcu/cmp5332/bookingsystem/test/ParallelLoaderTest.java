@@ -0,0 +1,155 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.MealDataManager;
+import bcu.cmp5332.bookingsystem.data.ParallelLoader;
+import bcu.cmp5332.bookingsystem.data.TextDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelLoaderTest {
+
+    private static final int MEALS = 50;
+    private static final int CUSTOMERS = 40;
+    private static final int FLIGHTS = 30;
+
+    private ForkJoinPool pool;
+    private ParallelLoader loader;
+    private List<TextDataManager<?>> managers;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        loader = new ParallelLoader(pool, 7);
+        managers = Arrays.asList(new MealDataManager(), new CustomerDataManager(),
+                new FlightDataManager(), new BookingDataManager());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private List<String> meals() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= MEALS; i++) {
+            lines.add(i + "::Meal " + i + "::Description " + i + "::" + (i + 0.5) + "::VEG::false");
+        }
+        return lines;
+    }
+
+    private List<String> customers() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            lines.add(i + "::Customer " + i + "::0700" + i + "::c" + i + "@example.com::" + (20 + i) + "::Female::NONE::false");
+        }
+        return lines;
+    }
+
+    private List<String> flights() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= FLIGHTS; i++) {
+            lines.add(i + "::FL" + i + "::Birmingham::Paris::2030-01-" + String.format("%02d", i % 28 + 1)
+                    + "::100.00::200::BUDGET::::false::ECONOMY:0");
+        }
+        return lines;
+    }
+
+    private List<String> bookings() {
+        List<String> lines = new ArrayList<>();
+        int id = 1;
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            for (int f = 1; f <= FLIGHTS; f += 7) {
+                String meal = (id % 2 == 0) ? String.valueOf(id % MEALS + 1) : "null";
+                lines.add(id++ + "::" + c + "::" + f + "::null::2029-12-01::ECONOMY::100.00::0::0::0::" + meal + "::false");
+            }
+        }
+        lines.add("");
+        return lines;
+    }
+
+    private List<Callable<List<String>>> sources(List<List<String>> files) {
+        List<Callable<List<String>>> sources = new ArrayList<>();
+        for (List<String> file : files) {
+            sources.add(() -> file);
+        }
+        return sources;
+    }
+
+    private FlightBookingSystem loadSequentially(List<List<String>> files) throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int i = 0; i < managers.size(); i++) {
+            managers.get(i).loadRecords(fbs, files.get(i));
+        }
+        return fbs;
+    }
+
+    @Test
+    void testParallelLoadMatchesSequentialLoad() throws IOException, FlightBookingSystemException {
+        List<List<String>> files = Arrays.asList(meals(), customers(), flights(), bookings());
+
+        FlightBookingSystem expected = loadSequentially(files);
+        FlightBookingSystem actual = new FlightBookingSystem();
+        loader.load(actual, managers, sources(files));
+
+        assertEquals(expected.getBookings().size(), actual.getBookings().size());
+        for (TextDataManager<?> dm : managers) {
+            for (int id = 1; id <= expected.getBookings().size(); id++) {
+                assertEquals(dm.formatRecord(expected, id), dm.formatRecord(actual, id), dm.getEntityType() + " " + id);
+            }
+        }
+        assertEquals(expected.getBookings().size() + 1, actual.generateNextBookingId());
+        assertEquals(actual.getCustomerByIDIncludingDeleted(1), actual.getBookingByID(1).getCustomer());
+    }
+
+    @Test
+    void testFirstBadLineOfFirstBadFileIsReported() {
+        List<String> flights = flights();
+        flights.set(25, "26::FL26::Birmingham::Paris::not-a-date::100.00::200::BUDGET::::false::");
+        flights.set(11, "12::FL12::Birmingham::Paris::2030-01-01::abc::200::BUDGET::::false::");
+        List<String> bookings = bookings();
+        bookings.set(3, "broken");
+        List<List<String>> files = Arrays.asList(meals(), customers(), flights, bookings);
+
+        FlightBookingSystemException ex = assertThrows(FlightBookingSystemException.class,
+                () -> loader.load(new FlightBookingSystem(), managers, sources(files)));
+        assertTrue(ex.getMessage().contains("line 12"), ex.getMessage());
+    }
+
+    @Test
+    void testAddErrorBeforeParseErrorIsReportedFirst() {
+        List<String> meals = meals();
+        meals.set(40, "41::Broken::Meal::x::VEG::false");
+        meals.set(4, meals.get(3));
+        List<List<String>> files = Arrays.asList(meals, customers(), flights(), bookings());
+
+        FlightBookingSystemException ex = assertThrows(FlightBookingSystemException.class,
+                () -> loader.load(new FlightBookingSystem(), managers, sources(files)));
+        assertTrue(ex.getMessage().contains("line 5"), ex.getMessage());
+    }
+
+    @Test
+    void testEmptySourcesLoadNothing() throws IOException, FlightBookingSystemException {
+        List<String> empty = Collections.emptyList();
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        loader.load(fbs, managers, sources(Arrays.asList(empty, empty, empty, empty)));
+
+        assertTrue(fbs.getBookings().isEmpty());
+        assertTrue(fbs.getAllFlights().isEmpty());
+    }
+}
@@ -0,0 +1,166 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.PartitionedDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.EntityType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import bcu.cmp5332.bookingsystem.model.Mutation;
+import bcu.cmp5332.bookingsystem.model.MutationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedDataManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final YearMonth PAST = YearMonth.from(TODAY.minusMonths(2));
+    private static final YearMonth FUTURE = YearMonth.from(TODAY.plusMonths(1));
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException, FlightBookingSystemException {
+        directory = Files.createTempDirectory("fbs-partition-test");
+        new PartitionedDataManager(directory.toString()).storeData(createSystem(true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    /**
+     * Flight 1 departed two months ago and flight 2 departs next month. Booking 1 is a
+     * return trip on both, so it belongs to the past month; booking 2 is on flight 2 only.
+     */
+    private FlightBookingSystem createSystem(boolean withFlights) throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Customer alice = new Customer(1, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.VEGAN);
+        Customer bob = new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE);
+        fbs.addCustomer(alice);
+        fbs.addCustomer(bob);
+        if (withFlights) {
+            Flight past = new Flight(1, "FB001", "Birmingham", "Paris", PAST.atDay(10), new BigDecimal("99.99"), 100);
+            Flight future = new Flight(2, "FB002", "Paris", "Birmingham", FUTURE.atDay(10), new BigDecimal("89.99"), 100);
+            fbs.addFlight(past);
+            fbs.addFlight(future);
+            Booking roundTrip = new Booking(1, alice, past, future, PAST.atDay(1), CommercialClassType.ECONOMY,
+                    new BigDecimal("99.99"), new BigDecimal("89.99"), null);
+            alice.addBooking(roundTrip);
+            fbs.addBookingWithoutFlightUpdate(roundTrip);
+            Booking oneWay = new Booking(2, bob, future, null, TODAY, CommercialClassType.ECONOMY,
+                    new BigDecimal("89.99"), BigDecimal.ZERO, null);
+            bob.addBooking(oneWay);
+            fbs.addBookingWithoutFlightUpdate(oneWay);
+        }
+        return fbs;
+    }
+
+    private FlightBookingSystem load() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = createSystem(false);
+        new PartitionedDataManager(directory.toString()).loadData(fbs);
+        fbs.drainMutations();
+        fbs.markClean(EnumSet.allOf(EntityType.class));
+        return fbs;
+    }
+
+    @Test
+    void testFilesArePartitionedByMonth() {
+        assertTrue(Files.exists(directory.resolve("flights-" + PAST + ".txt")));
+        assertTrue(Files.exists(directory.resolve("flights-" + FUTURE + ".txt")));
+        assertTrue(Files.exists(directory.resolve("bookings-" + PAST + ".txt")));
+        assertTrue(Files.exists(directory.resolve("bookings-" + FUTURE + ".txt")));
+        assertTrue(Files.exists(directory.resolve(PartitionedDataManager.CATALOG_FILE_NAME)));
+    }
+
+    @Test
+    void testOnlyCurrentAndFutureMonthsAreLoaded() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = load();
+
+        assertFalse(fbs.isHistoryLoaded());
+        assertEquals(1, fbs.getLoadedFlights().size());
+        assertEquals(2, fbs.getLoadedFlights().get(0).getId());
+        assertEquals(1, fbs.getLoadedBookings().size());
+        assertEquals(1, fbs.getFlights().size());
+        assertEquals(3, fbs.generateNextFlightId());
+        assertEquals(3, fbs.generateNextBookingId());
+    }
+
+    @Test
+    void testPastMonthsAreLoadedOnDemand() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = load();
+
+        assertEquals(2, fbs.getAllFlights().size());
+        assertTrue(fbs.isHistoryLoaded());
+        assertEquals(2, fbs.getLoadedBookings().size());
+        Booking roundTrip = fbs.getBookingByID(1);
+        assertEquals("FB002", roundTrip.getReturnFlight().getFlightNumber());
+        assertEquals(1, fbs.getCustomerByID(1).getBookings().size());
+        assertTrue(fbs.drainMutations().isEmpty());
+        assertTrue(fbs.getDirtyTypes().isEmpty());
+    }
+
+    @Test
+    void testChangesMadeBeforeLoadingThePastAreKept() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = load();
+        fbs.addFlight(new Flight(3, "FB003", "Paris", "Rome", FUTURE.atDay(20), new BigDecimal("49.99"), 50));
+
+        assertEquals(3, fbs.getAllFlights().size());
+        assertEquals(EnumSet.of(EntityType.FLIGHT), fbs.getDirtyTypes());
+        List<Mutation> mutations = fbs.drainMutations();
+        assertEquals(1, mutations.size());
+        assertEquals(MutationType.FLIGHT_ADDED, mutations.get(0).getType());
+        assertEquals(3, mutations.get(0).getEntityId());
+    }
+
+    @Test
+    void testCustomerHistoryLoadsPastMonths() throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = load();
+        Customer alice = fbs.getCustomerByID(1);
+
+        assertTrue(alice.getBookings().isEmpty());
+        assertEquals(1, fbs.getBookingHistory(alice).size());
+    }
+
+    @Test
+    void testStoringLeavesUnloadedMonthsUntouched() throws IOException, FlightBookingSystemException {
+        Path pastFlights = directory.resolve("flights-" + PAST + ".txt");
+        Files.write(pastFlights, Files.readAllBytes(pastFlights));
+        long modified = Files.getLastModifiedTime(pastFlights).toMillis();
+
+        PartitionedDataManager partitions = new PartitionedDataManager(directory.toString());
+        FlightBookingSystem fbs = createSystem(false);
+        partitions.loadData(fbs);
+        fbs.addFlight(new Flight(3, "FB003", "Paris", "Rome", FUTURE.atDay(20), new BigDecimal("49.99"), 50));
+        partitions.storeData(fbs);
+
+        assertEquals(modified, Files.getLastModifiedTime(pastFlights).toMillis());
+        FlightBookingSystem reloaded = load();
+        assertEquals(2, reloaded.getLoadedFlights().size());
+        assertEquals(3, reloaded.getAllFlights().size());
+        assertEquals(2, reloaded.getBookings().size());
+    }
+}
@@ -0,0 +1,122 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.MutationJournal;
+import bcu.cmp5332.bookingsystem.data.PersistenceService;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.Meal;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistenceServiceTest {
+
+    /**
+     * Records every append instead of writing the journal file.
+     */
+    private static class RecordingJournal extends MutationJournal {
+        final List<List<String>> appends = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean failing = false;
+
+        RecordingJournal() {
+            super(new ArrayList<>(), new Object(), null, false);
+        }
+
+        @Override
+        public void append(List<String> lines) throws IOException {
+            if (failing) {
+                throw new IOException("Disk full");
+            }
+            appends.add(new ArrayList<>(lines));
+        }
+    }
+
+    @Test
+    void testCommitsWithinTheWindowAreFlushedTogether() throws IOException {
+        RecordingJournal journal = new RecordingJournal();
+        PersistenceService<String> service = new PersistenceService<>(journal::append, 200);
+
+        CompletableFuture<Void> first = service.submit(Arrays.asList("a", "b"));
+        CompletableFuture<Void> second = service.submit(Arrays.asList("c"));
+        CompletableFuture<Void> third = service.submit(Arrays.asList("d"));
+        PersistenceService.await(third);
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertEquals(1, journal.appends.size());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), journal.appends.get(0));
+        service.close();
+    }
+
+    @Test
+    void testEmptyCommitWithNothingPendingCompletesImmediately() {
+        RecordingJournal journal = new RecordingJournal();
+        PersistenceService<String> service = new PersistenceService<>(journal::append, 1000);
+
+        assertTrue(service.submit(new ArrayList<>()).isDone());
+        assertTrue(journal.appends.isEmpty());
+        service.close();
+    }
+
+    @Test
+    void testFailedFlushFailsEveryCommitInIt() {
+        RecordingJournal journal = new RecordingJournal();
+        journal.failing = true;
+        PersistenceService<String> service = new PersistenceService<>(journal::append, 50);
+
+        CompletableFuture<Void> first = service.submit(Arrays.asList("a"));
+        CompletableFuture<Void> second = service.submit(Arrays.asList("b"));
+
+        IOException e = assertThrows(IOException.class, () -> PersistenceService.await(second));
+        assertEquals("Disk full", e.getMessage());
+        assertTrue(first.isCompletedExceptionally());
+        service.close();
+    }
+
+    @Test
+    void testMutationsOfAFailedCommitAreWrittenByTheNextOne() throws Exception {
+        RecordingJournal journal = new RecordingJournal();
+        PersistenceService<String> service = new PersistenceService<>(journal::append, 0);
+        PersistenceService.Capture<String> capture = (fbs, mutations) -> mutations.stream()
+                .map(mutation -> mutation.getType() + "::" + mutation.getEntityId())
+                .collect(Collectors.toList());
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addMeal(new Meal(1, "Tea", "", new BigDecimal("2.50"), MealType.NONE));
+
+        journal.failing = true;
+        assertThrows(IOException.class, () -> PersistenceService.await(service.commit(fbs, capture)));
+        assertTrue(journal.appends.isEmpty());
+
+        journal.failing = false;
+        fbs.removeMealById(1);
+        PersistenceService.await(service.commit(fbs, capture));
+
+        assertEquals(1, journal.appends.size());
+        assertEquals(Arrays.asList("MEAL_ADDED::1", "MEAL_REMOVED::1"), journal.appends.get(0));
+        assertTrue(fbs.drainMutations().isEmpty());
+        service.close();
+    }
+
+    @Test
+    void testCloseFlushesPendingCommits() {
+        RecordingJournal journal = new RecordingJournal();
+        PersistenceService<String> service = new PersistenceService<>(journal::append, 10_000);
+
+        CompletableFuture<Void> pending = service.submit(Arrays.asList("a"));
+        service.close();
+
+        assertTrue(pending.isDone());
+        assertFalse(pending.isCompletedExceptionally());
+        assertEquals(1, journal.appends.size());
+        assertTrue(service.submit(Arrays.asList("b")).isCompletedExceptionally());
+    }
+}
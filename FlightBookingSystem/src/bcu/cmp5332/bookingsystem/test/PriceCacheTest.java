@@ -0,0 +1,88 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.PriceCacheMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceCacheTest {
+
+    private static final CommercialClassType ECONOMY = CommercialClassType.ECONOMY;
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 1);
+
+    private Flight flight;
+
+    @BeforeEach
+    void setUp() {
+        flight = new Flight(1, "FB001", "London", "Paris", TODAY.plusDays(60), new BigDecimal("100.00"), 10);
+        PriceCacheMetrics.reset();
+    }
+
+    @Test
+    void testRepeatedQuotesAreServedFromTheCache() throws FlightBookingSystemException {
+        BigDecimal first = flight.getDynamicPrice(ECONOMY, TODAY);
+        BigDecimal second = flight.getDynamicPrice(ECONOMY, TODAY);
+
+        assertSame(first, second);
+        assertEquals(1, PriceCacheMetrics.getHits());
+        assertEquals(1, PriceCacheMetrics.getMisses());
+        assertEquals(0.5, PriceCacheMetrics.getHitRate());
+    }
+
+    @Test
+    void testOnlyThresholdCrossingsInvalidate() throws FlightBookingSystemException {
+        assertEquals(new BigDecimal("100.00"), flight.getDynamicPrice(ECONOMY, TODAY));
+        for (int i = 0; i < 6; i++) {
+            flight.reserveSeat(ECONOMY);
+        }
+        assertEquals(0, PriceCacheMetrics.getInvalidations());
+        assertEquals(new BigDecimal("100.00"), flight.getDynamicPrice(ECONOMY, TODAY));
+
+        flight.holdSeat(ECONOMY);
+        assertEquals(1, PriceCacheMetrics.getInvalidations());
+        assertEquals(new BigDecimal("110.00"), flight.getDynamicPrice(ECONOMY, TODAY));
+
+        flight.releaseHeldSeat(ECONOMY);
+        assertEquals(new BigDecimal("100.00"), flight.getDynamicPrice(ECONOMY, TODAY));
+
+        flight.reserveSeat(ECONOMY);
+        flight.reserveSeat(ECONOMY);
+        flight.reserveSeat(ECONOMY);
+        assertEquals(new BigDecimal("130.00"), flight.getDynamicPrice(ECONOMY, TODAY));
+        assertEquals(4, PriceCacheMetrics.getInvalidations());
+        assertEquals(1, PriceCacheMetrics.getHits());
+    }
+
+    @Test
+    void testCachedPriceRollsOverWithTheDaysBand() throws FlightBookingSystemException {
+        LocalDate departure = flight.getDepartureDate();
+        assertEquals(new BigDecimal("100.00"), flight.getDynamicPrice(ECONOMY, departure.minusDays(40)));
+        assertEquals(new BigDecimal("100.00"), flight.getDynamicPrice(ECONOMY, departure.minusDays(31)));
+        assertEquals(new BigDecimal("120.00"), flight.getDynamicPrice(ECONOMY, departure.minusDays(30)));
+        assertEquals(new BigDecimal("120.00"), flight.getDynamicPrice(ECONOMY, departure.minusDays(8)));
+        assertEquals(new BigDecimal("150.00"), flight.getDynamicPrice(ECONOMY, departure.minusDays(7)));
+        assertEquals(new BigDecimal("150.00"), flight.getDynamicPrice(ECONOMY, departure.plusDays(3)));
+
+        assertEquals(3, PriceCacheMetrics.getHits());
+        assertEquals(2, PriceCacheMetrics.getRollovers());
+    }
+
+    @Test
+    void testChangingThePriceOrDateClearsTheCache() throws FlightBookingSystemException {
+        flight.getDynamicPrice(ECONOMY, TODAY);
+
+        flight.setEconomyPrice(new BigDecimal("80.00"));
+        assertEquals(new BigDecimal("80.00"), flight.getDynamicPrice(ECONOMY, TODAY));
+
+        flight.setDepartureDate(TODAY.plusDays(5));
+        assertEquals(new BigDecimal("120.00"), flight.getDynamicPrice(ECONOMY, TODAY));
+        assertEquals(0, PriceCacheMetrics.getHits());
+    }
+}
@@ -0,0 +1,159 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingRequest;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.DefaultPricingStrategy;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightQuote;
+import bcu.cmp5332.bookingsystem.model.FlightType;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import bcu.cmp5332.bookingsystem.model.PricingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingStrategyTest {
+
+    private static final CommercialClassType ECONOMY = CommercialClassType.ECONOMY;
+
+    private FlightBookingSystem fbs;
+    private Flight commercial;
+    private Flight budget;
+    private Customer alice;
+    private Customer bob;
+
+    @BeforeEach
+    void setUp() throws FlightBookingSystemException {
+        fbs = new FlightBookingSystem();
+        alice = new Customer(1, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.NONE);
+        bob = new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE);
+        fbs.addCustomer(alice);
+        fbs.addCustomer(bob);
+
+        Map<CommercialClassType, Integer> capacities = new EnumMap<>(CommercialClassType.class);
+        capacities.put(CommercialClassType.ECONOMY, 4);
+        capacities.put(CommercialClassType.PREMIUM_ECONOMY, 3);
+        capacities.put(CommercialClassType.BUSINESS, 2);
+        capacities.put(CommercialClassType.FIRST, 1);
+        commercial = new Flight(1, "FC001", "London", "Paris", fbs.getSystemDate().plusDays(10),
+                new BigDecimal("199.99"), 10, FlightType.COMMERCIAL, capacities);
+        budget = new Flight(2, "FB002", "Paris", "London", fbs.getSystemDate().plusDays(60),
+                new BigDecimal("99.99"), 5);
+        fbs.addFlight(commercial);
+        fbs.addFlight(budget);
+    }
+
+    @Test
+    void testDefaultQuotesMatchTheDynamicPrices() throws FlightBookingSystemException {
+        commercial.reserveSeat(ECONOMY);
+        commercial.reserveSeat(ECONOMY);
+        commercial.reserveSeat(ECONOMY);
+        LocalDate today = fbs.getSystemDate();
+
+        List<FlightQuote> quotes = new DefaultPricingStrategy().quoteAll(Arrays.asList(budget, commercial), today);
+
+        assertEquals(2, quotes.size());
+        assertSame(budget, quotes.get(0).getFlight());
+        assertEquals(Arrays.asList(ECONOMY), new ArrayList<>(quotes.get(0).getPrices().keySet()));
+        assertEquals(budget.getDynamicPrice(ECONOMY, today), quotes.get(0).getPrice(ECONOMY));
+        assertNull(quotes.get(0).getPrice(CommercialClassType.FIRST));
+
+        assertSame(commercial, quotes.get(1).getFlight());
+        for (CommercialClassType classType : CommercialClassType.values()) {
+            assertEquals(commercial.getDynamicPrice(classType, today), quotes.get(1).getPrice(classType));
+        }
+        assertEquals(fbs.quotePrice(commercial, ECONOMY), quotes.get(1).getPrice(ECONOMY));
+    }
+
+    @Test
+    void testDefaultFeesAreUnchanged() throws FlightBookingSystemException {
+        fbs.addBooking(alice, budget, null, ECONOMY, null);
+        fbs.addBooking(bob, commercial, null, CommercialClassType.FIRST, null);
+        Booking cheap = fbs.findActiveBooking(alice, budget);
+        Booking dear = fbs.findActiveBooking(bob, commercial);
+
+        assertEquals(new BigDecimal("20.00"), fbs.calculateCancellationFee(cheap));
+        assertEquals(dear.getBookedPriceOutbound().multiply(new BigDecimal("0.10")).setScale(2, RoundingMode.HALF_UP),
+                fbs.calculateCancellationFee(dear));
+        assertEquals(new BigDecimal("30.00"), fbs.calculateRebookFee(cheap, commercial, ECONOMY));
+    }
+
+    @Test
+    void testBookingsAndFeesUseTheSystemsStrategy() throws FlightBookingSystemException {
+        fbs.setPricingStrategy(new FlatPricing());
+
+        fbs.addBooking(alice, budget, commercial, ECONOMY, null);
+        Booking single = fbs.findActiveBooking(alice, budget);
+        assertEquals(new BigDecimal("10.00"), single.getBookedPriceOutbound());
+        assertEquals(new BigDecimal("10.00"), single.getBookedPriceReturn());
+
+        List<Booking> group = fbs.addBookings(Arrays.asList(
+                new BookingRequest(bob, commercial, null, ECONOMY, null)));
+        assertEquals(new BigDecimal("10.00"), group.get(0).getBookedPriceOutbound());
+
+        assertEquals(new BigDecimal("1.00"), fbs.cancelBooking(alice, budget).getCancellationFee());
+        assertEquals(new BigDecimal("2.00"), fbs.calculateRebookFee(group.get(0), budget, ECONOMY));
+        assertEquals(Arrays.asList(new BigDecimal("10.00")),
+                new ArrayList<>(fbs.quoteAll(Arrays.asList(budget)).get(0).getPrices().values()));
+    }
+
+    @Test
+    void testStrategyIsConfiguredByClassName() {
+        try {
+            System.setProperty(PricingStrategy.PROPERTY, FlatPricing.class.getName());
+            assertTrue(PricingStrategy.configured() instanceof FlatPricing);
+
+            System.setProperty(PricingStrategy.PROPERTY, "no.such.Strategy");
+            assertTrue(PricingStrategy.configured() instanceof DefaultPricingStrategy);
+
+            System.setProperty(PricingStrategy.PROPERTY, String.class.getName());
+            assertTrue(PricingStrategy.configured() instanceof DefaultPricingStrategy);
+        } finally {
+            System.clearProperty(PricingStrategy.PROPERTY);
+        }
+        assertTrue(PricingStrategy.configured() instanceof DefaultPricingStrategy);
+    }
+
+    /**
+     * Prices every seat at £10 and charges £1 to cancel and £2 to rebook.
+     */
+    public static class FlatPricing implements PricingStrategy {
+
+        @Override
+        public List<FlightQuote> quoteAll(List<Flight> flights, LocalDate systemDate) {
+            List<FlightQuote> quotes = new ArrayList<>();
+            for (Flight flight : flights) {
+                Map<CommercialClassType, BigDecimal> prices = new EnumMap<>(CommercialClassType.class);
+                for (CommercialClassType classType : flight.getAvailableClasses()) {
+                    prices.put(classType, new BigDecimal("10.00"));
+                }
+                quotes.add(new FlightQuote(flight, prices));
+            }
+            return quotes;
+        }
+
+        @Override
+        public BigDecimal cancellationFee(Booking booking) {
+            return BigDecimal.ONE;
+        }
+
+        @Override
+        public BigDecimal rebookFee(Booking booking, Flight newFlight, CommercialClassType newClass) {
+            return new BigDecimal("2");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.RecordTokenizer;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordTokenizerTest {
+
+    @Test
+    void testFieldCountMatchesSplit() {
+        String[] lines = {"", "a", "a::b", "a::", "::", "a:::b", "1::x::::false", "a::b::c::"};
+        for (String line : lines) {
+            assertEquals(line.split("::", -1).length, new RecordTokenizer(line).fieldCount(), "'" + line + "'");
+        }
+    }
+
+    @Test
+    void testFieldsAreReadInOrder() {
+        RecordTokenizer fields = new RecordTokenizer(" 42 :: Veg Momo ::12.50::veg::TRUE::2025-07-10");
+
+        assertEquals(42, fields.nextInt());
+        assertEquals(" Veg Momo ", fields.nextString());
+        assertEquals(new BigDecimal("12.50"), fields.nextDecimal());
+        assertEquals(MealType.VEG, fields.nextEnum(MealType.values(), true));
+        assertTrue(fields.nextBoolean());
+        assertEquals(LocalDate.of(2025, 7, 10), fields.nextDate());
+        assertFalse(fields.hasNext());
+    }
+
+    @Test
+    void testDecimalsKeepTheirScale() {
+        String[] values = {"5000", "5000.00", "0.5", "-12.345", "+7", ".25", "1.", "123456789012345678901.5", "1E+3"};
+        for (String value : values) {
+            assertEquals(new BigDecimal(value), new RecordTokenizer(value).nextDecimal(), value);
+        }
+    }
+
+    @Test
+    void testInvalidNumbersThrowNumberFormatException() {
+        assertThrows(NumberFormatException.class, () -> new RecordTokenizer("12a").nextInt());
+        assertThrows(NumberFormatException.class, () -> new RecordTokenizer("").nextInt());
+        assertThrows(NumberFormatException.class, () -> new RecordTokenizer("3000000000").nextInt());
+        assertThrows(NumberFormatException.class, () -> new RecordTokenizer("abc").nextDecimal());
+        assertThrows(NumberFormatException.class, () -> new RecordTokenizer("-").nextDecimal());
+    }
+
+    @Test
+    void testInvalidDatesThrowDateTimeParseException() {
+        assertThrows(DateTimeParseException.class, () -> new RecordTokenizer("2025-02-30").nextDate());
+        assertThrows(DateTimeParseException.class, () -> new RecordTokenizer("10/07/2025").nextDate());
+        assertThrows(DateTimeParseException.class, () -> new RecordTokenizer("null").nextDate());
+    }
+
+    @Test
+    void testEnumCaseSensitivity() {
+        assertEquals(CommercialClassType.BUSINESS, new RecordTokenizer("business").nextEnum(CommercialClassType.values(), true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecordTokenizer("business").nextEnum(CommercialClassType.values(), false));
+    }
+
+    @Test
+    void testNullAndBlankFields() {
+        RecordTokenizer fields = new RecordTokenizer("null:: ::7");
+
+        assertTrue(fields.isNextNull());
+        assertFalse(fields.isNextBlank());
+        fields.skip();
+        assertTrue(fields.isNextBlank());
+        fields.skip();
+        assertFalse(fields.isNextNull());
+        assertEquals(7, fields.nextInt());
+    }
+
+    @Test
+    void testCountsField() {
+        Map<CommercialClassType, Integer> counts = new RecordTokenizer("ECONOMY:100, BUSINESS : 20,FIRST:,bad")
+                .nextCounts(CommercialClassType.values());
+
+        assertEquals(2, counts.size());
+        assertEquals(100, (int) counts.get(CommercialClassType.ECONOMY));
+        assertEquals(20, (int) counts.get(CommercialClassType.BUSINESS));
+        assertTrue(new RecordTokenizer("").nextCounts(CommercialClassType.values()).isEmpty());
+    }
+
+    @Test
+    void testReadingPastTheLastFieldThrows() {
+        RecordTokenizer fields = new RecordTokenizer("1");
+        fields.nextInt();
+
+        assertThrows(ArrayIndexOutOfBoundsException.class, fields::nextString);
+    }
+}
@@ -0,0 +1,159 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import bcu.cmp5332.bookingsystem.model.SeatHold;
+import bcu.cmp5332.bookingsystem.model.WaitlistEntry;
+import bcu.cmp5332.bookingsystem.model.WaitlistStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeatHoldsTest {
+
+    private static final CommercialClassType ECONOMY = CommercialClassType.ECONOMY;
+
+    private SettableClock clock;
+    private FlightBookingSystem fbs;
+    private Customer customer;
+    private Flight flight;
+    private int economySeats;
+
+    @BeforeEach
+    void setUp() throws FlightBookingSystemException {
+        clock = new SettableClock(Instant.parse("2026-10-18T09:00:00Z"));
+        fbs = new FlightBookingSystem(clock);
+        fbs.setSeatHoldTtl(Duration.ofMinutes(5));
+        customer = new Customer(1, "John Doe", "1234567890", "john.doe@example.com", 30, "Male", MealType.NONE);
+        flight = new Flight(1, "BA2490", "London", "New York",
+                fbs.getSystemDate().plusDays(30), new BigDecimal("500.00"), 10);
+        fbs.addCustomer(customer);
+        fbs.addFlight(flight);
+        economySeats = flight.getCapacityForClass(ECONOMY);
+    }
+
+    @Test
+    void testHeldSeatsAreNotLeftForOthers() throws FlightBookingSystemException {
+        for (int i = 0; i < economySeats; i++) {
+            fbs.holdSeat(flight, ECONOMY);
+        }
+
+        assertEquals(0, flight.getRemainingSeatsForClass(ECONOMY));
+        assertEquals(0, flight.getOccupiedSeatsByClass(ECONOMY));
+        assertFalse(flight.isClassAvailable(ECONOMY));
+        assertThrows(FlightBookingSystemException.class, () -> fbs.holdSeat(flight, ECONOMY));
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.addBooking(customer, flight, null, ECONOMY, null));
+    }
+
+    @Test
+    void testHoldsExpireAfterTheirTtl() throws FlightBookingSystemException {
+        SeatHold hold = fbs.holdSeat(flight, ECONOMY);
+
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals(0, fbs.expireSeatHolds());
+        assertTrue(hold.isActive());
+
+        clock.advance(Duration.ofMinutes(1).plusSeconds(1));
+        assertEquals(1, fbs.expireSeatHolds());
+        assertFalse(hold.isActive());
+        assertEquals(economySeats, flight.getRemainingSeatsForClass(ECONOMY));
+    }
+
+    @Test
+    void testBookingTakesTheHeldSeat() throws FlightBookingSystemException {
+        SeatHold hold = fbs.holdSeat(flight, ECONOMY);
+        fbs.addBooking(customer, hold, null, null);
+
+        assertFalse(hold.isActive());
+        assertEquals(1, flight.getOccupiedSeatsByClass(ECONOMY));
+        assertEquals(0, flight.getHeldSeatsByClass(ECONOMY));
+        assertEquals(economySeats - 1, flight.getRemainingSeatsForClass(ECONOMY));
+
+        clock.advance(Duration.ofHours(1));
+        assertEquals(0, fbs.expireSeatHolds());
+        fbs.releaseHold(hold);
+        assertEquals(1, flight.getOccupiedSeatsByClass(ECONOMY));
+    }
+
+    @Test
+    void testExpiredHoldIsBookedIfASeatIsLeft() throws FlightBookingSystemException {
+        SeatHold hold = fbs.holdSeat(flight, ECONOMY);
+        clock.advance(Duration.ofMinutes(10));
+        fbs.expireSeatHolds();
+
+        fbs.addBooking(customer, hold, null, null);
+
+        Booking booking = fbs.findActiveBooking(customer, flight);
+        assertNotNull(booking);
+        assertEquals(1, flight.getOccupiedSeatsByClass(ECONOMY));
+        assertEquals(0, flight.getHeldSeatsByClass(ECONOMY));
+    }
+
+    @Test
+    void testExpiredHoldGoesToTheWaitlist() throws FlightBookingSystemException {
+        for (int i = 0; i < economySeats; i++) {
+            fbs.holdSeat(flight, ECONOMY);
+        }
+        WaitlistEntry entry = fbs.joinWaitlist(customer, flight, ECONOMY);
+
+        clock.advance(Duration.ofMinutes(6));
+        fbs.expireSeatHolds();
+
+        assertEquals(WaitlistStatus.PROMOTED, entry.getStatus());
+        assertNotNull(fbs.findActiveBooking(customer, flight));
+        assertEquals(1, flight.getOccupiedSeatsByClass(ECONOMY));
+        assertEquals(0, flight.getHeldSeatsByClass(ECONOMY));
+    }
+
+    @Test
+    void testFailedBookingGivesTheHeldSeatBack() throws FlightBookingSystemException {
+        flight.addPassenger(customer, ECONOMY);
+        SeatHold hold = fbs.holdSeat(flight, ECONOMY);
+
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addBooking(customer, hold, null, null));
+        assertEquals(1, flight.getOccupiedSeatsByClass(ECONOMY));
+        assertEquals(0, flight.getHeldSeatsByClass(ECONOMY));
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private Instant instant;
+
+        SettableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
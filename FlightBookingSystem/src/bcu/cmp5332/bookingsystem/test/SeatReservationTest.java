@@ -0,0 +1,69 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import bcu.cmp5332.bookingsystem.model.SeatReservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeatReservationTest {
+
+    private Flight outbound;
+    private Flight inbound;
+    private Customer alice;
+    private Customer bob;
+
+    @BeforeEach
+    void setUp() {
+        outbound = new Flight(1, "FB001", "Birmingham", "Paris", LocalDate.of(2030, 5, 1), new BigDecimal("99.99"), 10);
+        inbound = new Flight(2, "FB002", "Paris", "Birmingham", LocalDate.of(2030, 5, 8), new BigDecimal("89.99"), 1);
+        alice = new Customer(1, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.VEGAN);
+        bob = new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE);
+    }
+
+    @Test
+    void testCommittedSeatsAreKept() throws FlightBookingSystemException {
+        SeatReservation seats = new SeatReservation();
+        seats.hold(outbound, alice, CommercialClassType.ECONOMY);
+        seats.hold(inbound, alice, CommercialClassType.ECONOMY);
+        seats.commit();
+        seats.rollback();
+
+        assertEquals(2, seats.size());
+        assertEquals(1, outbound.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertEquals(1, inbound.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+    }
+
+    @Test
+    void testRollbackGivesEverySeatBack() throws FlightBookingSystemException {
+        SeatReservation seats = new SeatReservation();
+        seats.hold(outbound, alice, CommercialClassType.ECONOMY);
+        seats.hold(outbound, bob, CommercialClassType.ECONOMY);
+        seats.rollback();
+
+        assertEquals(0, outbound.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertTrue(outbound.getPassengers().isEmpty());
+    }
+
+    @Test
+    void testFailedLegGivesBackHeldSeats() throws FlightBookingSystemException {
+        inbound.addPassenger(bob, CommercialClassType.ECONOMY);
+        SeatReservation seats = new SeatReservation();
+        seats.hold(outbound, alice, CommercialClassType.ECONOMY);
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> seats.hold(inbound, alice, CommercialClassType.ECONOMY));
+        assertEquals(0, seats.size());
+        assertEquals(0, outbound.getOccupiedSeatsByClass(CommercialClassType.ECONOMY));
+        assertFalse(outbound.getPassengers().contains(alice));
+        assertThrows(IllegalStateException.class, () -> seats.hold(outbound, alice, CommercialClassType.ECONOMY));
+    }
+}
@@ -0,0 +1,108 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.data.AtomicFile;
+import bcu.cmp5332.bookingsystem.data.SnapshotManifest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotManifestTest {
+
+    private Path directory;
+    private Path meals;
+    private Path flights;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("fbs-manifest-test");
+        meals = directory.resolve("meals.txt");
+        flights = directory.resolve("flights.txt");
+    }
+
+    @AfterEach
+    void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    private AtomicFile.Prepared prepare(Path target, String content) throws IOException {
+        return AtomicFile.prepare(target, out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testCommitReplacesFilesAndAdvancesGeneration() throws IOException {
+        SnapshotManifest manifest = new SnapshotManifest(directory.toString());
+        manifest.recover();
+        manifest.commit(Arrays.asList(prepare(meals, "meals 1"), prepare(flights, "flights 1")));
+        manifest.commit(Collections.singletonList(prepare(meals, "meals 2")));
+
+        assertEquals(2, manifest.getGeneration());
+        assertEquals("meals 2", read(meals));
+        assertEquals("flights 1", read(flights));
+        assertFalse(Files.exists(AtomicFile.tempFor(meals)));
+
+        SnapshotManifest reloaded = new SnapshotManifest(directory.toString());
+        reloaded.recover();
+        assertEquals(2, reloaded.getGeneration());
+    }
+
+    @Test
+    void testRecoverCompletesCommittedGeneration() throws IOException {
+        SnapshotManifest manifest = new SnapshotManifest(directory.toString());
+        manifest.recover();
+        manifest.commit(Collections.singletonList(prepare(meals, "committed")));
+
+        // A crash after the manifest was replaced but before the rename.
+        Files.copy(meals, AtomicFile.tempFor(meals));
+        Files.write(meals, "previous".getBytes(StandardCharsets.UTF_8));
+
+        new SnapshotManifest(directory.toString()).recover();
+        assertEquals("committed", read(meals));
+        assertFalse(Files.exists(AtomicFile.tempFor(meals)));
+    }
+
+    @Test
+    void testRecoverDiscardsUncommittedWrite() throws IOException {
+        SnapshotManifest manifest = new SnapshotManifest(directory.toString());
+        manifest.recover();
+        manifest.commit(Collections.singletonList(prepare(meals, "committed")));
+
+        // A crash after the temporary file was written but before the manifest was replaced.
+        prepare(meals, "uncommitted");
+
+        new SnapshotManifest(directory.toString()).recover();
+        assertEquals("committed", read(meals));
+        assertFalse(Files.exists(AtomicFile.tempFor(meals)));
+    }
+
+    @Test
+    void testFailedWriteLeavesTargetUntouched() throws IOException {
+        Files.write(meals, "original".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> AtomicFile.write(meals, out -> {
+            out.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Disk full");
+        }));
+        assertEquals("original", read(meals));
+        assertFalse(Files.exists(AtomicFile.tempFor(meals)));
+    }
+}
@@ -0,0 +1,63 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.model.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimerWheelTest {
+
+    @Test
+    void testTimeoutsExpireOnceTheirTickHasPassed() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.schedule("first", 25);
+        wheel.schedule("second", 30);
+        wheel.schedule("third", 31);
+
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("first", "second"), sorted(wheel.advance(30)));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("third"), wheel.advance(40));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testTimeoutsMoreThanOneTurnAheadWaitForTheirTurn() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 4, 0);
+        wheel.schedule("soon", 20);
+        wheel.schedule("later", 60);
+        wheel.schedule("much later", 1_000);
+
+        assertEquals(List.of("soon"), wheel.advance(50));
+        assertEquals(List.of("later"), wheel.advance(60));
+        assertEquals(List.of(), wheel.advance(990));
+        assertEquals(List.of("much later"), wheel.advance(5_000));
+    }
+
+    @Test
+    void testCancelledTimeoutsNeverExpire() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        TimerWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 20);
+        wheel.schedule("kept", 20);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertEquals(List.of("kept"), wheel.advance(20));
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 1_000);
+        wheel.advance(1_100);
+        wheel.schedule("late", 900);
+
+        assertEquals(List.of("late"), wheel.advance(1_110));
+    }
+
+    private static List<String> sorted(List<String> items) {
+        items.sort(null);
+        return items;
+    }
+}
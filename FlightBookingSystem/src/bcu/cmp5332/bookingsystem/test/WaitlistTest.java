@@ -0,0 +1,257 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import bcu.cmp5332.bookingsystem.commands.RebookFlight;
+import bcu.cmp5332.bookingsystem.data.BinaryWaitlistDataManager;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.WaitlistDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.CommercialClassType;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightType;
+import bcu.cmp5332.bookingsystem.model.MealType;
+import bcu.cmp5332.bookingsystem.model.SeatHold;
+import bcu.cmp5332.bookingsystem.model.WaitlistEntry;
+import bcu.cmp5332.bookingsystem.model.WaitlistStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WaitlistTest {
+
+    private static final CommercialClassType ECONOMY = CommercialClassType.ECONOMY;
+
+    private Path directory;
+    private FlightBookingSystem fbs;
+    private Flight flight;
+    private Customer alice;
+    private Customer bob;
+    private Customer carol;
+
+    @BeforeEach
+    void setUp() throws IOException, FlightBookingSystemException {
+        directory = Files.createTempDirectory("fbs-waitlist-test");
+        fbs = createSystem();
+        flight = fbs.getFlightByID(1);
+        alice = fbs.getCustomerByID(1);
+        bob = fbs.getCustomerByID(2);
+        carol = fbs.getCustomerByID(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    private static FlightBookingSystem createSystem() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addCustomer(new Customer(1, "Alice", "0712345678", "alice@example.com", 30, "Female", MealType.NONE));
+        fbs.addCustomer(new Customer(2, "Bob", "0787654321", "bob@example.com", 45, "Male", MealType.NONE));
+        fbs.addCustomer(new Customer(3, "Carol", "0711111111", "carol@example.com", 28, "Female", MealType.NONE));
+        fbs.addCustomer(new Customer(4, "Dave", "0722222222", "dave@example.com", 52, "Male", MealType.NONE));
+        fbs.addFlight(new Flight(1, "FB001", "Birmingham", "Paris", fbs.getSystemDate().plusDays(30),
+                new BigDecimal("99.99"), 1));
+        return fbs;
+    }
+
+    @Test
+    void testCancellationPromotesTheFirstWaitingCustomer() throws FlightBookingSystemException {
+        fbs.addBooking(alice, flight, null, ECONOMY, null);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, flight, ECONOMY);
+        WaitlistEntry carolEntry = fbs.joinWaitlist(carol, flight, ECONOMY);
+        assertEquals(Arrays.asList(bobEntry, carolEntry), fbs.getWaitlist(flight, ECONOMY));
+
+        fbs.cancelBooking(alice, flight);
+
+        Booking promoted = fbs.findActiveBooking(bob, flight);
+        assertNotNull(promoted);
+        assertEquals(WaitlistStatus.PROMOTED, bobEntry.getStatus());
+        assertEquals(promoted.getId(), bobEntry.getBookingId());
+        assertEquals(Arrays.asList(carolEntry), fbs.getWaitlist(flight, ECONOMY));
+        assertEquals(1, flight.getOccupiedSeatsByClass(ECONOMY));
+        assertNull(fbs.findActiveBooking(carol, flight));
+    }
+
+    @Test
+    void testReleasedHoldPromotesTheFirstWaitingCustomer() throws FlightBookingSystemException {
+        SeatHold hold = fbs.holdSeat(flight, ECONOMY);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, flight, ECONOMY);
+
+        fbs.releaseHold(hold);
+
+        assertEquals(WaitlistStatus.PROMOTED, bobEntry.getStatus());
+        assertNotNull(fbs.findActiveBooking(bob, flight));
+        assertEquals(0, flight.getHeldSeatsByClass(ECONOMY));
+    }
+
+    @Test
+    void testHeldSeatThatCannotBeTakenPromotesTheFirstWaitingCustomer() throws FlightBookingSystemException {
+        Flight pair = new Flight(2, "FB002", "Birmingham", "Paris", fbs.getSystemDate().plusDays(31),
+                new BigDecimal("99.99"), 2);
+        fbs.addFlight(pair);
+        fbs.addBooking(alice, pair, null, ECONOMY, null);
+        SeatHold hold = fbs.holdSeat(pair, ECONOMY);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, pair, ECONOMY);
+
+        // Alice already has a seat, so the held one cannot be hers.
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addBooking(alice, hold, null, null));
+
+        assertEquals(WaitlistStatus.PROMOTED, bobEntry.getStatus());
+        assertNotNull(fbs.findActiveBooking(bob, pair));
+        assertEquals(0, pair.getHeldSeatsByClass(ECONOMY));
+        assertEquals(2, pair.getOccupiedSeatsByClass(ECONOMY));
+    }
+
+    @Test
+    void testHeldSeatGivenBackByAFailedLegPromotesTheFirstWaitingCustomer() throws FlightBookingSystemException {
+        Flight inbound = new Flight(2, "FB002", "Paris", "Birmingham", fbs.getSystemDate().plusDays(37),
+                new BigDecimal("99.99"), 2);
+        fbs.addFlight(inbound);
+        fbs.addBooking(alice, inbound, null, ECONOMY, null);
+        SeatHold outboundHold = fbs.holdSeat(flight, ECONOMY);
+        SeatHold inboundHold = fbs.holdSeat(inbound, ECONOMY);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, flight, ECONOMY);
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.addBooking(alice, outboundHold, inboundHold, null));
+
+        assertEquals(WaitlistStatus.PROMOTED, bobEntry.getStatus());
+        assertNotNull(fbs.findActiveBooking(bob, flight));
+        assertNull(fbs.findActiveBooking(alice, flight));
+        assertEquals(0, flight.getHeldSeatsByClass(ECONOMY));
+        assertEquals(0, inbound.getHeldSeatsByClass(ECONOMY));
+    }
+
+    @Test
+    void testClassChangePromotesFromTheOldClass() throws FlightBookingSystemException {
+        Map<CommercialClassType, Integer> capacities = new EnumMap<>(CommercialClassType.class);
+        capacities.put(ECONOMY, 1);
+        capacities.put(CommercialClassType.PREMIUM_ECONOMY, 0);
+        capacities.put(CommercialClassType.BUSINESS, 1);
+        capacities.put(CommercialClassType.FIRST, 0);
+        Flight commercial = new Flight(2, "FC002", "Birmingham", "Rome", fbs.getSystemDate().plusDays(30),
+                new BigDecimal("149.99"), 2, FlightType.COMMERCIAL, capacities);
+        fbs.addFlight(commercial);
+        fbs.addBooking(alice, commercial, null, ECONOMY, null);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, commercial, ECONOMY);
+
+        fbs.editBooking(alice, commercial, null, CommercialClassType.BUSINESS);
+
+        assertEquals(WaitlistStatus.PROMOTED, bobEntry.getStatus());
+        assertEquals(ECONOMY, fbs.findActiveBooking(bob, commercial).getBookedClass());
+        assertEquals(CommercialClassType.BUSINESS, fbs.findActiveBooking(alice, commercial).getBookedClass());
+    }
+
+    @Test
+    void testRebookingPromotesFromTheOldFlight() throws FlightBookingSystemException {
+        fbs.addFlight(new Flight(2, "FB002", "Birmingham", "Paris", fbs.getSystemDate().plusDays(31),
+                new BigDecimal("99.99"), 1));
+        fbs.addBooking(alice, flight, null, ECONOMY, null);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, flight, ECONOMY);
+
+        new RebookFlight(1, 1, 2, ECONOMY).execute(fbs, new BufferedReader(new StringReader("yes\n")));
+
+        assertEquals(WaitlistStatus.PROMOTED, bobEntry.getStatus());
+        assertNotNull(fbs.findActiveBooking(bob, flight));
+        assertNotNull(fbs.findActiveBooking(alice, fbs.getFlightByID(2)));
+    }
+
+    @Test
+    void testCancelledRoundTripFreesBothLegs() throws FlightBookingSystemException {
+        Flight inbound = new Flight(2, "FB002", "Paris", "Birmingham", fbs.getSystemDate().plusDays(37),
+                new BigDecimal("99.99"), 1);
+        fbs.addFlight(inbound);
+        fbs.addBooking(alice, flight, inbound, ECONOMY, null);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, inbound, ECONOMY);
+
+        fbs.cancelBooking(alice, flight);
+
+        assertEquals(WaitlistStatus.PROMOTED, bobEntry.getStatus());
+        assertNotNull(fbs.findActiveBooking(bob, inbound));
+        assertEquals(fbs.getFlightManifest(flight).size(), flight.getOccupiedSeatsByClass(ECONOMY));
+        assertEquals(fbs.getFlightManifest(inbound).size(), inbound.getOccupiedSeatsByClass(ECONOMY));
+        assertTrue(fbs.getFlightManifest(flight).isEmpty());
+        assertFalse(flight.getPassengers().contains(alice));
+        assertFalse(inbound.getPassengers().contains(alice));
+    }
+
+    @Test
+    void testCustomerWhoLeftIsSkipped() throws FlightBookingSystemException {
+        fbs.addBooking(alice, flight, null, ECONOMY, null);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, flight, ECONOMY);
+        WaitlistEntry carolEntry = fbs.joinWaitlist(carol, flight, ECONOMY);
+        fbs.leaveWaitlist(bobEntry);
+
+        fbs.cancelBooking(alice, flight);
+
+        assertEquals(WaitlistStatus.LEFT, bobEntry.getStatus());
+        assertNull(fbs.findActiveBooking(bob, flight));
+        assertEquals(WaitlistStatus.PROMOTED, carolEntry.getStatus());
+        assertNotNull(fbs.findActiveBooking(carol, flight));
+        assertThrows(FlightBookingSystemException.class, () -> fbs.leaveWaitlist(carolEntry));
+    }
+
+    @Test
+    void testJoiningIsRejectedWhileSeatsAreLeft() throws FlightBookingSystemException {
+        assertThrows(FlightBookingSystemException.class, () -> fbs.joinWaitlist(bob, flight, ECONOMY));
+
+        fbs.addBooking(alice, flight, null, ECONOMY, null);
+        assertThrows(FlightBookingSystemException.class, () -> fbs.joinWaitlist(alice, flight, ECONOMY));
+        fbs.joinWaitlist(bob, flight, ECONOMY);
+        assertThrows(FlightBookingSystemException.class, () -> fbs.joinWaitlist(bob, flight, ECONOMY));
+        assertEquals(1, fbs.getWaitlist(flight, ECONOMY).size());
+    }
+
+    @Test
+    void testOnlyWaitingEntriesAreStoredInJoinOrder() throws IOException, FlightBookingSystemException {
+        fbs.addBooking(alice, flight, null, ECONOMY, null);
+        WaitlistEntry bobEntry = fbs.joinWaitlist(bob, flight, ECONOMY);
+        WaitlistEntry carolEntry = fbs.joinWaitlist(carol, flight, ECONOMY);
+        fbs.leaveWaitlist(bobEntry);
+        fbs.joinWaitlist(bob, flight, ECONOMY);
+
+        String dir = directory.toString();
+        List<DataManager> managers = Arrays.asList(new WaitlistDataManager(dir), new BinaryWaitlistDataManager(dir));
+        for (DataManager dm : managers) {
+            dm.storeData(fbs);
+
+            FlightBookingSystem loaded = createSystem();
+            dm.loadData(loaded);
+            Flight loadedFlight = loaded.getFlightByID(1);
+            List<WaitlistEntry> waitlist = loaded.getWaitlist(loadedFlight, ECONOMY);
+
+            assertEquals(2, waitlist.size(), dm.getClass().getSimpleName());
+            assertEquals(carolEntry.getId(), waitlist.get(0).getId());
+            assertEquals("Carol", waitlist.get(0).getCustomer().getName());
+            assertEquals(carolEntry.getJoinedDate(), waitlist.get(0).getJoinedDate());
+            assertEquals("Bob", waitlist.get(1).getCustomer().getName());
+            assertNull(loaded.getWaitlistEntryByID(bobEntry.getId()));
+
+            loaded.addBooking(loaded.getCustomerByID(1), loadedFlight, null, ECONOMY, null);
+            WaitlistEntry next = loaded.joinWaitlist(loaded.getCustomerByID(4), loadedFlight, ECONOMY);
+            assertTrue(next.getId() > waitlist.get(1).getId());
+        }
+    }
+}